@@ -0,0 +1,129 @@
+package com.classicchatreader.benchmark;
+
+import com.classicchatreader.gutendex.GutenbergContentParser;
+import com.classicchatreader.gutendex.GutenbergContentParser.ParsedChapter;
+import com.classicchatreader.model.Paragraph;
+import com.classicchatreader.service.SearchService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Books for the search benchmarks, parsed with the same {@link GutenbergContentParser} used on import.
+ * The bundled texts are opening chapters so the suite runs offline; point {@code -Dcorpus.dir} at a
+ * directory of downloaded Gutenberg HTML files to benchmark against full books instead.
+ */
+final class GutenbergCorpus {
+
+    private static final List<Book> BUNDLED = List.of(
+            new Book("pride-and-prejudice", "Pride and Prejudice", "Jane Austen", List.of()),
+            new Book("moby-dick", "Moby Dick; Or, The Whale", "Herman Melville", List.of()),
+            new Book("a-tale-of-two-cities", "A Tale of Two Cities", "Charles Dickens", List.of()));
+
+    private GutenbergCorpus() {
+    }
+
+    record Book(String id, String title, String author, List<Chapter> chapters) {
+
+        int paragraphCount() {
+            return chapters.stream().mapToInt(chapter -> chapter.paragraphs().size()).sum();
+        }
+    }
+
+    record Chapter(String id, int index, List<Paragraph> paragraphs) {}
+
+    static List<Book> load() {
+        GutenbergContentParser parser = new GutenbergContentParser();
+        String directory = System.getProperty("corpus.dir");
+        List<Book> books = new ArrayList<>();
+        if (directory != null && !directory.isBlank()) {
+            for (Path file : htmlFiles(Path.of(directory))) {
+                String id = file.getFileName().toString().replaceFirst("\\.html?$", "");
+                books.add(parse(parser, id, id, "Unknown", read(file)));
+            }
+        } else {
+            for (Book book : BUNDLED) {
+                books.add(parse(parser, book.id(), book.title(), book.author(), resource(book.id())));
+            }
+        }
+        return books;
+    }
+
+    /**
+     * Repeats {@code books} under distinct ids so the index reaches a realistic size from a small corpus.
+     */
+    static List<Book> replicate(List<Book> books, int copies) {
+        List<Book> replicated = new ArrayList<>(books.size() * copies);
+        for (int copy = 0; copy < copies; copy++) {
+            for (Book book : books) {
+                String id = book.id() + "-" + copy;
+                List<Chapter> chapters = book.chapters().stream()
+                        .map(chapter -> new Chapter(id + "-ch" + chapter.index(), chapter.index(), chapter.paragraphs()))
+                        .toList();
+                replicated.add(new Book(id, book.title(), book.author(), chapters));
+            }
+        }
+        return replicated;
+    }
+
+    static void index(SearchService searchService, List<Book> books) throws IOException {
+        for (Book book : books) {
+            for (Chapter chapter : book.chapters()) {
+                searchService.indexParagraphs(book.id(), chapter.id(), chapter.index(), chapter.paragraphs());
+            }
+            searchService.indexBook(book.id(), book.title(), book.author());
+        }
+        searchService.commit();
+    }
+
+    private static Book parse(GutenbergContentParser parser, String id, String title, String author, String html) {
+        List<ParsedChapter> parsed = parser.parse(html).chapters();
+        List<Chapter> chapters = new ArrayList<>(parsed.size());
+        for (int c = 0; c < parsed.size(); c++) {
+            List<String> texts = parsed.get(c).paragraphs();
+            List<Paragraph> paragraphs = new ArrayList<>(texts.size());
+            for (int p = 0; p < texts.size(); p++) {
+                paragraphs.add(new Paragraph(p, texts.get(p)));
+            }
+            chapters.add(new Chapter(id + "-ch" + c, c, paragraphs));
+        }
+        return new Book(id, title, author, chapters);
+    }
+
+    private static String resource(String id) {
+        try (InputStream in = GutenbergCorpus.class.getResourceAsStream("/gutenberg/" + id + ".html")) {
+            if (in == null) {
+                throw new IllegalStateException("Missing bundled text: " + id);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Path> htmlFiles(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches(".*\\.html?$"))
+                    .sorted(Comparator.naturalOrder())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list corpus directory " + directory, e);
+        }
+    }
+
+    private static String read(Path file) {
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + file, e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.classicchatreader.benchmark;
+
+import com.classicchatreader.benchmark.GutenbergCorpus.Book;
+import com.classicchatreader.benchmark.GutenbergCorpus.Chapter;
+import com.classicchatreader.service.SearchService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Indexing throughput: one operation indexes one chapter, committing every {@code commitEveryBooks} books
+ * as the reindex service does. The {@code paragraphs} counter reports paragraphs indexed per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchIndexingBenchmark {
+
+    @Param({"memory", "disk"})
+    public String storage;
+
+    // Mirrors search.reindex.commit-every-books
+    @Param({"25"})
+    public int commitEveryBooks;
+
+    private List<Book> books;
+    private Path indexDir;
+    private SearchService searchService;
+    private int bookCursor;
+    private int chapterCursor;
+    private int round;
+    private int booksSinceCommit;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long paragraphs;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            paragraphs = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void loadCorpus() {
+        books = GutenbergCorpus.load();
+    }
+
+    // A fresh index per iteration keeps segment count and merge pressure comparable between iterations
+    @Setup(Level.Iteration)
+    public void openIndex() throws IOException {
+        indexDir = "disk".equals(storage) ? Files.createTempDirectory("search-bench") : null;
+        // Result cache off: nothing here reads, and it should not hold memory during the run
+        searchService = new SearchService(indexDir == null ? "" : indexDir.toString(), 0);
+        bookCursor = 0;
+        chapterCursor = 0;
+        round = 0;
+        booksSinceCommit = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeIndex() throws IOException {
+        searchService.close();
+        if (indexDir != null) {
+            try (Stream<Path> files = Files.walk(indexDir)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void indexChapter(Counters counters) throws IOException {
+        Book book = books.get(bookCursor);
+        Chapter chapter = book.chapters().get(chapterCursor);
+        String bookId = book.id() + "-" + round;
+        searchService.indexParagraphs(bookId, bookId + "-ch" + chapter.index(), chapter.index(), chapter.paragraphs());
+        counters.paragraphs += chapter.paragraphs().size();
+
+        if (++chapterCursor == book.chapters().size()) {
+            searchService.indexBook(bookId, book.title(), book.author());
+            if (++booksSinceCommit == commitEveryBooks) {
+                searchService.commit();
+                booksSinceCommit = 0;
+            }
+            chapterCursor = 0;
+            if (++bookCursor == books.size()) {
+                bookCursor = 0;
+                round++;
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.classicchatreader.benchmark;
+
+import com.classicchatreader.benchmark.GutenbergCorpus.Book;
+import com.classicchatreader.service.NameSuggester;
+import com.classicchatreader.service.SearchService;
+import com.classicchatreader.service.SearchService.ReadingPosition;
+import com.classicchatreader.service.SearchService.SearchPage;
+import com.classicchatreader.service.SearchService.SearchResult;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Query latency distributions (sample mode reports p50/p90/p99/max) over a replicated corpus. Run with
+ * {@code -prof gc} to get the allocation rate per query ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchQueryBenchmark {
+
+    private static final List<String> CHARACTER_NAMES = List.of(
+            "Elizabeth Bennet", "Mr. Bennet", "Mrs. Bennet", "Jane Bennet", "Charles Bingley", "Fitzwilliam Darcy",
+            "Ishmael", "Captain Ahab", "Queequeg", "Starbuck", "Sydney Carton", "Charles Darnay", "Lucie Manette");
+
+    @Param({"100"})
+    public int copies;
+
+    @Param({"memory", "disk"})
+    public String storage;
+
+    private Path indexDir;
+    private SearchService searchService;
+    private NameSuggester nameSuggester;
+    private String filterBookId;
+    private String filterChapterId;
+
+    @Setup(Level.Trial)
+    public void buildIndex() throws IOException {
+        List<Book> books = GutenbergCorpus.replicate(GutenbergCorpus.load(), copies);
+        indexDir = "disk".equals(storage) ? Files.createTempDirectory("search-bench") : null;
+        // Result cache off: every invocation must execute the query rather than replay a cached page
+        searchService = new SearchService(indexDir == null ? "" : indexDir.toString(), 0);
+        GutenbergCorpus.index(searchService, books);
+
+        Book filtered = books.get(books.size() / 2);
+        filterBookId = filtered.id();
+        filterChapterId = filtered.chapters().get(0).id();
+
+        List<NameSuggester.Entry> entries = new ArrayList<>();
+        for (int copy = 0; copy < copies; copy++) {
+            for (int i = 0; i < CHARACTER_NAMES.size(); i++) {
+                entries.add(new NameSuggester.Entry("character", copy + "-" + i, "book-" + copy,
+                        CHARACTER_NAMES.get(i), 0, i, 1));
+            }
+        }
+        nameSuggester = NameSuggester.build(entries);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeIndex() throws IOException {
+        searchService.close();
+        if (indexDir != null) {
+            try (Stream<Path> files = Files.walk(indexDir)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<SearchResult> termQuery() throws IOException, ParseException {
+        return searchService.search("whale", 10);
+    }
+
+    @Benchmark
+    public List<SearchResult> phraseQuery() throws IOException, ParseException {
+        return searchService.search("\"large fortune\"", 10);
+    }
+
+    @Benchmark
+    public List<SearchResult> filteredQuery() throws IOException, ParseException {
+        return searchService.search("fortune", filterBookId, filterChapterId, 10);
+    }
+
+    @Benchmark
+    public List<SearchResult> readingBoundQuery() throws IOException, ParseException {
+        return searchService.search("times", filterBookId, null, new ReadingPosition(0, 3), 10);
+    }
+
+    @Benchmark
+    public SearchPage facetedFirstPage() throws IOException, ParseException {
+        return searchService.searchPage("sea", null, null, 20, null);
+    }
+
+    @Benchmark
+    public List<NameSuggester.Entry> nameSuggest() {
+        return nameSuggester.lookup("benn", 8, entry -> true);
+    }
+}
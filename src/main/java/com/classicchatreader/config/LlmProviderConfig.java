@@ -1,6 +1,10 @@
 package com.classicchatreader.config;
 
+import com.classicchatreader.service.llm.CachingLlmProvider;
 import com.classicchatreader.service.llm.LlmProvider;
+import com.classicchatreader.service.llm.LlmResponseCache;
+import com.classicchatreader.service.llm.LlmRoutingStatus;
+import com.classicchatreader.service.llm.RoutingLlmProvider;
 import com.classicchatreader.service.llm.OllamaLlmProvider;
 import com.classicchatreader.service.llm.XaiLlmProvider;
 import org.slf4j.Logger;
@@ -10,9 +14,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration for LLM providers.
- * Creates separate beans for reasoning and chat tasks.
+ * Creates separate beans for reasoning and chat tasks. Reasoning prompts are deterministic for a given
+ * book and chapter, so those providers answer repeats from a shared on-disk response cache.
  */
 @Configuration
 public class LlmProviderConfig {
@@ -95,51 +105,93 @@ public class LlmProviderConfig {
     @Value("${ai.chat.xai.model:grok-4-1-fast-non-reasoning}")
     private String chatXaiModel;
 
+    // Optional weighted backend pools, e.g. "xai:3,ollama:1"; blank keeps the single provider above
+    @Value("${ai.reasoning.routing.backends:}")
+    private String reasoningRoutingBackends;
+
+    @Value("${recap.reasoning.routing.backends:${ai.reasoning.routing.backends:}}")
+    private String recapReasoningRoutingBackends;
+
+    @Value("${quiz.reasoning.routing.backends:${ai.reasoning.routing.backends:}}")
+    private String quizReasoningRoutingBackends;
+
+    @Value("${ai.chat.routing.backends:}")
+    private String chatRoutingBackends;
+
+    @Value("${ai.chat.routing.hedge-after-ms:4000}")
+    private long chatHedgeAfterMs;
+
+    @Value("${ai.routing.failure-threshold:3}")
+    private int routingFailureThreshold;
+
+    @Value("${ai.routing.open-seconds:30}")
+    private long routingOpenSeconds;
+
+    // Response cache shared by the reasoning providers
+    @Value("${ai.reasoning.cache.enabled:true}")
+    private boolean reasoningCacheEnabled;
+
+    @Value("${ai.reasoning.cache.dir:./data/llm-cache}")
+    private String reasoningCacheDir;
+
+    @Value("${ai.reasoning.cache.max-bytes:67108864}")
+    private long reasoningCacheMaxBytes;
+
+    @Bean
+    public LlmRoutingStatus llmRoutingStatus() {
+        return new LlmRoutingStatus();
+    }
+
+    @Bean
+    public LlmResponseCache llmResponseCache() {
+        return new LlmResponseCache(Path.of(reasoningCacheDir), reasoningCacheMaxBytes);
+    }
+
     @Bean
     @Qualifier("reasoningLlmProvider")
-    public LlmProvider reasoningLlmProvider() {
+    public LlmProvider reasoningLlmProvider(LlmResponseCache llmResponseCache) {
         log.info("Configuring reasoning LLM provider: {}", reasoningProvider);
-        return createProvider(
-                reasoningProvider,
+        return cached(createRoutedProvider(
+                reasoningProvider, reasoningRoutingBackends, Duration.ZERO,
                 reasoningOllamaBaseUrl, reasoningOllamaModel,
                 reasoningXaiApiKey, reasoningXaiModel,
                 reasoningTimeoutSeconds,
                 "reasoning"
-        );
+        ), llmResponseCache);
     }
 
     @Bean
     @Qualifier("recapReasoningLlmProvider")
-    public LlmProvider recapReasoningLlmProvider() {
+    public LlmProvider recapReasoningLlmProvider(LlmResponseCache llmResponseCache) {
         log.info("Configuring recap reasoning LLM provider: {}", recapReasoningProvider);
-        return createProvider(
-                recapReasoningProvider,
+        return cached(createRoutedProvider(
+                recapReasoningProvider, recapReasoningRoutingBackends, Duration.ZERO,
                 recapReasoningOllamaBaseUrl, recapReasoningOllamaModel,
                 recapReasoningXaiApiKey, recapReasoningXaiModel,
                 recapReasoningTimeoutSeconds,
                 "recap-reasoning"
-        );
+        ), llmResponseCache);
     }
 
     @Bean
     @Qualifier("quizReasoningLlmProvider")
-    public LlmProvider quizReasoningLlmProvider() {
+    public LlmProvider quizReasoningLlmProvider(LlmResponseCache llmResponseCache) {
         log.info("Configuring quiz reasoning LLM provider: {}", quizReasoningProvider);
-        return createProvider(
-                quizReasoningProvider,
+        return cached(createRoutedProvider(
+                quizReasoningProvider, quizReasoningRoutingBackends, Duration.ZERO,
                 quizReasoningOllamaBaseUrl, quizReasoningOllamaModel,
                 quizReasoningXaiApiKey, quizReasoningXaiModel,
                 quizReasoningTimeoutSeconds,
                 "quiz-reasoning"
-        );
+        ), llmResponseCache);
     }
 
     @Bean
     @Qualifier("chatLlmProvider")
     public LlmProvider chatLlmProvider() {
         log.info("Configuring chat LLM provider: {}", chatProvider);
-        return createProvider(
-                chatProvider,
+        return createRoutedProvider(
+                chatProvider, chatRoutingBackends, Duration.ofMillis(chatHedgeAfterMs),
                 chatOllamaBaseUrl, chatOllamaModel,
                 chatXaiApiKey, chatXaiModel,
                 chatTimeoutSeconds,
@@ -147,6 +199,47 @@ public class LlmProviderConfig {
         );
     }
 
+    private LlmProvider cached(LlmProvider provider, LlmResponseCache cache) {
+        return reasoningCacheEnabled ? new CachingLlmProvider(provider, cache) : provider;
+    }
+
+    /**
+     * The configured provider on its own, or a {@link RoutingLlmProvider} over the weighted pool when
+     * {@code routingBackends} lists more than one usable backend.
+     */
+    private LlmProvider createRoutedProvider(
+            String providerType, String routingBackends, Duration hedgeAfter,
+            String ollamaBaseUrl, String ollamaModel,
+            String xaiApiKey, String xaiModel,
+            int timeoutSeconds,
+            String purpose) {
+
+        List<RoutingLlmProvider.WeightedProvider> pool = new ArrayList<>();
+        for (String entry : routingBackends.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":", 2);
+            String type = parts[0].trim();
+            double weight = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : 1.0;
+            if ("xai".equalsIgnoreCase(type) && (xaiApiKey == null || xaiApiKey.isBlank())) {
+                log.warn("Skipping xAI backend for {} routing: API key not configured", purpose);
+                continue;
+            }
+            pool.add(new RoutingLlmProvider.WeightedProvider(createProvider(
+                    type, ollamaBaseUrl, ollamaModel, xaiApiKey, xaiModel, timeoutSeconds, purpose), weight));
+        }
+        if (pool.size() < 2) {
+            return createProvider(providerType, ollamaBaseUrl, ollamaModel, xaiApiKey, xaiModel, timeoutSeconds, purpose);
+        }
+
+        log.info("Routing {} across {} backends: {}", purpose, pool.size(), routingBackends);
+        RoutingLlmProvider router = new RoutingLlmProvider(purpose, pool, routingFailureThreshold,
+                Duration.ofSeconds(routingOpenSeconds), hedgeAfter);
+        llmRoutingStatus().register(purpose, router);
+        return router;
+    }
+
     private LlmProvider createProvider(
             String providerType,
             String ollamaBaseUrl, String ollamaModel,
@@ -1,6 +1,6 @@
 package com.classicchatreader.config;
 
-import com.classicchatreader.service.BookStorageService;
+import com.classicchatreader.service.SearchReindexService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
@@ -9,16 +9,18 @@ import org.springframework.stereotype.Component;
 @Order(2) // Run after DataInitializer
 public class SearchIndexInitializer implements CommandLineRunner {
 
-    private final BookStorageService bookStorageService;
+    private final SearchReindexService searchReindexService;
 
-    public SearchIndexInitializer(BookStorageService bookStorageService) {
-        this.bookStorageService = bookStorageService;
+    public SearchIndexInitializer(SearchReindexService searchReindexService) {
+        this.searchReindexService = searchReindexService;
     }
 
     @Override
     public void run(String... args) {
-        // Reindex all books from database into Lucene
-        bookStorageService.reindexAll();
-        System.out.println("Search index rebuilt from database");
+        // Bring the persisted Lucene index up to date with books whose content changed since the last commit.
+        // Runs in the background; progress is reported under searchIndex in /health/details.
+        searchReindexService.startReindexChanged()
+            .thenAccept(reindexed -> System.out.println(
+                "Search index synchronized with database (" + reindexed + " books reindexed)"));
     }
 }
@@ -12,13 +12,17 @@ import com.classicchatreader.service.RecapRolloutService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.List;
@@ -199,7 +203,7 @@ public class ChapterRecapController {
     }
 
     @PostMapping("/book/{bookId}/chat")
-    public ResponseEntity<RecapChatResponse> chat(
+    public ResponseEntity<Mono<RecapChatResponse>> chat(
             @PathVariable String bookId,
             @RequestBody RecapChatRequest request) {
         if (!isBookAvailableForRecap(bookId)) {
@@ -207,35 +211,58 @@ public class ChapterRecapController {
         }
         if (!chatEnabled) {
             recapMetricsService.recordChatRejected();
-            return ResponseEntity.status(403).body(new RecapChatResponse(
+            return ResponseEntity.status(403).body(Mono.just(new RecapChatResponse(
                     "Chat is disabled in this environment.",
                     bookId,
                     System.currentTimeMillis()
-            ));
+            )));
         }
         if (request == null || request.message() == null || request.message().isBlank()) {
             return ResponseEntity.badRequest().build();
         }
 
         recapMetricsService.recordChatRequest();
-        String response;
-        try {
-            response = chapterRecapChatService.chat(
-                    bookId,
-                    request.message(),
-                    request.conversationHistory(),
-                    request.readerChapterIndex()
-            );
-        } catch (Exception e) {
-            recapMetricsService.recordChatFailed();
-            response = "I can't answer right now, but you can continue reading and ask again.";
+        // Completes asynchronously, so the servlet thread is released while the provider generates
+        Mono<RecapChatResponse> response = chapterRecapChatService.chat(
+                        bookId,
+                        request.message(),
+                        request.conversationHistory(),
+                        request.readerChapterIndex())
+                .onErrorResume(e -> {
+                    recapMetricsService.recordChatFailed();
+                    return Mono.just("I can't answer right now, but you can continue reading and ask again.");
+                })
+                .map(reply -> new RecapChatResponse(reply, bookId, System.currentTimeMillis()));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/book/{bookId}/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> chatStream(
+            @PathVariable String bookId,
+            @RequestBody RecapChatRequest request) {
+        if (!isBookAvailableForRecap(bookId)) {
+            return ResponseEntity.status(403).build();
+        }
+        if (!chatEnabled) {
+            recapMetricsService.recordChatRejected();
+            return ResponseEntity.status(403).body(ChatStreamEvents.of("Chat is disabled in this environment."));
+        }
+        if (request == null || request.message() == null || request.message().isBlank()) {
+            return ResponseEntity.badRequest().build();
         }
 
-        return ResponseEntity.ok(new RecapChatResponse(
-                response,
-                bookId,
-                System.currentTimeMillis()
-        ));
+        recapMetricsService.recordChatRequest();
+        Flux<String> tokens = chapterRecapChatService.chatStream(
+                        bookId,
+                        request.message(),
+                        request.conversationHistory(),
+                        request.readerChapterIndex())
+                .onErrorResume(e -> {
+                    recapMetricsService.recordChatFailed();
+                    return Flux.just("I can't answer right now, but you can continue reading and ask again.");
+                });
+        return ResponseEntity.ok(ChatStreamEvents.of(tokens));
     }
 
     @PostMapping("/analytics")
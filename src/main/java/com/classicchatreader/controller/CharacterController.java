@@ -17,11 +17,16 @@ import com.classicchatreader.service.CdnAssetService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -178,7 +183,7 @@ public class CharacterController {
     }
 
     @GetMapping("/{characterId}/portrait")
-    public ResponseEntity<byte[]> getPortrait(@PathVariable String characterId) {
+    public ResponseEntity<Resource> getPortrait(@PathVariable String characterId) {
         Optional<CharacterEntity> characterOpt = characterService.getCharacter(characterId);
         if (characterOpt.isPresent() && !isCharacterEnabled(characterOpt.get().getBook())) {
             return ResponseEntity.status(403).build();
@@ -190,11 +195,11 @@ public class CharacterController {
                     .flatMap(key -> cdnAssetService.buildAssetUrl("character-portraits", key))
                     .map(url -> ResponseEntity.status(302)
                             .header(HttpHeaders.LOCATION, url)
-                            .body(new byte[0]))
+                            .<Resource>build())
                     .orElseGet(() -> ResponseEntity.notFound().build());
         }
 
-        byte[] image = characterOpt.map(c -> characterService.getPortrait(c.getId())).orElse(null);
+        Resource image = characterOpt.map(c -> characterService.getPortrait(c.getId())).orElse(null);
         if (image == null) {
             return ResponseEntity.notFound().build();
         }
@@ -270,7 +275,7 @@ public class CharacterController {
     }
 
     @PostMapping("/{characterId}/chat")
-    public ResponseEntity<ChatResponse> chat(
+    public ResponseEntity<Mono<ChatResponse>> chat(
             @PathVariable String characterId,
             @RequestBody ChatRequest request) {
 
@@ -278,11 +283,11 @@ public class CharacterController {
             return ResponseEntity.status(403).build();
         }
         if (!chatEnabled) {
-            return ResponseEntity.status(403).body(new ChatResponse(
+            return ResponseEntity.status(403).body(Mono.just(new ChatResponse(
                     "Chat is disabled in this environment.",
                     characterId,
                     System.currentTimeMillis()
-            ));
+            )));
         }
 
         // Check character type - only PRIMARY characters can chat
@@ -296,30 +301,65 @@ public class CharacterController {
             return ResponseEntity.status(403).build();
         }
         if (character.getCharacterType() != CharacterType.PRIMARY) {
-            return ResponseEntity.ok(new ChatResponse(
+            return ResponseEntity.ok(Mono.just(new ChatResponse(
                     "Chat is only available for main characters.",
                     characterId,
                     System.currentTimeMillis()
-            ));
+            )));
         }
 
         if (request.message() == null || request.message().isBlank()) {
             return ResponseEntity.badRequest().build();
         }
 
-        String response = chatService.chat(
+        // Completes asynchronously, so the servlet thread is released while the provider generates
+        Mono<ChatResponse> response = chatService.chat(
                 characterId,
                 request.message(),
                 request.conversationHistory(),
                 request.readerChapterIndex(),
                 request.readerParagraphIndex()
-        );
+        ).map(reply -> new ChatResponse(reply, characterId, System.currentTimeMillis()));
 
-        return ResponseEntity.ok(new ChatResponse(
-                response,
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/{characterId}/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> chatStream(
+            @PathVariable String characterId,
+            @RequestBody ChatRequest request) {
+
+        if (!characterEnabled) {
+            return ResponseEntity.status(403).build();
+        }
+        if (!chatEnabled) {
+            return ResponseEntity.status(403).body(ChatStreamEvents.of("Chat is disabled in this environment."));
+        }
+
+        Optional<CharacterEntity> characterOpt = characterService.getCharacter(characterId);
+        if (characterOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        CharacterEntity character = characterOpt.get();
+        if (!isCharacterEnabled(character.getBook())) {
+            return ResponseEntity.status(403).build();
+        }
+        if (character.getCharacterType() != CharacterType.PRIMARY) {
+            return ResponseEntity.ok(ChatStreamEvents.of("Chat is only available for main characters."));
+        }
+
+        if (request.message() == null || request.message().isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(ChatStreamEvents.of(chatService.chatStream(
                 characterId,
-                System.currentTimeMillis()
-        ));
+                request.message(),
+                request.conversationHistory(),
+                request.readerChapterIndex(),
+                request.readerParagraphIndex()
+        )));
     }
 
     public record ChatRequest(
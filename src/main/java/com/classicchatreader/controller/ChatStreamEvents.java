@@ -0,0 +1,26 @@
+package com.classicchatreader.controller;
+
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+/**
+ * Server-sent event framing shared by the streaming chat endpoints: one {@code token} event per chunk of
+ * the reply, then a single {@code done} event so clients can tell a finished reply from a dropped stream.
+ */
+final class ChatStreamEvents {
+
+    static final String TOKEN = "token";
+    static final String DONE = "done";
+
+    private ChatStreamEvents() {
+    }
+
+    static Flux<ServerSentEvent<String>> of(Flux<String> tokens) {
+        return tokens.map(token -> ServerSentEvent.<String>builder(token).event(TOKEN).build())
+                .concatWith(Flux.just(ServerSentEvent.<String>builder("").event(DONE).build()));
+    }
+
+    static Flux<ServerSentEvent<String>> of(String reply) {
+        return of(Flux.just(reply));
+    }
+}
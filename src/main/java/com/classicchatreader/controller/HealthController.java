@@ -5,19 +5,27 @@ import com.classicchatreader.config.RequestCorrelation;
 import com.classicchatreader.model.GenerationJobStatusResponse;
 import com.classicchatreader.service.AccountAuthService;
 import com.classicchatreader.service.AccountMetricsService;
+import com.classicchatreader.service.AssetByteCache;
 import com.classicchatreader.service.ChapterQuizService;
 import com.classicchatreader.service.ChapterRecapChatService;
 import com.classicchatreader.service.ChapterRecapService;
 import com.classicchatreader.service.CharacterChatService;
 import com.classicchatreader.service.CharacterExtractionService;
+import com.classicchatreader.service.ChatMetricsService;
 import com.classicchatreader.service.CharacterService;
 import com.classicchatreader.service.ComfyUIService;
 import com.classicchatreader.service.GenerationJobStatusService;
+import com.classicchatreader.service.GenerationScheduler;
 import com.classicchatreader.service.IllustrationService;
 import com.classicchatreader.service.IllustrationStyleAnalysisService;
 import com.classicchatreader.service.QuizMetricsService;
 import com.classicchatreader.service.RecapMetricsService;
+import com.classicchatreader.service.SearchReindexService;
+import com.classicchatreader.service.SearchService;
+import com.classicchatreader.service.TtsPreSynthesisService;
 import com.classicchatreader.service.TtsService;
+import com.classicchatreader.service.llm.LlmResponseCache;
+import com.classicchatreader.service.llm.LlmRoutingStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -43,6 +51,14 @@ public class HealthController {
     private final TtsService ttsService;
     private final QuizMetricsService quizMetricsService;
     private final RecapMetricsService recapMetricsService;
+    private final SearchReindexService searchReindexService;
+    private final SearchService searchService;
+    private final GenerationScheduler generationScheduler;
+    private final ChatMetricsService chatMetricsService;
+    private final LlmResponseCache llmResponseCache;
+    private final LlmRoutingStatus llmRoutingStatus;
+    private final TtsPreSynthesisService ttsPreSynthesisService;
+    private final AssetByteCache assetByteCache;
 
     public HealthController(
             GenerationJobStatusService generationJobStatusService,
@@ -59,7 +75,15 @@ public class HealthController {
             ComfyUIService comfyUIService,
             TtsService ttsService,
             QuizMetricsService quizMetricsService,
-            RecapMetricsService recapMetricsService) {
+            RecapMetricsService recapMetricsService,
+            SearchReindexService searchReindexService,
+            SearchService searchService,
+            GenerationScheduler generationScheduler,
+            ChatMetricsService chatMetricsService,
+            LlmResponseCache llmResponseCache,
+            LlmRoutingStatus llmRoutingStatus,
+            TtsPreSynthesisService ttsPreSynthesisService,
+            AssetByteCache assetByteCache) {
         this.generationJobStatusService = generationJobStatusService;
         this.accountAuthService = accountAuthService;
         this.accountMetricsService = accountMetricsService;
@@ -75,6 +99,14 @@ public class HealthController {
         this.ttsService = ttsService;
         this.quizMetricsService = quizMetricsService;
         this.recapMetricsService = recapMetricsService;
+        this.searchReindexService = searchReindexService;
+        this.searchService = searchService;
+        this.generationScheduler = generationScheduler;
+        this.chatMetricsService = chatMetricsService;
+        this.llmResponseCache = llmResponseCache;
+        this.llmRoutingStatus = llmRoutingStatus;
+        this.ttsPreSynthesisService = ttsPreSynthesisService;
+        this.assetByteCache = assetByteCache;
     }
 
     @GetMapping("/health")
@@ -126,7 +158,15 @@ public class HealthController {
                 queues,
                 quizMetricsService.snapshot(),
                 recapMetricsService.snapshot(),
-                accountMetrics
+                accountMetrics,
+                searchReindexService.snapshot(),
+                searchService.cacheSnapshot(),
+                generationScheduler.snapshot(),
+                chatMetricsService.snapshot(),
+                llmResponseCache.snapshot(),
+                llmRoutingStatus.snapshot(),
+                ttsPreSynthesisService.snapshot(),
+                assetByteCache.snapshot()
         );
     }
 
@@ -141,7 +181,15 @@ public class HealthController {
             QueueHealth queues,
             Map<String, Object> quizMetrics,
             Map<String, Object> recapMetrics,
-            Map<String, Object> accountMetrics
+            Map<String, Object> accountMetrics,
+            Map<String, Object> searchIndex,
+            Map<String, Object> searchCache,
+            Map<String, Object> generationScheduler,
+            Map<String, Object> chat,
+            Map<String, Object> llmCache,
+            Map<String, Object> llmRouting,
+            Map<String, Object> ttsPreSynthesis,
+            Map<String, Object> assetCache
     ) {
     }
 
@@ -12,6 +12,7 @@ import com.classicchatreader.service.IllustrationStyleAnalysisService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -127,7 +128,7 @@ public class IllustrationController {
      * Get the illustration image for a chapter.
      */
     @GetMapping("/chapter/{chapterId}")
-    public ResponseEntity<byte[]> getIllustration(@PathVariable String chapterId) {
+    public ResponseEntity<Resource> getIllustration(@PathVariable String chapterId) {
         Optional<BookEntity> bookOpt = getBookForChapter(chapterId);
         if (bookOpt.isEmpty()) {
             return ResponseEntity.notFound().build();
@@ -141,11 +142,11 @@ public class IllustrationController {
                     .flatMap(key -> cdnAssetService.buildAssetUrl("illustrations", key))
                     .map(url -> ResponseEntity.status(302)
                             .header(HttpHeaders.LOCATION, url)
-                            .body(new byte[0]))
+                            .<Resource>build())
                     .orElseGet(() -> ResponseEntity.notFound().build());
         }
 
-        byte[] image = illustrationService.getIllustration(chapterId);
+        Resource image = illustrationService.getIllustration(chapterId);
         if (image == null) {
             return ResponseEntity.notFound().build();
         }
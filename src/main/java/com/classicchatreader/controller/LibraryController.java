@@ -11,6 +11,7 @@ import com.classicchatreader.service.BookStorageService;
 import com.classicchatreader.service.CdnAssetService;
 import com.classicchatreader.service.ParagraphAnnotationService;
 import com.classicchatreader.service.ReaderIdentityService;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -70,17 +71,17 @@ public class LibraryController {
     }
 
     @GetMapping("/{bookId}/cover")
-    public ResponseEntity<byte[]> getBookCover(@PathVariable String bookId) {
+    public ResponseEntity<Resource> getBookCover(@PathVariable String bookId) {
         if (bookCoverCdnEnabled && cdnAssetService.isEnabled()) {
             return bookCoverService.getCoverFilename(bookId)
                     .flatMap(key -> cdnAssetService.buildAssetUrl("book-covers", key))
                     .map(url -> ResponseEntity.status(302)
                             .header(HttpHeaders.LOCATION, url)
-                            .body(new byte[0]))
+                            .<Resource>build())
                     .orElseGet(() -> ResponseEntity.notFound().build());
         }
 
-        byte[] image = bookCoverService.getCover(bookId);
+        Resource image = bookCoverService.getCover(bookId);
         if (image == null) {
             return ResponseEntity.notFound().build();
         }
@@ -2,7 +2,11 @@ package com.classicchatreader.controller;
 
 import org.apache.lucene.queryparser.classic.ParseException;
 import com.classicchatreader.service.SearchService;
+import com.classicchatreader.service.SearchService.ReadingPosition;
+import com.classicchatreader.service.SearchService.SearchPage;
 import com.classicchatreader.service.SearchService.SearchResult;
+import com.classicchatreader.service.SearchSuggestService;
+import com.classicchatreader.service.SearchSuggestService.Suggestion;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -16,23 +20,121 @@ import java.util.List;
 @RequestMapping("/api/search")
 public class SearchController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_SUGGESTIONS = 20;
+
     private final SearchService searchService;
+    private final SearchSuggestService searchSuggestService;
 
-    public SearchController(SearchService searchService) {
+    public SearchController(SearchService searchService, SearchSuggestService searchSuggestService) {
         this.searchService = searchService;
+        this.searchSuggestService = searchSuggestService;
     }
 
+    /**
+     * {@code upToChapter}/{@code upToParagraph} keep results at or before the reader's position in
+     * {@code bookId}; omitting {@code upToParagraph} includes the whole chapter.
+     */
     @GetMapping
     public ResponseEntity<List<SearchResult>> search(
             @RequestParam String q,
             @RequestParam(required = false) String bookId,
             @RequestParam(required = false) String chapterId,
+            @RequestParam(required = false) Integer upToChapter,
+            @RequestParam(required = false) Integer upToParagraph,
             @RequestParam(defaultValue = "10") int limit) {
         try {
-            List<SearchResult> results = searchService.search(q, bookId, chapterId, limit);
+            ReadingPosition upTo = readingPosition(upToChapter, upToParagraph);
+            List<SearchResult> results = searchService.search(q, bookId, chapterId, upTo, limit);
             return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException | ParseException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Cursor-paginated search. Pass the {@code nextCursor} from the previous response as {@code cursor}
+     * to fetch the following page with the same query and filters.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<SearchPage> searchPage(
+            @RequestParam String q,
+            @RequestParam(required = false) String bookId,
+            @RequestParam(required = false) String chapterId,
+            @RequestParam(required = false) Integer upToChapter,
+            @RequestParam(required = false) Integer upToParagraph,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            ReadingPosition upTo = readingPosition(upToChapter, upToParagraph);
+            return ResponseEntity.ok(searchService.searchPage(
+                    q, bookId, chapterId, upTo, Math.min(limit, MAX_PAGE_SIZE), cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (IOException | ParseException e) {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    /**
+     * Next match in reading order after chapter {@code afterChapter}, paragraph {@code afterParagraph}
+     * (from the start of the book when omitted). Returns 204 when there are no further matches
+     * before the optional {@code upToChapter}/{@code upToParagraph} bound.
+     */
+    @GetMapping("/next")
+    public ResponseEntity<SearchResult> nextOccurrence(
+            @RequestParam String q,
+            @RequestParam String bookId,
+            @RequestParam(required = false) Integer afterChapter,
+            @RequestParam(required = false) Integer afterParagraph,
+            @RequestParam(required = false) Integer upToChapter,
+            @RequestParam(required = false) Integer upToParagraph) {
+        try {
+            ReadingPosition after = afterChapter == null
+                    ? null
+                    : new ReadingPosition(afterChapter, afterParagraph == null ? 0 : afterParagraph);
+            ReadingPosition upTo = readingPosition(upToChapter, upToParagraph);
+            return searchService.nextOccurrence(q, bookId, after, upTo)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.noContent().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException | ParseException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Typo-tolerant autocomplete: character names within {@code bookId}, or book titles and authors
+     * across the catalog when no book is given.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) String bookId,
+            @RequestParam(required = false) Integer upToChapter,
+            @RequestParam(required = false) Integer upToParagraph,
+            @RequestParam(defaultValue = "8") int limit) {
+        try {
+            ReadingPosition upTo = readingPosition(upToChapter, upToParagraph);
+            return ResponseEntity.ok(searchSuggestService.suggest(q, bookId, upTo, Math.min(limit, MAX_SUGGESTIONS)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static ReadingPosition readingPosition(Integer chapterIndex, Integer paragraphIndex) {
+        if (chapterIndex == null) {
+            if (paragraphIndex != null) {
+                throw new IllegalArgumentException("upToParagraph requires upToChapter");
+            }
+            return null;
+        }
+        return paragraphIndex == null
+                ? ReadingPosition.endOfChapter(chapterIndex)
+                : new ReadingPosition(chapterIndex, paragraphIndex);
+    }
 }
@@ -4,23 +4,32 @@ import jakarta.servlet.http.HttpServletRequest;
 import com.classicchatreader.entity.BookEntity;
 import com.classicchatreader.entity.ChapterEntity;
 import com.classicchatreader.entity.ParagraphEntity;
+import com.classicchatreader.model.ChapterAudioIndex;
 import com.classicchatreader.model.VoiceSettings;
 import com.classicchatreader.repository.BookRepository;
 import com.classicchatreader.repository.ChapterRepository;
 import com.classicchatreader.repository.ParagraphRepository;
 import com.classicchatreader.service.AssetKeyService;
 import com.classicchatreader.service.CdnAssetService;
+import com.classicchatreader.service.ChapterAudioService;
 import com.classicchatreader.service.PublicSessionAuthService;
+import com.classicchatreader.service.TtsPreSynthesisService;
 import com.classicchatreader.service.TtsService;
 import com.classicchatreader.service.VoiceAnalysisService;
 import org.jsoup.Jsoup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -43,6 +52,8 @@ public class TtsController {
   private final AssetKeyService assetKeyService;
   private final CdnAssetService cdnAssetService;
   private final PublicSessionAuthService sessionAuthService;
+  private final TtsPreSynthesisService ttsPreSynthesisService;
+  private final ChapterAudioService chapterAudioService;
   private final String deploymentMode;
   private final String publicApiKey;
 
@@ -52,6 +63,8 @@ public class TtsController {
                        AssetKeyService assetKeyService,
                        CdnAssetService cdnAssetService,
                        PublicSessionAuthService sessionAuthService,
+                       TtsPreSynthesisService ttsPreSynthesisService,
+                       ChapterAudioService chapterAudioService,
                        @Value("${deployment.mode:local}") String deploymentMode,
                        @Value("${security.public.api-key:}") String publicApiKey) {
     this.ttsService = ttsService;
@@ -62,6 +75,8 @@ public class TtsController {
     this.assetKeyService = assetKeyService;
     this.cdnAssetService = cdnAssetService;
     this.sessionAuthService = sessionAuthService;
+    this.ttsPreSynthesisService = ttsPreSynthesisService;
+    this.chapterAudioService = chapterAudioService;
     this.deploymentMode = deploymentMode == null ? "local" : deploymentMode;
     this.publicApiKey = publicApiKey == null ? "" : publicApiKey;
   }
@@ -168,15 +183,15 @@ public class TtsController {
   }
 
   @PostMapping("/speak")
-  public ResponseEntity<byte[]> speak(@RequestBody SpeakRequest request) {
+  public ResponseEntity<Resource> speak(@RequestBody SpeakRequest request) {
     if (!ttsService.isConfigured()) {
       return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-          .body("OpenAI API key not configured".getBytes());
+          .body(new ByteArrayResource("OpenAI API key not configured".getBytes()));
     }
 
     String text = extractPlainText(request.text());
     if (text.isBlank()) {
-      return ResponseEntity.badRequest().body("No text to speak".getBytes());
+      return ResponseEntity.badRequest().body(new ByteArrayResource("No text to speak".getBytes()));
     }
 
     VoiceSettings settings = new VoiceSettings(
@@ -186,7 +201,7 @@ public class TtsController {
         null
     );
 
-    byte[] audio = ttsService.generateSpeech(text, settings);
+    Resource audio = ttsService.generateSpeech(text, settings);
     if (audio == null) {
       return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
     }
@@ -197,8 +212,13 @@ public class TtsController {
         .body(audio);
   }
 
+  /**
+   * Serves paragraph audio as a {@link Resource}, so Spring answers {@code Range} requests with 206 partial
+   * content and {@code If-None-Match} with 304 for cached files, streaming from disk rather than the heap.
+   * Look-ahead is queued only when playback starts, not on every seek within the paragraph.
+   */
   @GetMapping("/speak/{bookId}/{chapterId}/{paragraphIndex}")
-  public ResponseEntity<byte[]> speakParagraph(
+  public ResponseEntity<Resource> speakParagraph(
       @PathVariable String bookId,
       @PathVariable String chapterId,
       @PathVariable int paragraphIndex,
@@ -224,19 +244,19 @@ public class TtsController {
     ChapterEntity chapter = chapterOpt.get();
     String bookKey = assetKeyService.buildBookKey(chapter.getBook());
 
-    List<ParagraphEntity> paragraphs = paragraphRepository
-        .findByChapterIdOrderByParagraphIndex(chapter.getId());
-
-    if (paragraphIndex < 0 || paragraphIndex >= paragraphs.size()) {
+    // One row per request: seeks and revalidations should not load the whole chapter
+    Optional<ParagraphEntity> paragraph = paragraphIndex < 0 ? Optional.empty()
+        : paragraphRepository.findByChapterIdAndParagraphIndex(chapter.getId(), paragraphIndex);
+    if (paragraph.isEmpty()) {
       return ResponseEntity.notFound().build();
     }
 
-    String text = extractPlainText(paragraphs.get(paragraphIndex).getContent());
+    String text = extractPlainText(paragraph.get().getContent());
     if (text.isBlank()) {
       // Return empty audio for blank paragraphs
       return ResponseEntity.ok()
           .header(HttpHeaders.CONTENT_TYPE, "audio/mpeg")
-          .body(new byte[0]);
+          .body(new ByteArrayResource(new byte[0]));
     }
 
     String resolvedVoice = ttsService.resolveVoice(voice);
@@ -247,31 +267,43 @@ public class TtsController {
       return cdnAssetService.buildAssetUrl("audio", audioKey)
           .map(url -> ResponseEntity.status(HttpStatus.FOUND)
               .header(HttpHeaders.LOCATION, url)
-              .body(new byte[0]))
+              .<Resource>body(new ByteArrayResource(new byte[0])))
           .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    byte[] cachedAudio = ttsService.getCachedSpeechForParagraph(
+    VoiceSettings settings = new VoiceSettings(resolvedVoice, speed, instructions, null);
+    boolean mayGenerate = !isPublicMode() || isSensitiveTtsAuthorized(request, providedApiKey);
+    TtsService.CachedAudio cachedAudio = ttsService.getCachedSpeechForParagraph(
         bookKey, chapter.getChapterIndex(), paragraphIndex, resolvedVoice);
-    if (cachedAudio != null && cachedAudio.length > 0) {
+    if (cachedAudio != null) {
+      if (mayGenerate && isPlaybackStart(request)) {
+        ttsPreSynthesisService.scheduleLookahead(bookOpt.get(), chapter, paragraphIndex,
+            paragraphRepository.countByChapterId(chapter.getId()), settings);
+      }
       return ResponseEntity.ok()
           .header(HttpHeaders.CONTENT_TYPE, "audio/mpeg")
           .header(HttpHeaders.CACHE_CONTROL, "max-age=604800")
-          .body(cachedAudio);
+          .eTag(cachedAudio.eTag())
+          .body(new FileSystemResource(cachedAudio.file()));
     }
 
-    if (isPublicMode() && !isSensitiveTtsAuthorized(request, providedApiKey)) {
+    if (!mayGenerate) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-          .body("Authentication required for uncached TTS generation".getBytes(StandardCharsets.UTF_8));
+          .body(new ByteArrayResource(
+              "Authentication required for uncached TTS generation".getBytes(StandardCharsets.UTF_8)));
     }
 
     if (!ttsService.isConfigured()) {
       return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-          .body("OpenAI API key not configured".getBytes());
+          .body(new ByteArrayResource("OpenAI API key not configured".getBytes()));
     }
 
-    VoiceSettings settings = new VoiceSettings(resolvedVoice, speed, instructions, null);
-    byte[] audio = ttsService.generateSpeechForParagraph(
+    // Queue the next paragraphs before synthesizing this one, so they render while the reader waits
+    if (isPlaybackStart(request)) {
+      ttsPreSynthesisService.scheduleLookahead(bookOpt.get(), chapter, paragraphIndex,
+          paragraphRepository.countByChapterId(chapter.getId()), settings);
+    }
+    Resource audio = ttsService.generateSpeechForParagraph(
         bookKey, chapter.getChapterIndex(), paragraphIndex, text, settings);
     if (audio == null) {
       return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -283,6 +315,149 @@ public class TtsController {
         .body(audio);
   }
 
+  /**
+   * Queues synthesis of every uncached paragraph in a chapter. Paragraphs render in the background at batch
+   * priority, within the OpenAI speech concurrency limit.
+   */
+  @PostMapping("/pregenerate/{bookId}/{chapterId}")
+  public ResponseEntity<Map<String, Object>> pregenerateChapter(
+      @PathVariable String bookId,
+      @PathVariable String chapterId,
+      HttpServletRequest request,
+      @RequestHeader(value = "X-API-Key", required = false) String providedApiKey,
+      @RequestParam(required = false) String voice,
+      @RequestParam(required = false) Double speed,
+      @RequestParam(required = false) String instructions) {
+    Optional<BookEntity> bookOpt = bookRepository.findById(bookId);
+    if (bookOpt.isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+    BookEntity book = bookOpt.get();
+    if (!isTtsEnabled(book)) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    Optional<ChapterEntity> chapterOpt = chapterRepository.findById(chapterId);
+    if (chapterOpt.isEmpty() || !bookId.equals(chapterOpt.get().getBook().getId())) {
+      return ResponseEntity.notFound().build();
+    }
+    if (isPublicMode() && !isSensitiveTtsAuthorized(request, providedApiKey)) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+    if (ttsService.isCacheOnly()) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+    if (!ttsService.isConfigured()) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    // Fall back to the book's analyzed voice so pre-generated audio matches what the reader will request
+    VoiceSettings settings = new VoiceSettings(
+        ttsService.resolveVoice(voice != null ? voice : book.getTtsVoice()),
+        speed != null ? speed : book.getTtsSpeed() != null ? book.getTtsSpeed() : 1.0,
+        instructions != null ? instructions : book.getTtsInstructions(),
+        null
+    );
+    TtsPreSynthesisService.Pregeneration result =
+        ttsPreSynthesisService.pregenerateChapter(book, chapterOpt.get(), settings);
+    return ResponseEntity.accepted().body(Map.of(
+        "chapterId", chapterId,
+        "voice", settings.voice(),
+        "paragraphs", result.paragraphs(),
+        "cached", result.cached(),
+        "queued", result.queued()
+    ));
+  }
+
+  /**
+   * Paragraph offsets and timestamps within the chapter stream served by {@link #streamChapterAudio}, for
+   * the same paragraphs and voice. When the caller may generate audio, uncached paragraphs are queued for
+   * synthesis and listed in {@code queuedParagraphs}; the stream stops before the first of them.
+   */
+  @GetMapping("/chapter/{bookId}/{chapterId}/index")
+  public ResponseEntity<ChapterAudioIndex> getChapterAudioIndex(
+      @PathVariable String bookId,
+      @PathVariable String chapterId,
+      HttpServletRequest request,
+      @RequestHeader(value = "X-API-Key", required = false) String providedApiKey,
+      @RequestParam(required = false) String voice,
+      @RequestParam(required = false, defaultValue = "1.0") double speed,
+      @RequestParam(required = false) String instructions,
+      @RequestParam(required = false, defaultValue = "0") int from,
+      @RequestParam(required = false) Integer to) {
+    ResponseEntity<ChapterAudioService.ChapterAudio> audio = assembleChapterAudio(
+        bookId, chapterId, request, providedApiKey, voice, speed, instructions, from, to);
+    if (audio.getBody() == null) {
+      return ResponseEntity.status(audio.getStatusCode()).build();
+    }
+    return ResponseEntity.ok(audio.getBody().index());
+  }
+
+  /**
+   * Streams a chapter, or paragraphs {@code from} to {@code to} (exclusive), as one MP3 made by joining the
+   * paragraph files' audio frames, so playback runs on without a request per paragraph. A single byte
+   * {@code Range} is answered with 206 partial content so players can seek; other range requests get the
+   * whole stream. The layout changes as queued paragraphs land, so both responses carry an ETag and a range
+   * whose {@code If-Range} no longer matches it gets the whole new stream instead of a slice.
+   */
+  @GetMapping("/chapter/{bookId}/{chapterId}")
+  public ResponseEntity<StreamingResponseBody> streamChapterAudio(
+      @PathVariable String bookId,
+      @PathVariable String chapterId,
+      HttpServletRequest request,
+      @RequestHeader(value = "X-API-Key", required = false) String providedApiKey,
+      @RequestParam(required = false) String voice,
+      @RequestParam(required = false, defaultValue = "1.0") double speed,
+      @RequestParam(required = false) String instructions,
+      @RequestParam(required = false, defaultValue = "0") int from,
+      @RequestParam(required = false) Integer to) {
+    ResponseEntity<ChapterAudioService.ChapterAudio> audio = assembleChapterAudio(
+        bookId, chapterId, request, providedApiKey, voice, speed, instructions, from, to);
+    if (audio.getBody() == null) {
+      return ResponseEntity.status(audio.getStatusCode()).build();
+    }
+    ChapterAudioService.ChapterAudio chapterAudio = audio.getBody();
+    long totalBytes = chapterAudio.index().totalBytes();
+    if (totalBytes == 0) {
+      return ResponseEntity.notFound().build();
+    }
+    String eTag = chapterAudio.eTag(from, to);
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    List<HttpRange> ranges;
+    try {
+      // A validator from another layout, or a date, means the client's bytes are stale: send it all again
+      ranges = ifRange == null || ifRange.equals(eTag)
+          ? HttpRange.parseRanges(request.getHeader(HttpHeaders.RANGE))
+          : List.of();
+    } catch (IllegalArgumentException e) {
+      return rangeNotSatisfiable(totalBytes);
+    }
+    if (ranges.size() != 1) {
+      StreamingResponseBody body = chapterAudio::writeTo;
+      return ResponseEntity.ok()
+          .contentType(MediaType.parseMediaType("audio/mpeg"))
+          .contentLength(totalBytes)
+          .eTag(eTag)
+          .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+          .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+          .body(body);
+    }
+    long start = ranges.get(0).getRangeStart(totalBytes);
+    long end = ranges.get(0).getRangeEnd(totalBytes);
+    if (start > end) {
+      return rangeNotSatisfiable(totalBytes);
+    }
+    long length = end - start + 1;
+    StreamingResponseBody body = out -> chapterAudio.writeTo(out, start, length);
+    return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+        .contentType(MediaType.parseMediaType("audio/mpeg"))
+        .contentLength(length)
+        .eTag(eTag)
+        .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + totalBytes)
+        .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+        .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+        .body(body);
+  }
+
   @GetMapping("/estimate/{bookId}")
   public Map<String, Object> estimateCost(@PathVariable String bookId) {
     Optional<BookEntity> bookOpt = bookRepository.findById(bookId);
@@ -320,11 +495,55 @@ public class TtsController {
     );
   }
 
+  private static ResponseEntity<StreamingResponseBody> rangeNotSatisfiable(long totalBytes) {
+    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + totalBytes)
+        .build();
+  }
+
+  private ResponseEntity<ChapterAudioService.ChapterAudio> assembleChapterAudio(
+      String bookId, String chapterId, HttpServletRequest request, String providedApiKey,
+      String voice, double speed, String instructions, int from, Integer to) {
+    Optional<BookEntity> bookOpt = bookRepository.findById(bookId);
+    if (bookOpt.isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+    if (!isTtsEnabled(bookOpt.get())) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    Optional<ChapterEntity> chapterOpt = chapterRepository.findById(chapterId);
+    if (chapterOpt.isEmpty() || !bookId.equals(chapterOpt.get().getBook().getId())) {
+      return ResponseEntity.notFound().build();
+    }
+    // Anyone may stream cached audio; filling gaps costs OpenAI calls, as in speakParagraph
+    boolean mayGenerate = !isPublicMode() || isSensitiveTtsAuthorized(request, providedApiKey);
+    VoiceSettings settings = new VoiceSettings(voice, speed, instructions, null);
+    return ResponseEntity.ok(chapterAudioService.assemble(
+        bookOpt.get(), chapterOpt.get(), from, to, settings, mayGenerate));
+  }
+
   private String extractPlainText(String html) {
     if (html == null) return "";
     return Jsoup.parse(html).text();
   }
 
+  /**
+   * True for a plain request or one whose range starts at the first byte; players send ranges further in
+   * when they seek, and those should not queue the look-ahead again.
+   */
+  private boolean isPlaybackStart(HttpServletRequest request) {
+    String range = request.getHeader(HttpHeaders.RANGE);
+    if (range == null || range.isBlank()) {
+      return true;
+    }
+    try {
+      List<HttpRange> ranges = HttpRange.parseRanges(range);
+      return !ranges.isEmpty() && ranges.get(0).getRangeStart(Long.MAX_VALUE) == 0;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
   private boolean isTtsEnabled(BookEntity book) {
     return Boolean.TRUE.equals(book.getTtsEnabled());
   }
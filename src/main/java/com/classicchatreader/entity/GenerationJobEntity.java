@@ -0,0 +1,87 @@
+package com.classicchatreader.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One queued unit of background generation work. A row exists from the moment the work is requested until
+ * a worker finishes it, so the backlog survives restarts and is shared by every app node.
+ */
+@Entity
+@Table(name = "generation_jobs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_generation_jobs_lane_key", columnNames = {"lane", "job_key"}))
+public class GenerationJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String lane;
+
+    @Column(name = "job_key", nullable = false)
+    private String jobKey;
+
+    private String bookId;
+
+    // Ordinal of GenerationScheduler.Priority; lower is more urgent
+    @Column(nullable = false)
+    private int priority;
+
+    @Column(length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(length = 120)
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public GenerationJobEntity() {}
+
+    public GenerationJobEntity(String lane, String jobKey, String bookId, int priority, String payload,
+                               LocalDateTime availableAt) {
+        this.lane = lane;
+        this.jobKey = jobKey;
+        this.bookId = bookId;
+        this.priority = priority;
+        this.payload = payload;
+        this.availableAt = availableAt;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getLane() { return lane; }
+    public void setLane(String lane) { this.lane = lane; }
+
+    public String getJobKey() { return jobKey; }
+    public void setJobKey(String jobKey) { this.jobKey = jobKey; }
+
+    public String getBookId() { return bookId; }
+    public void setBookId(String bookId) { this.bookId = bookId; }
+
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getAvailableAt() { return availableAt; }
+    public void setAvailableAt(LocalDateTime availableAt) { this.availableAt = availableAt; }
+
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+
+    public LocalDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
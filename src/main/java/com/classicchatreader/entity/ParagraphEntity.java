@@ -2,6 +2,8 @@ package com.classicchatreader.entity;
 
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "paragraphs")
 public class ParagraphEntity {
@@ -20,6 +22,16 @@ public class ParagraphEntity {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
 
+    // Bumped on every write, so the search index notices edits that keep the content length
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public ParagraphEntity() {}
 
     public ParagraphEntity(int paragraphIndex, String content) {
@@ -39,4 +51,6 @@ public class ParagraphEntity {
 
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
 }
@@ -0,0 +1,29 @@
+package com.classicchatreader.model;
+
+import java.util.List;
+
+/**
+ * Where each paragraph sits in a chapter's concatenated audio stream, for highlighting the paragraph being
+ * read. Paragraphs with no audio (blank, not synthesized yet, or after one that is still being synthesized)
+ * are listed in {@code missingParagraphs} and left out of the stream. {@code queuedParagraphs} are the ones
+ * now queued for synthesis; once they are ready, requesting the rest of the chapter picks up where the
+ * stream stopped.
+ */
+public record ChapterAudioIndex(
+        String chapterId,
+        String voice,
+        long totalBytes,
+        long durationMs,
+        List<Segment> paragraphs,
+        List<Integer> missingParagraphs,
+        List<Integer> queuedParagraphs
+) {
+    public record Segment(
+            int paragraphIndex,
+            long byteOffset,
+            long byteLength,
+            long startMs,
+            long durationMs
+    ) {
+    }
+}
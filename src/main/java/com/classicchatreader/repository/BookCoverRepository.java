@@ -32,6 +32,27 @@ public interface BookCoverRepository extends JpaRepository<BookCoverEntity, Stri
             @Param("bookId") String bookId,
             @Param("status") IllustrationStatus status);
 
+    @Query("""
+            SELECT c.status AS status,
+                   COUNT(c) AS total,
+                   SUM(CASE WHEN c.nextRetryAt > :now THEN 1 ELSE 0 END) AS retryScheduled
+            FROM BookCoverEntity c
+            GROUP BY c.status
+            """)
+    List<StatusCount<IllustrationStatus>> countGroupedByStatus(@Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT c.status AS status,
+                   COUNT(c) AS total,
+                   SUM(CASE WHEN c.nextRetryAt > :now THEN 1 ELSE 0 END) AS retryScheduled
+            FROM BookCoverEntity c
+            WHERE c.book.id = :bookId
+            GROUP BY c.status
+            """)
+    List<StatusCount<IllustrationStatus>> countGroupedByStatusForBook(
+            @Param("bookId") String bookId,
+            @Param("now") LocalDateTime now);
+
     @Query("""
             SELECT COUNT(c)
             FROM BookCoverEntity c
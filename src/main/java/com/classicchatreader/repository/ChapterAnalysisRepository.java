@@ -42,6 +42,27 @@ public interface ChapterAnalysisRepository extends JpaRepository<ChapterAnalysis
 
     long countByChapterBookIdAndStatusIsNull(String bookId);
 
+    @Query("""
+            SELECT ca.status AS status,
+                   COUNT(ca) AS total,
+                   SUM(CASE WHEN ca.nextRetryAt > :now THEN 1 ELSE 0 END) AS retryScheduled
+            FROM ChapterAnalysisEntity ca
+            GROUP BY ca.status
+            """)
+    List<StatusCount<ChapterAnalysisStatus>> countGroupedByStatus(@Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT ca.status AS status,
+                   COUNT(ca) AS total,
+                   SUM(CASE WHEN ca.nextRetryAt > :now THEN 1 ELSE 0 END) AS retryScheduled
+            FROM ChapterAnalysisEntity ca
+            WHERE ca.chapter.book.id = :bookId
+            GROUP BY ca.status
+            """)
+    List<StatusCount<ChapterAnalysisStatus>> countGroupedByStatusForBook(
+            @Param("bookId") String bookId,
+            @Param("now") LocalDateTime now);
+
     @Query("""
             SELECT COUNT(ca)
             FROM ChapterAnalysisEntity ca
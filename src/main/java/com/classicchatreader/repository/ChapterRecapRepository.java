@@ -42,6 +42,27 @@ public interface ChapterRecapRepository extends JpaRepository<ChapterRecapEntity
 
     long countByChapterBookIdAndStatusIsNull(String bookId);
 
+    @Query("""
+            SELECT cr.status AS status,
+                   COUNT(cr) AS total,
+                   SUM(CASE WHEN cr.nextRetryAt > :now THEN 1 ELSE 0 END) AS retryScheduled
+            FROM ChapterRecapEntity cr
+            GROUP BY cr.status
+            """)
+    List<StatusCount<ChapterRecapStatus>> countGroupedByStatus(@Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT cr.status AS status,
+                   COUNT(cr) AS total,
+                   SUM(CASE WHEN cr.nextRetryAt > :now THEN 1 ELSE 0 END) AS retryScheduled
+            FROM ChapterRecapEntity cr
+            WHERE cr.chapter.book.id = :bookId
+            GROUP BY cr.status
+            """)
+    List<StatusCount<ChapterRecapStatus>> countGroupedByStatusForBook(
+            @Param("bookId") String bookId,
+            @Param("now") LocalDateTime now);
+
     @Query("""
             SELECT COUNT(cr)
             FROM ChapterRecapEntity cr
@@ -68,6 +68,27 @@ public interface CharacterRepository extends JpaRepository<CharacterEntity, Stri
             @Param("bookId") String bookId,
             @Param("sinceTime") LocalDateTime sinceTime);
 
+    @Query("""
+            SELECT c.status AS status,
+                   COUNT(c) AS total,
+                   SUM(CASE WHEN c.nextRetryAt > :now THEN 1 ELSE 0 END) AS retryScheduled
+            FROM CharacterEntity c
+            GROUP BY c.status
+            """)
+    List<StatusCount<CharacterStatus>> countGroupedByStatus(@Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT c.status AS status,
+                   COUNT(c) AS total,
+                   SUM(CASE WHEN c.nextRetryAt > :now THEN 1 ELSE 0 END) AS retryScheduled
+            FROM CharacterEntity c
+            WHERE c.book.id = :bookId
+            GROUP BY c.status
+            """)
+    List<StatusCount<CharacterStatus>> countGroupedByStatusForBook(
+            @Param("bookId") String bookId,
+            @Param("now") LocalDateTime now);
+
     @Query("""
             SELECT COUNT(c)
             FROM CharacterEntity c
@@ -115,4 +136,30 @@ public interface CharacterRepository extends JpaRepository<CharacterEntity, Stri
             @Param("generatingStatus") CharacterStatus generatingStatus);
 
     void deleteByBookId(String bookId);
+
+    @Query("""
+            SELECT c.id AS id,
+                   c.name AS name,
+                   c.characterType AS characterType,
+                   ch.chapterIndex AS chapterIndex,
+                   c.firstParagraphIndex AS paragraphIndex
+            FROM CharacterEntity c
+            JOIN c.firstChapter ch
+            WHERE c.book.id = :bookId
+            """)
+    List<CharacterNameRow> findNameRowsByBookId(@Param("bookId") String bookId);
+
+    long countByBookId(String bookId);
+
+    interface CharacterNameRow {
+        String getId();
+
+        String getName();
+
+        CharacterType getCharacterType();
+
+        int getChapterIndex();
+
+        int getParagraphIndex();
+    }
 }
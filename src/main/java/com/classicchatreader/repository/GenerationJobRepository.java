@@ -0,0 +1,67 @@
+package com.classicchatreader.repository;
+
+import com.classicchatreader.entity.GenerationJobEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GenerationJobRepository extends JpaRepository<GenerationJobEntity, String> {
+
+    Optional<GenerationJobEntity> findByLaneAndJobKey(String lane, String jobKey);
+
+    boolean existsByLaneAndJobKey(String lane, String jobKey);
+
+    long countByLane(String lane);
+
+    @Query("""
+            SELECT j FROM GenerationJobEntity j
+            WHERE j.lane IN :lanes
+              AND j.availableAt <= :now
+              AND (j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now)
+            ORDER BY j.priority, j.availableAt
+            """)
+    List<GenerationJobEntity> findClaimable(
+            @Param("lanes") Collection<String> lanes,
+            @Param("now") LocalDateTime now,
+            Pageable page);
+
+    /**
+     * Optimistic claim used where the database has no {@code SKIP LOCKED}: only one worker's update can
+     * match while the job is unleased, so a lost race simply updates nothing.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("""
+            UPDATE GenerationJobEntity j
+            SET j.leaseOwner = :leaseOwner,
+                j.leaseExpiresAt = :leaseExpiresAt
+            WHERE j.id = :id
+              AND j.availableAt <= :now
+              AND (j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now)
+            """)
+    int claim(
+            @Param("id") String id,
+            @Param("now") LocalDateTime now,
+            @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+            @Param("leaseOwner") String leaseOwner);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GenerationJobEntity j WHERE j.id = :id AND j.leaseOwner = :leaseOwner")
+    int deleteClaimed(@Param("id") String id, @Param("leaseOwner") String leaseOwner);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE GenerationJobEntity j SET j.leaseExpiresAt = NULL WHERE j.id = :id AND j.leaseOwner IS NULL")
+    int releaseUnowned(@Param("id") String id);
+}
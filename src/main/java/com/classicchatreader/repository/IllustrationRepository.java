@@ -34,6 +34,27 @@ public interface IllustrationRepository extends JpaRepository<IllustrationEntity
             @Param("bookId") String bookId,
             @Param("status") IllustrationStatus status);
 
+    @Query("""
+            SELECT i.status AS status,
+                   COUNT(i) AS total,
+                   SUM(CASE WHEN i.nextRetryAt > :now THEN 1 ELSE 0 END) AS retryScheduled
+            FROM IllustrationEntity i
+            GROUP BY i.status
+            """)
+    List<StatusCount<IllustrationStatus>> countGroupedByStatus(@Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT i.status AS status,
+                   COUNT(i) AS total,
+                   SUM(CASE WHEN i.nextRetryAt > :now THEN 1 ELSE 0 END) AS retryScheduled
+            FROM IllustrationEntity i
+            WHERE i.chapter.book.id = :bookId
+            GROUP BY i.status
+            """)
+    List<StatusCount<IllustrationStatus>> countGroupedByStatusForBook(
+            @Param("bookId") String bookId,
+            @Param("now") LocalDateTime now);
+
     @Query("""
             SELECT COUNT(i)
             FROM IllustrationEntity i
@@ -1,9 +1,14 @@
 package com.classicchatreader.repository;
 
 import com.classicchatreader.entity.ParagraphEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,5 +19,62 @@ public interface ParagraphRepository extends JpaRepository<ParagraphEntity, Stri
 
     Optional<ParagraphEntity> findByChapterIdAndParagraphIndex(String chapterId, int paragraphIndex);
 
+    int countByChapterId(String chapterId);
+
     boolean existsByChapterIdAndParagraphIndex(String chapterId, int paragraphIndex);
+
+    @Query("""
+            SELECT c.book.id AS bookId,
+                   COUNT(p) AS paragraphCount,
+                   COALESCE(SUM(LENGTH(p.content)), 0) AS contentLength,
+                   MAX(p.updatedAt) AS lastUpdated
+            FROM ParagraphEntity p
+            JOIN p.chapter c
+            GROUP BY c.book.id
+            """)
+    List<BookContentSummary> summarizeContentByBook();
+
+    @Query("""
+            SELECT c.book.id AS bookId,
+                   COUNT(p) AS paragraphCount,
+                   COALESCE(SUM(LENGTH(p.content)), 0) AS contentLength,
+                   MAX(p.updatedAt) AS lastUpdated
+            FROM ParagraphEntity p
+            JOIN p.chapter c
+            WHERE c.book.id = :bookId
+            GROUP BY c.book.id
+            """)
+    Optional<BookContentSummary> summarizeContentForBook(@Param("bookId") String bookId);
+
+    @Query("""
+            SELECT c.id AS chapterId,
+                   c.chapterIndex AS chapterIndex,
+                   p.paragraphIndex AS paragraphIndex,
+                   p.content AS content
+            FROM ParagraphEntity p
+            JOIN p.chapter c
+            WHERE c.book.id = :bookId
+            ORDER BY c.chapterIndex, c.id, p.paragraphIndex
+            """)
+    Slice<IndexableParagraph> findIndexableByBookId(@Param("bookId") String bookId, Pageable pageable);
+
+    interface BookContentSummary {
+        String getBookId();
+
+        long getParagraphCount();
+
+        long getContentLength();
+
+        LocalDateTime getLastUpdated();
+    }
+
+    interface IndexableParagraph {
+        String getChapterId();
+
+        int getChapterIndex();
+
+        int getParagraphIndex();
+
+        String getContent();
+    }
 }
@@ -0,0 +1,34 @@
+package com.classicchatreader.repository;
+
+/**
+ * One row of a {@code GROUP BY status} aggregation over a generation pipeline. {@link #getStatus()} is
+ * null for rows that have never been given a status.
+ */
+public interface StatusCount<S> {
+
+    S getStatus();
+
+    long getTotal();
+
+    /** Rows in this status whose next retry is after the query's {@code now}. */
+    long getRetryScheduled();
+
+    static <S> StatusCount<S> of(S status, long total, long retryScheduled) {
+        return new StatusCount<>() {
+            @Override
+            public S getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+
+            @Override
+            public long getRetryScheduled() {
+                return retryScheduled;
+            }
+        };
+    }
+}
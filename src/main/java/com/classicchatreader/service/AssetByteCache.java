@@ -0,0 +1,230 @@
+package com.classicchatreader.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the bytes of frequently read asset files (covers, illustrations, portraits, cached audio) in
+ * memory, bounded by total bytes. Caffeine's W-TinyLFU admission keeps one-off reads, such as a crawl of the
+ * whole library, from pushing out the covers every visitor loads. Each read still checks the file's size and
+ * modification time, so a regenerated or deleted file is never served from memory. Hits hand out a read-only
+ * view of the cached buffer, so serving one allocates nothing the size of the asset.
+ */
+@Service
+public class AssetByteCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetByteCache.class);
+    // Key path, entry and map node overhead counted against the budget with the bytes
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final boolean offHeap;
+    private final Cache<Path, Entry> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder tooLarge = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+
+    public AssetByteCache(@Value("${asset-cache.max-bytes:67108864}") long maxBytes,
+                          @Value("${asset-cache.max-entry-bytes:4194304}") long maxEntryBytes,
+                          @Value("${asset-cache.off-heap:false}") boolean offHeap) {
+        this.maxBytes = Math.max(0, maxBytes);
+        this.maxEntryBytes = Math.min(Math.max(0, maxEntryBytes), this.maxBytes);
+        this.offHeap = offHeap;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(this.maxBytes)
+                .weigher((Path path, Entry entry) -> (int) Math.min(Integer.MAX_VALUE, entry.weight()))
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        log.info("Asset byte cache: {} bytes, entries up to {} bytes, {}",
+                this.maxBytes, this.maxEntryBytes, offHeap ? "off-heap" : "on-heap");
+    }
+
+    /**
+     * Contents of {@code file}, from memory when the cached copy is still current, or null when the file does
+     * not exist.
+     */
+    public Resource read(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            cache.invalidate(key);
+            return null;
+        }
+        long size = attributes.size();
+        long modifiedMillis = attributes.lastModifiedTime().toMillis();
+
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.size() == size && entry.modifiedMillis() == modifiedMillis) {
+            hits.increment();
+            return new BufferResource(key, entry.buffer());
+        }
+        misses.increment();
+        if (entry != null) {
+            stale.increment();
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(key);
+        } catch (NoSuchFileException e) {
+            cache.invalidate(key);
+            return null;
+        }
+        if (bytes.length > maxEntryBytes) {
+            tooLarge.increment();
+            cache.invalidate(key);
+            return new BufferResource(key, ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+        }
+        ByteBuffer buffer = store(bytes);
+        cache.put(key, new Entry(buffer, size, modifiedMillis));
+        return new BufferResource(key, buffer);
+    }
+
+    public void invalidate(Path file) {
+        cache.invalidate(file.toAbsolutePath().normalize());
+    }
+
+    public Map<String, Object> snapshot() {
+        CacheStats stats = cache.stats();
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        long residentBytes = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("entries", cache.estimatedSize());
+        snapshot.put("residentBytes", residentBytes);
+        snapshot.put("maxBytes", maxBytes);
+        snapshot.put("offHeap", offHeap);
+        snapshot.put("hits", hitCount);
+        snapshot.put("misses", misses.sum());
+        snapshot.put("hitRate", lookups == 0 ? 0.0 : Math.round(hitCount * 1000.0 / lookups) / 1000.0);
+        snapshot.put("evictions", stats.evictionCount());
+        snapshot.put("evictedBytes", stats.evictionWeight());
+        snapshot.put("stale", stale.sum());
+        snapshot.put("tooLarge", tooLarge.sum());
+        return snapshot;
+    }
+
+    // The array comes straight from the file read and is only ever handed out read-only, so it needs no copy
+    private ByteBuffer store(byte[] bytes) {
+        if (!offHeap) {
+            return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Cached copy of a file, tagged with the size and modification time it was read at.
+     */
+    private record Entry(ByteBuffer buffer, long size, long modifiedMillis) {
+
+        long weight() {
+            return buffer.capacity() + ENTRY_OVERHEAD_BYTES;
+        }
+    }
+
+    /**
+     * A file's bytes served from a read-only buffer. Every stream reads its own view of the buffer, so
+     * concurrent responses share one copy without disturbing each other's position.
+     */
+    private static final class BufferResource extends AbstractResource {
+        private final Path file;
+        private final ByteBuffer buffer;
+
+        private BufferResource(Path file, ByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new BufferInputStream(buffer.duplicate());
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public String getFilename() {
+            return file.getFileName().toString();
+        }
+
+        @Override
+        public String getDescription() {
+            return "cached asset [" + file + "]";
+        }
+    }
+
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, target.length);
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long count) {
+            int skipped = (int) Math.min(Math.max(0, count), buffer.remaining());
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
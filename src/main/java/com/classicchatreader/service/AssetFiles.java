@@ -0,0 +1,35 @@
+package com.classicchatreader.service;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes cached asset files so readers never see a partial file: the bytes go to a temp file in the
+ * target's directory, which is then renamed over the target.
+ */
+final class AssetFiles {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private AssetFiles() {
+    }
+
+    static void writeAtomically(Path target, byte[] data) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "." + target.getFileName(), TEMP_SUFFIX);
+        try {
+            Files.write(temp, data);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
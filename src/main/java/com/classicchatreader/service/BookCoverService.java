@@ -6,11 +6,14 @@ import com.classicchatreader.entity.IllustrationStatus;
 import com.classicchatreader.model.IllustrationSettings;
 import com.classicchatreader.repository.BookCoverRepository;
 import com.classicchatreader.repository.BookRepository;
+import com.classicchatreader.service.GenerationScheduler.Backend;
+import com.classicchatreader.service.GenerationScheduler.Lane;
+import com.classicchatreader.service.GenerationScheduler.Priority;
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
@@ -20,12 +23,6 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 @Service
 public class BookCoverService {
@@ -38,11 +35,7 @@ public class BookCoverService {
     private final ComfyUIService comfyUIService;
     private final BookCoverImageGeneratorService bookCoverImageGeneratorService;
     private final AssetKeyService assetKeyService;
-
-    private final BlockingQueue<CoverRequest> generationQueue = new LinkedBlockingQueue<>();
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
-    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor();
-    private volatile boolean running = true;
+    private final GenerationScheduler generationScheduler;
 
     @Value("${generation.cache-only:false}")
     private boolean cacheOnly;
@@ -68,13 +61,15 @@ public class BookCoverService {
             IllustrationService illustrationService,
             ComfyUIService comfyUIService,
             BookCoverImageGeneratorService bookCoverImageGeneratorService,
-            AssetKeyService assetKeyService) {
+            AssetKeyService assetKeyService,
+            GenerationScheduler generationScheduler) {
         this.bookCoverRepository = bookCoverRepository;
         this.bookRepository = bookRepository;
         this.illustrationService = illustrationService;
         this.comfyUIService = comfyUIService;
         this.bookCoverImageGeneratorService = bookCoverImageGeneratorService;
         this.assetKeyService = assetKeyService;
+        this.generationScheduler = generationScheduler;
     }
 
     @org.springframework.beans.factory.annotation.Autowired
@@ -86,20 +81,13 @@ public class BookCoverService {
     @PostConstruct
     public void init() {
         workerId = "book-cover-" + UUID.randomUUID();
-        executor.submit(this::processQueue);
-        log.info("Book cover service started with background queue processor (workerId={})", workerId);
-    }
-
-    @PreDestroy
-    public void shutdown() {
-        running = false;
-        executor.shutdownNow();
-        retryScheduler.shutdownNow();
-        log.info("Book cover service shutting down");
+        generationScheduler.register(Lane.COVER, Backend.of(bookCoverImageGeneratorService.getProviderName()),
+                (bookId, payload) -> processRequest(bookId));
+        log.info("Book cover service started on the generation scheduler (workerId={})", workerId);
     }
 
     public int getQueueDepth() {
-        return generationQueue.size();
+        return generationScheduler.getQueueDepth(Lane.COVER);
     }
 
     public IllustrationStatus getStatus(String bookId) {
@@ -128,7 +116,7 @@ public class BookCoverService {
                 .map(BookCoverEntity::getImageFilename);
     }
 
-    public byte[] getCover(String bookId) {
+    public Resource getCover(String bookId) {
         return getCoverFilename(bookId)
                 .map(comfyUIService::getBookCoverImage)
                 .orElse(null);
@@ -136,6 +124,11 @@ public class BookCoverService {
 
     @Transactional
     public void requestCover(String bookId) {
+        requestCover(bookId, Priority.INTERACTIVE);
+    }
+
+    @Transactional
+    public void requestCover(String bookId, Priority priority) {
         if (cacheOnly) {
             log.info("Skipping book cover request in cache-only mode for book {}", bookId);
             return;
@@ -152,10 +145,10 @@ public class BookCoverService {
                 if (existing.get().getNextRetryAt() != null
                         && existing.get().getNextRetryAt().isAfter(LocalDateTime.now())) {
                     long delayMs = Duration.between(LocalDateTime.now(), existing.get().getNextRetryAt()).toMillis();
-                    scheduleRetryRequest(new CoverRequest(bookId), delayMs);
+                    generationScheduler.enqueueLater(Lane.COVER, bookId, bookId, priority, null, delayMs);
                     return;
                 }
-                generationQueue.offer(new CoverRequest(bookId));
+                enqueue(bookId, priority);
                 return;
             }
             bookCoverRepository.delete(existing.get());
@@ -173,7 +166,7 @@ public class BookCoverService {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override
                 public void afterCommit() {
-                    generationQueue.offer(new CoverRequest(bookId));
+                    enqueue(bookId, priority);
                     log.info("Queued book cover request for book: {}", bookId);
                 }
             });
@@ -291,7 +284,7 @@ public class BookCoverService {
         }
         Optional<BookCoverEntity> pending = bookCoverRepository.findByBookId(bookId)
                 .filter(cover -> cover.getStatus() == IllustrationStatus.PENDING);
-        if (pending.isPresent() && generationQueue.offer(new CoverRequest(bookId))) {
+        if (pending.isPresent() && enqueue(bookId, Priority.BATCH)) {
             return 1;
         }
         return 0;
@@ -314,32 +307,21 @@ public class BookCoverService {
         cover.setNextRetryAt(null);
         clearCoverLease(cover);
         bookCoverRepository.save(cover);
-        generationQueue.offer(new CoverRequest(bookId));
+        enqueue(bookId, Priority.BATCH);
         return 1;
     }
 
-    private void processQueue() {
-        log.info("Book cover queue processor thread started");
-        int processedCount = 0;
-        while (running) {
-            try {
-                CoverRequest request = generationQueue.take();
-                if (cacheOnly) {
-                    log.info("Skipping queued book cover request in cache-only mode for book {}", request.bookId());
-                    continue;
-                }
-                processedCount++;
-                log.info("Processing book cover request #{} for book: {}", processedCount, request.bookId());
-                generateCover(request.bookId());
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.info("Book cover queue processor thread interrupted");
-                break;
-            } catch (Exception e) {
-                log.error("Error processing book cover queue", e);
-            }
+    private void processRequest(String bookId) {
+        if (cacheOnly) {
+            log.info("Skipping queued book cover request in cache-only mode for book {}", bookId);
+            return;
         }
-        log.info("Book cover queue processor thread stopped after processing {} requests", processedCount);
+        log.info("Processing book cover request for book: {}", bookId);
+        generateCover(bookId);
+    }
+
+    private boolean enqueue(String bookId, Priority priority) {
+        return generationScheduler.enqueue(Lane.COVER, bookId, bookId, priority);
     }
 
     private void generateCover(String bookId) {
@@ -459,7 +441,7 @@ public class BookCoverService {
             cover.setStatus(IllustrationStatus.PENDING);
             cover.setNextRetryAt(LocalDateTime.now().plus(Duration.ofMillis(delayMs)));
             bookCoverRepository.save(cover);
-            scheduleRetryRequest(new CoverRequest(bookId), delayMs);
+            scheduleRetryRequest(bookId, delayMs);
             log.warn("Retrying book cover generation for book {} in {}s (attempt {}/{})",
                     bookId,
                     Math.max(1L, delayMs / 1000L),
@@ -499,11 +481,11 @@ public class BookCoverService {
             }
             LocalDateTime now = LocalDateTime.now();
             if (!cover.getNextRetryAt().isAfter(now)) {
-                generationQueue.offer(new CoverRequest(bookId));
+                enqueue(bookId, generationScheduler.currentPriority());
                 return;
             }
             long delayMs = Duration.between(now, cover.getNextRetryAt()).toMillis();
-            scheduleRetryRequest(new CoverRequest(bookId), delayMs);
+            scheduleRetryRequest(bookId, delayMs);
         });
     }
 
@@ -517,12 +499,8 @@ public class BookCoverService {
         return Math.max(1L, delaySeconds) * 1000L;
     }
 
-    private void scheduleRetryRequest(CoverRequest request, long delayMs) {
-        retryScheduler.schedule(() -> {
-            if (running) {
-                generationQueue.offer(request);
-            }
-        }, Math.max(0L, delayMs), TimeUnit.MILLISECONDS);
+    private void scheduleRetryRequest(String bookId, long delayMs) {
+        generationScheduler.retryLater(Lane.COVER, bookId, null, delayMs);
     }
 
     private void enqueueAfterCommit(String bookId) {
@@ -530,13 +508,13 @@ public class BookCoverService {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override
                 public void afterCommit() {
-                    generationQueue.offer(new CoverRequest(bookId));
+                    enqueue(bookId, Priority.INTERACTIVE);
                     log.info("Queued book cover retry for book: {}", bookId);
                 }
             });
             return;
         }
-        generationQueue.offer(new CoverRequest(bookId));
+        enqueue(bookId, Priority.INTERACTIVE);
     }
 
     private String normalizePromptOverride(String promptOverride) {
@@ -561,8 +539,6 @@ public class BookCoverService {
         }
     }
 
-    private record CoverRequest(String bookId) {}
-
     public record CoverStatus(
             String bookId,
             IllustrationStatus status,
@@ -14,6 +14,8 @@ import com.classicchatreader.repository.ChapterRecapRepository;
 import com.classicchatreader.repository.ChapterRepository;
 import com.classicchatreader.repository.CharacterRepository;
 import com.classicchatreader.repository.IllustrationRepository;
+import com.classicchatreader.repository.ParagraphRepository;
+import com.classicchatreader.repository.ParagraphRepository.BookContentSummary;
 import com.classicchatreader.repository.QuizAttemptRepository;
 import com.classicchatreader.repository.QuizTrophyRepository;
 import org.springframework.stereotype.Service;
@@ -29,6 +31,7 @@ public class BookStorageService {
     private final BookRepository bookRepository;
     private final BookCoverRepository bookCoverRepository;
     private final ChapterRepository chapterRepository;
+    private final ParagraphRepository paragraphRepository;
     private final ChapterAnalysisRepository chapterAnalysisRepository;
     private final ChapterRecapRepository chapterRecapRepository;
     private final ChapterQuizRepository chapterQuizRepository;
@@ -43,6 +46,7 @@ public class BookStorageService {
     public BookStorageService(BookRepository bookRepository,
                               BookCoverRepository bookCoverRepository,
                               ChapterRepository chapterRepository,
+                              ParagraphRepository paragraphRepository,
                               ChapterAnalysisRepository chapterAnalysisRepository,
                               ChapterRecapRepository chapterRecapRepository,
                               ChapterQuizRepository chapterQuizRepository,
@@ -56,6 +60,7 @@ public class BookStorageService {
         this.bookRepository = bookRepository;
         this.bookCoverRepository = bookCoverRepository;
         this.chapterRepository = chapterRepository;
+        this.paragraphRepository = paragraphRepository;
         this.chapterAnalysisRepository = chapterAnalysisRepository;
         this.chapterRecapRepository = chapterRecapRepository;
         this.chapterQuizRepository = chapterQuizRepository;
@@ -118,7 +123,8 @@ public class BookStorageService {
     @Transactional
     public Book saveBook(BookEntity book) {
         BookEntity saved = bookRepository.save(book);
-        indexBook(saved);
+        BookContentSummary summary = paragraphRepository.summarizeContentForBook(saved.getId()).orElse(null);
+        indexBook(saved, SearchReindexService.contentVersion(saved.getTitle(), saved.getAuthor(), summary));
         return toBookDto(saved);
     }
 
@@ -129,11 +135,7 @@ public class BookStorageService {
         }
         deleteBookDependents(bookId);
         bookRepository.deleteById(bookId);
-        try {
-            searchService.deleteByBookId(bookId);
-        } catch (Exception e) {
-            System.err.println("Failed to remove book from search index: " + e.getMessage());
-        }
+        removeFromSearchIndex(bookId);
         return true;
     }
 
@@ -143,11 +145,7 @@ public class BookStorageService {
         int count = books.size();
         for (BookEntity book : books) {
             deleteBookDependents(book.getId());
-            try {
-                searchService.deleteByBookId(book.getId());
-            } catch (Exception e) {
-                System.err.println("Failed to remove book from search index: " + e.getMessage());
-            }
+            removeFromSearchIndex(book.getId());
             bookRepository.deleteById(book.getId());
         }
         return count;
@@ -186,31 +184,33 @@ public class BookStorageService {
                 )));
     }
 
-    // Index a book and its content in the search index
-    private void indexBook(BookEntity book) {
+    // Index a book and its content in the search index, one batch per chapter and one commit per book
+    private void indexBook(BookEntity book, String contentVersion) {
         try {
-            searchService.indexBook(book.getId(), book.getTitle(), book.getAuthor());
-
             for (ChapterEntity chapter : book.getChapters()) {
-                for (ParagraphEntity paragraph : chapter.getParagraphs()) {
-                    searchService.indexParagraph(
-                        book.getId(),
-                        chapter.getId(),
-                        paragraph.getParagraphIndex(),
-                        paragraph.getContent()
-                    );
-                }
+                List<Paragraph> paragraphs = chapter.getParagraphs().stream()
+                    .map(p -> new Paragraph(p.getParagraphIndex(), p.getContent()))
+                    .toList();
+                searchService.indexParagraphs(book.getId(), chapter.getId(), chapter.getChapterIndex(), paragraphs);
             }
+
+            // The book document carries the content version, so write it last: an interrupted
+            // index run leaves no version behind and the book is picked up again on next boot.
+            searchService.indexBook(book.getId(), book.getTitle(), book.getAuthor(), contentVersion);
+            searchService.commit();
         } catch (Exception e) {
             // Log but don't fail the save operation
             System.err.println("Failed to index book: " + e.getMessage());
         }
     }
 
-    // Reindex all books (useful after application restart)
-    @Transactional(readOnly = true)
-    public void reindexAll() {
-        bookRepository.findAll().forEach(this::indexBook);
+    private void removeFromSearchIndex(String bookId) {
+        try {
+            searchService.deleteByBookId(bookId);
+            searchService.commit();
+        } catch (Exception e) {
+            System.err.println("Failed to remove book from search index: " + e.getMessage());
+        }
     }
 
     private void deleteBookDependents(String bookId) {
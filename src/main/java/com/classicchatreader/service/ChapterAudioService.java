@@ -0,0 +1,198 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.entity.BookEntity;
+import com.classicchatreader.entity.ChapterEntity;
+import com.classicchatreader.entity.ParagraphEntity;
+import com.classicchatreader.model.ChapterAudioIndex;
+import com.classicchatreader.model.VoiceSettings;
+import com.classicchatreader.repository.ParagraphRepository;
+import org.jsoup.Jsoup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Joins a chapter's cached paragraph MP3s into one continuous stream. Each file's audio frames are copied
+ * back to back, without its tags or header frame, and the index records where every paragraph starts in
+ * bytes and milliseconds so the reader can highlight along with playback.
+ */
+@Service
+public class ChapterAudioService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChapterAudioService.class);
+    private static final int MAX_CACHED_SPANS = 4096;
+
+    private final TtsService ttsService;
+    private final ParagraphRepository paragraphRepository;
+    private final AssetKeyService assetKeyService;
+    private final TtsPreSynthesisService ttsPreSynthesisService;
+    // Frame spans by ETag, so repeat index and stream requests do not rescan unchanged files
+    private final Map<String, Mp3Frames.Span> spans = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Mp3Frames.Span> eldest) {
+            return size() > MAX_CACHED_SPANS;
+        }
+    };
+
+    public ChapterAudioService(TtsService ttsService, ParagraphRepository paragraphRepository,
+                               AssetKeyService assetKeyService, TtsPreSynthesisService ttsPreSynthesisService) {
+        this.ttsService = ttsService;
+        this.paragraphRepository = paragraphRepository;
+        this.assetKeyService = assetKeyService;
+        this.ttsPreSynthesisService = ttsPreSynthesisService;
+    }
+
+    /**
+     * Lays out paragraphs {@code fromParagraph} (inclusive) to {@code toParagraph} (exclusive, or the end of
+     * the chapter when null). Only cached audio is used, so the call never waits on synthesis. With
+     * {@code synthesizeMissing}, uncached paragraphs are queued on the TTS lane and the stream stops before the
+     * first of them, so it never skips audio that is on its way; otherwise they are left out and listed as
+     * missing.
+     */
+    public ChapterAudio assemble(BookEntity book, ChapterEntity chapter, int fromParagraph, Integer toParagraph,
+                                 VoiceSettings settings, boolean synthesizeMissing) {
+        List<ParagraphEntity> paragraphs = paragraphRepository.findByChapterIdOrderByParagraphIndex(chapter.getId());
+        String bookKey = assetKeyService.buildBookKey(book);
+        String voice = ttsService.resolveVoice(settings.voice());
+        boolean canSynthesize = synthesizeMissing && ttsService.isConfigured() && !ttsService.isCacheOnly();
+        int end = toParagraph == null ? paragraphs.size() : Math.min(paragraphs.size(), toParagraph);
+
+        List<ChapterAudioIndex.Segment> segments = new ArrayList<>();
+        List<Part> parts = new ArrayList<>();
+        List<Integer> missing = new ArrayList<>();
+        List<Integer> queued = new ArrayList<>();
+        long byteOffset = 0;
+        long startMicros = 0;
+        for (int paragraphIndex = Math.max(0, fromParagraph); paragraphIndex < end; paragraphIndex++) {
+            TtsService.CachedAudio cached = ttsService.getCachedSpeechForParagraph(
+                    bookKey, chapter.getChapterIndex(), paragraphIndex, voice);
+            if (cached == null && canSynthesize && hasText(paragraphs.get(paragraphIndex))) {
+                queued.add(paragraphIndex);
+            }
+            Mp3Frames.Span span = cached == null || !queued.isEmpty() ? null : spanOf(cached);
+            if (span == null || span.isEmpty()) {
+                missing.add(paragraphIndex);
+                continue;
+            }
+            segments.add(new ChapterAudioIndex.Segment(paragraphIndex, byteOffset, span.length(),
+                    startMicros / 1000, span.durationMicros() / 1000));
+            parts.add(new Part(cached.file(), span.offset(), span.length(), cached.eTag()));
+            byteOffset += span.length();
+            startMicros += span.durationMicros();
+        }
+        if (!queued.isEmpty()) {
+            ttsPreSynthesisService.queueParagraphs(book, chapter, queued,
+                    new VoiceSettings(voice, settings.speed(), settings.instructions(), null));
+        }
+        ChapterAudioIndex index = new ChapterAudioIndex(chapter.getId(), voice, byteOffset, startMicros / 1000,
+                segments, missing, queued);
+        return new ChapterAudio(index, parts);
+    }
+
+    /**
+     * A laid-out chapter: its index and the byte ranges of the paragraph files that make up the stream.
+     */
+    public record ChapterAudio(ChapterAudioIndex index, List<Part> parts) {
+
+        /**
+         * Strong ETag of the stream laid out for paragraphs {@code fromParagraph} to {@code toParagraph}. It
+         * changes whenever a queued paragraph lands or a part file is regenerated, so range requests made
+         * with {@code If-Range} never splice bytes from two different layouts.
+         */
+        public String eTag(int fromParagraph, Integer toParagraph) {
+            StringBuilder layout = new StringBuilder()
+                    .append(index.chapterId()).append('|').append(index.voice()).append('|')
+                    .append(fromParagraph).append('|').append(toParagraph);
+            for (Part part : parts) {
+                layout.append('|').append(part.eTag()).append(':').append(part.offset()).append(':')
+                        .append(part.length());
+            }
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256")
+                        .digest(layout.toString().getBytes(StandardCharsets.UTF_8));
+                return "\"" + HexFormat.of().formatHex(hash).substring(0, 16) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        /**
+         * Copies the audio frames of every part to {@code out}, in order, reading from disk as it goes.
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            writeTo(out, 0, index.totalBytes());
+        }
+
+        /**
+         * Copies {@code length} bytes of the stream starting at {@code start}, for a range request.
+         */
+        public void writeTo(OutputStream out, long start, long length) throws IOException {
+            byte[] buffer = new byte[8192];
+            long end = start + length;
+            long partStart = 0;
+            for (Part part : parts) {
+                // Bytes of this part that fall in the range, relative to the part's first audio byte
+                long skip = Math.max(0, start - partStart);
+                long take = Math.min(part.length(), end - partStart) - skip;
+                partStart += part.length();
+                if (take <= 0) {
+                    continue;
+                }
+                try (InputStream in = Files.newInputStream(part.file())) {
+                    in.skipNBytes(part.offset() + skip);
+                    long remaining = take;
+                    while (remaining > 0) {
+                        int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                        if (read < 0) {
+                            throw new IOException("Paragraph audio changed while streaming: " + part.file());
+                        }
+                        out.write(buffer, 0, read);
+                        remaining -= read;
+                    }
+                }
+            }
+            out.flush();
+        }
+    }
+
+    public record Part(Path file, long offset, long length, String eTag) {
+    }
+
+    private static boolean hasText(ParagraphEntity paragraph) {
+        return paragraph.getContent() != null && !Jsoup.parse(paragraph.getContent()).text().isBlank();
+    }
+
+    private Mp3Frames.Span spanOf(TtsService.CachedAudio cached) {
+        synchronized (spans) {
+            Mp3Frames.Span span = spans.get(cached.eTag());
+            if (span != null) {
+                return span;
+            }
+        }
+        Mp3Frames.Span span;
+        try {
+            span = Mp3Frames.scan(cached.file());
+        } catch (IOException e) {
+            log.warn("Failed to read paragraph audio {}: {}", cached.file(), e.getMessage());
+            return null;
+        }
+        synchronized (spans) {
+            spans.put(cached.eTag(), span);
+        }
+        return span;
+    }
+}
@@ -3,7 +3,6 @@ package com.classicchatreader.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import com.classicchatreader.entity.ChapterEntity;
 import com.classicchatreader.entity.ChapterQuizEntity;
 import com.classicchatreader.entity.ChapterQuizStatus;
@@ -16,8 +15,12 @@ import com.classicchatreader.model.ChapterQuizViewPayload;
 import com.classicchatreader.repository.ChapterQuizRepository;
 import com.classicchatreader.repository.ChapterRepository;
 import com.classicchatreader.repository.ParagraphRepository;
+import com.classicchatreader.service.GenerationScheduler.Backend;
+import com.classicchatreader.service.GenerationScheduler.Lane;
+import com.classicchatreader.service.GenerationScheduler.Priority;
 import com.classicchatreader.service.llm.LlmOptions;
 import com.classicchatreader.service.llm.LlmProvider;
+import com.classicchatreader.service.llm.LlmProviderException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -34,10 +37,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.stream.Collectors;
 
 @Service
@@ -54,9 +53,7 @@ public class ChapterQuizService {
     private final ObjectMapper objectMapper;
     private final QuizProgressService quizProgressService;
     private final QuizMetricsService quizMetricsService;
-    private final BlockingQueue<String> requestQueue = new LinkedBlockingQueue<>();
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
-    private volatile boolean running = true;
+    private final GenerationScheduler generationScheduler;
 
     @Value("${quiz.generation.max-context-chars:7000}")
     private int maxContextChars;
@@ -89,6 +86,7 @@ public class ChapterQuizService {
             @Qualifier("quizReasoningLlmProvider") LlmProvider reasoningProvider,
             QuizProgressService quizProgressService,
             QuizMetricsService quizMetricsService,
+            GenerationScheduler generationScheduler,
             ObjectMapper objectMapper) {
         this.chapterQuizRepository = chapterQuizRepository;
         this.chapterRepository = chapterRepository;
@@ -96,20 +94,15 @@ public class ChapterQuizService {
         this.reasoningProvider = reasoningProvider;
         this.quizProgressService = quizProgressService;
         this.quizMetricsService = quizMetricsService;
+        this.generationScheduler = generationScheduler;
         this.objectMapper = objectMapper;
     }
 
     @PostConstruct
     public void init() {
-        executor.submit(this::processQueue);
-        log.info("Chapter quiz service started with background queue processor");
-    }
-
-    @PreDestroy
-    public void shutdown() {
-        running = false;
-        executor.shutdownNow();
-        log.info("Chapter quiz service shutting down");
+        generationScheduler.register(Lane.QUIZ, Backend.of(reasoningProvider.getProviderName()),
+                (chapterId, payload) -> processChapterQuiz(chapterId));
+        log.info("Chapter quiz service started on the generation scheduler");
     }
 
     @Transactional(readOnly = true)
@@ -147,15 +140,20 @@ public class ChapterQuizService {
     }
 
     public int getQueueDepth() {
-        return requestQueue.size();
+        return generationScheduler.getQueueDepth(Lane.QUIZ);
     }
 
     public boolean isQueueProcessorRunning() {
-        return !executor.isShutdown() && !executor.isTerminated();
+        return generationScheduler.isRunning();
     }
 
     @Transactional
     public void requestChapterQuiz(String chapterId) {
+        requestChapterQuiz(chapterId, Priority.INTERACTIVE);
+    }
+
+    @Transactional
+    public void requestChapterQuiz(String chapterId, Priority priority) {
         if (cacheOnly) {
             log.info("Skipping quiz request in cache-only mode for chapter {}", chapterId);
             return;
@@ -178,7 +176,7 @@ public class ChapterQuizService {
 
             quiz.setStatus(ChapterQuizStatus.PENDING);
             chapterQuizRepository.save(quiz);
-            queueQuizRequest(chapterId);
+            queueQuizRequest(chapterId, quiz.getChapter().getBook().getId(), priority);
             return;
         }
 
@@ -189,10 +187,10 @@ public class ChapterQuizService {
             ChapterQuizEntity quiz = new ChapterQuizEntity(chapter);
             quiz.setStatus(ChapterQuizStatus.PENDING);
             chapterQuizRepository.save(quiz);
-            queueQuizRequest(chapterId);
+            queueQuizRequest(chapterId, chapter.getBook().getId(), priority);
         } catch (DataIntegrityViolationException e) {
             log.debug("Chapter {} quiz already exists (race condition handled)", chapterId);
-            queueQuizRequest(chapterId);
+            queueQuizRequest(chapterId, chapter.getBook().getId(), priority);
         }
     }
 
@@ -325,8 +323,8 @@ public class ChapterQuizService {
         });
     }
 
-    private void queueQuizRequest(String chapterId) {
-        if (offerIfNotQueued(chapterId)) {
+    private void queueQuizRequest(String chapterId, String bookId, Priority priority) {
+        if (offerIfNotQueued(chapterId, bookId, priority)) {
             quizMetricsService.recordGenerationRequested();
             log.debug("Queued chapter quiz generation for chapter: {}", chapterId);
         } else {
@@ -334,25 +332,8 @@ public class ChapterQuizService {
         }
     }
 
-    private boolean offerIfNotQueued(String chapterId) {
-        if (requestQueue.contains(chapterId)) {
-            return false;
-        }
-        return requestQueue.offer(chapterId);
-    }
-
-    private void processQueue() {
-        while (running) {
-            try {
-                String chapterId = requestQueue.take();
-                processChapterQuiz(chapterId);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            } catch (Exception e) {
-                log.error("Error processing chapter quiz queue", e);
-            }
-        }
+    private boolean offerIfNotQueued(String chapterId, String bookId, Priority priority) {
+        return generationScheduler.enqueue(Lane.QUIZ, chapterId, bookId, priority);
     }
 
     private void processChapterQuiz(String chapterId) {
@@ -415,11 +396,14 @@ public class ChapterQuizService {
                     return new QuizGenerationResult(
                             llmPayload,
                             "v1-llm-json",
-                            reasoningProvider.getProviderName()
+                            reasoningProvider.getRespondingProviderName()
                     );
                 }
                 log.warn("LLM quiz payload was empty; falling back to extractive quiz for chapter {}", chapter.getId());
             } catch (Exception e) {
+                if (LlmProviderException.isThrottled(e)) {
+                    generationScheduler.reportThrottled();
+                }
                 log.warn("LLM quiz generation failed; using extractive fallback for chapter {}", chapter.getId(), e);
             }
         }
@@ -486,13 +470,22 @@ public class ChapterQuizService {
                 buildChapterContext(paragraphs)
         );
 
-        String generated = reasoningProvider.generate(prompt, LlmOptions.full(0.2, 0.9, 900));
-        String json = extractJsonObject(generated);
+        LlmOptions options = LlmOptions.full(0.2, 0.9, 900);
+        String generated = reasoningProvider.generate(prompt, options);
         try {
-            ChapterQuizPayload payload = objectMapper.readValue(json, ChapterQuizPayload.class);
-            return normalizePayload(payload, paragraphs);
+            ChapterQuizPayload payload = normalizePayload(
+                    objectMapper.readValue(extractJsonObject(generated), ChapterQuizPayload.class), paragraphs);
+            if (!hasQuestions(payload)) {
+                reasoningProvider.evict(prompt, options);
+            }
+            return payload;
         } catch (JsonProcessingException e) {
+            reasoningProvider.evict(prompt, options);
             throw new IllegalArgumentException("Invalid JSON quiz response from LLM provider", e);
+        } catch (IllegalArgumentException e) {
+            // Keep the response cache from serving the same unusable reply on the next attempt
+            reasoningProvider.evict(prompt, options);
+            throw e;
         }
     }
 
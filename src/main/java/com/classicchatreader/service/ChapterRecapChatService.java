@@ -5,15 +5,21 @@ import com.classicchatreader.entity.ParagraphEntity;
 import com.classicchatreader.model.ChatMessage;
 import com.classicchatreader.repository.ChapterRepository;
 import com.classicchatreader.repository.ParagraphRepository;
+import com.classicchatreader.service.ChatMetricsService.Surface;
 import com.classicchatreader.service.llm.LlmOptions;
 import com.classicchatreader.service.llm.LlmProvider;
+import com.classicchatreader.service.llm.LlmStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,9 +27,14 @@ public class ChapterRecapChatService {
 
     private static final Logger log = LoggerFactory.getLogger(ChapterRecapChatService.class);
 
+    private static final String NO_CONTEXT_REPLY = "I don't have enough context to answer confidently yet.";
+    private static final String FAILURE_REPLY = "I can't answer right now, but you can continue reading and ask again.";
+    private static final LlmOptions CHAT_OPTIONS = LlmOptions.withTemperatureAndTopP(0.4, 0.9);
+
     private final LlmProvider chatProvider;
     private final ChapterRepository chapterRepository;
     private final ParagraphRepository paragraphRepository;
+    private final ChatMetricsService chatMetricsService;
 
     @Value("${recap.chat.max-context-chapters:3}")
     private int maxContextChapters;
@@ -37,10 +48,12 @@ public class ChapterRecapChatService {
     public ChapterRecapChatService(
             @Qualifier("chatLlmProvider") LlmProvider chatProvider,
             ChapterRepository chapterRepository,
-            ParagraphRepository paragraphRepository) {
+            ParagraphRepository paragraphRepository,
+            ChatMetricsService chatMetricsService) {
         this.chatProvider = chatProvider;
         this.chapterRepository = chapterRepository;
         this.paragraphRepository = paragraphRepository;
+        this.chatMetricsService = chatMetricsService;
         log.info("Chapter recap chat service initialized with provider: {}", chatProvider.getProviderName());
     }
 
@@ -48,19 +61,80 @@ public class ChapterRecapChatService {
         return chatProvider.isAvailable();
     }
 
-    public String chat(
+    /**
+     * Generates the reply without tying up the calling thread while the provider works. Failures
+     * resolve to a fallback reply rather than an error.
+     */
+    public Mono<String> chat(
+            String bookId,
+            String userMessage,
+            List<ChatMessage> conversationHistory,
+            int readerChapterIndex) {
+        return Mono.defer(() -> {
+            PromptOrReply prompt = buildPrompt(bookId, userMessage, conversationHistory, readerChapterIndex);
+            if (prompt.reply() != null) {
+                return Mono.just(prompt.reply());
+            }
+
+            return chatProvider.generateAsync(prompt.prompt(), CHAT_OPTIONS)
+                    .map(this::cleanResponse)
+                    .filter(cleaned -> !cleaned.isBlank())
+                    .defaultIfEmpty(NO_CONTEXT_REPLY)
+                    .onErrorResume(e -> {
+                        log.error("Failed to generate chapter recap chat response for book {}", bookId, e);
+                        return Mono.just(FAILURE_REPLY);
+                    });
+        });
+    }
+
+    /**
+     * Streams the reply as the provider produces it. Errors before the first token fall back to the same
+     * reply {@link #chat} would give; errors after it end the stream, keeping what the reader has seen.
+     */
+    public Flux<String> chatStream(
+            String bookId,
+            String userMessage,
+            List<ChatMessage> conversationHistory,
+            int readerChapterIndex) {
+        return Flux.defer(() -> {
+            PromptOrReply prompt = buildPrompt(bookId, userMessage, conversationHistory, readerChapterIndex);
+            if (prompt.reply() != null) {
+                return Flux.just(prompt.reply());
+            }
+
+            chatMetricsService.recordStreamStarted(Surface.RECAP);
+            long startedAt = System.nanoTime();
+            AtomicBoolean firstToken = new AtomicBoolean();
+            return LlmStreams.stripLeadingLabel(chatProvider.generateStream(prompt.prompt(), CHAT_OPTIONS),
+                            "Assistant:")
+                    .doOnNext(token -> {
+                        if (firstToken.compareAndSet(false, true)) {
+                            chatMetricsService.recordFirstToken(Surface.RECAP,
+                                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                        }
+                    })
+                    .switchIfEmpty(Flux.just(NO_CONTEXT_REPLY))
+                    .onErrorResume(e -> {
+                        log.error("Failed to stream chapter recap chat response for book {}", bookId, e);
+                        chatMetricsService.recordStreamFailed(Surface.RECAP);
+                        return firstToken.get() ? Flux.empty() : Flux.just(FAILURE_REPLY);
+                    });
+        });
+    }
+
+    private PromptOrReply buildPrompt(
             String bookId,
             String userMessage,
             List<ChatMessage> conversationHistory,
             int readerChapterIndex) {
         List<ChapterEntity> chapters = chapterRepository.findByBookIdOrderByChapterIndex(bookId);
         if (chapters.isEmpty()) {
-            return "I can't discuss this book yet because chapter context is unavailable.";
+            return PromptOrReply.reply("I can't discuss this book yet because chapter context is unavailable.");
         }
 
         int maxChapterIndex = chapters.get(chapters.size() - 1).getChapterIndex();
         if (readerChapterIndex < 0 || readerChapterIndex > maxChapterIndex) {
-            return "I can only discuss chapters within your current reading position.";
+            return PromptOrReply.reply("I can only discuss chapters within your current reading position.");
         }
 
         int minChapterIndex = Math.max(0, readerChapterIndex - Math.max(1, maxContextChapters) + 1);
@@ -72,7 +146,7 @@ public class ChapterRecapChatService {
         String chapterContext = buildChapterContext(contextChapters);
         String conversationContext = buildConversationContext(conversationHistory);
 
-        String prompt = String.format("""
+        return PromptOrReply.prompt(String.format("""
             You are a spoiler-safe reading companion for this book.
 
             RULES:
@@ -98,19 +172,7 @@ public class ChapterRecapChatService {
                 chapterContext,
                 conversationContext,
                 userMessage
-        );
-
-        try {
-            String generated = chatProvider.generate(prompt, LlmOptions.withTemperatureAndTopP(0.4, 0.9));
-            String cleaned = cleanResponse(generated);
-            if (cleaned.isBlank()) {
-                return "I don't have enough context to answer confidently yet.";
-            }
-            return cleaned;
-        } catch (Exception e) {
-            log.error("Failed to generate chapter recap chat response for book {}", bookId, e);
-            return "I can't answer right now, but you can continue reading and ask again.";
-        }
+        ));
     }
 
     private String buildChapterContext(List<ChapterEntity> chapters) {
@@ -182,6 +244,19 @@ public class ChapterRecapChatService {
         return cleaned;
     }
 
+    /**
+     * Either the prompt to send, or a fixed reply when the request cannot be answered from the book.
+     */
+    private record PromptOrReply(String prompt, String reply) {
+        static PromptOrReply prompt(String prompt) {
+            return new PromptOrReply(prompt, null);
+        }
+
+        static PromptOrReply reply(String reply) {
+            return new PromptOrReply(null, reply);
+        }
+    }
+
     private String trimToLength(String value) {
         if (value.length() <= 260) {
             return value;
@@ -3,7 +3,6 @@ package com.classicchatreader.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import com.classicchatreader.entity.ChapterEntity;
 import com.classicchatreader.entity.CharacterEntity;
 import com.classicchatreader.entity.ParagraphEntity;
@@ -16,8 +15,12 @@ import com.classicchatreader.repository.CharacterRepository;
 import com.classicchatreader.repository.ParagraphRepository;
 import com.classicchatreader.repository.ChapterRecapRepository;
 import com.classicchatreader.repository.ChapterRepository;
+import com.classicchatreader.service.GenerationScheduler.Backend;
+import com.classicchatreader.service.GenerationScheduler.Lane;
+import com.classicchatreader.service.GenerationScheduler.Priority;
 import com.classicchatreader.service.llm.LlmOptions;
 import com.classicchatreader.service.llm.LlmProvider;
+import com.classicchatreader.service.llm.LlmProviderException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -34,12 +37,6 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -56,10 +53,7 @@ public class ChapterRecapService {
     private final LlmProvider reasoningProvider;
     private final ObjectMapper objectMapper;
     private final RecapMetricsService recapMetricsService;
-    private final BlockingQueue<String> requestQueue = new LinkedBlockingQueue<>();
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
-    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor();
-    private volatile boolean running = true;
+    private final GenerationScheduler generationScheduler;
 
     @Value("${recap.generation.max-context-chars:6000}")
     private int maxContextChars;
@@ -94,6 +88,7 @@ public class ChapterRecapService {
             CharacterRepository characterRepository,
             @Qualifier("recapReasoningLlmProvider") LlmProvider reasoningProvider,
             RecapMetricsService recapMetricsService,
+            GenerationScheduler generationScheduler,
             ObjectMapper objectMapper) {
         this.chapterRecapRepository = chapterRecapRepository;
         this.chapterRepository = chapterRepository;
@@ -101,6 +96,7 @@ public class ChapterRecapService {
         this.characterRepository = characterRepository;
         this.reasoningProvider = reasoningProvider;
         this.recapMetricsService = recapMetricsService;
+        this.generationScheduler = generationScheduler;
         this.objectMapper = objectMapper;
     }
 
@@ -109,16 +105,9 @@ public class ChapterRecapService {
         workerId = (configuredWorkerId != null && !configuredWorkerId.isBlank())
                 ? configuredWorkerId
                 : "pdr-" + UUID.randomUUID();
-        executor.submit(this::processQueue);
-        log.info("Chapter recap service started with background queue processor (workerId={})", workerId);
-    }
-
-    @PreDestroy
-    public void shutdown() {
-        running = false;
-        executor.shutdownNow();
-        retryScheduler.shutdownNow();
-        log.info("Chapter recap service shutting down");
+        generationScheduler.register(Lane.RECAP, Backend.of(reasoningProvider.getProviderName()),
+                (chapterId, payload) -> processChapterRecap(chapterId));
+        log.info("Chapter recap service started on the generation scheduler (workerId={})", workerId);
     }
 
     @Transactional(readOnly = true)
@@ -152,11 +141,11 @@ public class ChapterRecapService {
     }
 
     public int getQueueDepth() {
-        return requestQueue.size();
+        return generationScheduler.getQueueDepth(Lane.RECAP);
     }
 
     public boolean isQueueProcessorRunning() {
-        return !executor.isShutdown() && !executor.isTerminated();
+        return generationScheduler.isRunning();
     }
 
     public boolean isProviderAvailable() {
@@ -165,6 +154,11 @@ public class ChapterRecapService {
 
     @Transactional
     public void requestChapterRecap(String chapterId) {
+        requestChapterRecap(chapterId, Priority.INTERACTIVE);
+    }
+
+    @Transactional
+    public void requestChapterRecap(String chapterId, Priority priority) {
         if (cacheOnly) {
             log.info("Skipping recap request in cache-only mode for chapter {}", chapterId);
             return;
@@ -197,7 +191,7 @@ public class ChapterRecapService {
             recap.setNextRetryAt(null);
             clearRecapLease(recap);
             chapterRecapRepository.save(recap);
-            queueRecapRequest(chapterId);
+            queueRecapRequest(chapterId, recap.getChapter().getBook().getId(), priority);
             return;
         }
 
@@ -208,10 +202,10 @@ public class ChapterRecapService {
             ChapterRecapEntity recap = new ChapterRecapEntity(chapter);
             recap.setStatus(ChapterRecapStatus.PENDING);
             chapterRecapRepository.save(recap);
-            queueRecapRequest(chapterId);
+            queueRecapRequest(chapterId, chapter.getBook().getId(), priority);
         } catch (DataIntegrityViolationException e) {
             log.debug("Chapter {} recap already exists (race condition handled)", chapterId);
-            queueRecapRequest(chapterId);
+            queueRecapRequest(chapterId, chapter.getBook().getId(), priority);
         }
     }
 
@@ -228,7 +222,7 @@ public class ChapterRecapService {
 
         int queued = 0;
         for (ChapterRecapEntity recap : pendingRecaps) {
-            if (offerIfNotQueued(recap.getChapter().getId())) {
+            if (offerIfNotQueued(recap.getChapter().getId(), bookId, Priority.BATCH)) {
                 queued++;
             }
         }
@@ -238,7 +232,7 @@ public class ChapterRecapService {
             recap.setNextRetryAt(null);
             clearRecapLease(recap);
             chapterRecapRepository.save(recap);
-            if (offerIfNotQueued(recap.getChapter().getId())) {
+            if (offerIfNotQueued(recap.getChapter().getId(), bookId, Priority.BATCH)) {
                 queued++;
             }
         }
@@ -271,12 +265,12 @@ public class ChapterRecapService {
 
         int requeued = 0;
         for (ChapterRecapEntity recap : stuckGenerating) {
-            if (offerIfNotQueued(recap.getChapter().getId())) {
+            if (offerIfNotQueued(recap.getChapter().getId(), bookId, Priority.BATCH)) {
                 requeued++;
             }
         }
         for (ChapterRecapEntity recap : stuckPending) {
-            if (offerIfNotQueued(recap.getChapter().getId())) {
+            if (offerIfNotQueued(recap.getChapter().getId(), bookId, Priority.BATCH)) {
                 requeued++;
             }
         }
@@ -286,7 +280,7 @@ public class ChapterRecapService {
             recap.setNextRetryAt(null);
             clearRecapLease(recap);
             chapterRecapRepository.save(recap);
-            if (offerIfNotQueued(recap.getChapter().getId())) {
+            if (offerIfNotQueued(recap.getChapter().getId(), bookId, Priority.BATCH)) {
                 requeued++;
             }
         }
@@ -329,8 +323,8 @@ public class ChapterRecapService {
         });
     }
 
-    private void queueRecapRequest(String chapterId) {
-        if (offerIfNotQueued(chapterId)) {
+    private void queueRecapRequest(String chapterId, String bookId, Priority priority) {
+        if (offerIfNotQueued(chapterId, bookId, priority)) {
             recapMetricsService.recordGenerationRequested();
             log.debug("Queued chapter recap generation for chapter: {}", chapterId);
         } else {
@@ -338,25 +332,8 @@ public class ChapterRecapService {
         }
     }
 
-    private boolean offerIfNotQueued(String chapterId) {
-        if (requestQueue.contains(chapterId)) {
-            return false;
-        }
-        return requestQueue.offer(chapterId);
-    }
-
-    private void processQueue() {
-        while (running) {
-            try {
-                String chapterId = requestQueue.take();
-                processChapterRecap(chapterId);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            } catch (Exception e) {
-                log.error("Error processing chapter recap queue", e);
-            }
-        }
+    private boolean offerIfNotQueued(String chapterId, String bookId, Priority priority) {
+        return generationScheduler.enqueue(Lane.RECAP, chapterId, bookId, priority);
     }
 
     private void processChapterRecap(String chapterId) {
@@ -418,18 +395,38 @@ public class ChapterRecapService {
                     return new RecapGenerationResult(
                             llmPayload,
                             "v2-llm-json",
-                            reasoningProvider.getProviderName()
+                            reasoningProvider.getRespondingProviderName()
                     );
                 }
                 log.warn("LLM recap payload was empty; falling back to extractive recap for chapter {}", chapter.getId());
             } catch (Exception e) {
-                log.warn("LLM recap generation failed; using extractive fallback for chapter {}", chapter.getId(), e);
+                if (LlmProviderException.isThrottled(e)) {
+                    generationScheduler.reportThrottled();
+                    if (!isFinalAttempt(chapter.getId())) {
+                        // Retry later with backoff instead of settling for the extractive recap
+                        throw e;
+                    }
+                    log.warn("LLM still throttled on the last recap attempt; using extractive fallback for chapter {}",
+                            chapter.getId());
+                } else {
+                    log.warn("LLM recap generation failed; using extractive fallback for chapter {}", chapter.getId(), e);
+                }
             }
         }
 
         return buildExtractiveFallbackResult(chapter, paragraphs);
     }
 
+    /**
+     * Whether a failure now would use up the chapter's retries, so {@link #handleRecapFailure} would mark
+     * the recap failed instead of retrying.
+     */
+    private boolean isFinalAttempt(String chapterId) {
+        return chapterRecapRepository.findByChapterId(chapterId)
+                .map(recap -> Math.max(0, recap.getRetryCount()) + 1 >= Math.max(1, maxRetryAttempts))
+                .orElse(true);
+    }
+
     private RecapGenerationResult buildExtractiveFallbackResult(ChapterEntity chapter, List<String> paragraphs) {
         try {
             return new RecapGenerationResult(
@@ -507,7 +504,7 @@ public class ChapterRecapService {
             }
             LocalDateTime now = LocalDateTime.now();
             if (!recap.getNextRetryAt().isAfter(now)) {
-                offerIfNotQueued(chapterId);
+                offerIfNotQueued(chapterId, null, generationScheduler.currentPriority());
                 return;
             }
             long delayMs = Duration.between(now, recap.getNextRetryAt()).toMillis();
@@ -529,12 +526,7 @@ public class ChapterRecapService {
     }
 
     private void scheduleRetryRequest(String chapterId, long delayMs) {
-        long normalizedDelayMs = Math.max(0L, delayMs);
-        retryScheduler.schedule(() -> {
-            if (running) {
-                offerIfNotQueued(chapterId);
-            }
-        }, normalizedDelayMs, TimeUnit.MILLISECONDS);
+        generationScheduler.retryLater(Lane.RECAP, chapterId, null, delayMs);
     }
 
     private List<String> loadChapterParagraphs(String chapterId) {
@@ -604,13 +596,22 @@ public class ChapterRecapService {
                 chapterContext
         );
 
-        String generated = reasoningProvider.generate(prompt, LlmOptions.full(0.25, 0.9, 700));
-        String json = extractJsonObject(generated);
+        LlmOptions options = LlmOptions.full(0.25, 0.9, 700);
+        String generated = reasoningProvider.generate(prompt, options);
         try {
-            ChapterRecapPayload payload = objectMapper.readValue(json, ChapterRecapPayload.class);
-            return normalizePayload(payload);
+            ChapterRecapPayload payload = normalizePayload(
+                    objectMapper.readValue(extractJsonObject(generated), ChapterRecapPayload.class));
+            if (!hasMeaningfulContent(payload)) {
+                reasoningProvider.evict(prompt, options);
+            }
+            return payload;
         } catch (JsonProcessingException e) {
+            reasoningProvider.evict(prompt, options);
             throw new IllegalArgumentException("Invalid JSON recap response from LLM provider", e);
+        } catch (IllegalArgumentException e) {
+            // Keep the response cache from serving the same unusable reply on the next attempt
+            reasoningProvider.evict(prompt, options);
+            throw e;
         }
     }
 
@@ -6,25 +6,37 @@ import com.classicchatreader.entity.ChapterEntity;
 import com.classicchatreader.model.ChatMessage;
 import com.classicchatreader.repository.CharacterRepository;
 import com.classicchatreader.repository.ChapterRepository;
+import com.classicchatreader.service.ChatMetricsService.Surface;
 import com.classicchatreader.service.llm.LlmOptions;
 import com.classicchatreader.service.llm.LlmProvider;
+import com.classicchatreader.service.llm.LlmStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class CharacterChatService {
 
     private static final Logger log = LoggerFactory.getLogger(CharacterChatService.class);
 
+    private static final String CHARACTER_MISSING_REPLY = "I'm sorry, I seem to have lost my place in the story...";
+    private static final String FAILURE_REPLY =
+            "I... I'm not sure how to answer that. Perhaps we could discuss something else?";
+    private static final LlmOptions CHAT_OPTIONS = LlmOptions.withTemperatureAndTopP(0.8, 0.9);
+
     private final LlmProvider chatProvider;
     private final CharacterRepository characterRepository;
     private final ChapterRepository chapterRepository;
+    private final ChatMetricsService chatMetricsService;
 
     @Value("${character.chat.max-context-messages:10}")
     private int maxContextMessages;
@@ -32,10 +44,12 @@ public class CharacterChatService {
     public CharacterChatService(
             @Qualifier("chatLlmProvider") LlmProvider chatProvider,
             CharacterRepository characterRepository,
-            ChapterRepository chapterRepository) {
+            ChapterRepository chapterRepository,
+            ChatMetricsService chatMetricsService) {
         this.chatProvider = chatProvider;
         this.characterRepository = characterRepository;
         this.chapterRepository = chapterRepository;
+        this.chatMetricsService = chatMetricsService;
         log.info("Character chat service initialized with provider: {}", chatProvider.getProviderName());
     }
 
@@ -43,16 +57,75 @@ public class CharacterChatService {
         return chatProvider.isAvailable();
     }
 
-    public String chat(String characterId, String userMessage,
-                       List<ChatMessage> conversationHistory,
-                       int readerChapterIndex, int readerParagraphIndex) {
-        Optional<CharacterEntity> characterOpt = characterRepository.findByIdWithBookAndChapter(characterId);
-        if (characterOpt.isEmpty()) {
-            log.warn("Character not found for chat: {}", characterId);
-            return "I'm sorry, I seem to have lost my place in the story...";
-        }
+    /**
+     * Generates the character's reply without tying up the calling thread while the provider works.
+     * Failures resolve to an in-character fallback rather than an error.
+     */
+    public Mono<String> chat(String characterId, String userMessage,
+                             List<ChatMessage> conversationHistory,
+                             int readerChapterIndex, int readerParagraphIndex) {
+        return Mono.defer(() -> {
+            Optional<CharacterEntity> characterOpt = characterRepository.findByIdWithBookAndChapter(characterId);
+            if (characterOpt.isEmpty()) {
+                log.warn("Character not found for chat: {}", characterId);
+                return Mono.just(CHARACTER_MISSING_REPLY);
+            }
+
+            CharacterEntity character = characterOpt.get();
+            String fullPrompt = buildPrompt(character, userMessage, conversationHistory,
+                    readerChapterIndex, readerParagraphIndex);
+
+            return chatProvider.generateAsync(fullPrompt, CHAT_OPTIONS)
+                    .map(generatedText -> cleanResponse(generatedText, character.getName()))
+                    .doOnNext(generatedText -> log.debug("Generated chat response for '{}': {}",
+                            character.getName(), truncateText(generatedText, 100)))
+                    .onErrorResume(e -> {
+                        log.error("Failed to generate chat response for character '{}'", character.getName(), e);
+                        return Mono.just(FAILURE_REPLY);
+                    });
+        });
+    }
 
-        CharacterEntity character = characterOpt.get();
+    /**
+     * Streams the reply as the provider produces it. Errors before the first token fall back to the same
+     * reply {@link #chat} would give; errors after it end the stream, keeping what the reader has seen.
+     */
+    public Flux<String> chatStream(String characterId, String userMessage,
+                                   List<ChatMessage> conversationHistory,
+                                   int readerChapterIndex, int readerParagraphIndex) {
+        return Flux.defer(() -> {
+            Optional<CharacterEntity> characterOpt = characterRepository.findByIdWithBookAndChapter(characterId);
+            if (characterOpt.isEmpty()) {
+                log.warn("Character not found for chat: {}", characterId);
+                return Flux.just(CHARACTER_MISSING_REPLY);
+            }
+
+            CharacterEntity character = characterOpt.get();
+            String fullPrompt = buildPrompt(character, userMessage, conversationHistory,
+                    readerChapterIndex, readerParagraphIndex);
+
+            chatMetricsService.recordStreamStarted(Surface.CHARACTER);
+            long startedAt = System.nanoTime();
+            AtomicBoolean firstToken = new AtomicBoolean();
+            return LlmStreams.stripLeadingLabel(chatProvider.generateStream(fullPrompt, CHAT_OPTIONS),
+                            character.getName() + ":")
+                    .doOnNext(token -> {
+                        if (firstToken.compareAndSet(false, true)) {
+                            chatMetricsService.recordFirstToken(Surface.CHARACTER,
+                                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                        }
+                    })
+                    .onErrorResume(e -> {
+                        log.error("Failed to stream chat response for character '{}'", character.getName(), e);
+                        chatMetricsService.recordStreamFailed(Surface.CHARACTER);
+                        return firstToken.get() ? Flux.empty() : Flux.just(FAILURE_REPLY);
+                    });
+        });
+    }
+
+    private String buildPrompt(CharacterEntity character, String userMessage,
+                               List<ChatMessage> conversationHistory,
+                               int readerChapterIndex, int readerParagraphIndex) {
         BookEntity book = character.getBook();
 
         String chapterTitle = getChapterTitle(book.getId(), readerChapterIndex);
@@ -62,7 +135,7 @@ public class CharacterChatService {
 
         String conversationContext = buildConversationContext(conversationHistory);
 
-        String fullPrompt = String.format("""
+        return String.format("""
             %s
 
             %s
@@ -74,21 +147,6 @@ public class CharacterChatService {
                 conversationContext,
                 userMessage,
                 character.getName());
-
-        try {
-            String generatedText = chatProvider.generate(fullPrompt, LlmOptions.withTemperatureAndTopP(0.8, 0.9)).trim();
-
-            generatedText = cleanResponse(generatedText, character.getName());
-
-            log.debug("Generated chat response for '{}': {}", character.getName(),
-                    truncateText(generatedText, 100));
-
-            return generatedText;
-
-        } catch (Exception e) {
-            log.error("Failed to generate chat response for character '{}'", character.getName(), e);
-            return "I... I'm not sure how to answer that. Perhaps we could discuss something else?";
-        }
     }
 
     private String buildSystemPrompt(CharacterEntity character, BookEntity book,
@@ -12,7 +12,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -21,11 +20,6 @@ import java.util.stream.Collectors;
 public class CharacterExtractionService {
 
     private static final Logger log = LoggerFactory.getLogger(CharacterExtractionService.class);
-    private static final Set<String> NAME_TITLES = Set.of(
-            "mr", "mrs", "ms", "miss", "lady", "lord", "sir", "madam", "madame",
-            "mme", "mlle", "dr", "doctor", "prof", "professor", "rev", "reverend",
-            "capt", "captain", "col", "colonel", "major"
-    );
 
     private final LlmProvider reasoningProvider;
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -47,6 +41,10 @@ public class CharacterExtractionService {
         log.info("Character extraction service initialized with provider: {}", reasoningProvider.getProviderName());
     }
 
+    public String getReasoningProviderName() {
+        return reasoningProvider.getProviderName();
+    }
+
     public boolean isReasoningProviderAvailable() {
         return !cacheOnly && reasoningProvider.isAvailable();
     }
@@ -86,8 +84,16 @@ public class CharacterExtractionService {
         );
 
         try {
-            String generatedText = reasoningProvider.generate(prompt, LlmOptions.withTemperature(0.3));
-            JsonNode charactersArray = parseCharactersArray(generatedText, chapterTitle);
+            LlmOptions options = LlmOptions.withTemperature(0.3);
+            String generatedText = reasoningProvider.generate(prompt, options);
+            JsonNode charactersArray;
+            try {
+                charactersArray = parseCharactersArray(generatedText, chapterTitle);
+            } catch (JsonProcessingException e) {
+                // Ask the model again next time rather than replaying the same unparseable reply
+                reasoningProvider.evict(prompt, options);
+                throw e;
+            }
 
             Set<String> normalizedExisting = existingCharacterNames.stream()
                     .map(this::normalizeName)
@@ -179,11 +185,14 @@ public class CharacterExtractionService {
             return objectMapper.readTree(json);
         } catch (JsonProcessingException firstFailure) {
             log.warn("Character extraction returned invalid JSON for chapter '{}'; attempting repair", chapterTitle);
-            String repairedText = reasoningProvider.generate(buildRepairPrompt(generatedText), LlmOptions.withTemperature(0.0));
+            String repairPrompt = buildRepairPrompt(generatedText);
+            LlmOptions repairOptions = LlmOptions.withTemperature(0.0);
+            String repairedText = reasoningProvider.generate(repairPrompt, repairOptions);
             String repairedJson = extractJsonArray(repairedText);
             try {
                 return objectMapper.readTree(repairedJson);
             } catch (JsonProcessingException repairFailure) {
+                reasoningProvider.evict(repairPrompt, repairOptions);
                 repairFailure.addSuppressed(firstFailure);
                 throw repairFailure;
             }
@@ -230,23 +239,6 @@ public class CharacterExtractionService {
     }
 
     private String normalizeName(String name) {
-        if (name == null) {
-            return "";
-        }
-        String cleaned = name.toLowerCase()
-                .replaceAll("[^a-z\\s-]", " ")
-                .replace("-", " ")
-                .replaceAll("\\s+", " ")
-                .trim();
-        if (cleaned.isEmpty()) {
-            return "";
-        }
-        List<String> parts = Arrays.stream(cleaned.split(" "))
-                .filter(part -> !part.isBlank())
-                .collect(Collectors.toList());
-        while (!parts.isEmpty() && NAME_TITLES.contains(parts.get(0))) {
-            parts.remove(0);
-        }
-        return String.join(" ", parts).trim();
+        return CharacterNames.normalize(name);
     }
 }
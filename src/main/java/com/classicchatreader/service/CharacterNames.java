@@ -0,0 +1,45 @@
+package com.classicchatreader.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Name rules shared by character extraction, character de-duplication and the search analyzers, so a
+ * reader typing "Mr. Darcy" and an extractor reporting "Darcy" land on the same character.
+ */
+public final class CharacterNames {
+
+    /** Honorifics dropped from the front of a name before comparing or indexing it. */
+    public static final Set<String> TITLES = Set.of(
+            "mr", "mrs", "ms", "miss", "lady", "lord", "sir", "madam", "madame",
+            "mme", "mlle", "dr", "doctor", "prof", "professor", "rev", "reverend",
+            "capt", "captain", "col", "colonel", "major"
+    );
+
+    private CharacterNames() {
+    }
+
+    /**
+     * Lower-cases the name, keeps letters only (hyphens become spaces) and strips leading titles.
+     * Returns an empty string for null or title-only names.
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String cleaned = name.toLowerCase()
+                .replaceAll("[^a-z\\s-]", " ")
+                .replace("-", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+        if (cleaned.isEmpty()) {
+            return "";
+        }
+        List<String> parts = new ArrayList<>(List.of(cleaned.split(" ")));
+        while (!parts.isEmpty() && TITLES.contains(parts.get(0))) {
+            parts.remove(0);
+        }
+        return String.join(" ", parts).trim();
+    }
+}
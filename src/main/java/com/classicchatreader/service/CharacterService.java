@@ -1,17 +1,20 @@
 package com.classicchatreader.service;
 
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import com.classicchatreader.entity.*;
 import com.classicchatreader.model.CharacterInfo;
 import com.classicchatreader.model.IllustrationSettings;
 import com.classicchatreader.repository.*;
 import com.classicchatreader.service.CharacterExtractionService.ExtractedCharacter;
+import com.classicchatreader.service.GenerationScheduler.Backend;
+import com.classicchatreader.service.GenerationScheduler.Lane;
+import com.classicchatreader.service.GenerationScheduler.Priority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.Resource;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,22 +29,11 @@ import java.util.Set;
 import java.util.Arrays;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 @Service
 public class CharacterService {
 
     private static final Logger log = LoggerFactory.getLogger(CharacterService.class);
-    private static final Set<String> NAME_TITLES = Set.of(
-            "mr", "mrs", "ms", "miss", "lady", "lord", "sir", "madam", "madame",
-            "mme", "mlle", "dr", "doctor", "prof", "professor", "rev", "reverend",
-            "capt", "captain", "col", "colonel", "major"
-    );
     private static final Set<String> GENERIC_DESCRIPTORS = Set.of(
             "man", "woman", "boy", "girl", "child", "stranger", "servant", "maid",
             "butler", "sailor", "soldier", "officer", "guard", "driver", "porter",
@@ -69,6 +61,7 @@ public class CharacterService {
     private final IllustrationService illustrationService;
     private final ComfyUIService comfyUIService;
     private final AssetKeyService assetKeyService;
+    private final GenerationScheduler generationScheduler;
 
     @Value("${character.secondary.max-per-book:40}")
     private int maxSecondaryPerBook;
@@ -96,10 +89,6 @@ public class CharacterService {
 
     private String workerId;
 
-    private final BlockingQueue<CharacterRequest> requestQueue = new LinkedBlockingQueue<>();
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
-    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor();
-    private volatile boolean running = true;
 
     private CharacterService self;
 
@@ -113,7 +102,8 @@ public class CharacterService {
             CharacterPortraitService portraitService,
             IllustrationService illustrationService,
             ComfyUIService comfyUIService,
-            AssetKeyService assetKeyService) {
+            AssetKeyService assetKeyService,
+            GenerationScheduler generationScheduler) {
         this.characterRepository = characterRepository;
         this.chapterAnalysisRepository = chapterAnalysisRepository;
         this.chapterRepository = chapterRepository;
@@ -124,6 +114,7 @@ public class CharacterService {
         this.illustrationService = illustrationService;
         this.comfyUIService = comfyUIService;
         this.assetKeyService = assetKeyService;
+        this.generationScheduler = generationScheduler;
     }
 
     @Autowired
@@ -137,16 +128,11 @@ public class CharacterService {
         workerId = (configuredWorkerId != null && !configuredWorkerId.isBlank())
                 ? configuredWorkerId
                 : "character-" + UUID.randomUUID();
-        executor.submit(this::processQueue);
-        log.info("Character service started with background queue processor (workerId={})", workerId);
-    }
-
-    @PreDestroy
-    public void shutdown() {
-        running = false;
-        executor.shutdownNow();
-        retryScheduler.shutdownNow();
-        log.info("Character service shutting down");
+        generationScheduler.register(Lane.CHARACTER_ANALYSIS, Backend.of(extractionService.getReasoningProviderName()),
+                (chapterId, payload) -> processRequest(new AnalysisRequest(chapterId)));
+        generationScheduler.register(Lane.PORTRAIT, Backend.COMFYUI,
+                (characterId, payload) -> processRequest(new PortraitRequest(characterId)));
+        log.info("Character service started on the generation scheduler (workerId={})", workerId);
     }
 
     public boolean isAvailable() {
@@ -154,15 +140,21 @@ public class CharacterService {
     }
 
     public boolean isQueueProcessorRunning() {
-        return !executor.isShutdown() && !executor.isTerminated();
+        return generationScheduler.isRunning();
     }
 
     public int getQueueDepth() {
-        return requestQueue.size();
+        return generationScheduler.getQueueDepth(Lane.CHARACTER_ANALYSIS)
+                + generationScheduler.getQueueDepth(Lane.PORTRAIT);
     }
 
     @Transactional
     public void requestChapterAnalysis(String chapterId) {
+        requestChapterAnalysis(chapterId, Priority.INTERACTIVE);
+    }
+
+    @Transactional
+    public void requestChapterAnalysis(String chapterId, Priority priority) {
         if (cacheOnly) {
             log.info("Skipping character analysis request in cache-only mode for chapter {}", chapterId);
             return;
@@ -195,11 +187,11 @@ public class CharacterService {
             analysis.setNextRetryAt(null);
             clearAnalysisLease(analysis);
             chapterAnalysisRepository.save(analysis);
-            boolean queued = requestQueue.offer(new AnalysisRequest(chapterId));
+            boolean queued = enqueue(new AnalysisRequest(chapterId), analysis.getChapter().getBook().getId(), priority);
             if (queued) {
                 log.info("Re-queued character analysis for chapter: {}", chapterId);
             } else {
-                log.error("Failed to re-queue character analysis for chapter: {}", chapterId);
+                log.debug("Character analysis already queued for chapter: {}", chapterId);
             }
             return;
         }
@@ -217,11 +209,11 @@ public class CharacterService {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override
                 public void afterCommit() {
-                    boolean queued = requestQueue.offer(new AnalysisRequest(chapterId));
+                    boolean queued = enqueue(new AnalysisRequest(chapterId), chapter.getBook().getId(), priority);
                     if (queued) {
                         log.info("Queued character analysis for chapter: {}", chapterId);
                     } else {
-                        log.error("Failed to queue character analysis for chapter: {}", chapterId);
+                        log.debug("Character analysis already queued for chapter: {}", chapterId);
                     }
                 }
             });
@@ -243,7 +235,7 @@ public class CharacterService {
                 current.getChapterIndex() + 1
         ).ifPresent(next -> {
             log.debug("Pre-fetching character analysis for next chapter: {}", next.getTitle());
-            self.requestChapterAnalysis(next.getId());
+            self.requestChapterAnalysis(next.getId(), Priority.PREFETCH);
         });
     }
 
@@ -275,7 +267,7 @@ public class CharacterService {
                 .orElse(null);
     }
 
-    public byte[] getPortrait(String characterId) {
+    public Resource getPortrait(String characterId) {
         return characterRepository.findById(characterId)
                 .filter(c -> c.getStatus() == CharacterStatus.COMPLETED)
                 .map(c -> comfyUIService.getPortraitImage(c.getPortraitFilename()))
@@ -288,39 +280,22 @@ public class CharacterService {
                 .map(CharacterEntity::getPortraitFilename);
     }
 
-    private void processQueue() {
-        log.info("Character queue processor thread started");
-        int processedCount = 0;
-        while (running) {
-            try {
-                log.debug("Waiting for character request in queue...");
-                CharacterRequest request = requestQueue.take();
-                if (cacheOnly) {
-                    if (request instanceof AnalysisRequest ar) {
-                        log.info("Skipping queued character analysis in cache-only mode for chapter {}", ar.chapterId());
-                    } else if (request instanceof PortraitRequest pr) {
-                        log.info("Skipping queued portrait generation in cache-only mode for character {}", pr.characterId());
-                    }
-                    continue;
-                }
-                processedCount++;
-
-                if (request instanceof AnalysisRequest ar) {
-                    log.info("Processing character analysis #{} for chapter: {}", processedCount, ar.chapterId());
-                    processChapterAnalysis(ar.chapterId());
-                } else if (request instanceof PortraitRequest pr) {
-                    log.info("Processing portrait generation #{} for character: {}", processedCount, pr.characterId());
-                    generatePortrait(pr.characterId());
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.info("Character queue processor thread interrupted");
-                break;
-            } catch (Exception e) {
-                log.error("Error processing character queue", e);
+    private void processRequest(CharacterRequest request) {
+        if (cacheOnly) {
+            if (request instanceof AnalysisRequest ar) {
+                log.info("Skipping queued character analysis in cache-only mode for chapter {}", ar.chapterId());
+            } else if (request instanceof PortraitRequest pr) {
+                log.info("Skipping queued portrait generation in cache-only mode for character {}", pr.characterId());
             }
+            return;
+        }
+        if (request instanceof AnalysisRequest ar) {
+            log.info("Processing character analysis for chapter: {}", ar.chapterId());
+            processChapterAnalysis(ar.chapterId());
+        } else if (request instanceof PortraitRequest pr) {
+            log.info("Processing portrait generation for character: {}", pr.characterId());
+            generatePortrait(pr.characterId());
         }
-        log.info("Character queue processor thread stopped after processing {} requests", processedCount);
     }
 
     private void processChapterAnalysis(String chapterId) {
@@ -385,7 +360,8 @@ public class CharacterService {
                             book, chapter, ec.name(), ec.description(), ec.approximateParagraphIndex()
                     );
                     if (character != null) {
-                        requestQueue.offer(new PortraitRequest(character.getId()));
+                        enqueue(new PortraitRequest(character.getId()), book.getId(),
+                                generationScheduler.currentPriority());
                         log.info("Created character '{}' and queued portrait generation", ec.name());
                         createdCount++;
                         remainingSecondarySlots--;
@@ -443,11 +419,11 @@ public class CharacterService {
             return;
         }
 
-        boolean queued = requestQueue.offer(new PortraitRequest(characterId));
+        boolean queued = enqueue(new PortraitRequest(characterId), character.getBook().getId(), Priority.BATCH);
         if (queued) {
             log.debug("Queued portrait generation for character: {}", characterId);
         } else {
-            log.error("Failed to queue portrait generation for character: {}", characterId);
+            log.debug("Portrait generation already queued for character: {}", characterId);
         }
     }
 
@@ -489,24 +465,7 @@ public class CharacterService {
     }
 
     private String normalizeName(String name) {
-        if (name == null) {
-            return "";
-        }
-        String cleaned = name.toLowerCase()
-                .replaceAll("[^a-z\\s-]", " ")
-                .replace("-", " ")
-                .replaceAll("\\s+", " ")
-                .trim();
-        if (cleaned.isEmpty()) {
-            return "";
-        }
-        List<String> parts = Arrays.stream(cleaned.split(" "))
-                .filter(part -> !part.isBlank())
-                .collect(Collectors.toList());
-        while (!parts.isEmpty() && NAME_TITLES.contains(parts.get(0))) {
-            parts.remove(0);
-        }
-        return String.join(" ", parts).trim();
+        return CharacterNames.normalize(name);
     }
 
     private boolean isLastNameOnly(String normalizedName) {
@@ -808,7 +767,7 @@ public class CharacterService {
         int queued = 0;
         for (CharacterEntity character : pendingCharacters) {
             if (character.getPortraitFilename() == null || character.getPortraitFilename().isBlank()) {
-                if (requestQueue.offer(new PortraitRequest(character.getId()))) {
+                if (enqueue(new PortraitRequest(character.getId()), bookId, Priority.BATCH)) {
                     queued++;
                 }
             }
@@ -837,7 +796,7 @@ public class CharacterService {
             clearCharacterLease(character);
             characterRepository.save(character);
             if (character.getPortraitFilename() == null || character.getPortraitFilename().isBlank()) {
-                if (requestQueue.offer(new PortraitRequest(character.getId()))) {
+                if (enqueue(new PortraitRequest(character.getId()), bookId, Priority.BATCH)) {
                     queued++;
                 }
             }
@@ -862,12 +821,12 @@ public class CharacterService {
                 .findByChapterBookIdAndStatusIsNull(bookId);
         int queued = 0;
         for (ChapterAnalysisEntity analysis : pendingAnalyses) {
-            if (requestQueue.offer(new AnalysisRequest(analysis.getChapter().getId()))) {
+            if (enqueue(new AnalysisRequest(analysis.getChapter().getId()), bookId, Priority.BATCH)) {
                 queued++;
             }
         }
         for (ChapterAnalysisEntity analysis : nullStatusAnalyses) {
-            if (requestQueue.offer(new AnalysisRequest(analysis.getChapter().getId()))) {
+            if (enqueue(new AnalysisRequest(analysis.getChapter().getId()), bookId, Priority.BATCH)) {
                 queued++;
             }
         }
@@ -902,14 +861,14 @@ public class CharacterService {
         int queued = 0;
         for (CharacterEntity character : stuckGenerating) {
             if (character.getPortraitFilename() == null || character.getPortraitFilename().isBlank()) {
-                if (requestQueue.offer(new PortraitRequest(character.getId()))) {
+                if (enqueue(new PortraitRequest(character.getId()), bookId, Priority.BATCH)) {
                     queued++;
                 }
             }
         }
         for (CharacterEntity character : stuckPending) {
             if (character.getPortraitFilename() == null || character.getPortraitFilename().isBlank()) {
-                if (requestQueue.offer(new PortraitRequest(character.getId()))) {
+                if (enqueue(new PortraitRequest(character.getId()), bookId, Priority.BATCH)) {
                     queued++;
                 }
             }
@@ -948,17 +907,17 @@ public class CharacterService {
 
         int queued = 0;
         for (ChapterAnalysisEntity analysis : stuckGenerating) {
-            if (requestQueue.offer(new AnalysisRequest(analysis.getChapter().getId()))) {
+            if (enqueue(new AnalysisRequest(analysis.getChapter().getId()), bookId, Priority.BATCH)) {
                 queued++;
             }
         }
         for (ChapterAnalysisEntity analysis : stuckPending) {
-            if (requestQueue.offer(new AnalysisRequest(analysis.getChapter().getId()))) {
+            if (enqueue(new AnalysisRequest(analysis.getChapter().getId()), bookId, Priority.BATCH)) {
                 queued++;
             }
         }
         for (ChapterAnalysisEntity analysis : nullStatusAnalyses) {
-            if (requestQueue.offer(new AnalysisRequest(analysis.getChapter().getId()))) {
+            if (enqueue(new AnalysisRequest(analysis.getChapter().getId()), bookId, Priority.BATCH)) {
                 queued++;
             }
         }
@@ -976,6 +935,18 @@ public class CharacterService {
     private record PortraitRequest(String characterId) implements CharacterRequest {
     }
 
+    private boolean enqueue(CharacterRequest request, String bookId, Priority priority) {
+        return generationScheduler.enqueue(laneOf(request), keyOf(request), bookId, priority);
+    }
+
+    private static Lane laneOf(CharacterRequest request) {
+        return request instanceof PortraitRequest ? Lane.PORTRAIT : Lane.CHARACTER_ANALYSIS;
+    }
+
+    private static String keyOf(CharacterRequest request) {
+        return request instanceof PortraitRequest pr ? pr.characterId() : ((AnalysisRequest) request).chapterId();
+    }
+
     private boolean tryClaimPortraitLease(String characterId) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime leaseExpiresAt = now.plusMinutes(Math.max(1, portraitLeaseMinutes));
@@ -1092,7 +1063,8 @@ public class CharacterService {
             }
             LocalDateTime now = LocalDateTime.now();
             if (!analysis.getNextRetryAt().isAfter(now)) {
-                requestQueue.offer(new AnalysisRequest(chapterId));
+                enqueue(new AnalysisRequest(chapterId), analysis.getChapter().getBook().getId(),
+                        generationScheduler.currentPriority());
                 return;
             }
             long delayMs = Duration.between(now, analysis.getNextRetryAt()).toMillis();
@@ -1107,7 +1079,8 @@ public class CharacterService {
             }
             LocalDateTime now = LocalDateTime.now();
             if (!character.getNextRetryAt().isAfter(now)) {
-                requestQueue.offer(new PortraitRequest(characterId));
+                enqueue(new PortraitRequest(characterId), character.getBook().getId(),
+                        generationScheduler.currentPriority());
                 return;
             }
             long delayMs = Duration.between(now, character.getNextRetryAt()).toMillis();
@@ -1129,11 +1102,6 @@ public class CharacterService {
     }
 
     private void scheduleRetryRequest(CharacterRequest request, long delayMs) {
-        long normalizedDelayMs = Math.max(0L, delayMs);
-        retryScheduler.schedule(() -> {
-            if (running) {
-                requestQueue.offer(request);
-            }
-        }, normalizedDelayMs, TimeUnit.MILLISECONDS);
+        generationScheduler.retryLater(laneOf(request), keyOf(request), null, delayMs);
     }
 }
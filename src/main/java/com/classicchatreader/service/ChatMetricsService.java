@@ -0,0 +1,72 @@
+package com.classicchatreader.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streaming chat metrics per chat surface, chiefly time to first token: how long a reader waits before
+ * the reply starts to appear.
+ */
+@Service
+public class ChatMetricsService {
+
+    public enum Surface {
+        CHARACTER, RECAP
+    }
+
+    private final Map<Surface, SurfaceMetrics> surfaces = new EnumMap<>(Surface.class);
+
+    public ChatMetricsService() {
+        for (Surface surface : Surface.values()) {
+            surfaces.put(surface, new SurfaceMetrics());
+        }
+    }
+
+    public void recordStreamStarted(Surface surface) {
+        surfaces.get(surface).streamsStarted.increment();
+    }
+
+    public void recordFirstToken(Surface surface, long elapsedMs) {
+        SurfaceMetrics metrics = surfaces.get(surface);
+        long normalized = Math.max(0L, elapsedMs);
+        metrics.firstTokens.increment();
+        metrics.firstTokenTotalMs.add(normalized);
+        metrics.firstTokenMaxMs.accumulate(normalized);
+        metrics.firstTokenLastMs = normalized;
+    }
+
+    public void recordStreamFailed(Surface surface) {
+        surfaces.get(surface).streamsFailed.increment();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        surfaces.forEach((surface, metrics) -> {
+            long firstTokens = metrics.firstTokens.sum();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("streamsStarted", metrics.streamsStarted.sum());
+            values.put("streamsFailed", metrics.streamsFailed.sum());
+            values.put("firstTokenCount", firstTokens);
+            values.put("firstTokenAverageMs", firstTokens == 0 ? 0L : metrics.firstTokenTotalMs.sum() / firstTokens);
+            values.put("firstTokenMaxMs", metrics.firstTokenMaxMs.get());
+            values.put("firstTokenLastMs", metrics.firstTokenLastMs);
+            snapshot.put(surface.name().toLowerCase(Locale.ROOT), values);
+        });
+        return snapshot;
+    }
+
+    private static final class SurfaceMetrics {
+        private final LongAdder streamsStarted = new LongAdder();
+        private final LongAdder streamsFailed = new LongAdder();
+        private final LongAdder firstTokens = new LongAdder();
+        private final LongAdder firstTokenTotalMs = new LongAdder();
+        private final LongAccumulator firstTokenMaxMs = new LongAccumulator(Long::max, 0L);
+        private volatile long firstTokenLastMs;
+    }
+}
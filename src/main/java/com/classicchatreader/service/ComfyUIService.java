@@ -7,7 +7,9 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -69,6 +71,9 @@ public class ComfyUIService {
   @Value("${book-cover.cache-dir:./data/book-covers}")
   private String bookCoverCacheDir;
 
+  @Autowired
+  private AssetByteCache assetByteCache;
+
   private WebClient webClient;
   private final ObjectMapper objectMapper = new ObjectMapper();
   private final Random random = new Random();
@@ -232,8 +237,7 @@ public class ComfyUIService {
     // Save to cache directory with prompt ID as filename
     String cachedFilename = resolveCacheFilename(cacheKey, promptId);
     Path cachedPath = Paths.get(cacheDir, cachedFilename);
-    Files.createDirectories(cachedPath.getParent());
-    Files.write(cachedPath, imageData);
+    AssetFiles.writeAtomically(cachedPath, imageData);
 
     log.info("Downloaded and cached image: {}", cachedPath);
     return cachedFilename;
@@ -242,12 +246,9 @@ public class ComfyUIService {
   /**
    * Get image bytes from cache.
    */
-  public byte[] getImage(String filename) {
+  public Resource getImage(String filename) {
     try {
-      Path imagePath = safeResolve(cacheDir, filename);
-      if (Files.exists(imagePath)) {
-        return Files.readAllBytes(imagePath);
-      }
+      return assetByteCache.read(safeResolve(cacheDir, filename));
     } catch (IOException e) {
       log.error("Failed to read cached image: {}", filename, e);
     }
@@ -455,8 +456,7 @@ public class ComfyUIService {
 
     String cachedFilename = resolveCacheFilename(cacheKey, promptId);
     Path cachedPath = Paths.get(portraitCacheDir, cachedFilename);
-    Files.createDirectories(cachedPath.getParent());
-    Files.write(cachedPath, imageData);
+    AssetFiles.writeAtomically(cachedPath, imageData);
 
     log.info("Downloaded and cached portrait: {}", cachedPath);
     return cachedFilename;
@@ -465,12 +465,9 @@ public class ComfyUIService {
   /**
    * Get portrait image bytes from cache.
    */
-  public byte[] getPortraitImage(String filename) {
+  public Resource getPortraitImage(String filename) {
     try {
-      Path imagePath = safeResolve(portraitCacheDir, filename);
-      if (Files.exists(imagePath)) {
-        return Files.readAllBytes(imagePath);
-      }
+      return assetByteCache.read(safeResolve(portraitCacheDir, filename));
     } catch (IOException e) {
       log.error("Failed to read cached portrait: {}", filename, e);
     }
@@ -488,6 +485,7 @@ public class ComfyUIService {
       Path imagePath = safeResolve(portraitCacheDir, filename);
       if (Files.exists(imagePath)) {
         Files.delete(imagePath);
+        assetByteCache.invalidate(imagePath);
         log.info("Deleted portrait file: {}", filename);
         return true;
       }
@@ -585,19 +583,15 @@ public class ComfyUIService {
 
     String cachedFilename = resolveCacheFilename(cacheKey, promptId);
     Path cachedPath = Paths.get(bookCoverCacheDir, cachedFilename);
-    Files.createDirectories(cachedPath.getParent());
-    Files.write(cachedPath, imageData);
+    AssetFiles.writeAtomically(cachedPath, imageData);
 
     log.info("Downloaded and cached book cover: {}", cachedPath);
     return cachedFilename;
   }
 
-  public byte[] getBookCoverImage(String filename) {
+  public Resource getBookCoverImage(String filename) {
     try {
-      Path imagePath = safeResolve(bookCoverCacheDir, filename);
-      if (Files.exists(imagePath)) {
-        return Files.readAllBytes(imagePath);
-      }
+      return assetByteCache.read(safeResolve(bookCoverCacheDir, filename));
     } catch (IOException e) {
       log.error("Failed to read cached book cover: {}", filename, e);
     }
@@ -610,8 +604,7 @@ public class ComfyUIService {
     }
     String cachedFilename = resolveCacheFilename(cacheKey, "manual-" + System.currentTimeMillis());
     Path cachedPath = safeResolve(bookCoverCacheDir, cachedFilename);
-    Files.createDirectories(cachedPath.getParent());
-    Files.write(cachedPath, imageData);
+    AssetFiles.writeAtomically(cachedPath, imageData);
     log.info("Saved manual book cover: {}", cachedPath);
     return cachedFilename;
   }
@@ -0,0 +1,11 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.service.GenerationScheduler.Lane;
+
+/**
+ * Published by {@link GenerationScheduler} on the worker thread after a job for {@code bookId} finishes,
+ * whether it succeeded, failed or was rescheduled. Listeners should re-read the state they care about
+ * rather than assume the asset is ready.
+ */
+public record GenerationCompletedEvent(Lane lane, String key, String bookId) {
+}
@@ -10,35 +10,70 @@ import com.classicchatreader.repository.ChapterAnalysisRepository;
 import com.classicchatreader.repository.ChapterRecapRepository;
 import com.classicchatreader.repository.CharacterRepository;
 import com.classicchatreader.repository.IllustrationRepository;
+import com.classicchatreader.repository.StatusCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @Service
 public class GenerationJobStatusService {
 
+    private static final String GLOBAL_CACHE_KEY = "global";
+    private static final String BOOK_CACHE_KEY_PREFIX = "book:";
+    private static final int MAX_CACHED_RESPONSES = 1024;
+
     private final IllustrationRepository illustrationRepository;
     private final CharacterRepository characterRepository;
     private final ChapterAnalysisRepository chapterAnalysisRepository;
     private final ChapterRecapRepository chapterRecapRepository;
+    private final long cacheTtlMs;
+    private final ConcurrentHashMap<String, CachedStatus> cache = new ConcurrentHashMap<>();
+    private final SingleFlight<GenerationJobStatusResponse> loads = new SingleFlight<>();
+
+    private record CachedStatus(GenerationJobStatusResponse response, long expiresAtMs) {
+    }
 
+    @Autowired
     public GenerationJobStatusService(
             IllustrationRepository illustrationRepository,
             CharacterRepository characterRepository,
             ChapterAnalysisRepository chapterAnalysisRepository,
-            ChapterRecapRepository chapterRecapRepository) {
+            ChapterRecapRepository chapterRecapRepository,
+            @Value("${generation.status.cache-ttl-ms:2000}") long cacheTtlMs) {
         this.illustrationRepository = illustrationRepository;
         this.characterRepository = characterRepository;
         this.chapterAnalysisRepository = chapterAnalysisRepository;
         this.chapterRecapRepository = chapterRecapRepository;
+        this.cacheTtlMs = cacheTtlMs;
+    }
+
+    GenerationJobStatusService(
+            IllustrationRepository illustrationRepository,
+            CharacterRepository characterRepository,
+            ChapterAnalysisRepository chapterAnalysisRepository,
+            ChapterRecapRepository chapterRecapRepository) {
+        this(illustrationRepository, characterRepository, chapterAnalysisRepository, chapterRecapRepository, 0L);
     }
 
     public GenerationJobStatusResponse getGlobalStatus() {
+        return cached(GLOBAL_CACHE_KEY, this::loadGlobalStatus);
+    }
+
+    public GenerationJobStatusResponse getBookStatus(String bookId) {
+        return cached(BOOK_CACHE_KEY_PREFIX + bookId, () -> loadBookStatus(bookId));
+    }
+
+    private GenerationJobStatusResponse loadGlobalStatus() {
         LocalDateTime now = LocalDateTime.now();
-        GenerationPipelineStatus illustrations = illustrationStatus(now);
-        GenerationPipelineStatus portraits = portraitStatus(now);
-        GenerationPipelineStatus analyses = analysisStatus(now);
-        GenerationPipelineStatus recaps = recapStatus(now);
+        GenerationPipelineStatus illustrations = illustrationStatus(illustrationRepository.countGroupedByStatus(now));
+        GenerationPipelineStatus portraits = portraitStatus(characterRepository.countGroupedByStatus(now));
+        GenerationPipelineStatus analyses = analysisStatus(chapterAnalysisRepository.countGroupedByStatus(now));
+        GenerationPipelineStatus recaps = recapStatus(chapterRecapRepository.countGroupedByStatus(now));
 
         return new GenerationJobStatusResponse(
                 "global",
@@ -52,12 +87,14 @@ public class GenerationJobStatusService {
         );
     }
 
-    public GenerationJobStatusResponse getBookStatus(String bookId) {
+    private GenerationJobStatusResponse loadBookStatus(String bookId) {
         LocalDateTime now = LocalDateTime.now();
-        GenerationPipelineStatus illustrations = illustrationStatusForBook(bookId, now);
-        GenerationPipelineStatus portraits = portraitStatusForBook(bookId, now);
-        GenerationPipelineStatus analyses = analysisStatusForBook(bookId, now);
-        GenerationPipelineStatus recaps = recapStatusForBook(bookId, now);
+        GenerationPipelineStatus illustrations = illustrationStatus(
+                illustrationRepository.countGroupedByStatusForBook(bookId, now));
+        GenerationPipelineStatus portraits = portraitStatus(characterRepository.countGroupedByStatusForBook(bookId, now));
+        GenerationPipelineStatus analyses = analysisStatus(
+                chapterAnalysisRepository.countGroupedByStatusForBook(bookId, now));
+        GenerationPipelineStatus recaps = recapStatus(chapterRecapRepository.countGroupedByStatusForBook(bookId, now));
 
         return new GenerationJobStatusResponse(
                 "book",
@@ -71,104 +108,65 @@ public class GenerationJobStatusService {
         );
     }
 
-    private GenerationPipelineStatus illustrationStatus(LocalDateTime now) {
-        long pendingTotal = illustrationRepository.countByStatus(IllustrationStatus.PENDING);
-        long retryScheduled = illustrationRepository.countScheduledRetries(IllustrationStatus.PENDING, now);
+    private static <S> GenerationPipelineStatus pipelineStatus(
+            List<StatusCount<S>> rows, S pending, S generating, S completed, S failed, boolean unsetIsPending) {
+        StatusTotals<S> totals = StatusTotals.of(rows);
+        long pendingTotal = totals.count(pending) + (unsetIsPending ? totals.count(null) : 0L);
+        long retryScheduled = totals.retryScheduled(pending);
         return GenerationPipelineStatus.of(
                 pendingTotal - retryScheduled,
                 retryScheduled,
-                illustrationRepository.countByStatus(IllustrationStatus.GENERATING),
-                illustrationRepository.countByStatus(IllustrationStatus.COMPLETED),
-                illustrationRepository.countByStatus(IllustrationStatus.FAILED)
+                totals.count(generating),
+                totals.count(completed),
+                totals.count(failed)
         );
     }
 
-    private GenerationPipelineStatus illustrationStatusForBook(String bookId, LocalDateTime now) {
-        long pendingTotal = illustrationRepository.countByBookAndStatus(bookId, IllustrationStatus.PENDING);
-        long retryScheduled = illustrationRepository.countScheduledRetriesForBook(bookId, IllustrationStatus.PENDING, now);
-        return GenerationPipelineStatus.of(
-                pendingTotal - retryScheduled,
-                retryScheduled,
-                illustrationRepository.countByBookAndStatus(bookId, IllustrationStatus.GENERATING),
-                illustrationRepository.countByBookAndStatus(bookId, IllustrationStatus.COMPLETED),
-                illustrationRepository.countByBookAndStatus(bookId, IllustrationStatus.FAILED)
-        );
+    private GenerationPipelineStatus illustrationStatus(List<StatusCount<IllustrationStatus>> rows) {
+        return pipelineStatus(rows, IllustrationStatus.PENDING, IllustrationStatus.GENERATING,
+                IllustrationStatus.COMPLETED, IllustrationStatus.FAILED, false);
     }
 
-    private GenerationPipelineStatus portraitStatus(LocalDateTime now) {
-        long pendingTotal = characterRepository.countByStatus(CharacterStatus.PENDING);
-        long retryScheduled = characterRepository.countScheduledRetries(CharacterStatus.PENDING, now);
-        return GenerationPipelineStatus.of(
-                pendingTotal - retryScheduled,
-                retryScheduled,
-                characterRepository.countByStatus(CharacterStatus.GENERATING),
-                characterRepository.countByStatus(CharacterStatus.COMPLETED),
-                characterRepository.countByStatus(CharacterStatus.FAILED)
-        );
+    private GenerationPipelineStatus portraitStatus(List<StatusCount<CharacterStatus>> rows) {
+        return pipelineStatus(rows, CharacterStatus.PENDING, CharacterStatus.GENERATING,
+                CharacterStatus.COMPLETED, CharacterStatus.FAILED, false);
     }
 
-    private GenerationPipelineStatus portraitStatusForBook(String bookId, LocalDateTime now) {
-        long pendingTotal = characterRepository.countByBookAndStatus(bookId, CharacterStatus.PENDING);
-        long retryScheduled = characterRepository.countScheduledRetriesForBook(bookId, CharacterStatus.PENDING, now);
-        return GenerationPipelineStatus.of(
-                pendingTotal - retryScheduled,
-                retryScheduled,
-                characterRepository.countByBookAndStatus(bookId, CharacterStatus.GENERATING),
-                characterRepository.countByBookAndStatus(bookId, CharacterStatus.COMPLETED),
-                characterRepository.countByBookAndStatus(bookId, CharacterStatus.FAILED)
-        );
+    private GenerationPipelineStatus analysisStatus(List<StatusCount<ChapterAnalysisStatus>> rows) {
+        return pipelineStatus(rows, ChapterAnalysisStatus.PENDING, ChapterAnalysisStatus.GENERATING,
+                ChapterAnalysisStatus.COMPLETED, ChapterAnalysisStatus.FAILED, true);
     }
 
-    private GenerationPipelineStatus analysisStatus(LocalDateTime now) {
-        long pendingTotal = chapterAnalysisRepository.countByStatus(ChapterAnalysisStatus.PENDING)
-                + chapterAnalysisRepository.countByStatusIsNull();
-        long retryScheduled = chapterAnalysisRepository.countScheduledRetries(ChapterAnalysisStatus.PENDING, now);
-        return GenerationPipelineStatus.of(
-                pendingTotal - retryScheduled,
-                retryScheduled,
-                chapterAnalysisRepository.countByStatus(ChapterAnalysisStatus.GENERATING),
-                chapterAnalysisRepository.countByStatus(ChapterAnalysisStatus.COMPLETED),
-                chapterAnalysisRepository.countByStatus(ChapterAnalysisStatus.FAILED)
-        );
+    private GenerationPipelineStatus recapStatus(List<StatusCount<ChapterRecapStatus>> rows) {
+        return pipelineStatus(rows, ChapterRecapStatus.PENDING, ChapterRecapStatus.GENERATING,
+                ChapterRecapStatus.COMPLETED, ChapterRecapStatus.FAILED, true);
     }
 
-    private GenerationPipelineStatus analysisStatusForBook(String bookId, LocalDateTime now) {
-        long pendingTotal = chapterAnalysisRepository.countByBookAndStatus(bookId, ChapterAnalysisStatus.PENDING)
-                + chapterAnalysisRepository.countByChapterBookIdAndStatusIsNull(bookId);
-        long retryScheduled = chapterAnalysisRepository.countScheduledRetriesForBook(bookId, ChapterAnalysisStatus.PENDING, now);
-        return GenerationPipelineStatus.of(
-                pendingTotal - retryScheduled,
-                retryScheduled,
-                chapterAnalysisRepository.countByBookAndStatus(bookId, ChapterAnalysisStatus.GENERATING),
-                chapterAnalysisRepository.countByBookAndStatus(bookId, ChapterAnalysisStatus.COMPLETED),
-                chapterAnalysisRepository.countByBookAndStatus(bookId, ChapterAnalysisStatus.FAILED)
-        );
-    }
-
-    private GenerationPipelineStatus recapStatus(LocalDateTime now) {
-        long pendingTotal = chapterRecapRepository.countByStatus(ChapterRecapStatus.PENDING)
-                + chapterRecapRepository.countByStatusIsNull();
-        long retryScheduled = chapterRecapRepository.countScheduledRetries(ChapterRecapStatus.PENDING, now);
-        return GenerationPipelineStatus.of(
-                pendingTotal - retryScheduled,
-                retryScheduled,
-                chapterRecapRepository.countByStatus(ChapterRecapStatus.GENERATING),
-                chapterRecapRepository.countByStatus(ChapterRecapStatus.COMPLETED),
-                chapterRecapRepository.countByStatus(ChapterRecapStatus.FAILED)
-        );
-    }
-
-    private GenerationPipelineStatus recapStatusForBook(String bookId, LocalDateTime now) {
-        long pendingTotal = chapterRecapRepository.countByBookAndStatus(bookId, ChapterRecapStatus.PENDING)
-                + chapterRecapRepository.countByChapterBookIdAndStatusIsNull(bookId);
-        long retryScheduled = chapterRecapRepository.countScheduledRetriesForBook(bookId, ChapterRecapStatus.PENDING, now);
-        return GenerationPipelineStatus.of(
-                pendingTotal - retryScheduled,
-                retryScheduled,
-                chapterRecapRepository.countByBookAndStatus(bookId, ChapterRecapStatus.GENERATING),
-                chapterRecapRepository.countByBookAndStatus(bookId, ChapterRecapStatus.COMPLETED),
-                chapterRecapRepository.countByBookAndStatus(bookId, ChapterRecapStatus.FAILED)
-        );
+    /**
+     * Serves a response computed less than the TTL ago. Concurrent misses for the same key wait for one
+     * load rather than each querying; the load runs outside the map's locks so it never blocks other keys.
+     */
+    private GenerationJobStatusResponse cached(String key, Supplier<GenerationJobStatusResponse> loader) {
+        if (cacheTtlMs <= 0) {
+            return loader.get();
+        }
+        long now = System.currentTimeMillis();
+        if (cache.size() > MAX_CACHED_RESPONSES) {
+            cache.values().removeIf(entry -> entry.expiresAtMs() <= now);
+        }
+        CachedStatus entry = cache.get(key);
+        if (entry != null && entry.expiresAtMs() > now) {
+            return entry.response();
+        }
+        return loads.execute(key, () -> {
+            CachedStatus latest = cache.get(key);
+            if (latest != null && latest.expiresAtMs() > System.currentTimeMillis()) {
+                return latest.response();
+            }
+            GenerationJobStatusResponse response = loader.get();
+            cache.put(key, new CachedStatus(response, System.currentTimeMillis() + cacheTtlMs));
+            return response;
+        });
     }
 
     private GenerationPipelineStatus sum(GenerationPipelineStatus... statuses) {
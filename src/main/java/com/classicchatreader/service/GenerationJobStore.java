@@ -0,0 +1,220 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.entity.GenerationJobEntity;
+import com.classicchatreader.repository.GenerationJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Persistent backlog behind {@link GenerationScheduler}. Rows are unique per lane and key, claimed with a
+ * lease, and deleted when the work finishes. On PostgreSQL and MariaDB workers claim with
+ * {@code SELECT ... FOR UPDATE SKIP LOCKED} so concurrent nodes never wait on each other's rows; other
+ * databases (H2 locally) fall back to an optimistic conditional update per row.
+ */
+@Service
+public class GenerationJobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerationJobStore.class);
+
+    private static final String SKIP_LOCKED_SELECT_SQL = """
+            SELECT id FROM generation_jobs
+            WHERE lane IN (%s)
+              AND available_at <= ?
+              AND (lease_expires_at IS NULL OR lease_expires_at < ?)
+            ORDER BY priority, available_at
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String SKIP_LOCKED_CLAIM_SQL =
+            "UPDATE generation_jobs SET lease_owner = ?, lease_expires_at = ? WHERE id = ?";
+
+    private final GenerationJobRepository repository;
+    @Nullable
+    private final JdbcTemplate jdbcTemplate;
+    @Nullable
+    private final TransactionTemplate requiresNew;
+    private final boolean skipLocked;
+
+    @Autowired
+    public GenerationJobStore(
+            GenerationJobRepository repository,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager) {
+        this(repository, new JdbcTemplate(dataSource), requiresNew(transactionManager), detectSkipLocked(dataSource));
+    }
+
+    GenerationJobStore(GenerationJobRepository repository) {
+        this(repository, null, null, false);
+    }
+
+    GenerationJobStore(
+            GenerationJobRepository repository,
+            @Nullable JdbcTemplate jdbcTemplate,
+            @Nullable TransactionTemplate requiresNew,
+            boolean skipLocked) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = requiresNew;
+        this.skipLocked = skipLocked && jdbcTemplate != null;
+        log.info("Generation job store claiming with {}", this.skipLocked ? "SKIP LOCKED" : "optimistic updates");
+    }
+
+    /**
+     * Queues {@code key} on {@code lane}, committed on its own so it does not wait for (or roll back with)
+     * the caller's transaction. If the key is already queued it is merged: the more urgent priority and
+     * the earlier start win, and a non-null payload replaces the old one. If it is leased by the job that
+     * is asking ({@code ownJobId}), the lease is released so the job runs again at {@code availableAt}.
+     * If another worker holds the lease, the row keeps it until that run finishes but loses its owner, so
+     * {@link #complete} leaves it queued and the merged request runs once more.
+     *
+     * @return true when a new row was created
+     */
+    public boolean enqueue(String lane, String key, @Nullable String bookId, int priority,
+                           @Nullable String payload, LocalDateTime availableAt, @Nullable String ownJobId) {
+        try {
+            return inNewTransaction(() -> upsert(lane, key, bookId, priority, payload, availableAt, ownJobId));
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted the same key between our read and insert; merge into its row
+            return inNewTransaction(() -> upsert(lane, key, bookId, priority, payload, availableAt, ownJobId));
+        }
+    }
+
+    /**
+     * Leases up to {@code limit} available jobs on {@code lanes} to {@code owner}, most urgent first.
+     */
+    public List<GenerationJobEntity> claim(Collection<String> lanes, String owner, int limit, Duration lease) {
+        if (lanes.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseExpiresAt = now.plus(lease);
+        if (skipLocked) {
+            return inNewTransaction(() -> claimSkipLocked(lanes, owner, limit, now, leaseExpiresAt));
+        }
+        List<GenerationJobEntity> claimed = new ArrayList<>();
+        for (GenerationJobEntity candidate : repository.findClaimable(lanes, now, PageRequest.of(0, limit))) {
+            if (repository.claim(candidate.getId(), now, leaseExpiresAt, owner) > 0) {
+                candidate.setLeaseOwner(owner);
+                candidate.setLeaseExpiresAt(leaseExpiresAt);
+                claimed.add(candidate);
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Removes a finished job, unless it was released for another run while it executed. A job that was
+     * queued again by someone else during the run gets its lease dropped so it can be claimed right away.
+     */
+    public void complete(String id, String owner) {
+        if (repository.deleteClaimed(id, owner) == 0) {
+            repository.releaseUnowned(id);
+        }
+    }
+
+    public boolean isQueued(String lane, String key) {
+        return repository.existsByLaneAndJobKey(lane, key);
+    }
+
+    public long countQueued(String lane) {
+        return repository.countByLane(lane);
+    }
+
+    private boolean upsert(String lane, String key, @Nullable String bookId, int priority,
+                           @Nullable String payload, LocalDateTime availableAt, @Nullable String ownJobId) {
+        Optional<GenerationJobEntity> existing = repository.findByLaneAndJobKey(lane, key);
+        if (existing.isEmpty()) {
+            repository.saveAndFlush(new GenerationJobEntity(lane, key, bookId, priority, payload, availableAt));
+            return true;
+        }
+        GenerationJobEntity job = existing.get();
+        boolean ownLease = job.getId().equals(ownJobId);
+        boolean leasedElsewhere = !ownLease && job.getLeaseExpiresAt() != null
+                && job.getLeaseExpiresAt().isAfter(LocalDateTime.now());
+        if (ownLease) {
+            job.setLeaseOwner(null);
+            job.setLeaseExpiresAt(null);
+            job.setAvailableAt(availableAt);
+        } else {
+            if (leasedElsewhere) {
+                // The running worker keeps its lease; without an owner its complete() leaves the row queued
+                job.setLeaseOwner(null);
+            }
+            if (availableAt.isBefore(job.getAvailableAt())) {
+                job.setAvailableAt(availableAt);
+            }
+        }
+        job.setPriority(Math.min(job.getPriority(), priority));
+        if (payload != null) {
+            job.setPayload(payload);
+        }
+        if (job.getBookId() == null) {
+            job.setBookId(bookId);
+        }
+        repository.saveAndFlush(job);
+        return false;
+    }
+
+    private List<GenerationJobEntity> claimSkipLocked(Collection<String> lanes, String owner, int limit,
+                                                      LocalDateTime now, LocalDateTime leaseExpiresAt) {
+        String placeholders = String.join(", ", Collections.nCopies(lanes.size(), "?"));
+        List<Object> args = new ArrayList<>(lanes);
+        args.add(Timestamp.valueOf(now));
+        args.add(Timestamp.valueOf(now));
+        args.add(limit);
+        List<String> ids = jdbcTemplate.queryForList(
+                SKIP_LOCKED_SELECT_SQL.formatted(placeholders), String.class, args.toArray());
+        for (String id : ids) {
+            jdbcTemplate.update(SKIP_LOCKED_CLAIM_SQL, owner, Timestamp.valueOf(leaseExpiresAt), id);
+        }
+        List<GenerationJobEntity> claimed = new ArrayList<>(repository.findAllById(ids));
+        claimed.sort((a, b) -> a.getPriority() != b.getPriority()
+                ? Integer.compare(a.getPriority(), b.getPriority())
+                : a.getAvailableAt().compareTo(b.getAvailableAt()));
+        return claimed;
+    }
+
+    private <T> T inNewTransaction(Supplier<T> work) {
+        return requiresNew == null ? work.get() : requiresNew.execute(status -> work.get());
+    }
+
+    private static TransactionTemplate requiresNew(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static boolean detectSkipLocked(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            String productName = connection.getMetaData().getDatabaseProductName();
+            String normalized = productName == null ? "" : productName.toLowerCase(Locale.ROOT);
+            return normalized.contains("postgresql") || normalized.contains("mariadb") || normalized.contains("mysql");
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.classicchatreader.service;
 
 import com.classicchatreader.entity.BookEntity;
 import com.classicchatreader.repository.BookRepository;
+import com.classicchatreader.repository.GenerationJobRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,12 +12,18 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+/**
+ * Imports pending and stuck generation work from the entity tables into the generation_jobs queue on
+ * startup. Jobs survive restarts in that table, so this runs by itself only while it is empty, which
+ * covers the first start after upgrading; {@code generation.queue.recovery.enabled} forces it every time.
+ */
 @Service
 public class GenerationQueueRecoveryService {
 
     private static final Logger log = LoggerFactory.getLogger(GenerationQueueRecoveryService.class);
 
     private final BookRepository bookRepository;
+    private final GenerationJobRepository generationJobRepository;
     private final IllustrationService illustrationService;
     private final CharacterService characterService;
     private final ChapterRecapService chapterRecapService;
@@ -24,11 +31,13 @@ public class GenerationQueueRecoveryService {
 
     public GenerationQueueRecoveryService(
             BookRepository bookRepository,
+            GenerationJobRepository generationJobRepository,
             IllustrationService illustrationService,
             CharacterService characterService,
             ChapterRecapService chapterRecapService,
-            @Value("${generation.queue.recovery.enabled:true}") boolean recoveryEnabled) {
+            @Value("${generation.queue.recovery.enabled:false}") boolean recoveryEnabled) {
         this.bookRepository = bookRepository;
+        this.generationJobRepository = generationJobRepository;
         this.illustrationService = illustrationService;
         this.characterService = characterService;
         this.chapterRecapService = chapterRecapService;
@@ -41,8 +50,8 @@ public class GenerationQueueRecoveryService {
     }
 
     RecoverySummary recoverPendingGenerationWork() {
-        if (!recoveryEnabled) {
-            log.info("Generation queue recovery is disabled");
+        if (!recoveryEnabled && generationJobRepository.count() > 0) {
+            log.info("Generation queue already holds jobs; skipping recovery");
             return new RecoverySummary(0, 0, 0, 0, 0);
         }
 
@@ -0,0 +1,687 @@
+package com.classicchatreader.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import com.classicchatreader.entity.GenerationJobEntity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs background generation work (illustrations, portraits, character analysis, recaps, quizzes and
+ * covers) on one shared worker pool. Every lane is bound to the backend it loads, and each backend has
+ * its own concurrency limit. Waiting jobs are started by priority class first, then round-robin across
+ * books, so a large pre-generation batch neither starves an interactive reader nor another book.
+ *
+ * <p>The configured limit is a ceiling. When a job reports that its backend throttled it (HTTP 429 or 5xx)
+ * the backend's working limit is halved and no new job starts there for a cool-down period; every
+ * {@code limit} jobs that then finish unthrottled raise it by one again.
+ *
+ * <p>Each lane keeps an index of the keys it has waiting, so a key is queued at most once. A repeat
+ * submission replaces the waiting job's work and, when it is more urgent, moves it up to the new priority.
+ *
+ * <p>Services register a {@link JobHandler} per lane and {@link #enqueue} keys rather than closures, so work
+ * can be persisted: with a {@link GenerationJobStore} every request is a {@code generation_jobs} row, and
+ * this node claims rows for lanes it has handlers for whenever its backends have free capacity. Nothing
+ * queued is lost on restart, and several nodes drain one backlog. Without a store (unit tests) jobs go
+ * straight to the in-memory queues.
+ */
+@Service
+public class GenerationScheduler implements ApplicationEventPublisherAware {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerationScheduler.class);
+    private static final String NO_BOOK = "";
+    private static final long DEFAULT_THROTTLE_COOLDOWN_MS = 10_000L;
+
+    public enum Backend {
+        COMFYUI, XAI, OLLAMA, OPENAI_TTS;
+
+        /**
+         * Maps a provider name as reported by {@code getProviderName()} to its backend; anything that is
+         * not ComfyUI, xAI or OpenAI is treated as a local Ollama model.
+         */
+        public static Backend of(String providerName) {
+            String normalized = providerName == null ? "" : providerName.trim().toLowerCase();
+            return switch (normalized) {
+                case "comfyui" -> COMFYUI;
+                case "xai" -> XAI;
+                case "openai", "openai-tts" -> OPENAI_TTS;
+                default -> OLLAMA;
+            };
+        }
+    }
+
+    public enum Lane {
+        ILLUSTRATION, PORTRAIT, CHARACTER_ANALYSIS, RECAP, QUIZ, COVER, TTS
+    }
+
+    /** Declared most urgent first. */
+    public enum Priority {
+        INTERACTIVE, PREFETCH, BATCH
+    }
+
+    /**
+     * Runs one job for a lane. {@code payload} is whatever the service queued with the key (for example a
+     * custom illustration prompt), or null.
+     */
+    @FunctionalInterface
+    public interface JobHandler {
+        void run(String key, @Nullable String payload);
+    }
+
+    private static final class Job {
+        private final Lane lane;
+        private final String key;
+        private final String bookId;
+        private final Priority priority;
+        private final Backend backend;
+        // Row id when the job was claimed from the job store
+        private final String storedId;
+        // Guarded by the scheduler monitor while the job waits
+        private Runnable work;
+        private boolean cancelled;
+
+        private Job(Lane lane, String key, String bookId, Priority priority, Backend backend, Runnable work,
+                    String storedId) {
+            this.lane = lane;
+            this.key = key;
+            this.bookId = bookId;
+            this.priority = priority;
+            this.backend = backend;
+            this.work = work;
+            this.storedId = storedId;
+        }
+    }
+
+    private final Map<Backend, BackendQueue> backends = new EnumMap<>(Backend.class);
+    private final Map<Lane, Backend> laneBackends = new EnumMap<>(Lane.class);
+    private final Map<Lane, JobHandler> handlers = new ConcurrentHashMap<>();
+    // Waiting jobs by key; concurrent so isQueued and getQueueDepth need not take the monitor
+    private final Map<Lane, Map<String, Job>> waitingByLane = new EnumMap<>(Lane.class);
+    private final Map<Lane, Long> duplicatesByLane = new EnumMap<>(Lane.class);
+    private final Map<Lane, Integer> runningByLane = new EnumMap<>(Lane.class);
+    private final ExecutorService workers;
+    private final ScheduledExecutorService delayed;
+    private final ThreadLocal<Job> currentJob = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> currentJobThrottled = new ThreadLocal<>();
+    private final long throttleCooldownMs;
+    @Nullable
+    private final GenerationJobStore jobStore;
+    private final String workerId;
+    private final Duration jobLease;
+    private final long pollIntervalMs;
+    private final AtomicBoolean claimPending = new AtomicBoolean();
+    private ApplicationEventPublisher eventPublisher;
+    private volatile boolean running = true;
+
+    @Autowired
+    public GenerationScheduler(
+            @Value("${generation.scheduler.concurrency.comfyui:2}") int comfyUiConcurrency,
+            @Value("${generation.scheduler.concurrency.xai:8}") int xaiConcurrency,
+            @Value("${generation.scheduler.concurrency.ollama:2}") int ollamaConcurrency,
+            @Value("${generation.scheduler.concurrency.openai-tts:2}") int openAiTtsConcurrency,
+            @Value("${generation.scheduler.throttle-cooldown-seconds:10}") int throttleCooldownSeconds,
+            GenerationJobStore jobStore,
+            @Value("${generation.jobs.worker-id:}") String configuredWorkerId,
+            @Value("${generation.jobs.lease-minutes:30}") int jobLeaseMinutes,
+            @Value("${generation.jobs.poll-interval-ms:2000}") long pollIntervalMs) {
+        this(Map.of(
+                Backend.COMFYUI, comfyUiConcurrency,
+                Backend.XAI, xaiConcurrency,
+                Backend.OLLAMA, ollamaConcurrency,
+                Backend.OPENAI_TTS, openAiTtsConcurrency),
+                Math.max(0, throttleCooldownSeconds) * 1000L,
+                jobStore,
+                configuredWorkerId,
+                Duration.ofMinutes(Math.max(1, jobLeaseMinutes)),
+                pollIntervalMs);
+    }
+
+    GenerationScheduler(Map<Backend, Integer> concurrency) {
+        this(concurrency, DEFAULT_THROTTLE_COOLDOWN_MS);
+    }
+
+    GenerationScheduler(Map<Backend, Integer> concurrency, long throttleCooldownMs) {
+        this(concurrency, throttleCooldownMs, null, null, Duration.ofMinutes(30), 2000L);
+    }
+
+    GenerationScheduler(Map<Backend, Integer> concurrency, long throttleCooldownMs,
+                        @Nullable GenerationJobStore jobStore, @Nullable String configuredWorkerId,
+                        Duration jobLease, long pollIntervalMs) {
+        this.throttleCooldownMs = throttleCooldownMs;
+        this.jobStore = jobStore;
+        this.workerId = (configuredWorkerId != null && !configuredWorkerId.isBlank())
+                ? configuredWorkerId
+                : "generation-" + UUID.randomUUID();
+        this.jobLease = jobLease;
+        this.pollIntervalMs = Math.max(100L, pollIntervalMs);
+        for (Backend backend : Backend.values()) {
+            backends.put(backend, new BackendQueue(Math.max(1, concurrency.getOrDefault(backend, 1))));
+        }
+        for (Lane lane : Lane.values()) {
+            laneBackends.put(lane, lane == Lane.TTS
+                    ? Backend.OPENAI_TTS
+                    : lane == Lane.ILLUSTRATION || lane == Lane.PORTRAIT || lane == Lane.COVER
+                    ? Backend.COMFYUI
+                    : Backend.OLLAMA);
+            waitingByLane.put(lane, new ConcurrentHashMap<>());
+            duplicatesByLane.put(lane, 0L);
+            runningByLane.put(lane, 0);
+        }
+        this.workers = Executors.newCachedThreadPool(new SchedulerThreadFactory("generation-worker-"));
+        this.delayed = Executors.newSingleThreadScheduledExecutor(new SchedulerThreadFactory("generation-delay-"));
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Starts claiming stored jobs once the application is up, so every service has registered its
+     * handlers before the first claim.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startClaiming() {
+        if (jobStore == null) {
+            return;
+        }
+        delayed.scheduleWithFixedDelay(this::claimStoredJobs, 0L, pollIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Generation scheduler claiming stored jobs every {} ms (workerId={})", pollIntervalMs, workerId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        delayed.shutdownNow();
+        workers.shutdownNow();
+        log.info("Generation scheduler shutting down");
+    }
+
+    public boolean isRunning() {
+        return running && !workers.isShutdown();
+    }
+
+    /**
+     * Routes {@code lane} to {@code backend}. Services call this on startup with the provider they are
+     * configured for; jobs already waiting stay with the backend they were queued on.
+     */
+    public synchronized void bindLane(Lane lane, Backend backend) {
+        laneBackends.put(lane, backend);
+    }
+
+    /**
+     * Binds {@code lane} to {@code backend} and sets the handler that runs its jobs on this node.
+     */
+    public void register(Lane lane, Backend backend, JobHandler handler) {
+        bindLane(lane, backend);
+        handlers.put(lane, handler);
+    }
+
+    /**
+     * Queues {@code key} on {@code lane}; see {@link #submit} for how repeats are merged.
+     *
+     * @return true when the key was not queued yet
+     */
+    public boolean enqueue(Lane lane, String key, @Nullable String bookId, Priority priority) {
+        return enqueue(lane, key, bookId, priority, null);
+    }
+
+    public boolean enqueue(Lane lane, String key, @Nullable String bookId, Priority priority,
+                           @Nullable String payload) {
+        if (!running) {
+            return false;
+        }
+        if (jobStore == null) {
+            return submit(lane, key, bookId, priority, handlerWork(lane, key, payload));
+        }
+        boolean created = jobStore.enqueue(lane.name(), key, bookId, priorityOf(priority).ordinal(), payload,
+                LocalDateTime.now(), ownStoredId(lane, key));
+        requestClaim();
+        return created;
+    }
+
+    /**
+     * Queues {@code key} to become runnable after {@code delayMs}, used for retries with backoff. A stored
+     * job is written immediately with its start time, so the delay survives a restart.
+     */
+    public void enqueueLater(Lane lane, String key, @Nullable String bookId, Priority priority,
+                             @Nullable String payload, long delayMs) {
+        if (!running) {
+            return;
+        }
+        long normalizedDelayMs = Math.max(0L, delayMs);
+        try {
+            if (jobStore == null) {
+                delayed.schedule(() -> enqueue(lane, key, bookId, priority, payload),
+                        normalizedDelayMs, TimeUnit.MILLISECONDS);
+                return;
+            }
+            jobStore.enqueue(lane.name(), key, bookId, priorityOf(priority).ordinal(), payload,
+                    LocalDateTime.now().plus(Duration.ofMillis(normalizedDelayMs)), ownStoredId(lane, key));
+            delayed.schedule(this::requestClaim, normalizedDelayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Dropping delayed {} job for {} during shutdown", lane, key);
+        }
+    }
+
+    /**
+     * Queues {@code key} after {@code delayMs} with the priority and book of the job running on the calling
+     * thread, so a retry keeps its original place; outside a job it is treated as interactive.
+     */
+    public void retryLater(Lane lane, String key, @Nullable String payload, long delayMs) {
+        Job current = currentJob.get();
+        enqueueLater(lane, key, current == null ? null : current.bookId, currentPriority(), payload, delayMs);
+    }
+
+    /**
+     * Queues {@code work} for {@code lane}. {@code key} identifies the item (chapter, character or book)
+     * and {@code bookId}, when known, is used to share capacity fairly between books.
+     *
+     * @return true when a new job was queued; false when {@code key} was already waiting (its work is
+     *         replaced and its priority raised if needed) or the scheduler is shut down
+     */
+    public boolean submit(Lane lane, String key, String bookId, Priority priority, Runnable work) {
+        return submit(lane, key, bookId, priority, work, null);
+    }
+
+    private boolean submit(Lane lane, String key, String bookId, Priority priority, Runnable work,
+                           String storedId) {
+        Priority effectivePriority = priorityOf(priority);
+        List<Job> ready;
+        boolean queued;
+        synchronized (this) {
+            if (!running) {
+                return false;
+            }
+            Map<String, Job> waiting = waitingByLane.get(lane);
+            Job existing = waiting.get(key);
+            if (existing != null && existing.priority.compareTo(effectivePriority) <= 0) {
+                existing.work = work;
+                duplicatesByLane.merge(lane, 1L, Long::sum);
+                return false;
+            }
+            if (existing != null) {
+                // Promote: the old entry stays in its deque, cancelled, and is dropped when polled
+                existing.cancelled = true;
+                backends.get(existing.backend).size--;
+                duplicatesByLane.merge(lane, 1L, Long::sum);
+            }
+            String effectiveBook = bookId != null ? bookId : existing != null ? existing.bookId : NO_BOOK;
+            Job job = new Job(lane, key, effectiveBook, effectivePriority, laneBackends.get(lane), work, storedId);
+            backends.get(job.backend).add(job);
+            waiting.put(key, job);
+            queued = existing == null;
+            ready = takeReady();
+        }
+        start(ready);
+        return queued;
+    }
+
+    /**
+     * Priority of the job running on the calling thread, or {@link Priority#INTERACTIVE} when called from
+     * a request thread. Follow-up work queued by a job inherits its urgency through this.
+     */
+    public Priority currentPriority() {
+        Job current = currentJob.get();
+        return current == null ? Priority.INTERACTIVE : current.priority;
+    }
+
+    /**
+     * Called from inside a job when its backend answered with 429 or 5xx. Halves the backend's working
+     * limit and pauses new starts on it for the cool-down; further reports during the cool-down only
+     * mark the job, so one burst of rejections from jobs already in flight counts once.
+     */
+    public void reportThrottled() {
+        Job current = currentJob.get();
+        if (current == null) {
+            return;
+        }
+        currentJobThrottled.set(Boolean.TRUE);
+        synchronized (this) {
+            BackendQueue queue = backends.get(current.backend);
+            long now = System.currentTimeMillis();
+            if (now < queue.pausedUntilMs) {
+                return;
+            }
+            queue.effectiveLimit = Math.max(1, queue.effectiveLimit / 2);
+            queue.unthrottledStreak = 0;
+            queue.pausedUntilMs = now + throttleCooldownMs;
+            queue.throttledCount++;
+            log.warn("{} throttled a {} job; limit lowered to {} and new starts paused for {} ms",
+                    current.backend, current.lane, queue.effectiveLimit, throttleCooldownMs);
+        }
+        try {
+            delayed.schedule(this::dispatch, throttleCooldownMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Not resuming {} after cool-down during shutdown", current.backend);
+        }
+    }
+
+    public boolean isQueued(Lane lane, String key) {
+        if (jobStore != null) {
+            return jobStore.isQueued(lane.name(), key);
+        }
+        return waitingByLane.get(lane).containsKey(key);
+    }
+
+    /**
+     * Jobs waiting on {@code lane}; with a job store this is the shared backlog, including jobs other
+     * nodes have claimed but not finished.
+     */
+    public int getQueueDepth(Lane lane) {
+        if (jobStore != null) {
+            return (int) jobStore.countQueued(lane.name());
+        }
+        return waitingByLane.get(lane).size();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<Lane, Long> backlog = new EnumMap<>(Lane.class);
+        if (jobStore != null) {
+            for (Lane lane : Lane.values()) {
+                backlog.put(lane, jobStore.countQueued(lane.name()));
+            }
+        }
+        synchronized (this) {
+            return snapshot(backlog);
+        }
+    }
+
+    private Map<String, Object> snapshot(Map<Lane, Long> backlog) {
+        Map<String, Object> backendMetrics = new LinkedHashMap<>();
+        for (Map.Entry<Backend, BackendQueue> entry : backends.entrySet()) {
+            BackendQueue queue = entry.getValue();
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("concurrency", queue.limit);
+            metrics.put("effectiveConcurrency", queue.effectiveLimit);
+            metrics.put("throttled", queue.throttledCount);
+            metrics.put("running", queue.running);
+            metrics.put("queued", queue.size);
+            backendMetrics.put(entry.getKey().name().toLowerCase(), metrics);
+        }
+        Map<String, Object> laneMetrics = new LinkedHashMap<>();
+        for (Lane lane : Lane.values()) {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("backend", laneBackends.get(lane).name().toLowerCase());
+            metrics.put("queued", waitingByLane.get(lane).size());
+            metrics.put("running", runningByLane.get(lane));
+            metrics.put("duplicatesSuppressed", duplicatesByLane.get(lane));
+            if (backlog.containsKey(lane)) {
+                metrics.put("backlog", backlog.get(lane));
+            }
+            laneMetrics.put(lane.name().toLowerCase(), metrics);
+        }
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("running", isRunning());
+        snapshot.put("durable", jobStore != null);
+        snapshot.put("backends", backendMetrics);
+        snapshot.put("lanes", laneMetrics);
+        return snapshot;
+    }
+
+    // Caller holds the monitor. Claims a slot for every job that may start now.
+    private List<Job> takeReady() {
+        List<Job> ready = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (BackendQueue queue : backends.values()) {
+            if (now < queue.pausedUntilMs) {
+                continue;
+            }
+            while (queue.running < queue.effectiveLimit) {
+                Job job = queue.poll();
+                if (job == null) {
+                    break;
+                }
+                queue.running++;
+                waitingByLane.get(job.lane).remove(job.key, job);
+                runningByLane.merge(job.lane, 1, Integer::sum);
+                ready.add(job);
+            }
+        }
+        return ready;
+    }
+
+    private static Priority priorityOf(Priority priority) {
+        return priority == null ? Priority.INTERACTIVE : priority;
+    }
+
+    private Runnable handlerWork(Lane lane, String key, String payload) {
+        return () -> {
+            JobHandler handler = handlers.get(lane);
+            if (handler == null) {
+                log.warn("No handler registered for {}; dropping job for {}", lane, key);
+                return;
+            }
+            handler.run(key, payload);
+        };
+    }
+
+    // A job re-queueing its own key (a retry) releases its stored lease instead of being ignored as in-flight
+    private String ownStoredId(Lane lane, String key) {
+        Job current = currentJob.get();
+        return current != null && current.lane == lane && current.key.equals(key) ? current.storedId : null;
+    }
+
+    private void requestClaim() {
+        if (jobStore == null || !running || !claimPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            delayed.execute(this::claimStoredJobs);
+        } catch (RejectedExecutionException e) {
+            claimPending.set(false);
+        }
+    }
+
+    /**
+     * Claims as many stored jobs per backend as it has free slots, skipping paused backends and lanes this
+     * node has no handler for.
+     */
+    private void claimStoredJobs() {
+        claimPending.set(false);
+        if (jobStore == null || !running) {
+            return;
+        }
+        Map<Backend, List<String>> lanesByBackend = new EnumMap<>(Backend.class);
+        Map<Backend, Integer> freeSlots = new EnumMap<>(Backend.class);
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            for (Lane lane : handlers.keySet()) {
+                lanesByBackend.computeIfAbsent(laneBackends.get(lane), backend -> new ArrayList<>()).add(lane.name());
+            }
+            for (Backend backend : lanesByBackend.keySet()) {
+                BackendQueue queue = backends.get(backend);
+                int free = queue.effectiveLimit - queue.running - queue.size;
+                if (now >= queue.pausedUntilMs && free > 0) {
+                    freeSlots.put(backend, free);
+                }
+            }
+        }
+        for (Map.Entry<Backend, Integer> entry : freeSlots.entrySet()) {
+            List<GenerationJobEntity> claimed;
+            try {
+                claimed = jobStore.claim(lanesByBackend.get(entry.getKey()), workerId, entry.getValue(), jobLease);
+            } catch (DataAccessException e) {
+                log.warn("Failed to claim stored generation jobs for {}", entry.getKey(), e);
+                continue;
+            }
+            for (GenerationJobEntity stored : claimed) {
+                Lane lane = Lane.valueOf(stored.getLane());
+                Priority[] priorities = Priority.values();
+                Priority priority = priorities[Math.min(Math.max(stored.getPriority(), 0), priorities.length - 1)];
+                submit(lane, stored.getJobKey(), stored.getBookId(), priority,
+                        () -> runStored(lane, stored), stored.getId());
+            }
+        }
+    }
+
+    private void runStored(Lane lane, GenerationJobEntity stored) {
+        try {
+            handlerWork(lane, stored.getJobKey(), stored.getPayload()).run();
+        } finally {
+            try {
+                jobStore.complete(stored.getId(), workerId);
+            } catch (DataAccessException e) {
+                log.warn("Failed to complete stored {} job for {}; it will run again after its lease",
+                        lane, stored.getJobKey(), e);
+            }
+        }
+    }
+
+    private void dispatch() {
+        List<Job> ready;
+        synchronized (this) {
+            ready = running ? takeReady() : List.of();
+        }
+        start(ready);
+    }
+
+    private void start(List<Job> ready) {
+        for (Job job : ready) {
+            try {
+                workers.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                log.debug("Dropping {} job for {} during shutdown", job.lane, job.key);
+            }
+        }
+    }
+
+    private void run(Job job) {
+        currentJob.set(job);
+        try {
+            job.work.run();
+        } catch (Exception e) {
+            log.error("Error processing {} job for {}", job.lane, job.key, e);
+        } finally {
+            boolean throttled = Boolean.TRUE.equals(currentJobThrottled.get());
+            currentJob.remove();
+            currentJobThrottled.remove();
+            synchronized (this) {
+                BackendQueue queue = backends.get(job.backend);
+                queue.running--;
+                if (!throttled) {
+                    queue.recordUnthrottled();
+                }
+                runningByLane.merge(job.lane, -1, Integer::sum);
+            }
+            dispatch();
+            requestClaim();
+            publishCompleted(job);
+        }
+    }
+
+    private void publishCompleted(Job job) {
+        if (eventPublisher == null || NO_BOOK.equals(job.bookId)) {
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(new GenerationCompletedEvent(job.lane, job.key, job.bookId));
+        } catch (RuntimeException e) {
+            log.warn("Generation completion listener failed for {} job {}", job.lane, job.key, e);
+        }
+    }
+
+    /**
+     * Jobs waiting for one backend: a queue per priority class, each split by book and served round-robin.
+     */
+    private static final class BackendQueue {
+        private final int limit;
+        private final Map<Priority, LinkedHashMap<String, ArrayDeque<Job>>> waiting = new EnumMap<>(Priority.class);
+        private int effectiveLimit;
+        private int unthrottledStreak;
+        private long pausedUntilMs;
+        private long throttledCount;
+        private int running;
+        private int size;
+
+        private BackendQueue(int limit) {
+            this.limit = limit;
+            this.effectiveLimit = limit;
+            for (Priority priority : Priority.values()) {
+                waiting.put(priority, new LinkedHashMap<>());
+            }
+        }
+
+        // Additive increase: one more slot after a full working limit's worth of clean completions
+        private void recordUnthrottled() {
+            if (effectiveLimit >= limit) {
+                return;
+            }
+            if (++unthrottledStreak >= effectiveLimit) {
+                effectiveLimit++;
+                unthrottledStreak = 0;
+            }
+        }
+
+        private void add(Job job) {
+            waiting.get(job.priority).computeIfAbsent(job.bookId, book -> new ArrayDeque<>()).add(job);
+            size++;
+        }
+
+        private Job poll() {
+            for (LinkedHashMap<String, ArrayDeque<Job>> books : waiting.values()) {
+                while (!books.isEmpty()) {
+                    Iterator<Map.Entry<String, ArrayDeque<Job>>> iterator = books.entrySet().iterator();
+                    Map.Entry<String, ArrayDeque<Job>> next = iterator.next();
+                    Job job = next.getValue().poll();
+                    iterator.remove();
+                    if (!next.getValue().isEmpty()) {
+                        // Back of the rotation: the next poll serves the following book
+                        books.put(next.getKey(), next.getValue());
+                    }
+                    if (job.cancelled) {
+                        continue;
+                    }
+                    size--;
+                    return job;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class SchedulerThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger nextThreadId = new AtomicInteger(1);
+
+        private SchedulerThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + nextThreadId.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
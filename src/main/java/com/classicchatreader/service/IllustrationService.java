@@ -1,7 +1,6 @@
 package com.classicchatreader.service;
 
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import com.classicchatreader.entity.BookEntity;
 import com.classicchatreader.entity.ChapterEntity;
 import com.classicchatreader.entity.IllustrationEntity;
@@ -12,9 +11,13 @@ import com.classicchatreader.repository.BookRepository;
 import com.classicchatreader.repository.ChapterRepository;
 import com.classicchatreader.repository.IllustrationRepository;
 import com.classicchatreader.repository.ParagraphRepository;
+import com.classicchatreader.service.GenerationScheduler.Backend;
+import com.classicchatreader.service.GenerationScheduler.Lane;
+import com.classicchatreader.service.GenerationScheduler.Priority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
@@ -25,12 +28,6 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -46,11 +43,7 @@ public class IllustrationService {
     private final IllustrationStyleAnalysisService styleAnalysisService;
     private final ComfyUIService comfyUIService;
     private final AssetKeyService assetKeyService;
-
-    private final BlockingQueue<GenerationRequest> generationQueue = new LinkedBlockingQueue<>();
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
-    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor();
-    private volatile boolean running = true;
+    private final GenerationScheduler generationScheduler;
 
     @Value("${generation.cache-only:false}")
     private boolean cacheOnly;
@@ -83,7 +76,8 @@ public class IllustrationService {
             IllustrationPromptService promptService,
             IllustrationStyleAnalysisService styleAnalysisService,
             ComfyUIService comfyUIService,
-            AssetKeyService assetKeyService) {
+            AssetKeyService assetKeyService,
+            GenerationScheduler generationScheduler) {
         this.illustrationRepository = illustrationRepository;
         this.chapterRepository = chapterRepository;
         this.bookRepository = bookRepository;
@@ -92,6 +86,7 @@ public class IllustrationService {
         this.styleAnalysisService = styleAnalysisService;
         this.comfyUIService = comfyUIService;
         this.assetKeyService = assetKeyService;
+        this.generationScheduler = generationScheduler;
     }
 
     @org.springframework.beans.factory.annotation.Autowired
@@ -105,27 +100,22 @@ public class IllustrationService {
         workerId = (configuredWorkerId != null && !configuredWorkerId.isBlank())
                 ? configuredWorkerId
                 : "illustration-" + UUID.randomUUID();
-        executor.submit(this::processQueue);
-        log.info("Illustration service started with background queue processor (workerId={})", workerId);
+        generationScheduler.register(Lane.ILLUSTRATION, Backend.COMFYUI, (chapterId, customPrompt) ->
+                processRequest(customPrompt == null
+                        ? new IllustrationRequest(chapterId)
+                        : new RegenerateRequest(chapterId, customPrompt)));
+        log.info("Illustration service started on the generation scheduler (workerId={})", workerId);
     }
 
     /**
      * Check if the queue processor is running (for debugging).
      */
     public boolean isQueueProcessorRunning() {
-        return !executor.isShutdown() && !executor.isTerminated();
+        return generationScheduler.isRunning();
     }
 
     public int getQueueDepth() {
-        return generationQueue.size();
-    }
-
-    @PreDestroy
-    public void shutdown() {
-        running = false;
-        executor.shutdownNow();
-        retryScheduler.shutdownNow();
-        log.info("Illustration service shutting down");
+        return generationScheduler.getQueueDepth(Lane.ILLUSTRATION);
     }
 
     /**
@@ -140,7 +130,7 @@ public class IllustrationService {
     /**
      * Get the illustration image bytes if available.
      */
-    public byte[] getIllustration(String chapterId) {
+    public Resource getIllustration(String chapterId) {
         return illustrationRepository.findByChapterId(chapterId)
                 .filter(i -> i.getStatus() == IllustrationStatus.COMPLETED)
                 .map(i -> comfyUIService.getImage(i.getImageFilename()))
@@ -158,6 +148,11 @@ public class IllustrationService {
      */
     @Transactional
     public void requestIllustration(String chapterId) {
+        requestIllustration(chapterId, Priority.INTERACTIVE);
+    }
+
+    @Transactional
+    public void requestIllustration(String chapterId, Priority priority) {
         if (cacheOnly) {
             log.info("Skipping illustration request in cache-only mode for chapter {}", chapterId);
             return;
@@ -175,13 +170,13 @@ public class IllustrationService {
                 if (existing.get().getNextRetryAt() != null
                         && existing.get().getNextRetryAt().isAfter(LocalDateTime.now())) {
                     long delayMs = Duration.between(LocalDateTime.now(), existing.get().getNextRetryAt()).toMillis();
-                    scheduleRetryRequest(new IllustrationRequest(chapterId), delayMs);
+                    enqueueLater(new IllustrationRequest(chapterId), null, priority, delayMs);
                     return;
                 }
                 // Check if it's been stuck for more than 5 minutes
                 if (existing.get().getCreatedAt().isBefore(LocalDateTime.now().minusMinutes(5))) {
                     log.info("Re-queuing stuck PENDING illustration for chapter {}", chapterId);
-                    generationQueue.offer(new IllustrationRequest(chapterId));
+                    enqueue(new IllustrationRequest(chapterId), null, priority);
                 } else {
                     log.debug("Illustration PENDING for chapter {} (recently requested)", chapterId);
                 }
@@ -199,6 +194,7 @@ public class IllustrationService {
         }
 
         // Create pending record - handle race condition gracefully
+        String bookId = chapter.getBook().getId();
         try {
             IllustrationEntity illustration = new IllustrationEntity(chapter);
             illustrationRepository.save(illustration);
@@ -208,12 +204,11 @@ public class IllustrationService {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override
                 public void afterCommit() {
-                    boolean queued = generationQueue.offer(new IllustrationRequest(chapterId));
+                    boolean queued = enqueue(new IllustrationRequest(chapterId), bookId, priority);
                     if (queued) {
                         log.info("Queued illustration request for chapter: {}", chapterId);
                     } else {
-                        log.error("Failed to queue illustration request for chapter: {} - queue full", chapterId);
-                        // Note: Cannot update status here as we're outside the transaction
+                        log.debug("Illustration request already queued for chapter: {}", chapterId);
                     }
                 }
             });
@@ -248,7 +243,7 @@ public class IllustrationService {
         ).ifPresent(next -> {
             log.debug("Pre-fetching illustration for next chapter: {}", next.getTitle());
             // Use self to ensure @Transactional proxy is invoked
-            self.requestIllustration(next.getId());
+            self.requestIllustration(next.getId(), Priority.PREFETCH);
         });
     }
 
@@ -300,32 +295,29 @@ public class IllustrationService {
     }
 
     /**
-     * Background queue processor.
+     * Runs one queued request on a generation scheduler worker.
      */
-    private void processQueue() {
-        log.info("Illustration queue processor thread started");
-        int processedCount = 0;
-        while (running) {
-            try {
-                log.debug("Waiting for illustration request in queue...");
-                GenerationRequest request = generationQueue.take();
-                if (cacheOnly) {
-                    log.info("Skipping queued illustration request in cache-only mode for chapter {}", request.chapterId());
-                    continue;
-                }
-                processedCount++;
-                log.info("Processing illustration request #{} for chapter: {}", processedCount, request.chapterId());
-                String customPrompt = (request instanceof RegenerateRequest r) ? r.customPrompt() : null;
-                generateIllustration(request.chapterId(), customPrompt);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.info("Illustration queue processor thread interrupted");
-                break;
-            } catch (Exception e) {
-                log.error("Error processing illustration queue", e);
-            }
+    private void processRequest(GenerationRequest request) {
+        if (cacheOnly) {
+            log.info("Skipping queued illustration request in cache-only mode for chapter {}", request.chapterId());
+            return;
         }
-        log.info("Illustration queue processor thread stopped after processing {} requests", processedCount);
+        log.info("Processing illustration request for chapter: {}", request.chapterId());
+        generateIllustration(request.chapterId(), customPromptOf(request));
+    }
+
+    private boolean enqueue(GenerationRequest request, String bookId, Priority priority) {
+        return generationScheduler.enqueue(Lane.ILLUSTRATION, request.chapterId(), bookId, priority,
+                customPromptOf(request));
+    }
+
+    private void enqueueLater(GenerationRequest request, String bookId, Priority priority, long delayMs) {
+        generationScheduler.enqueueLater(Lane.ILLUSTRATION, request.chapterId(), bookId, priority,
+                customPromptOf(request), delayMs);
+    }
+
+    private static String customPromptOf(GenerationRequest request) {
+        return request instanceof RegenerateRequest r ? r.customPrompt() : null;
     }
 
     /**
@@ -515,7 +507,7 @@ public class IllustrationService {
         illustrationRepository.save(illustration);
 
         // Add to queue for regeneration
-        generationQueue.offer(new RegenerateRequest(chapterId, customPrompt));
+        enqueue(new RegenerateRequest(chapterId, customPrompt), null, Priority.INTERACTIVE);
         log.info("Queued illustration regeneration for chapter: {}", chapterId);
     }
 
@@ -537,7 +529,7 @@ public class IllustrationService {
             // Check if it's been stuck for more than 5 minutes
             if (illustration.getCreatedAt().isBefore(LocalDateTime.now().minusMinutes(5))) {
                 log.info("Re-queuing stuck PENDING illustration for chapter: {}", chapterId);
-                generationQueue.offer(new IllustrationRequest(chapterId));
+                enqueue(new IllustrationRequest(chapterId), illustration.getChapter().getBook().getId(), Priority.BATCH);
             }
         }
     }
@@ -556,7 +548,7 @@ public class IllustrationService {
         int queued = 0;
         for (IllustrationEntity illustration : pendingIllustrations) {
             String chapterId = illustration.getChapter().getId();
-            if (generationQueue.offer(new IllustrationRequest(chapterId))) {
+            if (enqueue(new IllustrationRequest(chapterId), bookId, Priority.BATCH)) {
                 queued++;
             }
         }
@@ -590,12 +582,12 @@ public class IllustrationService {
         // Re-queue all pending (including just-reset ones)
         int queued = 0;
         for (IllustrationEntity illustration : stuckGenerating) {
-            if (generationQueue.offer(new IllustrationRequest(illustration.getChapter().getId()))) {
+            if (enqueue(new IllustrationRequest(illustration.getChapter().getId()), bookId, Priority.BATCH)) {
                 queued++;
             }
         }
         for (IllustrationEntity illustration : stuckPending) {
-            if (generationQueue.offer(new IllustrationRequest(illustration.getChapter().getId()))) {
+            if (enqueue(new IllustrationRequest(illustration.getChapter().getId()), bookId, Priority.BATCH)) {
                 queued++;
             }
         }
@@ -676,7 +668,7 @@ public class IllustrationService {
             }
             LocalDateTime now = LocalDateTime.now();
             if (!illustration.getNextRetryAt().isAfter(now)) {
-                generationQueue.offer(buildRetryRequest(chapterId, customPrompt));
+                enqueue(buildRetryRequest(chapterId, customPrompt), null, generationScheduler.currentPriority());
                 return;
             }
             long delayMs = Duration.between(now, illustration.getNextRetryAt()).toMillis();
@@ -705,11 +697,6 @@ public class IllustrationService {
     }
 
     private void scheduleRetryRequest(GenerationRequest request, long delayMs) {
-        long normalizedDelayMs = Math.max(0L, delayMs);
-        retryScheduler.schedule(() -> {
-            if (running) {
-                generationQueue.offer(request);
-            }
-        }, normalizedDelayMs, TimeUnit.MILLISECONDS);
+        generationScheduler.retryLater(Lane.ILLUSTRATION, request.chapterId(), customPromptOf(request), delayMs);
     }
 }
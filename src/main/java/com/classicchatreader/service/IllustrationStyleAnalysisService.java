@@ -39,6 +39,10 @@ public class IllustrationStyleAnalysisService {
         return isReasoningProviderAvailable();
     }
 
+    /**
+     * Forced re-analysis of the same book reuses the stored reply; only replies that fail to parse are
+     * dropped, so the next attempt asks the model again.
+     */
     public IllustrationSettings analyzeBookForStyle(String title, String author, String openingText) {
         if (cacheOnly) {
             log.info("Skipping illustration style analysis in cache-only mode for '{}'", title);
@@ -96,8 +100,9 @@ public class IllustrationStyleAnalysisService {
             }
             """, title, author, truncateText(openingText, 1500));
 
+        LlmOptions options = LlmOptions.withTemperature(0.5);
         try {
-            String generatedText = reasoningProvider.generate(prompt, LlmOptions.withTemperature(0.5));
+            String generatedText = reasoningProvider.generate(prompt, options);
 
             // Extract JSON from response
             String json = extractJson(generatedText);
@@ -112,6 +117,7 @@ public class IllustrationStyleAnalysisService {
 
         } catch (Exception e) {
             log.error("Failed to analyze book for illustration style", e);
+            reasoningProvider.evict(prompt, options);
             return IllustrationSettings.defaults();
         }
     }
@@ -0,0 +1,245 @@
+package com.classicchatreader.service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Locates the MPEG audio frames in an MP3 file and measures their duration. Tags (ID3v2 at the start,
+ * ID3v1 at the end) and the Xing/Info/VBRI header frame are left out, so the frames of several files can
+ * be joined back to back into one stream that plays through without a stray header or silent frame at each
+ * join. Files are read through a small buffer rather than loaded whole, since only frame headers are needed.
+ */
+final class Mp3Frames {
+
+    private static final int[][] BITRATES_KBPS = {
+            // MPEG-1 layer I, II, III
+            {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},
+            // MPEG-2 and 2.5 layer I, then layers II and III
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+    };
+    private static final int[][] SAMPLE_RATES = {
+            {11025, 12000, 8000},   // MPEG-2.5
+            {0, 0, 0},              // reserved
+            {22050, 24000, 16000},  // MPEG-2
+            {44100, 48000, 32000}   // MPEG-1
+    };
+
+    private static final int BUFFER_BYTES = 16 * 1024;
+
+    private Mp3Frames() {
+    }
+
+    /**
+     * Audio frames within {@code data}: where they start, how many bytes they take and how long they play.
+     * A file with no recognizable frames gives an empty span.
+     */
+    record Span(int offset, int length, long durationMicros) {
+        boolean isEmpty() {
+            return length == 0;
+        }
+    }
+
+    static Span scan(byte[] data) {
+        try {
+            return scan(new ArraySource(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Span scan(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("MP3 file too large to index: " + file);
+            }
+            return scan(new ChannelSource(channel, (int) channel.size()));
+        }
+    }
+
+    private static Span scan(Source data) throws IOException {
+        int position = skipId3v2(data);
+        int end = data.length();
+        if (end - position >= 128 && startsWith(data, end - 128, "TAG")) {
+            end -= 128;
+        }
+
+        int first = -1;
+        int last = position;
+        long samples = 0;
+        int sampleRate = 0;
+        while (position + 4 <= end) {
+            Frame frame = Frame.at(data, position);
+            if (frame == null || position + frame.length > end) {
+                // Not a frame header (or a truncated last frame): resync on the next byte
+                position++;
+                continue;
+            }
+            if (first < 0 && frame.isInfoHeader(data, position)) {
+                position += frame.length;
+                continue;
+            }
+            if (first < 0) {
+                first = position;
+            }
+            samples += frame.samples;
+            sampleRate = frame.sampleRate;
+            position += frame.length;
+            last = position;
+        }
+        if (first < 0) {
+            return new Span(0, 0, 0);
+        }
+        long durationMicros = sampleRate == 0 ? 0 : samples * 1_000_000L / sampleRate;
+        return new Span(first, last - first, durationMicros);
+    }
+
+    private static int skipId3v2(Source data) throws IOException {
+        if (data.length() < 10 || !startsWith(data, 0, "ID3")) {
+            return 0;
+        }
+        int size = (data.at(6) & 0x7f) << 21 | (data.at(7) & 0x7f) << 14 | (data.at(8) & 0x7f) << 7
+                | (data.at(9) & 0x7f);
+        boolean hasFooter = (data.at(5) & 0x10) != 0;
+        return Math.min(data.length(), 10 + size + (hasFooter ? 10 : 0));
+    }
+
+    private static boolean startsWith(Source data, int offset, String marker) throws IOException {
+        byte[] bytes = marker.getBytes(StandardCharsets.US_ASCII);
+        if (offset < 0 || offset + bytes.length > data.length()) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (data.at(offset + i) != (bytes[i] & 0xff)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Unsigned bytes of an MP3 by position.
+     */
+    private interface Source {
+        int length();
+
+        int at(int position) throws IOException;
+    }
+
+    private record ArraySource(byte[] data) implements Source {
+        @Override
+        public int length() {
+            return data.length;
+        }
+
+        @Override
+        public int at(int position) {
+            return data[position] & 0xff;
+        }
+    }
+
+    /**
+     * Reads a file through one buffer, refilled from the requested position whenever a read falls outside
+     * it. The scan moves forward, so each byte is read from disk about once.
+     */
+    private static final class ChannelSource implements Source {
+        private final FileChannel channel;
+        private final int length;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        private int bufferStart;
+        private int bufferLength;
+
+        private ChannelSource(FileChannel channel, int length) {
+            this.channel = channel;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public int at(int position) throws IOException {
+            if (position < bufferStart || position >= bufferStart + bufferLength) {
+                fill(position);
+            }
+            return buffer.get(position - bufferStart) & 0xff;
+        }
+
+        private void fill(int position) throws IOException {
+            buffer.clear();
+            int read = 0;
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, (long) position + read);
+                if (n < 0) {
+                    break;
+                }
+                read += n;
+            }
+            if (read == 0) {
+                throw new EOFException("MP3 file shorter than expected at byte " + position);
+            }
+            bufferStart = position;
+            bufferLength = read;
+        }
+    }
+
+    private record Frame(int length, int samples, int sampleRate, boolean mpeg1, boolean mono) {
+
+        static Frame at(Source data, int offset) throws IOException {
+            int b1 = data.at(offset + 1);
+            int b2 = data.at(offset + 2);
+            if (data.at(offset) != 0xff || (b1 & 0xe0) != 0xe0) {
+                return null;
+            }
+            int version = (b1 >> 3) & 0x03;
+            int layer = (b1 >> 1) & 0x03;
+            int bitrateIndex = (b2 >> 4) & 0x0f;
+            int sampleRateIndex = (b2 >> 2) & 0x03;
+            if (version == 1 || layer == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                return null;
+            }
+            boolean mpeg1 = version == 3;
+            int padding = (b2 >> 1) & 0x01;
+            int sampleRate = SAMPLE_RATES[version][sampleRateIndex];
+            // Layer bits: 3 = layer I, 2 = layer II, 1 = layer III
+            int table = mpeg1 ? 3 - layer : (layer == 3 ? 3 : 4);
+            int bitrate = BITRATES_KBPS[table][bitrateIndex] * 1000;
+
+            int length;
+            int samples;
+            if (layer == 3) {
+                length = (12 * bitrate / sampleRate + padding) * 4;
+                samples = 384;
+            } else if (layer == 2 || mpeg1) {
+                length = 144 * bitrate / sampleRate + padding;
+                samples = 1152;
+            } else {
+                length = 72 * bitrate / sampleRate + padding;
+                samples = 576;
+            }
+            boolean mono = (data.at(offset + 3) >> 6) == 3;
+            return length < 4 ? null : new Frame(length, samples, sampleRate, mpeg1, mono);
+        }
+
+        /**
+         * Encoders put a Xing or Info tag after the side information of the first frame (VBRI sits at a
+         * fixed offset instead); that frame carries no audio.
+         */
+        boolean isInfoHeader(Source data, int offset) throws IOException {
+            int sideInfo = mpeg1 ? (mono ? 17 : 32) : (mono ? 9 : 17);
+            int tagOffset = offset + 4 + sideInfo;
+            return startsWith(data, tagOffset, "Xing") || startsWith(data, tagOffset, "Info")
+                    || startsWith(data, offset + 36, "VBRI");
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.classicchatreader.service;
+
+import org.apache.lucene.search.suggest.InputIterator;
+import org.apache.lucene.search.suggest.Lookup;
+import org.apache.lucene.search.suggest.analyzing.AnalyzingSuggester;
+import org.apache.lucene.search.suggest.analyzing.FuzzySuggester;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Typo-tolerant prefix autocomplete over a fixed set of names, held as an in-memory FST. Each entry
+ * is also reachable from every later word of its name, so "darcy" finds "Fitzwilliam Darcy".
+ */
+public final class NameSuggester {
+
+    private static final String SEPARATOR = "\t";
+    // Ask the FST for extra candidates so de-duplication and filters can still fill the limit
+    private static final int OVERFETCH = 4;
+
+    private final FuzzySuggester suggester;
+    private final int entryCount;
+
+    private NameSuggester(FuzzySuggester suggester, int entryCount) {
+        this.suggester = suggester;
+        this.entryCount = entryCount;
+    }
+
+    public static NameSuggester build(List<Entry> entries) {
+        FuzzySuggester suggester = new FuzzySuggester(
+                new ByteBuffersDirectory(),
+                "name-suggest",
+                SearchAnalyzers.nameAnalyzer(),
+                SearchAnalyzers.nameAnalyzer(),
+                AnalyzingSuggester.EXACT_FIRST | AnalyzingSuggester.PRESERVE_SEP,
+                256,
+                -1,
+                false,
+                FuzzySuggester.DEFAULT_MAX_EDITS,
+                FuzzySuggester.DEFAULT_TRANSPOSITIONS,
+                FuzzySuggester.DEFAULT_NON_FUZZY_PREFIX,
+                FuzzySuggester.DEFAULT_MIN_FUZZY_LENGTH,
+                FuzzySuggester.DEFAULT_UNICODE_AWARE);
+        List<Key> keys = new ArrayList<>();
+        for (Entry entry : entries) {
+            String[] words = entry.text().strip().split("\\s+");
+            for (int i = 0; i < words.length; i++) {
+                String key = String.join(" ", List.of(words).subList(i, words.length));
+                if (!key.isBlank()) {
+                    // Matches on the full name outrank matches on a trailing word
+                    keys.add(new Key(key, entry, Math.max(1, entry.weight() * 2 - (i == 0 ? 0 : 1))));
+                }
+            }
+        }
+        try {
+            suggester.build(new KeyIterator(keys.iterator()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build name suggester", e);
+        }
+        return new NameSuggester(suggester, entries.size());
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Returns up to {@code limit} distinct entries whose name starts with, or is one edit away from,
+     * {@code prefix}, keeping only entries accepted by {@code filter}.
+     */
+    public List<Entry> lookup(String prefix, int limit, Predicate<Entry> filter) {
+        if (prefix == null || prefix.isBlank() || entryCount == 0 || limit <= 0) {
+            return List.of();
+        }
+        List<Lookup.LookupResult> results;
+        try {
+            results = suggester.lookup(prefix, false, limit * OVERFETCH);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Name suggestion lookup failed", e);
+        }
+        Map<String, Entry> distinct = new LinkedHashMap<>();
+        for (Lookup.LookupResult result : results) {
+            Entry entry = Entry.decode(result.payload);
+            if (filter.test(entry)) {
+                distinct.putIfAbsent(entry.kind() + SEPARATOR + entry.id(), entry);
+            }
+            if (distinct.size() == limit) {
+                break;
+            }
+        }
+        return List.copyOf(distinct.values());
+    }
+
+    /**
+     * A suggestible name. {@code chapterIndex}/{@code paragraphIndex} record where a character first
+     * appears (-1 when not applicable) so callers can hide names the reader has not reached yet.
+     */
+    public record Entry(String kind, String id, String bookId, String text, int chapterIndex, int paragraphIndex,
+                        long weight) {
+
+        private BytesRef encode() {
+            String raw = String.join(SEPARATOR, kind, id, bookId == null ? "" : bookId, text,
+                    Integer.toString(chapterIndex), Integer.toString(paragraphIndex), Long.toString(weight));
+            return new BytesRef(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static Entry decode(BytesRef payload) {
+            String[] parts = payload.utf8ToString().split(SEPARATOR, -1);
+            return new Entry(parts[0], parts[1], parts[2].isEmpty() ? null : parts[2], parts[3],
+                    Integer.parseInt(parts[4]), Integer.parseInt(parts[5]), Long.parseLong(parts[6]));
+        }
+    }
+
+    private record Key(String text, Entry entry, long weight) {}
+
+    private static final class KeyIterator implements InputIterator {
+        private final Iterator<Key> keys;
+        private Key current;
+
+        private KeyIterator(Iterator<Key> keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public BytesRef next() {
+            if (!keys.hasNext()) {
+                current = null;
+                return null;
+            }
+            current = keys.next();
+            return new BytesRef(current.text());
+        }
+
+        @Override
+        public long weight() {
+            return current.weight();
+        }
+
+        @Override
+        public BytesRef payload() {
+            return current.entry().encode();
+        }
+
+        @Override
+        public boolean hasPayloads() {
+            return true;
+        }
+
+        @Override
+        public Set<BytesRef> contexts() {
+            return null;
+        }
+
+        @Override
+        public boolean hasContexts() {
+            return false;
+        }
+    }
+}
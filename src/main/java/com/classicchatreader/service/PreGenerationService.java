@@ -14,18 +14,31 @@ import com.classicchatreader.repository.ChapterRecapRepository;
 import com.classicchatreader.repository.ChapterRepository;
 import com.classicchatreader.repository.IllustrationRepository;
 import com.classicchatreader.service.BookImportService.ImportResult;
+import com.classicchatreader.service.GenerationScheduler.Priority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service for pre-generating all assets (illustrations and character portraits) for a book.
  * Handles importing the book if missing, analyzing style, and queuing all generation tasks.
+ *
+ * <p>While waiting, progress is recounted whenever a generation job for the book finishes
+ * ({@link GenerationCompletedEvent}), falling back to {@code pregen.poll-interval-seconds} for work
+ * finished elsewhere. Each recount is one {@code GROUP BY status} query per pipeline.
  */
 @Service
 public class PreGenerationService {
@@ -46,6 +59,9 @@ public class PreGenerationService {
     private final CharacterService characterService;
     private final CharacterPrefetchService characterPrefetchService;
     private final ChapterRecapService chapterRecapService;
+    // One signal per waiting run, completed and removed by the next finished job for the book; each run
+    // re-arms before every recount and releases its own signal, so concurrent runs never drop each other's
+    private final ConcurrentHashMap<String, Set<CompletableFuture<Void>>> completionSignals = new ConcurrentHashMap<>();
 
     @Value("${pregen.poll-interval-seconds:10}")
     private int pollIntervalSeconds;
@@ -332,14 +348,18 @@ public class PreGenerationService {
                 bookTitle,
                 book.getAuthor());
 
-        int preIllustrationsTotal = illustrationRepository
-                .findByChapterBookIdAndStatus(bookId, IllustrationStatus.COMPLETED).size()
-                + illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.FAILED).size();
-        int prePortraitsTotal = characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.COMPLETED).size()
-                + characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.FAILED).size();
-        int preRecapsTotal = chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.COMPLETED).size()
-                + chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.FAILED).size();
-        int preCoversTotal = coverCompletedOrFailed(bookId);
+        StatusTotals<IllustrationStatus> preIllustrations = illustrationTotals(bookId);
+        StatusTotals<CharacterStatus> prePortraits = portraitTotals(bookId);
+        StatusTotals<ChapterRecapStatus> preRecaps = recapTotals(bookId);
+        StatusTotals<IllustrationStatus> preCovers = coverTotals(bookId);
+        int preIllustrationsTotal = preIllustrations.countAsInt(IllustrationStatus.COMPLETED)
+                + preIllustrations.countAsInt(IllustrationStatus.FAILED);
+        int prePortraitsTotal = prePortraits.countAsInt(CharacterStatus.COMPLETED)
+                + prePortraits.countAsInt(CharacterStatus.FAILED);
+        int preRecapsTotal = preRecaps.countAsInt(ChapterRecapStatus.COMPLETED)
+                + preRecaps.countAsInt(ChapterRecapStatus.FAILED);
+        int preCoversTotal = preCovers.countAsInt(IllustrationStatus.COMPLETED)
+                + preCovers.countAsInt(IllustrationStatus.FAILED);
 
         int totalSteps = includeRecaps ? 5 : 4;
 
@@ -348,7 +368,7 @@ public class PreGenerationService {
         illustrationService.getOrAnalyzeBookStyle(bookId, false);
 
         log.info("[2/{}] Queuing book cover generation...", totalSteps);
-        bookCoverService.requestCover(bookId);
+        bookCoverService.requestCover(bookId, Priority.BATCH);
 
         // Step 3: Prefetch main characters
         log.info("[3/{}] Prefetching main characters...", totalSteps);
@@ -359,10 +379,10 @@ public class PreGenerationService {
         log.info("[4/{}] Queuing generation for {} chapters...", totalSteps, chapters.size());
 
         for (ChapterEntity chapter : chapters) {
-            illustrationService.requestIllustration(chapter.getId());
-            characterService.requestChapterAnalysis(chapter.getId());
+            illustrationService.requestIllustration(chapter.getId(), Priority.BATCH);
+            characterService.requestChapterAnalysis(chapter.getId(), Priority.BATCH);
             if (includeRecaps) {
-                chapterRecapService.requestChapterRecap(chapter.getId());
+                chapterRecapService.requestChapterRecap(chapter.getId(), Priority.BATCH);
             }
         }
 
@@ -381,7 +401,7 @@ public class PreGenerationService {
         }
 
         // Step 4: Wait for all generation to complete
-        log.info("[{}/{}] Waiting for generation to complete (polling every {}s, max {}min)...",
+        log.info("[{}/{}] Waiting for generation to complete (rechecking on completion or every {}s, max {}min)...",
                 totalSteps,
                 totalSteps,
                 pollIntervalSeconds, maxWaitMinutes);
@@ -397,40 +417,41 @@ public class PreGenerationService {
         int lastPortraitsPending = -1;
         int lastAnalysesPending = -1;
         int lastRecapsPending = -1;
-        int stallCount = 0;
-        final int stallThreshold = Math.max(1, stallThresholdPolls);
+        long lastProgressAt = startTime;
 
         // Track images completed for periodic cooldown
         int imagesSinceLastCooldown = 0;
         int lastTotalCompleted = preIllustrationsTotal + prePortraitsTotal;
 
+        CompletableFuture<Void> completion = null;
         while (System.currentTimeMillis() - startTime < maxWaitMs) {
-            // Count pending/generating illustrations
-            int illustrationsPending = illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.PENDING).size();
-            int illustrationsGenerating = illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.GENERATING).size();
-
-            int coversPending = coverPending(bookId);
-            int coversGenerating = coverGenerating(bookId);
-
-            // Count pending/generating portraits
-            int portraitsPending = characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.PENDING).size();
-            int portraitsGenerating = characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.GENERATING).size();
-
-            // Count pending/generating chapter analyses
-            int analysesPending = chapterAnalysisRepository.findByChapterBookIdAndStatus(bookId, ChapterAnalysisStatus.PENDING).size();
-            int analysesPendingNull = chapterAnalysisRepository.findByChapterBookIdAndStatusIsNull(bookId).size();
-            int analysesGenerating = chapterAnalysisRepository.findByChapterBookIdAndStatus(bookId, ChapterAnalysisStatus.GENERATING).size();
-
-            // Count pending/generating recaps
-            int recapsPending = includeRecaps
-                    ? chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.PENDING).size()
-                    : 0;
-            int recapsPendingNull = includeRecaps
-                    ? chapterRecapRepository.findByChapterBookIdAndStatusIsNull(bookId).size()
-                    : 0;
-            int recapsGenerating = includeRecaps
-                    ? chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.GENERATING).size()
-                    : 0;
+            // Armed before counting so a job finishing mid-count still wakes the next wait
+            releaseCompletionSignal(bookId, completion);
+            completion = completionSignal(bookId);
+
+            // One grouped count per pipeline
+            StatusTotals<IllustrationStatus> illustrations = illustrationTotals(bookId);
+            StatusTotals<IllustrationStatus> covers = coverTotals(bookId);
+            StatusTotals<CharacterStatus> portraits = portraitTotals(bookId);
+            StatusTotals<ChapterAnalysisStatus> analyses = analysisTotals(bookId);
+            StatusTotals<ChapterRecapStatus> recaps = includeRecaps ? recapTotals(bookId) : StatusTotals.of(List.of());
+
+            int illustrationsPending = illustrations.countAsInt(IllustrationStatus.PENDING);
+            int illustrationsGenerating = illustrations.countAsInt(IllustrationStatus.GENERATING);
+
+            int coversPending = covers.countAsInt(IllustrationStatus.PENDING);
+            int coversGenerating = covers.countAsInt(IllustrationStatus.GENERATING);
+
+            int portraitsPending = portraits.countAsInt(CharacterStatus.PENDING);
+            int portraitsGenerating = portraits.countAsInt(CharacterStatus.GENERATING);
+
+            int analysesPending = analyses.countAsInt(ChapterAnalysisStatus.PENDING);
+            int analysesPendingNull = analyses.countAsInt(null);
+            int analysesGenerating = analyses.countAsInt(ChapterAnalysisStatus.GENERATING);
+
+            int recapsPending = recaps.countAsInt(ChapterRecapStatus.PENDING);
+            int recapsPendingNull = recaps.countAsInt(null);
+            int recapsGenerating = recaps.countAsInt(ChapterRecapStatus.GENERATING);
 
             int totalPending = illustrationsPending + illustrationsGenerating
                     + coversPending + coversGenerating
@@ -455,10 +476,9 @@ public class PreGenerationService {
                 lastPortraitsPending = portraitsPending + portraitsGenerating;
                 lastAnalysesPending = analysesPending + analysesPendingNull + analysesGenerating;
                 lastRecapsPending = recapsPending + recapsPendingNull + recapsGenerating;
-                stallCount = 0; // Reset stall counter on progress
+                lastProgressAt = System.currentTimeMillis();
             } else if (totalPending > 0) {
-                stallCount++;
-                if (stallCount >= stallThreshold) {
+                if (System.currentTimeMillis() - lastProgressAt >= stallTimeoutMs()) {
                     log.warn("Generation appears stalled. Re-queuing {} stuck items...", totalPending);
                     // Reset stuck GENERATING items and re-queue everything
                     int illustrationsReset = illustrationService.resetAndRequeueStuckForBook(bookId);
@@ -468,7 +488,7 @@ public class PreGenerationService {
                     int recapsReset = includeRecaps ? chapterRecapService.resetAndRequeueStuckForBook(bookId) : 0;
                     log.info("Reset and re-queued {} covers, {} illustrations, {} portraits, {} analyses, and {} recaps",
                             coversReset, illustrationsReset, portraitsReset, analysesReset, recapsReset);
-                    stallCount = 0;
+                    lastProgressAt = System.currentTimeMillis();
                 }
             }
 
@@ -479,10 +499,10 @@ public class PreGenerationService {
 
             // Check for periodic cooldown based on images completed
             if (cooldownEveryImages > 0 && imageCooldownMinutes > 0) {
-                int currentCompleted = illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.COMPLETED).size()
-                        + illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.FAILED).size()
-                        + characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.COMPLETED).size()
-                        + characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.FAILED).size();
+                int currentCompleted = illustrations.countAsInt(IllustrationStatus.COMPLETED)
+                        + illustrations.countAsInt(IllustrationStatus.FAILED)
+                        + portraits.countAsInt(CharacterStatus.COMPLETED)
+                        + portraits.countAsInt(CharacterStatus.FAILED);
                 int newlyCompleted = currentCompleted - lastTotalCompleted;
                 imagesSinceLastCooldown += newlyCompleted;
                 lastTotalCompleted = currentCompleted;
@@ -502,24 +522,26 @@ public class PreGenerationService {
                 }
             }
 
-            try {
-                Thread.sleep(pollIntervalSeconds * 1000L);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            if (!awaitCompletion(completion, startTime + maxWaitMs)) {
                 log.warn("Pre-generation interrupted");
                 break;
             }
         }
+        releaseCompletionSignal(bookId, completion);
 
         // Collect final stats
-        int illustrationsCompleted = illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.COMPLETED).size();
-        int illustrationsFailed = illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.FAILED).size();
-        int portraitsCompleted = characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.COMPLETED).size();
-        int portraitsFailed = characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.FAILED).size();
-        int recapsCompleted = chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.COMPLETED).size();
-        int recapsFailed = chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.FAILED).size();
-        int coversCompleted = coverCompleted(bookId);
-        int coversFailed = coverFailed(bookId);
+        StatusTotals<IllustrationStatus> finalIllustrations = illustrationTotals(bookId);
+        StatusTotals<CharacterStatus> finalPortraits = portraitTotals(bookId);
+        StatusTotals<ChapterRecapStatus> finalRecaps = recapTotals(bookId);
+        StatusTotals<IllustrationStatus> finalCovers = coverTotals(bookId);
+        int illustrationsCompleted = finalIllustrations.countAsInt(IllustrationStatus.COMPLETED);
+        int illustrationsFailed = finalIllustrations.countAsInt(IllustrationStatus.FAILED);
+        int portraitsCompleted = finalPortraits.countAsInt(CharacterStatus.COMPLETED);
+        int portraitsFailed = finalPortraits.countAsInt(CharacterStatus.FAILED);
+        int recapsCompleted = finalRecaps.countAsInt(ChapterRecapStatus.COMPLETED);
+        int recapsFailed = finalRecaps.countAsInt(ChapterRecapStatus.FAILED);
+        int coversCompleted = finalCovers.countAsInt(IllustrationStatus.COMPLETED);
+        int coversFailed = finalCovers.countAsInt(IllustrationStatus.FAILED);
         int newIllustrations = Math.max(0, (illustrationsCompleted + illustrationsFailed) - preIllustrationsTotal);
         int newPortraits = Math.max(0, (portraitsCompleted + portraitsFailed) - prePortraitsTotal);
         int newRecaps = Math.max(0, (recapsCompleted + recapsFailed) - preRecapsTotal);
@@ -593,13 +615,14 @@ public class PreGenerationService {
         String bookTitle = book.getTitle();
         log.info("Starting recap-only pre-generation for '{}' by {}", bookTitle, book.getAuthor());
 
-        int preRecapsTotal = chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.COMPLETED).size()
-                + chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.FAILED).size();
+        StatusTotals<ChapterRecapStatus> preRecaps = recapTotals(bookId);
+        int preRecapsTotal = preRecaps.countAsInt(ChapterRecapStatus.COMPLETED)
+                + preRecaps.countAsInt(ChapterRecapStatus.FAILED);
 
         List<ChapterEntity> chapters = chapterRepository.findByBookIdOrderByChapterIndex(bookId);
         log.info("Queuing recap generation for {} chapters...", chapters.size());
         for (ChapterEntity chapter : chapters) {
-            chapterRecapService.requestChapterRecap(chapter.getId());
+            chapterRecapService.requestChapterRecap(chapter.getId(), Priority.BATCH);
         }
 
         int recapsRequeued = chapterRecapService.forceQueuePendingForBook(bookId);
@@ -607,31 +630,33 @@ public class PreGenerationService {
             log.info("Re-queued {} recaps from previous pending state", recapsRequeued);
         }
 
-        log.info("Waiting for recap generation to complete (polling every {}s, max {}min)...",
+        log.info("Waiting for recap generation to complete (rechecking on completion or every {}s, max {}min)...",
                 pollIntervalSeconds, maxWaitMinutes);
 
         long startTime = System.currentTimeMillis();
         long maxWaitMs = maxWaitMinutes * 60 * 1000L;
         int lastRecapsPending = -1;
-        int stallCount = 0;
-        final int stallThreshold = Math.max(1, stallThresholdPolls);
+        long lastProgressAt = startTime;
 
+        CompletableFuture<Void> completion = null;
         while (System.currentTimeMillis() - startTime < maxWaitMs) {
-            int recapsPending = chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.PENDING).size();
-            int recapsPendingNull = chapterRecapRepository.findByChapterBookIdAndStatusIsNull(bookId).size();
-            int recapsGenerating = chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.GENERATING).size();
+            releaseCompletionSignal(bookId, completion);
+            completion = completionSignal(bookId);
+            StatusTotals<ChapterRecapStatus> recaps = recapTotals(bookId);
+            int recapsPending = recaps.countAsInt(ChapterRecapStatus.PENDING);
+            int recapsPendingNull = recaps.countAsInt(null);
+            int recapsGenerating = recaps.countAsInt(ChapterRecapStatus.GENERATING);
             int totalPending = recapsPending + recapsPendingNull + recapsGenerating;
 
             if (totalPending != lastRecapsPending) {
                 log.info("  Progress: {} recaps pending/generating", totalPending);
                 lastRecapsPending = totalPending;
-                stallCount = 0;
+                lastProgressAt = System.currentTimeMillis();
             } else if (totalPending > 0) {
-                stallCount++;
-                if (stallCount >= stallThreshold) {
+                if (System.currentTimeMillis() - lastProgressAt >= stallTimeoutMs()) {
                     int recapsReset = chapterRecapService.resetAndRequeueStuckForBook(bookId);
                     log.info("Reset and re-queued {} recaps", recapsReset);
-                    stallCount = 0;
+                    lastProgressAt = System.currentTimeMillis();
                 }
             }
 
@@ -640,17 +665,16 @@ public class PreGenerationService {
                 break;
             }
 
-            try {
-                Thread.sleep(pollIntervalSeconds * 1000L);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            if (!awaitCompletion(completion, startTime + maxWaitMs)) {
                 log.warn("Recap pre-generation interrupted");
                 break;
             }
         }
+        releaseCompletionSignal(bookId, completion);
 
-        int recapsCompleted = chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.COMPLETED).size();
-        int recapsFailed = chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.FAILED).size();
+        StatusTotals<ChapterRecapStatus> finalRecaps = recapTotals(bookId);
+        int recapsCompleted = finalRecaps.countAsInt(ChapterRecapStatus.COMPLETED);
+        int recapsFailed = finalRecaps.countAsInt(ChapterRecapStatus.FAILED);
         int newRecaps = Math.max(0, (recapsCompleted + recapsFailed) - preRecapsTotal);
 
         long elapsedMinutes = (System.currentTimeMillis() - startTime) / 60000;
@@ -683,20 +707,83 @@ public class PreGenerationService {
         );
     }
 
-    private int coverCompleted(String bookId) {
-        return Math.toIntExact(bookCoverRepository.countByBookAndStatus(bookId, IllustrationStatus.COMPLETED));
+    @EventListener
+    public void onGenerationCompleted(GenerationCompletedEvent event) {
+        Set<CompletableFuture<Void>> completions = completionSignals.remove(event.bookId());
+        if (completions != null) {
+            completions.forEach(completion -> completion.complete(null));
+        }
     }
 
-    private int coverFailed(String bookId) {
-        return Math.toIntExact(bookCoverRepository.countByBookAndStatus(bookId, IllustrationStatus.FAILED));
+    private CompletableFuture<Void> completionSignal(String bookId) {
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        completionSignals.compute(bookId, (id, completions) -> {
+            Set<CompletableFuture<Void>> signals = completions != null ? completions : ConcurrentHashMap.newKeySet();
+            signals.add(completion);
+            return signals;
+        });
+        return completion;
+    }
+
+    private void releaseCompletionSignal(String bookId, CompletableFuture<Void> completion) {
+        if (completion == null) {
+            return;
+        }
+        completionSignals.computeIfPresent(bookId, (id, completions) -> {
+            completions.remove(completion);
+            return completions.isEmpty() ? null : completions;
+        });
+    }
+
+    /**
+     * Waits until a job for the book finishes, the poll interval passes, or {@code deadlineMs} is reached.
+     *
+     * @return false if the thread was interrupted
+     */
+    private boolean awaitCompletion(CompletableFuture<Void> completion, long deadlineMs) {
+        long waitMs = Math.min(pollIntervalSeconds * 1000L, deadlineMs - System.currentTimeMillis());
+        try {
+            completion.get(Math.max(0L, waitMs), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Recount anyway; the fallback interval covers jobs finished on other nodes
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    // Stall threshold was expressed in polls; keep that duration now that recounts are event-driven
+    private long stallTimeoutMs() {
+        return Math.max(1, stallThresholdPolls) * Math.max(1, pollIntervalSeconds) * 1000L;
     }
 
-    private int coverPending(String bookId) {
-        return Math.toIntExact(bookCoverRepository.countByBookAndStatus(bookId, IllustrationStatus.PENDING));
+    private StatusTotals<IllustrationStatus> illustrationTotals(String bookId) {
+        return StatusTotals.of(illustrationRepository.countGroupedByStatusForBook(bookId, LocalDateTime.now()));
     }
 
-    private int coverGenerating(String bookId) {
-        return Math.toIntExact(bookCoverRepository.countByBookAndStatus(bookId, IllustrationStatus.GENERATING));
+    private StatusTotals<CharacterStatus> portraitTotals(String bookId) {
+        return StatusTotals.of(characterRepository.countGroupedByStatusForBook(bookId, LocalDateTime.now()));
+    }
+
+    private StatusTotals<ChapterAnalysisStatus> analysisTotals(String bookId) {
+        return StatusTotals.of(chapterAnalysisRepository.countGroupedByStatusForBook(bookId, LocalDateTime.now()));
+    }
+
+    private StatusTotals<ChapterRecapStatus> recapTotals(String bookId) {
+        return StatusTotals.of(chapterRecapRepository.countGroupedByStatusForBook(bookId, LocalDateTime.now()));
+    }
+
+    private StatusTotals<IllustrationStatus> coverTotals(String bookId) {
+        return StatusTotals.of(bookCoverRepository.countGroupedByStatusForBook(bookId, LocalDateTime.now()));
+    }
+
+    private int coverCompleted(String bookId) {
+        return Math.toIntExact(bookCoverRepository.countByBookAndStatus(bookId, IllustrationStatus.COMPLETED));
+    }
+
+    private int coverFailed(String bookId) {
+        return Math.toIntExact(bookCoverRepository.countByBookAndStatus(bookId, IllustrationStatus.FAILED));
     }
 
     private int coverCompletedOrFailed(String bookId) {
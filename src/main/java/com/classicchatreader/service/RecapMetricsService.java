@@ -2,6 +2,8 @@ package com.classicchatreader.service;
 
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
@@ -23,6 +25,8 @@ public class RecapMetricsService {
     private final LongAdder modalSkipped = new LongAdder();
     private final LongAdder modalContinued = new LongAdder();
     private final AtomicLong generationLatencyTotalMs = new AtomicLong(0);
+    // Completion times over the last minute, for recaps/min while several workers drain a batch
+    private final Deque<Long> recentCompletionsMs = new ArrayDeque<>();
 
     public void recordGenerationRequested() {
         generationRequested.increment();
@@ -30,6 +34,11 @@ public class RecapMetricsService {
 
     public void recordGenerationCompleted(boolean fallbackUsed, long durationMs) {
         generationCompleted.increment();
+        long now = System.currentTimeMillis();
+        synchronized (recentCompletionsMs) {
+            recentCompletionsMs.addLast(now);
+            pruneRecentCompletions(now);
+        }
         if (fallbackUsed) {
             generationFallbackCompleted.increment();
         }
@@ -89,6 +98,7 @@ public class RecapMetricsService {
         metrics.put("generationFallbackCompleted", generationFallbackCompleted.sum());
         metrics.put("generationFailed", failed);
         metrics.put("generationAverageLatencyMs", avgLatencyMs);
+        metrics.put("generationCompletedPerMinute", completedInLastMinute());
         metrics.put("chatRequests", chatRequests.sum());
         metrics.put("chatRejected", chatRejected.sum());
         metrics.put("chatFailed", chatFailed.sum());
@@ -99,4 +109,17 @@ public class RecapMetricsService {
         metrics.put("modalContinued", modalContinued.sum());
         return metrics;
     }
+
+    private long completedInLastMinute() {
+        synchronized (recentCompletionsMs) {
+            pruneRecentCompletions(System.currentTimeMillis());
+            return recentCompletionsMs.size();
+        }
+    }
+
+    private void pruneRecentCompletions(long now) {
+        while (!recentCompletionsMs.isEmpty() && recentCompletionsMs.peekFirst() <= now - 60_000L) {
+            recentCompletionsMs.removeFirst();
+        }
+    }
 }
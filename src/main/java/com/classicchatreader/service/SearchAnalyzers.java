@@ -0,0 +1,95 @@
+package com.classicchatreader.service;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+import org.apache.lucene.analysis.phonetic.DoubleMetaphoneFilter;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analyzers for the search index. Text is indexed once per analysis: as written (the highlighted
+ * field), stemmed English, Double Metaphone codes, and, for book titles and authors, character
+ * trigrams. Queries are parsed against each of these fields and the scores blended.
+ */
+final class SearchAnalyzers {
+
+    static final String CONTENT_FIELD = "content";
+    static final String STEMMED_FIELD = "content_en";
+    static final String PHONETIC_FIELD = "content_phonetic";
+    static final String NAME_NGRAM_FIELD = "names_ngram";
+
+    private static final int METAPHONE_CODE_LENGTH = 6;
+
+    private SearchAnalyzers() {
+    }
+
+    static Analyzer indexAnalyzer() {
+        return new PerFieldAnalyzerWrapper(new StandardAnalyzer(), Map.of(
+                STEMMED_FIELD, new EnglishAnalyzer(),
+                PHONETIC_FIELD, new PhoneticAnalyzer(),
+                NAME_NGRAM_FIELD, new NameNgramAnalyzer()));
+    }
+
+    /**
+     * Analyzer for autocomplete keys: folded, lower-cased words with honorifics removed, so "Mr. Darcy"
+     * is suggested for "darcy" and "Mr Dar" alike.
+     */
+    static Analyzer nameAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                StandardTokenizer tokenizer = new StandardTokenizer();
+                return new TokenStreamComponents(tokenizer, withoutTitles(tokenizer));
+            }
+
+            @Override
+            protected TokenStream normalize(String fieldName, TokenStream in) {
+                return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+            }
+        };
+    }
+
+    private static TokenStream withoutTitles(TokenStream source) {
+        TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(source));
+        return new StopFilter(stream, new CharArraySet(CharacterNames.TITLES, true));
+    }
+
+    private static CharArraySet phoneticStopWords() {
+        List<Object> words = new ArrayList<>(EnglishAnalyzer.ENGLISH_STOP_WORDS_SET);
+        words.addAll(CharacterNames.TITLES);
+        return CharArraySet.unmodifiableSet(new CharArraySet(words, true));
+    }
+
+    // Sound-alike spellings ("Raskolnikoff", "Dostoyevsky") share Double Metaphone codes with the originals
+    private static final class PhoneticAnalyzer extends Analyzer {
+        private final CharArraySet stopWords = phoneticStopWords();
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            StandardTokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+            stream = new StopFilter(stream, stopWords);
+            return new TokenStreamComponents(tokenizer, new DoubleMetaphoneFilter(stream, METAPHONE_CODE_LENGTH, false));
+        }
+    }
+
+    // Trigrams tolerate typos and partial words in titles and author names; too costly for paragraph text
+    private static final class NameNgramAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            StandardTokenizer tokenizer = new StandardTokenizer();
+            return new TokenStreamComponents(tokenizer, new NGramTokenFilter(withoutTitles(tokenizer), 3, 3, true));
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.entity.BookEntity;
+import com.classicchatreader.model.Paragraph;
+import com.classicchatreader.repository.BookRepository;
+import com.classicchatreader.repository.ParagraphRepository;
+import com.classicchatreader.repository.ParagraphRepository.BookContentSummary;
+import com.classicchatreader.repository.ParagraphRepository.IndexableParagraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Rebuilds the Lucene index from the database. Books are fanned out across a bounded worker pool;
+ * each worker pages its book's paragraphs straight from {@link ParagraphRepository} and feeds the
+ * shared {@link SearchService} writer one chapter batch at a time.
+ */
+@Service
+public class SearchReindexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchReindexService.class);
+
+    private final BookRepository bookRepository;
+    private final ParagraphRepository paragraphRepository;
+    private final SearchService searchService;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final int pageSize;
+    private final int commitEveryBooks;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final AtomicInteger booksTotal = new AtomicInteger();
+    private final AtomicInteger booksCompleted = new AtomicInteger();
+    private final AtomicInteger booksFailed = new AtomicInteger();
+    private final AtomicLong paragraphsTotal = new AtomicLong();
+    private final AtomicLong paragraphsIndexed = new AtomicLong();
+    private volatile long startedAtNanos;
+    private volatile long finishedAtNanos;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+
+    public SearchReindexService(
+            BookRepository bookRepository,
+            ParagraphRepository paragraphRepository,
+            SearchService searchService,
+            @Value("${search.reindex.threads:0}") int configuredThreads,
+            @Value("${search.reindex.page-size:500}") int pageSize,
+            @Value("${search.reindex.commit-every-books:25}") int commitEveryBooks) {
+        this.bookRepository = bookRepository;
+        this.paragraphRepository = paragraphRepository;
+        this.searchService = searchService;
+        this.workerCount = configuredThreads > 0
+                ? configuredThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors());
+        this.pageSize = Math.max(1, pageSize);
+        this.commitEveryBooks = Math.max(1, commitEveryBooks);
+        this.workers = Executors.newFixedThreadPool(workerCount, new ReindexThreadFactory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Reindexes books whose content changed since the persisted index was last committed and drops
+     * books that no longer exist. Returns the number of books reindexed, or -1 if a reindex is already running.
+     */
+    public int reindexChanged() {
+        Map<String, String> indexedVersions;
+        try {
+            indexedVersions = new HashMap<>(searchService.getIndexedBookVersions());
+        } catch (Exception e) {
+            log.warn("Failed to read search index versions; rebuilding every book", e);
+            indexedVersions = new HashMap<>();
+        }
+        return reindex(indexedVersions);
+    }
+
+    /**
+     * Runs {@link #reindexChanged()} on a background coordinator thread so startup is not blocked;
+     * progress is visible through {@link #snapshot()} while it runs.
+     */
+    public CompletableFuture<Integer> startReindexChanged() {
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        Thread coordinator = new Thread(() -> result.complete(reindexChanged()), "search-reindex-coordinator");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return result;
+    }
+
+    /**
+     * Reindexes every book. Returns the number of books reindexed, or -1 if a reindex is already running.
+     */
+    public int reindexAll() {
+        return reindex(null);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public Map<String, Object> snapshot() {
+        long started = startedAtNanos;
+        long finished = running.get() ? System.nanoTime() : finishedAtNanos;
+        double elapsedSeconds = started == 0 ? 0 : Math.max(0, finished - started) / 1_000_000_000.0;
+        int completedBooks = booksCompleted.get();
+        long indexedParagraphs = paragraphsIndexed.get();
+        double booksPerSecond = elapsedSeconds > 0 ? completedBooks / elapsedSeconds : 0;
+        double paragraphsPerSecond = elapsedSeconds > 0 ? indexedParagraphs / elapsedSeconds : 0;
+        long remainingParagraphs = Math.max(0, paragraphsTotal.get() - indexedParagraphs);
+        Long etaSeconds = running.get() && paragraphsPerSecond > 0
+                ? Math.round(remainingParagraphs / paragraphsPerSecond)
+                : null;
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("reindexRunning", running.get());
+        metrics.put("persistent", searchService.isPersistent());
+        metrics.put("workers", workerCount);
+        metrics.put("startedAt", startedAt);
+        metrics.put("completedAt", completedAt);
+        metrics.put("booksTotal", booksTotal.get());
+        metrics.put("booksCompleted", completedBooks);
+        metrics.put("booksFailed", booksFailed.get());
+        metrics.put("paragraphsTotal", paragraphsTotal.get());
+        metrics.put("paragraphsIndexed", indexedParagraphs);
+        metrics.put("booksPerSecond", round(booksPerSecond));
+        metrics.put("paragraphsPerSecond", round(paragraphsPerSecond));
+        metrics.put("etaSeconds", etaSeconds);
+        return metrics;
+    }
+
+    // Fingerprint of the indexed content, computed from database aggregates so it is cheap to compare on boot.
+    // The latest paragraph write catches edits that keep the paragraph count and content length.
+    static String contentVersion(String title, String author, BookContentSummary summary) {
+        long paragraphCount = summary == null ? 0 : summary.getParagraphCount();
+        long contentLength = summary == null ? 0 : summary.getContentLength();
+        LocalDateTime lastUpdated = summary == null ? null : summary.getLastUpdated();
+        long lastUpdatedMillis = lastUpdated == null ? 0 : lastUpdated.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return paragraphCount + ":" + contentLength + ":" + Long.toHexString(lastUpdatedMillis) + ":"
+                + Integer.toHexString(Objects.hash(title, author));
+    }
+
+    private int reindex(Map<String, String> indexedVersions) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Search reindex already running; skipping request");
+            return -1;
+        }
+        try {
+            Map<String, BookContentSummary> summaries = paragraphRepository.summarizeContentByBook().stream()
+                    .collect(Collectors.toMap(BookContentSummary::getBookId, Function.identity()));
+
+            List<BookEntity> books = new ArrayList<>();
+            Map<String, String> versions = new HashMap<>();
+            long totalParagraphs = 0;
+            for (BookEntity book : bookRepository.findAll()) {
+                BookContentSummary summary = summaries.get(book.getId());
+                String version = contentVersion(book.getTitle(), book.getAuthor(), summary);
+                if (indexedVersions != null && version.equals(indexedVersions.remove(book.getId()))) {
+                    continue;
+                }
+                books.add(book);
+                versions.put(book.getId(), version);
+                totalParagraphs += summary == null ? 0 : summary.getParagraphCount();
+            }
+
+            startProgress(books.size(), totalParagraphs);
+
+            // Whatever is left was indexed for books that no longer exist in the database
+            if (indexedVersions != null) {
+                for (String staleBookId : indexedVersions.keySet()) {
+                    searchService.deleteByBookId(staleBookId);
+                }
+            }
+
+            List<CompletableFuture<Void>> tasks = books.stream()
+                    .map(book -> CompletableFuture.runAsync(
+                            () -> reindexBook(book, versions.get(book.getId())), workers))
+                    .toList();
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+            searchService.commit();
+
+            log.info("Search reindex finished: {} books, {} paragraphs, {} failed",
+                    booksCompleted.get(), paragraphsIndexed.get(), booksFailed.get());
+            return booksCompleted.get();
+        } catch (Exception e) {
+            log.error("Search reindex failed", e);
+            return booksCompleted.get();
+        } finally {
+            finishProgress();
+            running.set(false);
+        }
+    }
+
+    private void reindexBook(BookEntity book, String contentVersion) {
+        String bookId = book.getId();
+        try {
+            searchService.deleteByBookId(bookId);
+
+            PageRequest page = PageRequest.of(0, pageSize);
+            Slice<IndexableParagraph> slice;
+            do {
+                slice = paragraphRepository.findIndexableByBookId(bookId, page);
+                indexSlice(bookId, slice.getContent());
+                page = page.next();
+            } while (slice.hasNext());
+
+            // The book document carries the content version, so write it after its paragraphs
+            searchService.indexBook(bookId, book.getTitle(), book.getAuthor(), contentVersion);
+            if (booksCompleted.incrementAndGet() % commitEveryBooks == 0) {
+                searchService.commit();
+            }
+        } catch (Exception e) {
+            booksFailed.incrementAndGet();
+            log.warn("Failed to reindex book {}", bookId, e);
+        }
+    }
+
+    private void indexSlice(String bookId, List<IndexableParagraph> rows) throws Exception {
+        String chapterId = null;
+        int chapterIndex = 0;
+        List<Paragraph> batch = new ArrayList<>();
+        for (IndexableParagraph row : rows) {
+            if (chapterId != null && !chapterId.equals(row.getChapterId())) {
+                flushChapter(bookId, chapterId, chapterIndex, batch);
+            }
+            chapterId = row.getChapterId();
+            chapterIndex = row.getChapterIndex();
+            batch.add(new Paragraph(row.getParagraphIndex(), row.getContent()));
+        }
+        if (chapterId != null) {
+            flushChapter(bookId, chapterId, chapterIndex, batch);
+        }
+    }
+
+    private void flushChapter(String bookId, String chapterId, int chapterIndex, List<Paragraph> batch) throws Exception {
+        searchService.indexParagraphs(bookId, chapterId, chapterIndex, List.copyOf(batch));
+        paragraphsIndexed.addAndGet(batch.size());
+        batch.clear();
+    }
+
+    private void startProgress(int totalBooks, long totalParagraphs) {
+        booksTotal.set(totalBooks);
+        booksCompleted.set(0);
+        booksFailed.set(0);
+        paragraphsTotal.set(totalParagraphs);
+        paragraphsIndexed.set(0);
+        startedAt = LocalDateTime.now();
+        completedAt = null;
+        startedAtNanos = System.nanoTime();
+        finishedAtNanos = 0;
+    }
+
+    private void finishProgress() {
+        finishedAtNanos = System.nanoTime();
+        completedAt = LocalDateTime.now();
+    }
+
+    private double round(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+
+    private static final class ReindexThreadFactory implements ThreadFactory {
+        private final AtomicInteger nextThreadId = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "search-reindex-" + nextThreadId.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.service.SearchService.FacetCount;
+import com.classicchatreader.service.SearchService.ReadingPosition;
+import com.classicchatreader.service.SearchService.SearchFacets;
+import com.classicchatreader.service.SearchService.SearchPage;
+import com.classicchatreader.service.SearchService.SearchResult;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of search pages bounded by an estimate of their heap footprint. Every entry remembers the
+ * reader version it was computed against; once the index moves on, lookups treat it as a miss.
+ */
+final class SearchResultCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    SearchResultCache(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+    SearchPage get(Key key, long readerVersion) {
+        if (maxBytes == 0) {
+            return null;
+        }
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.readerVersion() == readerVersion) {
+                hits.increment();
+                return entry.page();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                bytes -= entry.weight();
+                invalidations.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(Key key, long readerVersion, SearchPage page) {
+        long weight = key.weight() + weigh(page);
+        if (weight > maxBytes) {
+            return;
+        }
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(page, readerVersion, weight));
+            if (previous != null) {
+                bytes -= previous.weight();
+            }
+            bytes += weight;
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Entry evicted = eldest.next().getValue();
+                eldest.remove();
+                bytes -= evicted.weight();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Drops every entry computed against an older reader. Called after the searcher is refreshed so
+     * stale pages free their memory without waiting to be looked up.
+     */
+    synchronized void invalidateOlderThan(long readerVersion) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.readerVersion() < readerVersion) {
+                iterator.remove();
+                bytes -= entry.weight();
+                invalidations.increment();
+            }
+        }
+    }
+
+    Map<String, Object> snapshot() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (this) {
+            metrics.put("entries", entries.size());
+            metrics.put("bytes", bytes);
+        }
+        metrics.put("maxBytes", maxBytes);
+        metrics.put("hits", hitCount);
+        metrics.put("misses", misses.sum());
+        metrics.put("evictions", evictions.sum());
+        metrics.put("invalidations", invalidations.sum());
+        metrics.put("hitRate", lookups == 0 ? 0.0 : Math.round(hitCount * 1000.0 / lookups) / 1000.0);
+        return metrics;
+    }
+
+    // Rough heap estimate: object headers plus two bytes per character of every string held
+    private static long weigh(SearchPage page) {
+        long weight = 64 + chars(page.nextCursor());
+        for (SearchResult result : page.results()) {
+            weight += 64 + chars(result.type()) + chars(result.bookId()) + chars(result.chapterId())
+                    + chars(result.title()) + chars(result.snippet());
+        }
+        SearchFacets facets = page.facets();
+        if (facets != null) {
+            weight += 48L * facets.types().size();
+            for (List<FacetCount> counts : List.of(facets.books(), facets.authors(), facets.chapters())) {
+                for (FacetCount count : counts) {
+                    weight += 48 + chars(count.value()) + chars(count.label());
+                }
+            }
+        }
+        return weight;
+    }
+
+    private static long chars(String value) {
+        return value == null ? 0 : 40L + 2L * value.length();
+    }
+
+    /**
+     * Identifies a page of results; the query is whitespace-normalized so trivially different spellings
+     * of the same search share an entry.
+     */
+    record Key(String query, String bookId, String chapterId, ReadingPosition upTo, int pageSize, String cursor,
+               boolean facets) {
+
+        static Key of(String query, String bookId, String chapterId, int pageSize, String cursor) {
+            return of(query, bookId, chapterId, null, pageSize, cursor);
+        }
+
+        static Key of(String query, String bookId, String chapterId, ReadingPosition upTo, int pageSize, String cursor) {
+            return new Key(
+                    query == null ? "" : query.strip().replaceAll("\\s+", " "),
+                    blankToNull(bookId),
+                    blankToNull(chapterId),
+                    upTo,
+                    pageSize,
+                    blankToNull(cursor),
+                    false);
+        }
+
+        // Pages with facet counts are kept apart from the same page without them
+        Key withFacets() {
+            return new Key(query, bookId, chapterId, upTo, pageSize, cursor, true);
+        }
+
+        long weight() {
+            return 80 + chars(query) + chars(bookId) + chars(chapterId) + chars(cursor);
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value;
+        }
+    }
+
+    private record Entry(SearchPage page, long readerVersion, long weight) {}
+}
@@ -1,69 +1,288 @@
 package com.classicchatreader.service;
 
-import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import com.classicchatreader.model.Paragraph;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherLifetimeManager;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermInSetQuery;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.uhighlight.LengthGoalBreakIterator;
+import org.apache.lucene.search.uhighlight.Passage;
+import org.apache.lucene.search.uhighlight.PassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
 import org.apache.lucene.store.ByteBuffersDirectory;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.BreakIterator;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashSet;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
 
 @Service
 public class SearchService {
 
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
     private static final int SNIPPET_MAX_LENGTH = 140;
+    // Bump whenever the indexed field layout changes so persisted indexes are rebuilt on boot.
+    static final String INDEX_FORMAT_VERSION = "5";
+    private static final String FORMAT_VERSION_KEY = "formatVersion";
+    private static final String CURSOR_VERSION = "v3";
+    private static final String POSITION_FIELD = "position";
+    private static final long DEFAULT_CACHE_MAX_BYTES = 16L * 1024 * 1024;
+    private static final long DEFAULT_CURSOR_MAX_AGE_SECONDS = 600;
+    private static final int MAX_BOOK_FACETS = 25;
+    private static final int MAX_CHAPTER_FACETS = 200;
+    private static final Comparator<FacetCount> FACET_ORDER = Comparator
+            .comparingInt(FacetCount::count).reversed()
+            .thenComparing(FacetCount::value);
+    // Offsets in the postings let the highlighter build snippets without re-analyzing stored text.
+    // Field schemas must match across documents, so book documents use the same options unstored.
+    private static final FieldType CONTENT_STORED = contentFieldType(true);
+    private static final FieldType CONTENT_UNSTORED = contentFieldType(false);
+    // Relative weight of each analysis of the query; exact wording always ranks first
+    private static final float STEMMED_BOOST = 0.6f;
+    private static final float NAME_NGRAM_BOOST = 0.4f;
+    private static final float PHONETIC_BOOST = 0.3f;
+    private static final float FUZZY_BOOST = 0.2f;
+    private static final Pattern SINGLE_WORD = Pattern.compile("\\p{L}{4,}");
+
     private final Directory index;
-    private final StandardAnalyzer analyzer;
+    private final Analyzer analyzer;
+    private final boolean persistent;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    // Readers that issued cursors, kept open so later pages walk the same snapshot as the first
+    private final SearcherLifetimeManager searcherLeases = new SearcherLifetimeManager();
+    private final long cursorMaxAgeSeconds;
+    // Set by every write; searches refresh the NRT reader only when something changed.
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+    // type, bookId and chapterId are indexed as sorted-set doc values so hits can be counted per value
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    // Ordinal map for the facet doc values; only valid for the reader it was built from
+    private volatile FacetReaderState facetReaderState;
+    private final SearchResultCache resultCache;
 
     public SearchService() {
-        this.index = new ByteBuffersDirectory();
-        this.analyzer = new StandardAnalyzer();
+        this("");
+    }
+
+    public SearchService(String indexDir) {
+        this(indexDir, DEFAULT_CACHE_MAX_BYTES);
+    }
+
+    public SearchService(String indexDir, long cacheMaxBytes) {
+        this(indexDir, cacheMaxBytes, DEFAULT_CURSOR_MAX_AGE_SECONDS);
+    }
+
+    @Autowired
+    public SearchService(
+            @Value("${search.index-dir:./data/search-index}") String indexDir,
+            @Value("${search.cache.max-bytes:16777216}") long cacheMaxBytes,
+            @Value("${search.cursor.max-age-seconds:600}") long cursorMaxAgeSeconds) {
+        this.analyzer = SearchAnalyzers.indexAnalyzer();
+        this.resultCache = new SearchResultCache(cacheMaxBytes);
+        this.cursorMaxAgeSeconds = Math.max(0, cursorMaxAgeSeconds);
+        try {
+            if (indexDir == null || indexDir.isBlank()) {
+                this.index = new ByteBuffersDirectory();
+                this.persistent = false;
+            } else {
+                Path path = Path.of(indexDir).toAbsolutePath().normalize();
+                Files.createDirectories(path);
+                // FSDirectory.open picks MMapDirectory on 64-bit JVMs.
+                this.index = FSDirectory.open(path);
+                this.persistent = true;
+                log.info("Search index opened at {}", path);
+            }
+            this.writer = new IndexWriter(index, new IndexWriterConfig(analyzer).setOpenMode(resolveOpenMode()));
+            this.writer.setLiveCommitData(Map.of(FORMAT_VERSION_KEY, INDEX_FORMAT_VERSION).entrySet());
+            this.writer.commit();
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open search index at " + indexDir, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherLeases.close();
+        searcherManager.close();
+        writer.close();
+        index.close();
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    public Map<String, Object> cacheSnapshot() {
+        return resultCache.snapshot();
+    }
+
+    /**
+     * Returns the content version recorded for each indexed book, keyed by book id.
+     * Callers compare these against the database to decide which books need reindexing.
+     */
+    public Map<String, String> getIndexedBookVersions() throws IOException {
+        Map<String, String> versions = new HashMap<>();
+        IndexSearcher searcher = acquireSearcher();
+        try {
+            Query bookQuery = new TermQuery(new Term("type", "book"));
+            int maxDoc = Math.max(1, searcher.getIndexReader().maxDoc());
+            for (ScoreDoc hit : searcher.search(bookQuery, maxDoc).scoreDocs) {
+                Document doc = searcher.storedFields().document(hit.doc);
+                String version = doc.get("contentVersion");
+                versions.put(doc.get("bookId"), version == null ? "" : version);
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return versions;
     }
 
     public void indexBook(String bookId, String title, String author) throws IOException {
-        try (IndexWriter writer = new IndexWriter(index, new IndexWriterConfig(analyzer))) {
-            Document doc = new Document();
-            doc.add(new StringField("type", "book", Field.Store.YES));
-            doc.add(new StringField("bookId", bookId, Field.Store.YES));
-            doc.add(new TextField("title", title, Field.Store.YES));
-            doc.add(new TextField("author", author, Field.Store.YES));
-            doc.add(new TextField("content", title + " " + author, Field.Store.NO));
-            writer.addDocument(doc);
+        indexBook(bookId, title, author, null);
+    }
+
+    public void indexBook(String bookId, String title, String author, String contentVersion) throws IOException {
+        Document doc = new Document();
+        doc.add(new StringField("type", "book", Field.Store.YES));
+        doc.add(new StringField("bookId", bookId, Field.Store.YES));
+        doc.add(new TextField("title", title, Field.Store.YES));
+        doc.add(new TextField("author", author, Field.Store.YES));
+        addContentFields(doc, title + " " + author, CONTENT_UNSTORED);
+        doc.add(new TextField(SearchAnalyzers.NAME_NGRAM_FIELD, title + " " + author, Field.Store.NO));
+        if (contentVersion != null) {
+            doc.add(new StoredField("contentVersion", contentVersion));
         }
+        doc.add(new SortedSetDocValuesFacetField("type", "book"));
+        doc.add(new SortedSetDocValuesFacetField("bookId", bookId));
+        writer.addDocument(facetsConfig.build(doc));
+        refreshPending.set(true);
+    }
+
+    public void indexParagraph(String bookId, String chapterId, int chapterIndex, int paragraphIndex, String content)
+            throws IOException {
+        writer.addDocument(paragraphDocument(bookId, chapterId, chapterIndex, paragraphIndex, content));
+        refreshPending.set(true);
     }
 
-    public void indexParagraph(String bookId, String chapterId, int paragraphIndex, String content) throws IOException {
-        try (IndexWriter writer = new IndexWriter(index, new IndexWriterConfig(analyzer))) {
-            Document doc = new Document();
-            doc.add(new StringField("type", "paragraph", Field.Store.YES));
-            doc.add(new StringField("bookId", bookId, Field.Store.YES));
-            doc.add(new StringField("chapterId", chapterId, Field.Store.YES));
-            doc.add(new StoredField("paragraphIndex", paragraphIndex));
-            doc.add(new TextField("content", content, Field.Store.YES));
-            writer.addDocument(doc);
+    // Adds all paragraphs of a chapter in one batch
+    public void indexParagraphs(String bookId, String chapterId, int chapterIndex, List<Paragraph> paragraphs)
+            throws IOException {
+        if (paragraphs.isEmpty()) {
+            return;
+        }
+        List<Document> docs = new ArrayList<>(paragraphs.size());
+        for (Paragraph paragraph : paragraphs) {
+            docs.add(paragraphDocument(bookId, chapterId, chapterIndex, paragraph.index(), paragraph.content()));
         }
+        writer.addDocuments(docs);
+        refreshPending.set(true);
+    }
+
+    /**
+     * Makes pending writes durable. Writes are visible to searches before this through the
+     * near-real-time reader, so callers commit once per book rather than once per document.
+     */
+    public void commit() throws IOException {
+        writer.commit();
+    }
+
+    private static FieldType contentFieldType(boolean stored) {
+        FieldType type = new FieldType(TextField.TYPE_NOT_STORED);
+        type.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        type.setStored(stored);
+        type.freeze();
+        return type;
+    }
+
+    private static void addContentFields(Document doc, String text, FieldType contentType) {
+        doc.add(new Field(SearchAnalyzers.CONTENT_FIELD, text, contentType));
+        doc.add(new TextField(SearchAnalyzers.STEMMED_FIELD, text, Field.Store.NO));
+        doc.add(new TextField(SearchAnalyzers.PHONETIC_FIELD, text, Field.Store.NO));
+    }
+
+    private Document paragraphDocument(String bookId, String chapterId, int chapterIndex, int paragraphIndex, String content)
+            throws IOException {
+        Document doc = new Document();
+        doc.add(new StringField("type", "paragraph", Field.Store.YES));
+        doc.add(new StringField("bookId", bookId, Field.Store.YES));
+        doc.add(new StringField("chapterId", chapterId, Field.Store.YES));
+        doc.add(new StoredField("chapterIndex", chapterIndex));
+        doc.add(new StoredField("paragraphIndex", paragraphIndex));
+        // Reading-order ordinal: a point for range filters and doc values for sorting in book order
+        long position = new ReadingPosition(chapterIndex, paragraphIndex).ordinal();
+        doc.add(new LongPoint(POSITION_FIELD, position));
+        doc.add(new NumericDocValuesField(POSITION_FIELD, position));
+        addContentFields(doc, content, CONTENT_STORED);
+        doc.add(new SortedSetDocValuesFacetField("type", "paragraph"));
+        doc.add(new SortedSetDocValuesFacetField("bookId", bookId));
+        doc.add(new SortedSetDocValuesFacetField("chapterId", chapterId));
+        return facetsConfig.build(doc);
     }
 
     public List<SearchResult> search(String queryStr, int maxResults) throws IOException, ParseException {
@@ -75,122 +294,431 @@ public class SearchService {
     }
 
     public List<SearchResult> search(String queryStr, String bookId, String chapterId, int maxResults) throws IOException, ParseException {
-        List<SearchResult> results = new ArrayList<>();
-
-        try (DirectoryReader reader = DirectoryReader.open(index)) {
-            IndexSearcher searcher = new IndexSearcher(reader);
-            QueryParser parser = new QueryParser("content", analyzer);
-            Query contentQuery = parser.parse(queryStr);
-
-            BooleanQuery.Builder builder = new BooleanQuery.Builder();
-            builder.add(contentQuery, BooleanClause.Occur.MUST);
-            boolean paragraphOnly = false;
-            if (bookId != null && !bookId.isBlank()) {
-                builder.add(new TermQuery(new Term("bookId", bookId)), BooleanClause.Occur.FILTER);
-                paragraphOnly = true;
-            }
-            if (chapterId != null && !chapterId.isBlank()) {
-                builder.add(new TermQuery(new Term("chapterId", chapterId)), BooleanClause.Occur.FILTER);
-                paragraphOnly = true;
+        return search(queryStr, bookId, chapterId, null, maxResults);
+    }
+
+    public List<SearchResult> search(String queryStr, String bookId, String chapterId, ReadingPosition upTo, int maxResults)
+            throws IOException, ParseException {
+        return searchPage(queryStr, bookId, chapterId, upTo, maxResults, null, false).results();
+    }
+
+    public SearchPage searchPage(String queryStr, String bookId, String chapterId, int pageSize, String cursor)
+            throws IOException, ParseException {
+        return searchPage(queryStr, bookId, chapterId, null, pageSize, cursor);
+    }
+
+    /**
+     * Returns one page of results. Pass the {@code nextCursor} of the previous page to continue after
+     * its last hit; each page costs the same to fetch however deep it is, since earlier hits are neither
+     * collected nor loaded again. The first page (no cursor) also carries facet counts over every hit,
+     * gathered in the same pass as its top hits. A non-null {@code upTo} limits hits to paragraphs at or
+     * before that reading position and requires a {@code bookId}. Throws {@link IllegalArgumentException}
+     * for a malformed cursor, one issued for a different query, or one whose reader has expired. Later pages
+     * are read from the same reader as the first, so writes in between neither shift nor repeat hits; that
+     * reader is kept for {@code search.cursor.max-age-seconds} after a newer one replaces it.
+     * Only exact and stemmed wording decides what matches; when nothing does, the sound-alike, trigram and
+     * typo-tolerant analyses match instead, and later pages keep whichever the first page used.
+     */
+    public SearchPage searchPage(String queryStr, String bookId, String chapterId, ReadingPosition upTo,
+                                 int pageSize, String cursor) throws IOException, ParseException {
+        return searchPage(queryStr, bookId, chapterId, upTo, pageSize, cursor, true);
+    }
+
+    // Plain searches skip the facet counts, so Lucene can stop counting hits once the top ones are settled
+    private SearchPage searchPage(String queryStr, String bookId, String chapterId, ReadingPosition upTo,
+                                  int pageSize, String cursor, boolean withFacets) throws IOException, ParseException {
+        int size = Math.max(1, pageSize);
+        SearchResultCache.Key key = SearchResultCache.Key.of(queryStr, bookId, chapterId, upTo, size, cursor);
+        boolean countFacets = withFacets && key.cursor() == null;
+        SearchResultCache.Key cacheKey = countFacets ? key.withFacets() : key;
+        // Cursors are bound to the normalized query so a cached page's cursor works for every spelling
+        String fingerprint = queryFingerprint(cacheKey.query(), cacheKey.bookId(), cacheKey.chapterId(), upTo);
+        Cursor after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor, fingerprint);
+
+        IndexSearcher searcher = after == null ? acquireSearcher() : acquireLeased(after.readerVersion());
+        try {
+            long readerVersion = readerVersion(searcher);
+            SearchPage cached = resultCache.get(cacheKey, readerVersion);
+            if (cached != null) {
+                return cached;
             }
-            if (paragraphOnly) {
-                builder.add(new TermQuery(new Term("type", "paragraph")), BooleanClause.Occur.FILTER);
+
+            // One extra hit tells us whether another page exists without a second search
+            boolean approximate = after != null && after.approximate();
+            Query finalQuery = buildQuery(queryStr, approximate, bookId, chapterId, Long.MIN_VALUE, upTo);
+            TopDocs collected;
+            SearchFacets facets = null;
+            if (after != null) {
+                collected = searcher.searchAfter(after.last(), finalQuery, size + 1);
+            } else if (countFacets) {
+                FacetsCollectorManager.FacetsResult facetsResult = FacetsCollectorManager.search(
+                        searcher, finalQuery, size + 1, new FacetsCollectorManager());
+                if (facetsResult.topDocs().totalHits.value == 0) {
+                    approximate = true;
+                    finalQuery = buildQuery(queryStr, true, bookId, chapterId, Long.MIN_VALUE, upTo);
+                    facetsResult = FacetsCollectorManager.search(
+                            searcher, finalQuery, size + 1, new FacetsCollectorManager());
+                }
+                collected = facetsResult.topDocs();
+                facets = countFacets(searcher, facetsResult.facetsCollector());
+            } else {
+                collected = searcher.search(finalQuery, size + 1);
+                if (collected.totalHits.value == 0) {
+                    approximate = true;
+                    finalQuery = buildQuery(queryStr, true, bookId, chapterId, Long.MIN_VALUE, upTo);
+                    collected = searcher.search(finalQuery, size + 1);
+                }
             }
-            Query finalQuery = builder.build();
+            boolean hasMore = collected.scoreDocs.length > size;
+            ScoreDoc[] hits = hasMore ? Arrays.copyOf(collected.scoreDocs, size) : collected.scoreDocs;
+            List<SearchResult> results = toResults(searcher, finalQuery, new TopDocs(collected.totalHits, hits));
 
-            ScoreDoc[] hits = searcher.search(finalQuery, Math.max(1, maxResults)).scoreDocs;
+            String nextCursor = hasMore
+                    ? encodeCursor(fingerprint, searcherLeases.record(searcher), approximate, hits[hits.length - 1])
+                    : null;
+            // Lucene stops counting exactly past its threshold, so large totals are a lower bound
+            boolean totalHitsExact = collected.totalHits.relation == TotalHits.Relation.EQUAL_TO;
+            SearchPage page = new SearchPage(results, collected.totalHits.value, totalHitsExact, nextCursor, facets);
+            resultCache.put(cacheKey, readerVersion, page);
+            return page;
+        } finally {
+            if (after == null) {
+                searcherManager.release(searcher);
+            } else {
+                searcherLeases.release(searcher);
+            }
+        }
+    }
 
-            for (ScoreDoc hit : hits) {
-                Document doc = searcher.storedFields().document(hit.doc);
-                String type = doc.get("type");
-                Integer paragraphIndex = null;
-                String snippet = null;
-
-                if ("paragraph".equals(type)) {
-                    paragraphIndex = doc.getField("paragraphIndex").numericValue().intValue();
-                    String content = doc.get("content");
-                    snippet = buildSnippet(content, queryStr);
-                }
+    /**
+     * Returns the first paragraph of the book matching the query that comes strictly after {@code after}
+     * in reading order (from the start when null), not going past {@code upTo} when that is set. Approximate
+     * matches are only used when the wording occurs nowhere in the book up to {@code upTo}, so stepping past
+     * the last real occurrence ends the walk instead of landing on a sound-alike.
+     */
+    public Optional<SearchResult> nextOccurrence(String queryStr, String bookId, ReadingPosition after,
+                                                 ReadingPosition upTo) throws IOException, ParseException {
+        if (bookId == null || bookId.isBlank()) {
+            throw new IllegalArgumentException("bookId is required to navigate between occurrences");
+        }
+        long lowerBound = after == null ? Long.MIN_VALUE : after.ordinal() + 1;
+        Sort readingOrder = new Sort(new SortField(POSITION_FIELD, SortField.Type.LONG));
 
-                results.add(new SearchResult(
-                    type,
-                    doc.get("bookId"),
-                    doc.get("chapterId"),
-                    paragraphIndex,
-                    doc.get("title"),
-                    snippet,
-                    hit.score
-                ));
+        IndexSearcher searcher = acquireSearcher();
+        try {
+            Query finalQuery = buildQuery(queryStr, false, bookId, null, lowerBound, upTo);
+            TopDocs first = searcher.search(finalQuery, 1, readingOrder);
+            if (first.scoreDocs.length == 0
+                    && searcher.count(buildQuery(queryStr, false, bookId, null, Long.MIN_VALUE, upTo)) == 0) {
+                finalQuery = buildQuery(queryStr, true, bookId, null, lowerBound, upTo);
+                first = searcher.search(finalQuery, 1, readingOrder);
             }
+            return toResults(searcher, finalQuery, first).stream().findFirst();
+        } finally {
+            searcherManager.release(searcher);
         }
+    }
 
-        return results;
+    private Query buildQuery(String queryStr, boolean approximate, String bookId, String chapterId,
+                             long fromPosition, ReadingPosition upTo) throws ParseException {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        builder.add(textQuery(queryStr, approximate), BooleanClause.Occur.MUST);
+        boolean paragraphOnly = false;
+        if (bookId != null && !bookId.isBlank()) {
+            builder.add(new TermQuery(new Term("bookId", bookId)), BooleanClause.Occur.FILTER);
+            paragraphOnly = true;
+        }
+        if (chapterId != null && !chapterId.isBlank()) {
+            builder.add(new TermQuery(new Term("chapterId", chapterId)), BooleanClause.Occur.FILTER);
+            paragraphOnly = true;
+        }
+        if (upTo != null || fromPosition != Long.MIN_VALUE) {
+            // Positions are only comparable within one book
+            if (bookId == null || bookId.isBlank()) {
+                throw new IllegalArgumentException("A reading position bound requires a bookId");
+            }
+            long toPosition = upTo == null ? Long.MAX_VALUE : upTo.ordinal();
+            // Lucene picks the points index or a doc-values scan depending on how selective the rest of the query is
+            builder.add(new IndexOrDocValuesQuery(
+                    LongPoint.newRangeQuery(POSITION_FIELD, fromPosition, toPosition),
+                    NumericDocValuesField.newSlowRangeQuery(POSITION_FIELD, fromPosition, toPosition)),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (paragraphOnly) {
+            builder.add(new TermQuery(new Term("type", "paragraph")), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
     }
 
-    private String buildSnippet(String content, String queryStr) {
-        if (content == null || content.isBlank()) {
-            return "";
+    // Exact or stemmed wording must match; the trigram, sound-alike and typo analyses only add to the score.
+    // Metaphone codes are coarse ("Darcy", "dress" and "tears" share one), so they decide what matches only
+    // in approximate mode, after the exact wording matched nothing. The boosts keep exact
+    // wording ranked above the other analyses either way.
+    private Query textQuery(String queryStr, boolean approximate) throws ParseException {
+        BooleanQuery.Builder exact = new BooleanQuery.Builder();
+        exact.add(parse(SearchAnalyzers.CONTENT_FIELD, queryStr), BooleanClause.Occur.SHOULD);
+        addBoosted(exact, parse(SearchAnalyzers.STEMMED_FIELD, queryStr), STEMMED_BOOST);
+
+        BooleanQuery.Builder fields = new BooleanQuery.Builder();
+        fields.add(exact.build(), approximate ? BooleanClause.Occur.SHOULD : BooleanClause.Occur.MUST);
+        addBoosted(fields, parse(SearchAnalyzers.NAME_NGRAM_FIELD, queryStr), NAME_NGRAM_BOOST);
+        addBoosted(fields, parse(SearchAnalyzers.PHONETIC_FIELD, queryStr), PHONETIC_BOOST);
+        String word = queryStr.strip();
+        if (SINGLE_WORD.matcher(word).matches()) {
+            int maxEdits = word.length() >= 7 ? 2 : 1;
+            addBoosted(fields, new FuzzyQuery(
+                    new Term(SearchAnalyzers.CONTENT_FIELD, word.toLowerCase(Locale.ROOT)), maxEdits), FUZZY_BOOST);
         }
-        String normalized = content.replaceAll("\\s+", " ").trim();
-        if (normalized.length() <= SNIPPET_MAX_LENGTH) {
-            return normalized;
+        return fields.build();
+    }
+
+    private Query parse(String field, String queryStr) throws ParseException {
+        return new QueryParser(field, analyzer).parse(queryStr);
+    }
+
+    private static void addBoosted(BooleanQuery.Builder builder, Query query, float boost) {
+        // Analyzers that drop every token (stop words, titles) leave nothing worth adding
+        if (query instanceof BooleanQuery booleanQuery && booleanQuery.clauses().isEmpty()) {
+            return;
         }
+        builder.add(new BoostQuery(query, boost), BooleanClause.Occur.SHOULD);
+    }
+
+    private List<SearchResult> toResults(IndexSearcher searcher, Query query, TopDocs topDocs) throws IOException {
+        ScoreDoc[] hits = topDocs.scoreDocs;
+        // One snippet per hit, built from the postings offsets of the terms Lucene actually matched
+        String[] snippets = buildHighlighter(searcher).highlight(SearchAnalyzers.CONTENT_FIELD, query, topDocs, 1);
 
-        List<String> terms = extractTerms(queryStr);
-        String lowerContent = normalized.toLowerCase(Locale.ROOT);
-        int matchIndex = -1;
-        for (String term : terms) {
-            int index = lowerContent.indexOf(term);
-            if (index >= 0 && (matchIndex < 0 || index < matchIndex)) {
-                matchIndex = index;
+        List<SearchResult> results = new ArrayList<>(hits.length);
+        for (int i = 0; i < hits.length; i++) {
+            ScoreDoc hit = hits[i];
+            Document doc = searcher.storedFields().document(hit.doc);
+            String type = doc.get("type");
+            Integer paragraphIndex = null;
+            String snippet = null;
+
+            if ("paragraph".equals(type)) {
+                paragraphIndex = doc.getField("paragraphIndex").numericValue().intValue();
+                snippet = snippets[i] == null ? "" : snippets[i];
             }
+
+            results.add(new SearchResult(
+                type,
+                doc.get("bookId"),
+                doc.get("chapterId"),
+                paragraphIndex,
+                doc.get("title"),
+                snippet,
+                hit.score
+            ));
         }
+        return List.copyOf(results);
+    }
 
-        int start = 0;
-        if (matchIndex >= 0) {
-            start = Math.max(0, matchIndex - (SNIPPET_MAX_LENGTH / 2));
-            if (start > 0) {
-                int previousSpace = normalized.lastIndexOf(' ', start);
-                if (previousSpace >= 0) {
-                    start = previousSpace + 1;
-                }
-            }
+    private SearchFacets countFacets(IndexSearcher searcher, FacetsCollector hits) throws IOException {
+        SortedSetDocValuesReaderState state = facetReaderState(searcher.getIndexReader());
+        if (state == null) {
+            return new SearchFacets(Map.of(), List.of(), List.of(), List.of());
         }
+        Facets facets = new SortedSetDocValuesFacetCounts(state, hits);
 
-        int end = Math.min(normalized.length(), start + SNIPPET_MAX_LENGTH);
-        if (end < normalized.length()) {
-            int nextSpace = normalized.indexOf(' ', end);
-            if (nextSpace >= 0) {
-                end = nextSpace;
+        Map<String, Integer> types = new LinkedHashMap<>();
+        for (FacetCount count : facetCounts(facets.getAllChildren("type"))) {
+            types.put(count.value(), count.count());
+        }
+
+        // Authors are only stored on book documents, so roll the per-book counts up through them
+        List<FacetCount> bookCounts = facetCounts(facets.getAllChildren("bookId"));
+        Map<String, String[]> bookLabels = lookupBooks(searcher, bookCounts);
+        List<FacetCount> books = new ArrayList<>();
+        Map<String, Integer> authorTotals = new HashMap<>();
+        for (FacetCount count : bookCounts) {
+            String[] label = bookLabels.getOrDefault(count.value(), new String[2]);
+            books.add(new FacetCount(count.value(), label[0], count.count()));
+            if (label[1] != null) {
+                authorTotals.merge(label[1], count.count(), Integer::sum);
             }
         }
+        List<FacetCount> authors = authorTotals.entrySet().stream()
+                .map(entry -> new FacetCount(entry.getKey(), entry.getKey(), entry.getValue()))
+                .sorted(FACET_ORDER)
+                .limit(MAX_BOOK_FACETS)
+                .toList();
+
+        List<FacetCount> chapters = facetCounts(facets.getTopChildren(MAX_CHAPTER_FACETS, "chapterId"));
+        return new SearchFacets(types, books.stream().limit(MAX_BOOK_FACETS).toList(), authors, chapters);
+    }
 
-        String snippet = normalized.substring(start, end).trim();
-        if (start > 0) {
-            snippet = "..." + snippet;
+    private static List<FacetCount> facetCounts(FacetResult result) {
+        if (result == null) {
+            return List.of();
         }
-        if (end < normalized.length()) {
-            snippet = snippet + "...";
+        List<FacetCount> counts = new ArrayList<>(result.labelValues.length);
+        for (LabelAndValue labelAndValue : result.labelValues) {
+            counts.add(new FacetCount(labelAndValue.label, null, labelAndValue.value.intValue()));
         }
-        return snippet;
+        counts.sort(FACET_ORDER);
+        return counts;
     }
 
-    private List<String> extractTerms(String queryStr) {
-        if (queryStr == null || queryStr.isBlank()) {
-            return List.of();
+    // Returns {title, author} for each book id, read from the book documents in one query
+    private Map<String, String[]> lookupBooks(IndexSearcher searcher, List<FacetCount> bookCounts) throws IOException {
+        if (bookCounts.isEmpty()) {
+            return Map.of();
+        }
+        List<BytesRef> ids = bookCounts.stream().map(count -> new BytesRef(count.value())).toList();
+        Query bookDocs = new BooleanQuery.Builder()
+                .add(new TermInSetQuery("bookId", ids), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term("type", "book")), BooleanClause.Occur.FILTER)
+                .build();
+        Map<String, String[]> labels = new HashMap<>();
+        for (ScoreDoc hit : searcher.search(bookDocs, ids.size()).scoreDocs) {
+            Document doc = searcher.storedFields().document(hit.doc);
+            labels.put(doc.get("bookId"), new String[] {doc.get("title"), doc.get("author")});
+        }
+        return labels;
+    }
+
+    private SortedSetDocValuesReaderState facetReaderState(IndexReader reader) throws IOException {
+        FacetReaderState cached = facetReaderState;
+        if (cached != null && cached.reader() == reader) {
+            return cached.state();
         }
-        String normalized = queryStr.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{Nd}]+", " ");
-        Set<String> terms = new LinkedHashSet<>();
-        Arrays.stream(normalized.split("\\s+"))
-                .map(String::trim)
-                .filter(term -> term.length() >= 2)
-                .forEach(terms::add);
-        return List.copyOf(terms);
+        if (reader.maxDoc() == 0) {
+            return null;
+        }
+        SortedSetDocValuesReaderState state = new DefaultSortedSetDocValuesReaderState(reader, facetsConfig);
+        facetReaderState = new FacetReaderState(reader, state);
+        return state;
+    }
+
+    private record FacetReaderState(IndexReader reader, SortedSetDocValuesReaderState state) {}
+
+    private static String queryFingerprint(String queryStr, String bookId, String chapterId, ReadingPosition upTo) {
+        return Integer.toHexString(Objects.hash(queryStr, bookId, chapterId, upTo));
+    }
+
+    /**
+     * Position after the last hit of a page, valid only against the reader it was taken from: Lucene doc
+     * ids shift when segments are refreshed or merged. The version names that reader's lease.
+     */
+    private record Cursor(long readerVersion, boolean approximate, ScoreDoc last) {}
+
+    private static String encodeCursor(String fingerprint, long readerVersion, boolean approximate, ScoreDoc last) {
+        String raw = CURSOR_VERSION + ":" + fingerprint + ":" + readerVersion + ":" + (approximate ? "a" : "e")
+                + ":" + last.doc + ":" + Float.floatToIntBits(last.score);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor, String fingerprint) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed search cursor", e);
+        }
+        if (parts.length != 6 || !CURSOR_VERSION.equals(parts[0]) || !parts[3].matches("[ae]")) {
+            throw new IllegalArgumentException("Malformed search cursor");
+        }
+        if (!fingerprint.equals(parts[1])) {
+            throw new IllegalArgumentException("Search cursor belongs to a different query");
+        }
+        try {
+            return new Cursor(Long.parseLong(parts[2]), "a".equals(parts[3]),
+                    new ScoreDoc(Integer.parseInt(parts[4]), Float.intBitsToFloat(Integer.parseInt(parts[5]))));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed search cursor", e);
+        }
+    }
+
+    private UnifiedHighlighter buildHighlighter(IndexSearcher searcher) {
+        return UnifiedHighlighter.builder(searcher, analyzer)
+                .withBreakIterator(() -> LengthGoalBreakIterator.createClosestToLength(
+                        BreakIterator.getWordInstance(Locale.ROOT), SNIPPET_MAX_LENGTH, 0.5f))
+                .withFormatter(new SnippetFormatter())
+                .withMaxNoHighlightPassages(1)
+                .build();
     }
 
     public void deleteByBookId(String bookId) throws IOException {
-        try (IndexWriter writer = new IndexWriter(index, new IndexWriterConfig(analyzer))) {
-            writer.deleteDocuments(new Term("bookId", bookId));
+        writer.deleteDocuments(new Term("bookId", bookId));
+        refreshPending.set(true);
+    }
+
+    private IndexSearcher acquireSearcher() throws IOException {
+        if (refreshPending.getAndSet(false)) {
+            searcherManager.maybeRefreshBlocking();
+            IndexSearcher refreshed = searcherManager.acquire();
+            // Pages cached against the previous reader can no longer be served; free them now
+            resultCache.invalidateOlderThan(readerVersion(refreshed));
+            // Recording the new reader starts the clock on the ones it replaces
+            searcherLeases.record(refreshed);
+            searcherLeases.prune(new SearcherLifetimeManager.PruneByAge(cursorMaxAgeSeconds));
+            return refreshed;
+        }
+        return searcherManager.acquire();
+    }
+
+    private IndexSearcher acquireLeased(long version) {
+        IndexSearcher leased = searcherLeases.acquire(version);
+        if (leased == null) {
+            throw new IllegalArgumentException("Search cursor has expired; start the search again");
+        }
+        return leased;
+    }
+
+    private static long readerVersion(IndexSearcher searcher) {
+        return ((DirectoryReader) searcher.getIndexReader()).getVersion();
+    }
+
+    private IndexWriterConfig.OpenMode resolveOpenMode() throws IOException {
+        if (!DirectoryReader.indexExists(index)) {
+            return IndexWriterConfig.OpenMode.CREATE;
+        }
+        String storedVersion = SegmentInfos.readLatestCommit(index).getUserData().get(FORMAT_VERSION_KEY);
+        if (INDEX_FORMAT_VERSION.equals(storedVersion)) {
+            return IndexWriterConfig.OpenMode.APPEND;
+        }
+        log.info("Search index format changed ({} -> {}); clearing persisted index", storedVersion, INDEX_FORMAT_VERSION);
+        return IndexWriterConfig.OpenMode.CREATE;
+    }
+
+    /**
+     * Renders a highlighter passage as HTML-escaped text with matched terms wrapped in {@code <mark>},
+     * adding ellipses where the passage was cut from a longer paragraph.
+     */
+    private static final class SnippetFormatter extends PassageFormatter {
+
+        @Override
+        public Object format(Passage[] passages, String content) {
+            if (passages.length == 0) {
+                return "";
+            }
+            Passage passage = passages[0];
+            int[] matchStarts = passage.getMatchStarts();
+            int[] matchEnds = passage.getMatchEnds();
+            StringBuilder snippet = new StringBuilder();
+            int position = passage.getStartOffset();
+            for (int i = 0; i < passage.getNumMatches(); i++) {
+                int start = Math.max(position, matchStarts[i]);
+                int end = matchEnds[i];
+                if (end <= start) {
+                    continue;
+                }
+                snippet.append(HtmlUtils.htmlEscape(content.substring(position, start)));
+                snippet.append("<mark>").append(HtmlUtils.htmlEscape(content.substring(start, end))).append("</mark>");
+                position = end;
+            }
+            snippet.append(HtmlUtils.htmlEscape(content.substring(position, passage.getEndOffset())));
+
+            String text = snippet.toString().strip();
+            if (passage.getStartOffset() > 0) {
+                text = "..." + text;
+            }
+            if (passage.getEndOffset() < content.length()) {
+                text = text + "...";
+            }
+            return text;
         }
     }
 
@@ -203,4 +731,50 @@ public class SearchService {
         String snippet,
         float score
     ) {}
+
+    /**
+     * A page of search results. {@code totalHits} is a lower bound when {@code totalHitsExact} is false;
+     * {@code nextCursor} is null on the last page and {@code facets} is only set on the first page.
+     */
+    public record SearchPage(
+        List<SearchResult> results,
+        long totalHits,
+        boolean totalHitsExact,
+        String nextCursor,
+        SearchFacets facets
+    ) {}
+
+    /**
+     * Hit counts per result type, book, author and chapter, highest first. Book entries are labelled
+     * with the book title.
+     */
+    public record SearchFacets(
+        Map<String, Integer> types,
+        List<FacetCount> books,
+        List<FacetCount> authors,
+        List<FacetCount> chapters
+    ) {}
+
+    public record FacetCount(String value, String label, int count) {}
+
+    /**
+     * A place in a book: the chapter's index and a paragraph index within it. Ordered the way the
+     * book is read, so it doubles as a bound for spoiler-safe searches.
+     */
+    public record ReadingPosition(int chapterIndex, int paragraphIndex) {
+
+        public ReadingPosition {
+            if (chapterIndex < 0 || paragraphIndex < 0) {
+                throw new IllegalArgumentException("Reading positions must not be negative");
+            }
+        }
+
+        public static ReadingPosition endOfChapter(int chapterIndex) {
+            return new ReadingPosition(chapterIndex, Integer.MAX_VALUE);
+        }
+
+        long ordinal() {
+            return ((long) chapterIndex << 32) | paragraphIndex;
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.entity.BookEntity;
+import com.classicchatreader.entity.CharacterType;
+import com.classicchatreader.repository.BookRepository;
+import com.classicchatreader.repository.CharacterRepository;
+import com.classicchatreader.repository.CharacterRepository.CharacterNameRow;
+import com.classicchatreader.service.NameSuggester.Entry;
+import com.classicchatreader.service.SearchService.ReadingPosition;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Autocomplete for character names within a book, and for titles and authors across the catalog.
+ * Suggesters are built from the database on first use and rebuilt when the number of characters
+ * or books has changed, checked at most once per refresh interval. Only books that have characters get
+ * a suggester, and the least recently used ones are dropped past {@code search.suggest.max-books}.
+ */
+@Service
+public class SearchSuggestService {
+
+    private static final String CATALOG_KEY = "";
+    private static final long PRIMARY_CHARACTER_WEIGHT = 3;
+
+    private final BookRepository bookRepository;
+    private final CharacterRepository characterRepository;
+    private final long refreshMillis;
+    private final Cache<String, CachedSuggester> suggesters;
+
+    public SearchSuggestService(
+            BookRepository bookRepository,
+            CharacterRepository characterRepository,
+            @Value("${search.suggest.refresh-seconds:60}") long refreshSeconds,
+            @Value("${search.suggest.max-books:256}") int maxBooks) {
+        this.bookRepository = bookRepository;
+        this.characterRepository = characterRepository;
+        this.refreshMillis = Math.max(0, refreshSeconds) * 1000;
+        this.suggesters = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxBooks))
+                .build();
+    }
+
+    /**
+     * Suggests characters of {@code bookId} whose name matches {@code prefix}, or books and authors when
+     * no book is given. With {@code upTo} set, characters first appearing after that position are left out.
+     */
+    public List<Suggestion> suggest(String prefix, String bookId, ReadingPosition upTo, int limit) {
+        boolean catalog = bookId == null || bookId.isBlank();
+        NameSuggester suggester = suggester(catalog ? CATALOG_KEY : bookId);
+        if (suggester == null) {
+            return List.of();
+        }
+        Predicate<Entry> reached = entry -> upTo == null || catalog || entry.chapterIndex() < upTo.chapterIndex()
+                || (entry.chapterIndex() == upTo.chapterIndex() && entry.paragraphIndex() <= upTo.paragraphIndex());
+        return suggester.lookup(prefix, limit, reached).stream()
+                .map(entry -> new Suggestion(entry.kind(), entry.id(), entry.bookId(), entry.text()))
+                .toList();
+    }
+
+    /**
+     * Queries and builds outside the cache's locks; two callers racing on a stale key may both rebuild,
+     * and the last one to finish is kept. Returns null when there is nothing to suggest.
+     */
+    private NameSuggester suggester(String key) {
+        long now = System.currentTimeMillis();
+        CachedSuggester cached = suggesters.getIfPresent(key);
+        if (cached != null && now - cached.checkedAt() < refreshMillis) {
+            return cached.suggester();
+        }
+        boolean catalog = CATALOG_KEY.equals(key);
+        long sourceCount = catalog ? bookRepository.count() : characterRepository.countByBookId(key);
+        if (sourceCount == 0) {
+            // Unknown books and books without characters are not worth a cache slot
+            suggesters.invalidate(key);
+            return null;
+        }
+        NameSuggester suggester = cached != null && cached.sourceCount() == sourceCount
+                ? cached.suggester()
+                : NameSuggester.build(catalog ? catalogEntries() : characterEntries(key));
+        suggesters.put(key, new CachedSuggester(suggester, sourceCount, now));
+        return suggester;
+    }
+
+    private List<Entry> characterEntries(String bookId) {
+        List<Entry> entries = new ArrayList<>();
+        for (CharacterNameRow row : characterRepository.findNameRowsByBookId(bookId)) {
+            long weight = row.getCharacterType() == CharacterType.PRIMARY ? PRIMARY_CHARACTER_WEIGHT : 1;
+            entries.add(new Entry("character", row.getId(), bookId, row.getName(),
+                    row.getChapterIndex(), row.getParagraphIndex(), weight));
+        }
+        return entries;
+    }
+
+    private List<Entry> catalogEntries() {
+        List<Entry> entries = new ArrayList<>();
+        Set<String> authors = new LinkedHashSet<>();
+        for (BookEntity book : bookRepository.findAll()) {
+            if (book.getTitle() == null || book.getTitle().isBlank()) {
+                continue;
+            }
+            entries.add(new Entry("book", book.getId(), book.getId(), book.getTitle(), -1, -1, 2));
+            if (book.getAuthor() != null && !book.getAuthor().isBlank()) {
+                authors.add(book.getAuthor());
+            }
+        }
+        for (String author : authors) {
+            entries.add(new Entry("author", author, null, author, -1, -1, 1));
+        }
+        return entries;
+    }
+
+    private record CachedSuggester(NameSuggester suggester, long sourceCount, long checkedAt) {}
+
+    public record Suggestion(String kind, String id, String bookId, String text) {}
+}
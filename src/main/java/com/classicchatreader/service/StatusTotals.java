@@ -0,0 +1,40 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.repository.StatusCount;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows of one grouped status query, looked up by status. A null status stands for rows that have never
+ * been given one.
+ */
+final class StatusTotals<S> {
+
+    private final Map<S, StatusCount<S>> byStatus = new HashMap<>();
+
+    private StatusTotals(List<StatusCount<S>> rows) {
+        for (StatusCount<S> row : rows) {
+            byStatus.put(row.getStatus(), row);
+        }
+    }
+
+    static <S> StatusTotals<S> of(List<StatusCount<S>> rows) {
+        return new StatusTotals<>(rows);
+    }
+
+    long count(S status) {
+        StatusCount<S> row = byStatus.get(status);
+        return row == null ? 0L : row.getTotal();
+    }
+
+    int countAsInt(S status) {
+        return Math.toIntExact(count(status));
+    }
+
+    long retryScheduled(S status) {
+        StatusCount<S> row = byStatus.get(status);
+        return row == null ? 0L : row.getRetryScheduled();
+    }
+}
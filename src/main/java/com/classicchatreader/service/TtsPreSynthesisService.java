@@ -0,0 +1,267 @@
+package com.classicchatreader.service;
+
+import jakarta.annotation.PostConstruct;
+import com.classicchatreader.entity.BookEntity;
+import com.classicchatreader.entity.ChapterEntity;
+import com.classicchatreader.entity.ParagraphEntity;
+import com.classicchatreader.model.VoiceSettings;
+import com.classicchatreader.repository.BookRepository;
+import com.classicchatreader.repository.ChapterRepository;
+import com.classicchatreader.repository.ParagraphRepository;
+import com.classicchatreader.service.GenerationScheduler.Backend;
+import com.classicchatreader.service.GenerationScheduler.Lane;
+import com.classicchatreader.service.GenerationScheduler.Priority;
+import org.jsoup.Jsoup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Synthesizes paragraph audio ahead of the reader. Playing paragraph N queues the next few paragraphs at
+ * prefetch priority, and whole chapters can be queued in batch. Jobs run on the {@link Lane#TTS} lane, so the
+ * OpenAI speech backend's concurrency limit and 429 back-off bound the work. A job and a listener asking
+ * for the same paragraph share one synthesis inside {@link TtsService}.
+ */
+@Service
+public class TtsPreSynthesisService {
+
+    private static final Logger log = LoggerFactory.getLogger(TtsPreSynthesisService.class);
+    private static final String KEY_SEPARATOR = ":";
+    // Width of generation_jobs.payload
+    private static final int MAX_PAYLOAD_LENGTH = 4000;
+
+    private final TtsService ttsService;
+    private final BookRepository bookRepository;
+    private final ChapterRepository chapterRepository;
+    private final ParagraphRepository paragraphRepository;
+    private final AssetKeyService assetKeyService;
+    private final GenerationScheduler generationScheduler;
+    private final int lookaheadParagraphs;
+    private final LongAdder synthesized = new LongAdder();
+    private final LongAdder skippedCached = new LongAdder();
+
+    @Value("${generation.retry.max-attempts:3}")
+    private int maxRetryAttempts;
+
+    @Value("${generation.retry.initial-delay-seconds:30}")
+    private int initialRetryDelaySeconds;
+
+    public TtsPreSynthesisService(TtsService ttsService,
+                                  BookRepository bookRepository,
+                                  ChapterRepository chapterRepository,
+                                  ParagraphRepository paragraphRepository,
+                                  AssetKeyService assetKeyService,
+                                  GenerationScheduler generationScheduler,
+                                  @Value("${tts.lookahead.paragraphs:3}") int lookaheadParagraphs) {
+        this.ttsService = ttsService;
+        this.bookRepository = bookRepository;
+        this.chapterRepository = chapterRepository;
+        this.paragraphRepository = paragraphRepository;
+        this.assetKeyService = assetKeyService;
+        this.generationScheduler = generationScheduler;
+        this.lookaheadParagraphs = Math.max(0, lookaheadParagraphs);
+    }
+
+    @PostConstruct
+    public void init() {
+        generationScheduler.register(Lane.TTS, Backend.OPENAI_TTS, this::processJob);
+        log.info("TTS pre-synthesis started on the generation scheduler (look-ahead {} paragraphs)",
+                lookaheadParagraphs);
+    }
+
+    /**
+     * Queues the paragraphs after {@code paragraphIndex} that are not cached yet, so the next ones are ready
+     * when playback reaches them.
+     *
+     * @return number of paragraphs queued
+     */
+    public int scheduleLookahead(BookEntity book, ChapterEntity chapter, int paragraphIndex, int paragraphCount,
+                                 VoiceSettings settings) {
+        if (lookaheadParagraphs == 0 || !canSynthesize()) {
+            return 0;
+        }
+        int end = Math.min(paragraphCount, paragraphIndex + 1 + lookaheadParagraphs);
+        return enqueueRange(book, chapter, paragraphIndex + 1, end, settings, Priority.PREFETCH).queued();
+    }
+
+    /**
+     * Queues every uncached paragraph of a chapter at batch priority.
+     */
+    public Pregeneration pregenerateChapter(BookEntity book, ChapterEntity chapter, VoiceSettings settings) {
+        int paragraphCount = paragraphRepository.countByChapterId(chapter.getId());
+        if (!canSynthesize()) {
+            return new Pregeneration(paragraphCount, 0, 0);
+        }
+        return enqueueRange(book, chapter, 0, paragraphCount, settings, Priority.BATCH);
+    }
+
+    /**
+     * Queues paragraphs a listener is waiting for, such as the gap in a chapter stream: the first at
+     * interactive priority, the rest at prefetch priority so they follow it without crowding out other
+     * listeners. The caller has already found them uncached.
+     *
+     * @return number of paragraphs queued
+     */
+    public int queueParagraphs(BookEntity book, ChapterEntity chapter, List<Integer> paragraphIndexes,
+                               VoiceSettings settings) {
+        if (!canSynthesize()) {
+            return 0;
+        }
+        String voice = ttsService.resolveVoice(settings.voice());
+        int queued = 0;
+        for (int i = 0; i < paragraphIndexes.size(); i++) {
+            if (enqueue(book, chapter, paragraphIndexes.get(i), voice, settings,
+                    i == 0 ? Priority.INTERACTIVE : Priority.PREFETCH)) {
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    public int getQueueDepth() {
+        return generationScheduler.getQueueDepth(Lane.TTS);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("lookaheadParagraphs", lookaheadParagraphs);
+        snapshot.put("queued", getQueueDepth());
+        snapshot.put("synthesized", synthesized.sum());
+        snapshot.put("skippedCached", skippedCached.sum());
+        snapshot.put("singleFlight", ttsService.singleFlightSnapshot());
+        return snapshot;
+    }
+
+    /**
+     * Outcome of queueing a chapter: how many paragraphs it has, how many were already cached and how many
+     * were queued for synthesis.
+     */
+    public record Pregeneration(int paragraphs, int cached, int queued) {
+    }
+
+    private boolean canSynthesize() {
+        return ttsService.isConfigured() && !ttsService.isCacheOnly();
+    }
+
+    private Pregeneration enqueueRange(BookEntity book, ChapterEntity chapter, int start, int end,
+                                       VoiceSettings settings, Priority priority) {
+        String bookKey = assetKeyService.buildBookKey(book);
+        String voice = ttsService.resolveVoice(settings.voice());
+        int cached = 0;
+        int queued = 0;
+        for (int paragraphIndex = Math.max(0, start); paragraphIndex < end; paragraphIndex++) {
+            if (ttsService.getCachedSpeechForParagraph(bookKey, chapter.getChapterIndex(), paragraphIndex, voice) != null) {
+                cached++;
+                continue;
+            }
+            if (enqueue(book, chapter, paragraphIndex, voice, settings, priority)) {
+                queued++;
+            }
+        }
+        return new Pregeneration(Math.max(0, end - Math.max(0, start)), cached, queued);
+    }
+
+    private boolean enqueue(BookEntity book, ChapterEntity chapter, int paragraphIndex, String voice,
+                            VoiceSettings settings, Priority priority) {
+        double speed = settings.speed() > 0 ? settings.speed() : 1.0;
+        String key = String.join(KEY_SEPARATOR, book.getId(), chapter.getId(), String.valueOf(paragraphIndex), voice);
+        String payload = payloadOf(1, speed, settings.instructions());
+        if (payload.length() > MAX_PAYLOAD_LENGTH) {
+            // Cutting the instructions would cache audio the listener did not ask for under the paragraph's key
+            log.warn("Not queueing TTS for {}: instructions too long ({} characters)", key,
+                    settings.instructions().length());
+            return false;
+        }
+        return generationScheduler.enqueue(Lane.TTS, key, book.getId(), priority, payload);
+    }
+
+    private void processJob(String key, String payload) {
+        String[] parts = key.split(KEY_SEPARATOR, 4);
+        if (parts.length < 4) {
+            log.warn("Dropping malformed TTS job key {}", key);
+            return;
+        }
+        String[] options = payload == null ? new String[0] : payload.split("\\|", 3);
+        int attempt = options.length > 0 ? parseInt(options[0], 1) : 1;
+        double speed = options.length > 1 ? parseDouble(options[1]) : 1.0;
+        String instructions = options.length > 2 && !options[2].isEmpty() ? options[2] : null;
+        int paragraphIndex = parseInt(parts[2], -1);
+
+        Optional<BookEntity> bookOpt = bookRepository.findById(parts[0]);
+        Optional<ChapterEntity> chapterOpt = chapterRepository.findById(parts[1]);
+        if (bookOpt.isEmpty() || chapterOpt.isEmpty() || !Boolean.TRUE.equals(bookOpt.get().getTtsEnabled())
+                || !canSynthesize()) {
+            return;
+        }
+        Optional<ParagraphEntity> paragraph = paragraphIndex < 0 ? Optional.empty()
+                : paragraphRepository.findByChapterIdAndParagraphIndex(parts[1], paragraphIndex);
+        if (paragraph.isEmpty()) {
+            return;
+        }
+        String text = extractPlainText(paragraph.get().getContent());
+        if (text.isBlank()) {
+            return;
+        }
+
+        String bookKey = assetKeyService.buildBookKey(bookOpt.get());
+        int chapterIndex = chapterOpt.get().getChapterIndex();
+        String voice = parts[3];
+        if (ttsService.getCachedSpeechForParagraph(bookKey, chapterIndex, paragraphIndex, voice) != null) {
+            // A listener got there first
+            skippedCached.increment();
+            return;
+        }
+        try {
+            ttsService.generateSpeechForParagraph(bookKey, chapterIndex, paragraphIndex, text,
+                    new VoiceSettings(voice, speed, instructions, null));
+            synthesized.increment();
+        } catch (WebClientResponseException e) {
+            if (e.getStatusCode().value() != 429 && !e.getStatusCode().is5xxServerError()) {
+                log.warn("OpenAI rejected TTS for {}: {}", key, e.getStatusCode());
+                return;
+            }
+            generationScheduler.reportThrottled();
+            if (attempt >= Math.max(1, maxRetryAttempts)) {
+                log.warn("Giving up on TTS for {} after {} attempts: {}", key, attempt, e.getStatusCode());
+                return;
+            }
+            long delayMs = Math.max(1, initialRetryDelaySeconds) * 1000L << (attempt - 1);
+            generationScheduler.retryLater(Lane.TTS, key, payloadOf(attempt + 1, speed, instructions), delayMs);
+        } catch (RuntimeException e) {
+            log.warn("TTS pre-synthesis failed for {}", key, e);
+        }
+    }
+
+    private static String payloadOf(int attempt, double speed, String instructions) {
+        return attempt + "|" + speed + "|" + (instructions == null ? "" : instructions);
+    }
+
+    private static int parseInt(String value, int fallback) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 1.0;
+        }
+    }
+
+    private static String extractPlainText(String html) {
+        if (html == null) return "";
+        return Jsoup.parse(html).text();
+    }
+}
@@ -3,7 +3,10 @@ package com.classicchatreader.service;
 import com.classicchatreader.model.VoiceSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -11,6 +14,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -53,6 +57,10 @@ public class TtsService {
     @Value("${tts.cache-only:false}")
     private boolean cacheOnly;
 
+    @Autowired
+    private AssetByteCache assetByteCache;
+
+    private final SingleFlight<Resource> speechFlights = new SingleFlight<>();
     private WebClient webClient;
     private Path cachePath;
 
@@ -81,7 +89,7 @@ public class TtsService {
         return (requestedVoice != null && !requestedVoice.isBlank()) ? requestedVoice : defaultVoice;
     }
 
-    public byte[] generateSpeech(String text, VoiceSettings settings) {
+    public Resource generateSpeech(String text, VoiceSettings settings) {
         String voice = settings.voice() != null ? settings.voice() : defaultVoice;
         double speed = settings.speed() > 0 ? settings.speed() : 1.0;
         String instructions = settings.instructions();
@@ -90,13 +98,10 @@ public class TtsService {
         String cacheKey = generateCacheKey(text, voice, speed, instructions);
         Path cachedFile = cachePath.resolve(cacheKey + ".mp3");
 
-        if (Files.exists(cachedFile)) {
+        Resource cached = readCached(cachedFile);
+        if (cached != null) {
             log.debug("Cache hit for TTS: {}", cacheKey);
-            try {
-                return Files.readAllBytes(cachedFile);
-            } catch (IOException e) {
-                log.warn("Failed to read cached file, regenerating", e);
-            }
+            return cached;
         }
 
         if (cacheOnly) {
@@ -104,56 +109,33 @@ public class TtsService {
             return null;
         }
 
-        // Generate via OpenAI API
-        log.info("Generating TTS for {} chars with voice={}, speed={}", text.length(), voice, speed);
-
-        Map<String, Object> requestBody = new java.util.HashMap<>();
-        requestBody.put("model", model);
-        requestBody.put("input", text);
-        requestBody.put("voice", voice);
-        requestBody.put("speed", speed);
-        requestBody.put("response_format", "mp3");
-
-        if (instructions != null && !instructions.isBlank()) {
-            requestBody.put("instructions", instructions);
-        }
-
-        byte[] audio = webClient.post()
-            .uri("/audio/speech")
-            .contentType(MediaType.APPLICATION_JSON)
-            .bodyValue(requestBody)
-            .retrieve()
-            .bodyToMono(byte[].class)
-            .block(Duration.ofSeconds(timeoutSeconds));
-
-        // Cache the result
-        if (audio != null && audio.length > 0) {
-            try {
-                Files.write(cachedFile, audio);
-                log.debug("Cached TTS audio: {}", cachedFile);
-            } catch (IOException e) {
-                log.warn("Failed to cache audio file", e);
+        return speechFlights.execute(cacheKey + ".mp3", () -> {
+            // The flight that just finished may have written it between our check and this one
+            Resource written = readCached(cachedFile);
+            if (written != null) {
+                return written;
             }
-        }
 
-        return audio;
+            // Generate via OpenAI API
+            log.info("Generating TTS for {} chars with voice={}, speed={}", text.length(), voice, speed);
+            byte[] audio = requestSpeech(text, voice, speed, instructions);
+            cacheAudio(cachedFile, audio);
+            return audio == null ? null : new ByteArrayResource(audio);
+        });
     }
 
-    public byte[] generateSpeechForParagraph(String bookKey, int chapterIndex, int paragraphIndex,
-                                              String text, VoiceSettings settings) {
+    public Resource generateSpeechForParagraph(String bookKey, int chapterIndex, int paragraphIndex,
+                                               String text, VoiceSettings settings) {
         String voice = resolveVoice(settings.voice());
         double speed = settings.speed() > 0 ? settings.speed() : 1.0;
         String instructions = settings.instructions();
         Path cachedFile = resolveParagraphCacheFile(bookKey, chapterIndex, paragraphIndex, voice);
         String textPreview = truncateForLog(text);
-        if (Files.exists(cachedFile)) {
+        Resource cached = readCached(cachedFile);
+        if (cached != null) {
             log.info("TTS cache HIT: book={}, chapter={}, paragraph={}, text=\"{}\"",
                      bookKey, chapterIndex, paragraphIndex, textPreview);
-            try {
-                return Files.readAllBytes(cachedFile);
-            } catch (IOException e) {
-                log.warn("Failed to read cached file", e);
-            }
+            return cached;
         }
 
         if (cacheOnly) {
@@ -162,16 +144,31 @@ public class TtsService {
             return null;
         }
 
-        try {
-            Files.createDirectories(cachedFile.getParent());
-        } catch (IOException e) {
-            log.warn("Failed to create book cache directory", e);
-        }
+        // Keyed by cache file, so every listener missing the same paragraph and voice waits on one request
+        return speechFlights.execute(cachePath.relativize(cachedFile).toString(), () -> {
+            Resource written = readCached(cachedFile);
+            if (written != null) {
+                return written;
+            }
+
+            // Generate - this means we're calling OpenAI API
+            log.info("TTS cache MISS - calling OpenAI: book={}, chapter={}, paragraph={}, text=\"{}\"",
+                     bookKey, chapterIndex, paragraphIndex, textPreview);
+            byte[] audio = requestSpeech(text, voice, speed, instructions);
+            cacheAudio(cachedFile, audio);
+            return audio == null ? null : new ByteArrayResource(audio);
+        });
+    }
 
-        // Generate - this means we're calling OpenAI API
-        log.info("TTS cache MISS - calling OpenAI: book={}, chapter={}, paragraph={}, text=\"{}\"",
-                 bookKey, chapterIndex, paragraphIndex, textPreview);
+    /**
+     * Concurrent paragraph and text syntheses: how many are running and how many callers joined one
+     * already in flight instead of calling OpenAI again.
+     */
+    public Map<String, Object> singleFlightSnapshot() {
+        return speechFlights.snapshot();
+    }
 
+    private byte[] requestSpeech(String text, String voice, double speed, String instructions) {
         Map<String, Object> requestBody = new java.util.HashMap<>();
         requestBody.put("model", model);
         requestBody.put("input", text);
@@ -183,40 +180,66 @@ public class TtsService {
             requestBody.put("instructions", instructions);
         }
 
-        byte[] audio = webClient.post()
+        return webClient.post()
             .uri("/audio/speech")
             .contentType(MediaType.APPLICATION_JSON)
             .bodyValue(requestBody)
             .retrieve()
             .bodyToMono(byte[].class)
             .block(Duration.ofSeconds(timeoutSeconds));
+    }
 
-        // Cache
-        if (audio != null && audio.length > 0) {
-            try {
-                Files.write(cachedFile, audio);
-            } catch (IOException e) {
-                log.warn("Failed to cache audio", e);
-            }
+    private Resource readCached(Path cachedFile) {
+        try {
+            return assetByteCache.read(cachedFile);
+        } catch (IOException e) {
+            log.warn("Failed to read cached audio {}, regenerating", cachedFile, e);
+            return null;
         }
+    }
 
-        return audio;
+    private void cacheAudio(Path cachedFile, byte[] audio) {
+        if (audio == null || audio.length == 0) {
+            return;
+        }
+        try {
+            AssetFiles.writeAtomically(cachedFile, audio);
+            log.debug("Cached TTS audio: {}", cachedFile);
+        } catch (IOException e) {
+            log.warn("Failed to cache audio file", e);
+        }
     }
 
-    public byte[] getCachedSpeechForParagraph(String bookKey, int chapterIndex, int paragraphIndex, String requestedVoice) {
+    /**
+     * Cached audio file for a paragraph, or null when it has not been generated. Callers stream the file
+     * rather than loading it, so playback and seeking do not copy whole MP3s into the heap.
+     */
+    public CachedAudio getCachedSpeechForParagraph(String bookKey, int chapterIndex, int paragraphIndex, String requestedVoice) {
         String voice = resolveVoice(requestedVoice);
         Path cachedFile = resolveParagraphCacheFile(bookKey, chapterIndex, paragraphIndex, voice);
-        if (!Files.exists(cachedFile)) {
-            return null;
-        }
         try {
-            return Files.readAllBytes(cachedFile);
+            long length = Files.size(cachedFile);
+            if (length == 0) {
+                return null;
+            }
+            String cacheKey = cachePath.relativize(cachedFile) + "|" + length + "|"
+                    + Files.getLastModifiedTime(cachedFile).toMillis();
+            return new CachedAudio(cachedFile, length, "\"" + sha256Prefix(cacheKey) + "\"");
+        } catch (NoSuchFileException e) {
+            return null;
         } catch (IOException e) {
             log.warn("Failed to read cached paragraph audio", e);
             return null;
         }
     }
 
+    /**
+     * A cached MP3 on disk. The ETag changes whenever the file is regenerated, so clients can revalidate
+     * with {@code If-None-Match}.
+     */
+    public record CachedAudio(Path file, long length, String eTag) {
+    }
+
     public int estimateCost(int characterCount) {
         // $15 per 1M characters = $0.000015 per character
         // Return cost in cents for easier display
@@ -224,13 +247,17 @@ public class TtsService {
     }
 
     private String generateCacheKey(String text, String voice, double speed, String instructions) {
+        String input = text + "|" + voice + "|" + speed + "|" + (instructions != null ? instructions : "");
+        return sha256Prefix(input);
+    }
+
+    private String sha256Prefix(String input) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
-            String input = text + "|" + voice + "|" + speed + "|" + (instructions != null ? instructions : "");
             byte[] hash = md.digest(input.getBytes());
             return HexFormat.of().formatHex(hash).substring(0, 16);
         } catch (NoSuchAlgorithmException e) {
-            return String.valueOf(text.hashCode());
+            return String.valueOf(input.hashCode());
         }
     }
 
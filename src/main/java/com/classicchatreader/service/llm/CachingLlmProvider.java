@@ -0,0 +1,90 @@
+package com.classicchatreader.service.llm;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+/**
+ * Serves repeated requests from a {@link LlmResponseCache} and only calls the wrapped provider on a miss.
+ * Streaming is passed through uncached, since it exists for interactive chat. Callers that reject a reply
+ * {@link #evict} it, so a retry reaches the model instead of getting the same reply back.
+ */
+public class CachingLlmProvider implements LlmProvider {
+
+    private final LlmProvider delegate;
+    private final LlmResponseCache cache;
+    // A reply served from the cache does not say which backend wrote it; report the wrapped provider
+    private final ThreadLocal<String> responder = new ThreadLocal<>();
+
+    public CachingLlmProvider(LlmProvider delegate, LlmResponseCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public String generate(String prompt, LlmOptions options) {
+        String key = keyFor(prompt, options);
+        Optional<String> cached = cache.get(key, prompt.length());
+        if (cached.isPresent()) {
+            responder.set(delegate.getProviderName());
+            return cached.get();
+        }
+        String response = delegate.generate(prompt, options);
+        responder.set(delegate.getRespondingProviderName());
+        store(key, response);
+        return response;
+    }
+
+    @Override
+    public Mono<String> generateAsync(String prompt, LlmOptions options) {
+        String key = keyFor(prompt, options);
+        return Mono.fromCallable(() -> cache.get(key, prompt.length()).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.defer(() -> delegate.generateAsync(prompt, options)
+                        .doOnNext(response -> store(key, response))));
+    }
+
+    @Override
+    public Flux<String> generateStream(String prompt, LlmOptions options) {
+        return delegate.generateStream(prompt, options);
+    }
+
+    @Override
+    public void evict(String prompt, LlmOptions options) {
+        cache.remove(keyFor(prompt, options));
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public String getRespondingProviderName() {
+        String name = responder.get();
+        return name != null ? name : delegate.getProviderName();
+    }
+
+    @Override
+    public String getModelName() {
+        return delegate.getModelName();
+    }
+
+    private String keyFor(String prompt, LlmOptions options) {
+        return LlmResponseCache.key(delegate.getProviderName(), delegate.getModelName(), prompt, options);
+    }
+
+    private void store(String key, String response) {
+        // Blank replies are treated as failures by callers; keep them retryable
+        if (response != null && !response.isBlank()) {
+            cache.put(key, response);
+        }
+    }
+}
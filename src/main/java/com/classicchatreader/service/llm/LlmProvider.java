@@ -1,5 +1,9 @@
 package com.classicchatreader.service.llm;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 /**
  * Abstraction for LLM providers (Ollama, xAI, etc.)
  */
@@ -14,6 +18,48 @@ public interface LlmProvider {
      */
     String generate(String prompt, LlmOptions options);
 
+    /**
+     * Generate a response without holding the calling thread while the model works. Errors are signalled
+     * as {@link LlmProviderException}.
+     *
+     * <p>The default runs {@link #generate} on the bounded elastic scheduler, for providers without a
+     * non-blocking client.
+     *
+     * @param prompt the prompt to send
+     * @param options generation options (temperature, etc.)
+     * @return the generated text response
+     */
+    default Mono<String> generateAsync(String prompt, LlmOptions options) {
+        return Mono.fromCallable(() -> generate(prompt, options))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Stream the response as it is generated. Chunks are emitted in order and concatenate to the full
+     * response; errors are signalled as {@link LlmProviderException}.
+     *
+     * <p>The default emits the whole {@link #generateAsync} result as a single chunk, for providers
+     * without a streaming API.
+     *
+     * @param prompt the prompt to send
+     * @param options generation options (temperature, etc.)
+     * @return the response text, chunk by chunk
+     */
+    default Flux<String> generateStream(String prompt, LlmOptions options) {
+        return generateAsync(prompt, options).flux();
+    }
+
+    /**
+     * Forget any stored reply for this request, so the next call asks the model again. Callers use it when
+     * a reply turned out to be unusable or when the user asked for a fresh answer. Providers that keep no
+     * replies ignore it.
+     *
+     * @param prompt the prompt the reply was generated for
+     * @param options the options it was generated with
+     */
+    default void evict(String prompt, LlmOptions options) {
+    }
+
     /**
      * Check if this provider is available and properly configured.
      *
@@ -27,4 +73,24 @@ public interface LlmProvider {
      * @return provider name (e.g., "ollama", "xai")
      */
     String getProviderName();
+
+    /**
+     * Get the name of the provider that answered the calling thread's last {@link #generate} call, for
+     * callers that record who wrote a result. A pool of providers names the member that actually answered.
+     *
+     * @return provider name; by default the same as {@link #getProviderName()}
+     */
+    default String getRespondingProviderName() {
+        return getProviderName();
+    }
+
+    /**
+     * Get the model this provider sends requests to, so cached responses from different models are
+     * never mixed up.
+     *
+     * @return model name, or an empty string when the provider does not expose one
+     */
+    default String getModelName() {
+        return "";
+    }
 }
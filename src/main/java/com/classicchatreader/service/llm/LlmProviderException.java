@@ -5,11 +5,45 @@ package com.classicchatreader.service.llm;
  */
 public class LlmProviderException extends RuntimeException {
 
+    private final int statusCode;
+
     public LlmProviderException(String message) {
-        super(message);
+        this(message, 0, null);
     }
 
     public LlmProviderException(String message, Throwable cause) {
+        this(message, 0, cause);
+    }
+
+    public LlmProviderException(String message, int statusCode, Throwable cause) {
         super(message, cause);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * HTTP status returned by the provider, or 0 when the call failed without a response.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * True when the provider rejected the call for load reasons (429 or any 5xx), so callers should
+     * back off rather than fall back or give up.
+     */
+    public boolean isThrottled() {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * Whether {@code error} or any of its causes is a throttled provider response.
+     */
+    public static boolean isThrottled(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof LlmProviderException providerError && providerError.isThrottled()) {
+                return true;
+            }
+        }
+        return false;
     }
 }
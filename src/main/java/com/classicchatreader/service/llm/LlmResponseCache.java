@@ -0,0 +1,250 @@
+package com.classicchatreader.service.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Disk-backed store of LLM responses keyed by a hash of provider, model, options and prompt. Entries are
+ * plain UTF-8 files evicted least recently used once the directory exceeds {@code maxBytes}; the access
+ * order survives restarts through file modification times.
+ */
+public class LlmResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmResponseCache.class);
+    private static final String ENTRY_SUFFIX = ".txt";
+    private static final String TEMP_SUFFIX = ".tmp";
+    // Rough English average, good enough to report the order of magnitude of spend avoided
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final Path directory;
+    private final long maxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Long> entrySizes = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder removals = new LongAdder();
+    private final LongAdder promptCharsSaved = new LongAdder();
+    private final LongAdder responseCharsSaved = new LongAdder();
+
+    public LlmResponseCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        loadIndex();
+        log.info("LLM response cache at {}: {} entries, {} of {} bytes",
+                directory.toAbsolutePath(), entrySizes.size(), totalBytes, maxBytes);
+    }
+
+    /**
+     * Cache key for a request: everything that can change the response goes into the hash.
+     */
+    public static String key(String provider, String model, String prompt, LlmOptions options) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : new Object[]{provider, model, options.temperature(), options.topP(),
+                    options.maxTokens(), prompt}) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @param promptLength length of the prompt the key was built from, for the spend-avoided estimate
+     */
+    public Optional<String> get(String key, int promptLength) {
+        synchronized (this) {
+            if (entrySizes.get(key) == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+        }
+        Path file = entryPath(key);
+        try {
+            String response = Files.readString(file, StandardCharsets.UTF_8);
+            touch(file);
+            hits.increment();
+            promptCharsSaved.add(promptLength);
+            responseCharsSaved.add(response.length());
+            return Optional.of(response);
+        } catch (IOException e) {
+            // Removed or unreadable behind our back; forget it and regenerate
+            log.debug("Dropping unreadable LLM cache entry {}: {}", key, e.getMessage());
+            forget(key);
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, String response) {
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            return;
+        }
+        Path file = entryPath(key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), key, TEMP_SUFFIX);
+            try {
+                Files.write(temp, bytes);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            writeFailures.increment();
+            log.warn("Failed to write LLM cache entry {}: {}", key, e.getMessage());
+            return;
+        }
+        writes.increment();
+        record(key, bytes.length);
+    }
+
+    /**
+     * Drops the entry for {@code key}, if any, so the next lookup misses.
+     */
+    public void remove(String key) {
+        synchronized (this) {
+            if (!entrySizes.containsKey(key)) {
+                return;
+            }
+            forget(key);
+        }
+        removals.increment();
+        try {
+            Files.deleteIfExists(entryPath(key));
+        } catch (IOException e) {
+            log.debug("Failed to delete removed LLM cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        synchronized (this) {
+            snapshot.put("entries", entrySizes.size());
+            snapshot.put("bytes", totalBytes);
+        }
+        snapshot.put("maxBytes", maxBytes);
+        snapshot.put("hits", hitCount);
+        snapshot.put("misses", missCount);
+        snapshot.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        snapshot.put("writes", writes.sum());
+        snapshot.put("writeFailures", writeFailures.sum());
+        snapshot.put("evictions", evictions.sum());
+        snapshot.put("removals", removals.sum());
+        snapshot.put("promptCharsSaved", promptCharsSaved.sum());
+        snapshot.put("responseCharsSaved", responseCharsSaved.sum());
+        snapshot.put("estimatedTokensSaved", (promptCharsSaved.sum() + responseCharsSaved.sum()) / CHARS_PER_TOKEN);
+        return snapshot;
+    }
+
+    private void record(String key, long size) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Long previous = entrySizes.put(key, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<String, Long>> eldest = entrySizes.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                totalBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+        for (String evictedKey : evicted) {
+            evictions.increment();
+            try {
+                Files.deleteIfExists(entryPath(evictedKey));
+            } catch (IOException e) {
+                log.debug("Failed to delete evicted LLM cache entry {}: {}", evictedKey, e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void forget(String key) {
+        Long size = entrySizes.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private void loadIndex() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        record Entry(String key, long size, FileTime modified) {
+        }
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    // Left over from a write interrupted by a crash
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(ENTRY_SUFFIX)) {
+                    entries.add(new Entry(name.substring(0, name.length() - ENTRY_SUFFIX.length()),
+                            Files.size(file), Files.getLastModifiedTime(file)));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to index LLM cache directory {}: {}", directory, e.getMessage());
+        }
+        entries.sort(Comparator.comparing(Entry::modified));
+        synchronized (this) {
+            for (Entry entry : entries) {
+                entrySizes.put(entry.key(), entry.size());
+                totalBytes += entry.size();
+            }
+        }
+    }
+
+    private void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Failed to touch LLM cache entry {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Path entryPath(String key) {
+        // Two-character shards keep directories small
+        return directory.resolve(key.substring(0, 2)).resolve(key + ENTRY_SUFFIX);
+    }
+}
@@ -0,0 +1,26 @@
+package com.classicchatreader.service.llm;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the {@link RoutingLlmProvider}s in use, keyed by purpose, so health can report backend
+ * state without knowing how the provider beans are wrapped.
+ */
+public class LlmRoutingStatus {
+
+    private final Map<String, RoutingLlmProvider> routers = new ConcurrentHashMap<>();
+
+    public void register(String purpose, RoutingLlmProvider router) {
+        routers.put(purpose, router);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        routers.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> snapshot.put(entry.getKey(), entry.getValue().snapshot()));
+        return snapshot;
+    }
+}
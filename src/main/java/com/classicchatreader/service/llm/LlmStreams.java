@@ -0,0 +1,69 @@
+package com.classicchatreader.service.llm;
+
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Helpers for cleaning up streamed LLM responses chunk by chunk.
+ */
+public final class LlmStreams {
+
+    private LlmStreams() {
+    }
+
+    /**
+     * Drops leading whitespace and a leading {@code label} (such as {@code "Assistant:"}) that models
+     * sometimes echo from the prompt. Chunks are held back only while the start of the response could
+     * still be the label; everything after passes through unchanged.
+     */
+    public static Flux<String> stripLeadingLabel(Flux<String> chunks, String label) {
+        return Flux.defer(() -> {
+            LabelStripper stripper = new LabelStripper(label);
+            return chunks.concatMapIterable(stripper::accept)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(stripper.finish())));
+        });
+    }
+
+    private static final class LabelStripper {
+        private final String label;
+        private final StringBuilder head = new StringBuilder();
+        private boolean labelResolved;
+        private boolean contentStarted;
+
+        private LabelStripper(String label) {
+            this.label = label;
+        }
+
+        private Iterable<String> accept(String chunk) {
+            if (contentStarted) {
+                return List.of(chunk);
+            }
+            String text = chunk;
+            if (!labelResolved) {
+                head.append(chunk);
+                String buffered = head.toString().stripLeading();
+                if (buffered.length() < label.length() && label.startsWith(buffered)) {
+                    return List.of();
+                }
+                labelResolved = true;
+                text = buffered.startsWith(label) ? buffered.substring(label.length()) : buffered;
+            }
+            text = text.stripLeading();
+            if (text.isEmpty()) {
+                return List.of();
+            }
+            contentStarted = true;
+            return List.of(text);
+        }
+
+        private Iterable<String> finish() {
+            if (labelResolved) {
+                return List.of();
+            }
+            // The whole response was shorter than the label
+            String buffered = head.toString().strip();
+            return buffered.isEmpty() || buffered.equals(label) ? List.of() : List.of(buffered);
+        }
+    }
+}
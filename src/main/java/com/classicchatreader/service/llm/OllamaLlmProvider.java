@@ -1,5 +1,6 @@
 package com.classicchatreader.service.llm;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -7,6 +8,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.HashMap;
@@ -36,6 +39,44 @@ public class OllamaLlmProvider implements LlmProvider {
 
     @Override
     public String generate(String prompt, LlmOptions options) {
+        return generateAsync(prompt, options).block();
+    }
+
+    @Override
+    public Mono<String> generateAsync(String prompt, LlmOptions options) {
+        return webClient.post()
+                .uri("/api/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestBody(prompt, options, false))
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .map(response -> readJson(response, "Invalid response from Ollama").get("response").asText())
+                .onErrorMap(error -> toProviderException(error, "generate"));
+    }
+
+    /**
+     * Streams {@code /api/generate}, which answers with one JSON object per line until {@code done}.
+     */
+    @Override
+    public Flux<String> generateStream(String prompt, LlmOptions options) {
+        return webClient.post()
+                .uri("/api/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestBody(prompt, options, true))
+                .retrieve()
+                .bodyToFlux(String.class)
+                // Applies between chunks, so a long reply is fine as long as tokens keep coming
+                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .filter(line -> !line.isBlank())
+                .map(line -> readJson(line, "Invalid streaming response from Ollama"))
+                .takeUntil(node -> node.path("done").asBoolean(false))
+                .map(node -> node.path("response").asText(""))
+                .filter(chunk -> !chunk.isEmpty())
+                .onErrorMap(error -> toProviderException(error, "stream"));
+    }
+
+    private Map<String, Object> requestBody(String prompt, LlmOptions options, boolean stream) {
         Map<String, Object> ollamaOptions = new HashMap<>();
         ollamaOptions.put("temperature", options.temperature());
         if (options.topP() != null) {
@@ -45,33 +86,32 @@ public class OllamaLlmProvider implements LlmProvider {
             ollamaOptions.put("num_predict", options.maxTokens());
         }
 
-        Map<String, Object> requestBody = Map.of(
+        return Map.of(
                 "model", model,
                 "prompt", prompt,
-                "stream", false,
+                "stream", stream,
                 "options", ollamaOptions
         );
+    }
 
+    private JsonNode readJson(String json, String errorMessage) {
         try {
-            String response = webClient.post()
-                    .uri("/api/generate")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(timeoutSeconds))
-                    .block();
-
-            JsonNode responseNode = objectMapper.readTree(response);
-            return responseNode.get("response").asText();
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new LlmProviderException(errorMessage, e);
+        }
+    }
 
-        } catch (WebClientResponseException e) {
+    private Throwable toProviderException(Throwable error, String action) {
+        if (error instanceof LlmProviderException) {
+            return error;
+        }
+        if (error instanceof WebClientResponseException e) {
             log.error("Ollama API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new LlmProviderException("Ollama API error: " + e.getStatusCode(), e);
-        } catch (Exception e) {
-            log.error("Failed to generate response from Ollama", e);
-            throw new LlmProviderException("Failed to generate response from Ollama", e);
+            return new LlmProviderException("Ollama API error: " + e.getStatusCode(), e.getStatusCode().value(), e);
         }
+        log.error("Failed to {} response from Ollama", action, error);
+        return new LlmProviderException("Failed to " + action + " response from Ollama", error);
     }
 
     @Override
@@ -93,4 +133,9 @@ public class OllamaLlmProvider implements LlmProvider {
     public String getProviderName() {
         return "ollama";
     }
+
+    @Override
+    public String getModelName() {
+        return model;
+    }
 }
@@ -0,0 +1,346 @@
+package com.classicchatreader.service.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads calls over a weighted pool of providers. Each call goes to the healthy backend with the lowest
+ * latency EWMA divided by its weight, and fails over down that ranking when a backend is throttled or
+ * unreachable. A backend's EWMA halves for every minute it goes without an answer, so one that was slow
+ * for a while is tried again once its old measurements have aged past the current leader's. A backend that fails {@code failureThreshold} times in a row is skipped for
+ * {@code openDuration}, then is tried again. With a non-zero {@code hedgeAfter}, a call that has not
+ * answered by then is also sent to the next backend and the first answer wins. Requests a backend rejects
+ * outright (4xx other than 429) fail at once on every path, since any backend would reject them too.
+ */
+public class RoutingLlmProvider implements LlmProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutingLlmProvider.class);
+    private static final double EWMA_ALPHA = 0.3;
+    private static final long IDLE_HALF_LIFE_MS = 60_000;
+
+    private final String purpose;
+    private final List<Backend> backends;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Duration hedgeAfter;
+    private final LongSupplier clock;
+    private final ThreadLocal<String> responder = new ThreadLocal<>();
+
+    public RoutingLlmProvider(String purpose, List<WeightedProvider> providers,
+                              int failureThreshold, Duration openDuration, Duration hedgeAfter) {
+        this(purpose, providers, failureThreshold, openDuration, hedgeAfter, System::currentTimeMillis);
+    }
+
+    RoutingLlmProvider(String purpose, List<WeightedProvider> providers, int failureThreshold,
+                       Duration openDuration, Duration hedgeAfter, LongSupplier clock) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("At least one provider is required for " + purpose);
+        }
+        this.purpose = purpose;
+        this.backends = providers.stream().map(Backend::new).toList();
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openDuration.toMillis();
+        this.hedgeAfter = hedgeAfter;
+        this.clock = clock;
+    }
+
+    public record WeightedProvider(LlmProvider provider, double weight) {
+        public WeightedProvider {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Provider weight must be positive");
+            }
+        }
+    }
+
+    @Override
+    public String generate(String prompt, LlmOptions options) {
+        LlmProviderException lastError = null;
+        for (Backend backend : ranked()) {
+            long startedAt = clock.getAsLong();
+            try {
+                String response = backend.provider.generate(prompt, options);
+                backend.recordSuccess(elapsedMs(startedAt));
+                responder.set(backend.provider.getProviderName());
+                return response;
+            } catch (RuntimeException e) {
+                if (!isBackendFault(e)) {
+                    throw e;
+                }
+                backend.recordFailure();
+                lastError = asProviderException(e);
+                log.warn("{} backend {} failed, trying next: {}", purpose, backend.name, e.getMessage());
+            }
+        }
+        throw exhausted(lastError);
+    }
+
+    @Override
+    public Mono<String> generateAsync(String prompt, LlmOptions options) {
+        return Mono.defer(() -> {
+            List<Backend> ranked = ranked();
+            if (ranked.isEmpty()) {
+                return Mono.error(exhausted(null));
+            }
+            Set<Backend> started = ConcurrentHashMap.newKeySet();
+            AtomicReference<Throwable> lastError = new AtomicReference<>();
+            Mono<String> primary = attempt(ranked, started, lastError, prompt, options);
+            if (hedgeAfter.isZero() || ranked.size() < 2) {
+                return primary;
+            }
+            AtomicBoolean hedged = new AtomicBoolean();
+            Mono<String> hedge = Mono.delay(hedgeAfter)
+                    .then(Mono.defer(() -> {
+                        Backend next = nextUnstarted(ranked, started);
+                        if (next == null) {
+                            return Mono.<String>empty();
+                        }
+                        hedged.set(true);
+                        next.hedges.increment();
+                        log.debug("{} hedging slow call to {}", purpose, next.name);
+                        return call(next, prompt, options).doOnError(lastError::set);
+                    }));
+            // The first answer wins and a rejected request fails at once; a backend fault on one side
+            // only waits for the other side while that one is still running
+            return Flux.merge(
+                            primary.onErrorResume(e -> isBackendFault(e) && hedged.get(), e -> Mono.empty()),
+                            hedge.onErrorResume(RoutingLlmProvider::isBackendFault, e -> Mono.empty()))
+                    .next()
+                    .switchIfEmpty(Mono.error(() -> exhausted(asProviderException(lastError.get()))));
+        });
+    }
+
+    /**
+     * Streams from the best backend, failing over only until the first chunk arrives; after that the
+     * reader has seen part of one backend's answer and switching would garble it.
+     */
+    @Override
+    public Flux<String> generateStream(String prompt, LlmOptions options) {
+        return Flux.defer(() -> stream(ranked(), 0, null, prompt, options));
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return ranked().stream().anyMatch(backend -> backend.provider.isAvailable());
+    }
+
+    /**
+     * The first configured backend's name. It stays fixed so cache keys and scheduler lanes built from it
+     * do not move; {@link #getRespondingProviderName()} says which backend answered.
+     */
+    @Override
+    public String getProviderName() {
+        return backends.get(0).provider.getProviderName();
+    }
+
+    @Override
+    public String getRespondingProviderName() {
+        String name = responder.get();
+        return name != null ? name : getProviderName();
+    }
+
+    @Override
+    public String getModelName() {
+        return backends.stream().map(backend -> backend.name).collect(Collectors.joining(","));
+    }
+
+    public Map<String, Object> snapshot() {
+        long now = clock.getAsLong();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        for (Backend backend : backends) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("weight", backend.weight);
+            values.put("state", backend.state(now));
+            values.put("latencyEwmaMs", Math.round(backend.ewmaMs));
+            values.put("consecutiveFailures", backend.consecutiveFailures.get());
+            values.put("successes", backend.successes.sum());
+            values.put("failures", backend.failures.sum());
+            values.put("hedges", backend.hedges.sum());
+            snapshot.put(backend.name, values);
+        }
+        return snapshot;
+    }
+
+    private Mono<String> attempt(List<Backend> ranked, Set<Backend> started, AtomicReference<Throwable> lastError,
+                                 String prompt, LlmOptions options) {
+        Backend backend = nextUnstarted(ranked, started);
+        if (backend == null) {
+            return Mono.error(exhausted(asProviderException(lastError.get())));
+        }
+        return call(backend, prompt, options).onErrorResume(e -> {
+            lastError.set(e);
+            if (!isBackendFault(e)) {
+                return Mono.error(e);
+            }
+            log.warn("{} backend {} failed, trying next: {}", purpose, backend.name, e.getMessage());
+            return attempt(ranked, started, lastError, prompt, options);
+        });
+    }
+
+    private Mono<String> call(Backend backend, String prompt, LlmOptions options) {
+        return Mono.defer(() -> {
+            long startedAt = clock.getAsLong();
+            return backend.provider.generateAsync(prompt, options)
+                    .doOnNext(response -> backend.recordSuccess(elapsedMs(startedAt)))
+                    .doOnError(e -> {
+                        if (isBackendFault(e)) {
+                            backend.recordFailure();
+                        }
+                    });
+        });
+    }
+
+    private Flux<String> stream(List<Backend> ranked, int index, Throwable lastError,
+                                String prompt, LlmOptions options) {
+        if (index >= ranked.size()) {
+            return Flux.error(exhausted(asProviderException(lastError)));
+        }
+        Backend backend = ranked.get(index);
+        long startedAt = clock.getAsLong();
+        AtomicBoolean emitted = new AtomicBoolean();
+        return backend.provider.generateStream(prompt, options)
+                .doOnNext(chunk -> {
+                    if (emitted.compareAndSet(false, true)) {
+                        backend.recordSuccess(elapsedMs(startedAt));
+                    }
+                })
+                .onErrorResume(e -> {
+                    if (isBackendFault(e)) {
+                        backend.recordFailure();
+                    }
+                    if (emitted.get() || !isBackendFault(e)) {
+                        return Flux.error(e);
+                    }
+                    log.warn("{} backend {} failed before streaming, trying next: {}",
+                            purpose, backend.name, e.getMessage());
+                    return stream(ranked, index + 1, e, prompt, options);
+                });
+    }
+
+    private List<Backend> ranked() {
+        long now = clock.getAsLong();
+        return backends.stream()
+                .filter(backend -> backend.isCallable(now))
+                .sorted(Comparator.<Backend>comparingDouble(backend -> backend.score(now))
+                        .thenComparing(Comparator.<Backend>comparingDouble(backend -> backend.weight).reversed()))
+                .toList();
+    }
+
+    private static Backend nextUnstarted(List<Backend> ranked, Set<Backend> started) {
+        for (Backend backend : ranked) {
+            if (started.add(backend)) {
+                return backend;
+            }
+        }
+        return null;
+    }
+
+    private LlmProviderException exhausted(LlmProviderException lastError) {
+        if (lastError != null) {
+            return lastError;
+        }
+        // Reported as a 503 so queued work backs off until a circuit closes
+        return new LlmProviderException("No healthy " + purpose + " LLM backend available", 503, null);
+    }
+
+    /**
+     * Throttling, server errors and transport failures are the backend's fault and worth failing over;
+     * anything else (a rejected request) would fail the same way everywhere.
+     */
+    private static boolean isBackendFault(Throwable error) {
+        if (error instanceof LlmProviderException providerError) {
+            return providerError.isThrottled() || providerError.getStatusCode() == 0;
+        }
+        return true;
+    }
+
+    private static LlmProviderException asProviderException(Throwable error) {
+        if (error == null || error instanceof LlmProviderException) {
+            return (LlmProviderException) error;
+        }
+        return new LlmProviderException(error.getMessage(), error);
+    }
+
+    private long elapsedMs(long startedAt) {
+        return Math.max(0, clock.getAsLong() - startedAt);
+    }
+
+    private final class Backend {
+        private final LlmProvider provider;
+        private final double weight;
+        private final String name;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder hedges = new LongAdder();
+        private volatile double ewmaMs;
+        private volatile long measuredAt;
+        private volatile long openUntil;
+
+        private Backend(WeightedProvider weighted) {
+            this.provider = weighted.provider();
+            this.weight = weighted.weight();
+            this.name = provider.getProviderName() + ":" + provider.getModelName();
+        }
+
+        /**
+         * Closed circuits take calls; an open one takes calls again once it expires, and its next failure
+         * reopens it straight away since the failure count is still at the threshold.
+         */
+        private boolean isCallable(long now) {
+            return consecutiveFailures.get() < failureThreshold || now >= openUntil;
+        }
+
+        private double score(long now) {
+            // Unmeasured backends score 0 so each gets sampled, heaviest first; weight also scales latency
+            return latencyMs(now) / weight;
+        }
+
+        private double latencyMs(long now) {
+            long idleMs = now - measuredAt;
+            if (ewmaMs == 0 || idleMs <= 0) {
+                return ewmaMs;
+            }
+            return ewmaMs * Math.pow(0.5, (double) idleMs / IDLE_HALF_LIFE_MS);
+        }
+
+        private String state(long now) {
+            if (consecutiveFailures.get() < failureThreshold) {
+                return "closed";
+            }
+            return now >= openUntil ? "half-open" : "open";
+        }
+
+        private void recordSuccess(long latencyMs) {
+            successes.increment();
+            consecutiveFailures.set(0);
+            long now = clock.getAsLong();
+            double previous = latencyMs(now);
+            ewmaMs = previous == 0 ? latencyMs : EWMA_ALPHA * latencyMs + (1 - EWMA_ALPHA) * previous;
+            measuredAt = now;
+        }
+
+        private void recordFailure() {
+            failures.increment();
+            if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                openUntil = clock.getAsLong() + openMillis;
+                log.warn("{} backend {} circuit open for {} ms", purpose, name, openMillis);
+            }
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.classicchatreader.service.llm;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.HashMap;
@@ -21,6 +26,10 @@ public class XaiLlmProvider implements LlmProvider {
 
     private static final Logger log = LoggerFactory.getLogger(XaiLlmProvider.class);
     private static final String BASE_URL = "https://api.x.ai/v1";
+    private static final String STREAM_DONE = "[DONE]";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SERVER_SENT_EVENTS =
+            new ParameterizedTypeReference<>() {
+            };
 
     private final WebClient webClient;
     private final String model;
@@ -41,6 +50,45 @@ public class XaiLlmProvider implements LlmProvider {
 
     @Override
     public String generate(String prompt, LlmOptions options) {
+        return generateAsync(prompt, options).block();
+    }
+
+    @Override
+    public Mono<String> generateAsync(String prompt, LlmOptions options) {
+        return webClient.post()
+                .uri("/chat/completions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestBody(prompt, options, false))
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .map(this::readMessageContent)
+                .onErrorMap(error -> toProviderException(error, "generate"));
+    }
+
+    /**
+     * Streams {@code /chat/completions} as server-sent events, each carrying a
+     * {@code choices[0].delta.content} chunk, until the {@code [DONE]} sentinel.
+     */
+    @Override
+    public Flux<String> generateStream(String prompt, LlmOptions options) {
+        return webClient.post()
+                .uri("/chat/completions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(requestBody(prompt, options, true))
+                .retrieve()
+                .bodyToFlux(SERVER_SENT_EVENTS)
+                // Applies between events, so a long reply is fine as long as tokens keep coming
+                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .mapNotNull(ServerSentEvent::data)
+                .takeWhile(data -> !STREAM_DONE.equals(data.trim()))
+                .map(this::readDeltaContent)
+                .filter(chunk -> !chunk.isEmpty())
+                .onErrorMap(error -> toProviderException(error, "stream"));
+    }
+
+    private Map<String, Object> requestBody(String prompt, LlmOptions options, boolean stream) {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("model", model);
         requestBody.put("messages", List.of(
@@ -54,37 +102,49 @@ public class XaiLlmProvider implements LlmProvider {
         if (options.maxTokens() != null) {
             requestBody.put("max_tokens", options.maxTokens());
         }
+        if (stream) {
+            requestBody.put("stream", true);
+        }
+        return requestBody;
+    }
 
+    private String readMessageContent(String response) {
         try {
-            String response = webClient.post()
-                    .uri("/chat/completions")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(timeoutSeconds))
-                    .block();
-
-            JsonNode responseNode = objectMapper.readTree(response);
-            JsonNode choices = responseNode.get("choices");
+            JsonNode choices = objectMapper.readTree(response).get("choices");
             if (choices != null && choices.isArray() && choices.size() > 0) {
                 JsonNode message = choices.get(0).get("message");
                 if (message != null && message.has("content")) {
                     return message.get("content").asText();
                 }
             }
+        } catch (JsonProcessingException e) {
+            throw new LlmProviderException("Invalid response format from xAI API", e);
+        }
+        throw new LlmProviderException("Invalid response format from xAI API");
+    }
 
-            throw new LlmProviderException("Invalid response format from xAI API");
+    private String readDeltaContent(String data) {
+        try {
+            JsonNode choices = objectMapper.readTree(data).get("choices");
+            if (choices == null || !choices.isArray() || choices.isEmpty()) {
+                return "";
+            }
+            return choices.get(0).path("delta").path("content").asText("");
+        } catch (JsonProcessingException e) {
+            throw new LlmProviderException("Invalid streaming response from xAI API", e);
+        }
+    }
 
-        } catch (WebClientResponseException e) {
+    private Throwable toProviderException(Throwable error, String action) {
+        if (error instanceof LlmProviderException) {
+            return error;
+        }
+        if (error instanceof WebClientResponseException e) {
             log.error("xAI API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new LlmProviderException("xAI API error: " + e.getStatusCode(), e);
-        } catch (LlmProviderException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Failed to generate response from xAI", e);
-            throw new LlmProviderException("Failed to generate response from xAI", e);
+            return new LlmProviderException("xAI API error: " + e.getStatusCode(), e.getStatusCode().value(), e);
         }
+        log.error("Failed to {} response from xAI", action, error);
+        return new LlmProviderException("Failed to " + action + " response from xAI", error);
     }
 
     @Override
@@ -102,4 +162,9 @@ public class XaiLlmProvider implements LlmProvider {
     public String getProviderName() {
         return "xai";
     }
+
+    @Override
+    public String getModelName() {
+        return model;
+    }
 }
@@ -0,0 +1,15 @@
+CREATE TABLE generation_jobs (
+    id VARCHAR(255) PRIMARY KEY,
+    lane VARCHAR(64) NOT NULL,
+    job_key VARCHAR(255) NOT NULL,
+    book_id VARCHAR(255),
+    priority INTEGER NOT NULL,
+    payload VARCHAR(4000),
+    available_at TIMESTAMP NOT NULL,
+    lease_owner VARCHAR(120),
+    lease_expires_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_generation_jobs_lane_key UNIQUE (lane, job_key)
+);
+
+CREATE INDEX idx_generation_jobs_claim ON generation_jobs (lane, priority, available_at);
@@ -0,0 +1 @@
+ALTER TABLE paragraphs ADD COLUMN updated_at TIMESTAMP;
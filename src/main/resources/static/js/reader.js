@@ -18,7 +18,13 @@
         currentParagraphIndex: 0,
         pagesData: [],         // Array of { startParagraph, endParagraph } for each page
         searchChapterFilter: '',
+        searchSpoilerSafe: false,
         searchLastQuery: '',
+        searchResults: [],
+        searchNextCursor: null,
+        searchTotalHits: 0,
+        searchTotalHitsExact: true,
+        searchChapterCounts: new Map(),
         searchHighlightTerms: [],
         searchHighlightChapterId: null,
         searchHighlightParagraphIndex: null,
@@ -237,6 +243,8 @@
         searchResultsRetry: document.getElementById('search-results-retry'),
         searchResultsList: document.getElementById('search-results-list'),
         searchChapterFilter: document.getElementById('search-chapter-filter'),
+        searchSpoilerSafe: document.getElementById('search-spoiler-safe'),
+        searchNextMatch: document.getElementById('search-next-match'),
         readerSettingsToggle: document.getElementById('reader-settings-toggle'),
         readerSettingsPanel: document.getElementById('reader-settings-panel'),
         readerFontSize: document.getElementById('reader-font-size'),
@@ -3876,6 +3884,8 @@
         state.currentBookCitationPromise = null;
         state.searchChapterFilter = '';
         state.searchLastQuery = '';
+        state.searchResults = [];
+        state.searchNextCursor = null;
         clearSearchHighlightState();
         stopCharacterPolling();
 
@@ -5488,7 +5498,6 @@
             return;
         }
 
-        const terms = extractSearchTerms(query);
         const grouped = new Map();
         for (const result of results) {
             const chapterId = result.chapterId || 'unknown-chapter';
@@ -5500,9 +5509,12 @@
 
         const html = Array.from(grouped.entries()).map(([chapterId, groupResults]) => {
             const chapterTitle = escapeHtml(chapterTitleForSearch(chapterId));
+            // Facet counts cover every hit, not just the pages loaded so far.
+            const chapterHits = state.searchChapterCounts.get(chapterId);
+            const countLabel = chapterHits ? ` · ${chapterHits} ${chapterHits === 1 ? 'match' : 'matches'}` : '';
             const items = groupResults.map(result => {
-                const snippetRaw = escapeHtml(result.snippet || '');
-                const snippet = highlightTermsInText(snippetRaw, terms);
+                // Server snippets arrive HTML-escaped with matched terms already wrapped in <mark>.
+                const snippet = result.snippet || '';
                 return `
                     <div
                         class="search-result-item"
@@ -5519,19 +5531,36 @@
 
             return `
                 <section class="search-group">
-                    <div class="search-group-title">${chapterTitle}</div>
+                    <div class="search-group-title">${chapterTitle}${countLabel}</div>
                     ${items}
                 </section>
             `;
         }).join('');
 
-        elements.searchResultsList.innerHTML = html;
+        const total = state.searchTotalHitsExact
+            ? `${state.searchTotalHits}`
+            : `${state.searchTotalHits}+`;
+        const summary = `<div class="search-results-summary">Showing ${results.length} of ${total} matches</div>`;
+        const more = state.searchNextCursor
+            ? '<button class="search-results-more" type="button">More results</button>'
+            : '';
+        elements.searchResultsList.innerHTML = summary + html + more;
+    }
+
+    async function loadMoreSearchResults() {
+        if (!state.searchNextCursor || !state.searchLastQuery) return;
+        await performSearch(state.searchLastQuery, state.searchNextCursor);
     }
 
-    async function performSearch(query) {
+    async function performSearch(query, cursor = null) {
         if (!state.currentBook?.id) return;
         const normalizedQuery = (query || '').trim();
         state.searchLastQuery = normalizedQuery;
+        if (!cursor) {
+            state.searchResults = [];
+            state.searchNextCursor = null;
+            state.searchChapterCounts = new Map();
+        }
         if (!normalizedQuery || normalizedQuery.length < 2) {
             clearSearchError();
             elements.searchResults.classList.add('hidden');
@@ -5551,7 +5580,11 @@
             if (state.searchChapterFilter) {
                 params.set('chapterId', state.searchChapterFilter);
             }
-            const response = await fetch(`/api/search?${params.toString()}`);
+            if (cursor) {
+                params.set('cursor', cursor);
+            }
+            appendReadingBound(params);
+            const response = await fetch(`/api/search/page?${params.toString()}`);
             if (!response.ok) {
                 const payload = await readErrorPayload(response);
                 const mapped = mapSearchError({
@@ -5568,8 +5601,22 @@
                 elements.searchResults.classList.remove('hidden');
                 return;
             }
-            const results = await response.json();
-            renderSearchResults(results, normalizedQuery);
+            const page = await response.json();
+            if (state.searchLastQuery !== normalizedQuery) {
+                return;
+            }
+            state.searchResults = cursor
+                ? state.searchResults.concat(page.results || [])
+                : (page.results || []);
+            state.searchNextCursor = page.nextCursor || null;
+            state.searchTotalHits = page.totalHits || 0;
+            state.searchTotalHitsExact = page.totalHitsExact !== false;
+            if (page.facets) {
+                state.searchChapterCounts = new Map(
+                    (page.facets.chapters || []).map(facet => [facet.value, facet.count])
+                );
+            }
+            renderSearchResults(state.searchResults, normalizedQuery);
             elements.searchResults.classList.remove('hidden');
         } catch (error) {
             console.error('Search failed:', error);
@@ -5585,6 +5632,77 @@
         }
     }
 
+    // Position of the last paragraph on the current page, in the server's chapter/paragraph indexes.
+    function currentReadingPosition() {
+        const page = state.pagesData[state.currentPage];
+        const lastOnPage = page ? page.endParagraph : state.currentParagraphIndex;
+        const paragraph = state.paragraphs[lastOnPage];
+        return {
+            chapterIndex: state.currentChapterIndex,
+            paragraphIndex: Number.isInteger(paragraph?.index) ? paragraph.index : Math.max(0, lastOnPage || 0)
+        };
+    }
+
+    function appendReadingBound(params) {
+        if (!state.searchSpoilerSafe) return;
+        const position = currentReadingPosition();
+        params.set('upToChapter', String(position.chapterIndex));
+        params.set('upToParagraph', String(position.paragraphIndex));
+    }
+
+    async function goToNextSearchMatch() {
+        const query = (state.searchLastQuery || elements.searchInput.value || '').trim();
+        if (!state.currentBook?.id || query.length < 2) return;
+
+        const params = new URLSearchParams({ q: query, bookId: state.currentBook.id });
+        const currentChapterId = state.chapters[state.currentChapterIndex]?.id;
+        if (state.searchHighlightChapterId === currentChapterId && Number.isInteger(state.searchHighlightParagraphIndex)) {
+            // Continue from the match we last jumped to
+            params.set('afterChapter', String(state.currentChapterIndex));
+            params.set('afterParagraph', String(state.searchHighlightParagraphIndex));
+        } else {
+            // Otherwise start just before the first paragraph of the current page
+            const page = state.pagesData[state.currentPage];
+            const firstOnPage = state.paragraphs[page ? page.startParagraph : 0];
+            const firstIndex = Number.isInteger(firstOnPage?.index) ? firstOnPage.index : 0;
+            if (firstIndex > 0) {
+                params.set('afterChapter', String(state.currentChapterIndex));
+                params.set('afterParagraph', String(firstIndex - 1));
+            } else if (state.currentChapterIndex > 0) {
+                params.set('afterChapter', String(state.currentChapterIndex - 1));
+                params.set('afterParagraph', '2147483647');
+            }
+        }
+        appendReadingBound(params);
+
+        try {
+            clearSearchError();
+            const response = await fetch(`/api/search/next?${params.toString()}`);
+            if (response.status === 204) {
+                setSearchError('No further matches.', null);
+                elements.searchResults.classList.remove('hidden');
+                return;
+            }
+            if (!response.ok) {
+                const payload = await readErrorPayload(response);
+                const mapped = mapSearchError({
+                    status: response.status,
+                    message: firstMessageFromPayload(payload)
+                });
+                setSearchError(mapped.message, mapped.retryable ? () => goToNextSearchMatch() : null);
+                elements.searchResults.classList.remove('hidden');
+                return;
+            }
+            const match = await response.json();
+            navigateToSearchResult(match.chapterId, match.paragraphIndex || 0);
+        } catch (error) {
+            console.error('Next match lookup failed:', error);
+            const mapped = mapSearchError({ network: true });
+            setSearchError(mapped.message, mapped.retryable ? () => goToNextSearchMatch() : null);
+            elements.searchResults.classList.remove('hidden');
+        }
+    }
+
     function navigateToSearchResult(chapterId, paragraphIndex) {
         const query = (state.searchLastQuery || elements.searchInput.value || '').trim();
         navigateToChapterParagraph(chapterId, paragraphIndex, query);
@@ -5656,6 +5774,8 @@
         state.quizResult = null;
         state.searchChapterFilter = '';
         state.searchLastQuery = '';
+        state.searchResults = [];
+        state.searchNextCursor = null;
         clearSearchHighlightState();
         closeAnnotationMenu();
         closeReaderSettingsPanel();
@@ -8810,6 +8930,17 @@
                 performSearch(elements.searchInput.value);
             });
         }
+        if (elements.searchSpoilerSafe) {
+            elements.searchSpoilerSafe.addEventListener('change', (e) => {
+                state.searchSpoilerSafe = Boolean(e.target.checked);
+                performSearch(elements.searchInput.value);
+            });
+        }
+        if (elements.searchNextMatch) {
+            elements.searchNextMatch.addEventListener('click', () => {
+                void goToNextSearchMatch();
+            });
+        }
         if (elements.searchResultsRetry) {
             elements.searchResultsRetry.addEventListener('click', () => {
                 if (typeof state.searchRetryHandler === 'function') {
@@ -8871,6 +9002,10 @@
 
         // Search results click
         elements.searchResults.addEventListener('click', (e) => {
+            if (e.target.closest('.search-results-more')) {
+                void loadMoreSearchResults();
+                return;
+            }
             const resultItem = e.target.closest('.search-result-item');
             if (resultItem && resultItem.dataset.chapterId) {
                 const chapterId = resultItem.dataset.chapterId;
@@ -10,12 +10,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ChapterRecapController.class)
@@ -63,9 +67,9 @@ class ChapterRecapControllerCacheOnlyTest {
     void chat_cacheOnlyMode_allowsChatWhenEnabled() throws Exception {
         when(recapRolloutService.isBookAllowed("book-1")).thenReturn(true);
         when(chapterRecapChatService.chat("book-1", "Summarize this chapter", java.util.List.of(), 0))
-                .thenReturn("Summary so far.");
+                .thenReturn(Mono.just("Summary so far."));
 
-        mockMvc.perform(post("/api/recaps/book/book-1/chat")
+        MvcResult result = mockMvc.perform(post("/api/recaps/book/book-1/chat")
                         .contentType("application/json")
                         .content("""
                                 {
@@ -74,6 +78,10 @@ class ChapterRecapControllerCacheOnlyTest {
                                   "readerChapterIndex": 0
                                 }
                                 """))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.response", is("Summary so far.")));
     }
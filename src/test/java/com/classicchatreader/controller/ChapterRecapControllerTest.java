@@ -14,6 +14,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,9 +25,11 @@ import java.util.Optional;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ChapterRecapController.class)
@@ -214,9 +218,9 @@ class ChapterRecapControllerTest {
     void chat_returnsResponse() throws Exception {
         when(recapRolloutService.isBookAllowed("book-1")).thenReturn(true);
         when(chapterRecapChatService.chat("book-1", "What happened?", List.of(), 2))
-                .thenReturn("The chapter resolves the conflict.");
+                .thenReturn(Mono.just("The chapter resolves the conflict."));
 
-        mockMvc.perform(post("/api/recaps/book/book-1/chat")
+        MvcResult result = mockMvc.perform(post("/api/recaps/book/book-1/chat")
                         .contentType("application/json")
                         .content("""
                                 {
@@ -225,6 +229,10 @@ class ChapterRecapControllerTest {
                                   "readerChapterIndex": 2
                                 }
                                 """))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.bookId", is("book-1")))
                 .andExpect(jsonPath("$.response", is("The chapter resolves the conflict.")));
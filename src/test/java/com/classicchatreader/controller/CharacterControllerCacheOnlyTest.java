@@ -17,15 +17,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CharacterController.class)
@@ -82,9 +86,9 @@ class CharacterControllerCacheOnlyTest {
 
         when(characterService.getCharacter("character-1")).thenReturn(Optional.of(character));
         when(chatService.chat("character-1", "Hello there", java.util.List.of(), 0, 0))
-                .thenReturn("Hi there.");
+                .thenReturn(Mono.just("Hi there."));
 
-        mockMvc.perform(post("/api/characters/character-1/chat")
+        MvcResult result = mockMvc.perform(post("/api/characters/character-1/chat")
                         .contentType("application/json")
                         .content("""
                                 {
@@ -94,6 +98,10 @@ class CharacterControllerCacheOnlyTest {
                                   "readerParagraphIndex": 0
                                 }
                                 """))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.response", is("Hi there.")));
 
@@ -17,17 +17,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CharacterController.class)
@@ -111,7 +118,7 @@ class CharacterControllerTest {
 
         when(characterService.getCharacter("character-1")).thenReturn(Optional.of(character));
 
-        mockMvc.perform(post("/api/characters/character-1/chat")
+        MvcResult result = mockMvc.perform(post("/api/characters/character-1/chat")
                         .contentType("application/json")
                         .content("""
                                 {
@@ -121,6 +128,10 @@ class CharacterControllerTest {
                                   "readerParagraphIndex": 0
                                 }
                                 """))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.response", is("Chat is only available for main characters.")))
                 .andExpect(jsonPath("$.characterId", is("character-1")));
@@ -132,4 +143,38 @@ class CharacterControllerTest {
                 org.mockito.ArgumentMatchers.anyInt(),
                 org.mockito.ArgumentMatchers.anyInt());
     }
+
+    @Test
+    void chatStream_primaryCharacter_streamsTokensThenDone() throws Exception {
+        BookEntity book = new BookEntity("Book One", "Author One", "gutenberg");
+        book.setCharacterEnabled(true);
+
+        CharacterEntity character = new CharacterEntity();
+        character.setId("character-1");
+        character.setBook(book);
+        character.setCharacterType(CharacterType.PRIMARY);
+
+        when(characterService.getCharacter("character-1")).thenReturn(Optional.of(character));
+        when(chatService.chatStream("character-1", "Who are you?", List.of(), 0, 0))
+                .thenReturn(Flux.just("Good day,", " reader."));
+
+        MvcResult result = mockMvc.perform(post("/api/characters/character-1/chat/stream")
+                        .contentType("application/json")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content("""
+                                {
+                                  "message": "Who are you?",
+                                  "conversationHistory": [],
+                                  "readerChapterIndex": 0,
+                                  "readerParagraphIndex": 0
+                                }
+                                """))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "event:token\ndata:Good day,\n\nevent:token\ndata: reader.\n\nevent:done\ndata:\n\n"));
+    }
 }
@@ -4,19 +4,27 @@ import com.classicchatreader.model.GenerationJobStatusResponse;
 import com.classicchatreader.model.GenerationPipelineStatus;
 import com.classicchatreader.service.AccountAuthService;
 import com.classicchatreader.service.AccountMetricsService;
+import com.classicchatreader.service.AssetByteCache;
 import com.classicchatreader.service.ChapterQuizService;
 import com.classicchatreader.service.ChapterRecapChatService;
 import com.classicchatreader.service.ChapterRecapService;
 import com.classicchatreader.service.CharacterChatService;
 import com.classicchatreader.service.CharacterExtractionService;
 import com.classicchatreader.service.CharacterService;
+import com.classicchatreader.service.ChatMetricsService;
 import com.classicchatreader.service.ComfyUIService;
 import com.classicchatreader.service.GenerationJobStatusService;
+import com.classicchatreader.service.GenerationScheduler;
 import com.classicchatreader.service.IllustrationService;
 import com.classicchatreader.service.IllustrationStyleAnalysisService;
 import com.classicchatreader.service.QuizMetricsService;
 import com.classicchatreader.service.RecapMetricsService;
+import com.classicchatreader.service.SearchReindexService;
+import com.classicchatreader.service.SearchService;
+import com.classicchatreader.service.TtsPreSynthesisService;
 import com.classicchatreader.service.TtsService;
+import com.classicchatreader.service.llm.LlmResponseCache;
+import com.classicchatreader.service.llm.LlmRoutingStatus;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -84,6 +92,30 @@ class HealthControllerTest {
     @MockitoBean
     private RecapMetricsService recapMetricsService;
 
+    @MockitoBean
+    private SearchReindexService searchReindexService;
+
+    @MockitoBean
+    private SearchService searchService;
+
+    @MockitoBean
+    private GenerationScheduler generationScheduler;
+
+    @MockitoBean
+    private ChatMetricsService chatMetricsService;
+
+    @MockitoBean
+    private LlmResponseCache llmResponseCache;
+
+    @MockitoBean
+    private LlmRoutingStatus llmRoutingStatus;
+
+    @MockitoBean
+    private TtsPreSynthesisService ttsPreSynthesisService;
+
+    @MockitoBean
+    private AssetByteCache assetByteCache;
+
     @Test
     void health_returnsBasicStatus() throws Exception {
         mockMvc.perform(get("/health"))
@@ -116,6 +148,10 @@ class HealthControllerTest {
         when(accountAuthService.isAccountAuthEnabled()).thenReturn(true);
         when(accountAuthService.getRolloutMode()).thenReturn("internal");
         when(accountAuthService.isAccountRequired()).thenReturn(false);
+        when(searchReindexService.snapshot()).thenReturn(Map.of("reindexRunning", true, "paragraphsIndexed", 1200L));
+        when(searchService.cacheSnapshot()).thenReturn(Map.of("hits", 7L, "misses", 3L, "evictions", 1L));
+        when(generationScheduler.snapshot()).thenReturn(Map.of("running", true,
+                "backends", Map.of("comfyui", Map.of("concurrency", 2, "running", 1, "queued", 5))));
 
         mockMvc.perform(get("/health/details"))
                 .andExpect(status().isOk())
@@ -130,7 +166,13 @@ class HealthControllerTest {
                 .andExpect(jsonPath("$.quizMetrics.readFailed", is(0)))
                 .andExpect(jsonPath("$.recapMetrics.statusReadFailed", is(2)))
                 .andExpect(jsonPath("$.accountMetrics.claimSyncSucceeded", is(5)))
-                .andExpect(jsonPath("$.accountMetrics.rolloutMode", is("internal")));
+                .andExpect(jsonPath("$.accountMetrics.rolloutMode", is("internal")))
+                .andExpect(jsonPath("$.searchIndex.reindexRunning", is(true)))
+                .andExpect(jsonPath("$.searchIndex.paragraphsIndexed", is(1200)))
+                .andExpect(jsonPath("$.searchCache.hits", is(7)))
+                .andExpect(jsonPath("$.searchCache.evictions", is(1)))
+                .andExpect(jsonPath("$.generationScheduler.running", is(true)))
+                .andExpect(jsonPath("$.generationScheduler.backends.comfyui.queued", is(5)));
     }
 
     @Test
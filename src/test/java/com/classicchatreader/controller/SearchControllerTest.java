@@ -2,7 +2,13 @@ package com.classicchatreader.controller;
 
 import org.apache.lucene.queryparser.classic.ParseException;
 import com.classicchatreader.service.SearchService;
+import com.classicchatreader.service.SearchService.FacetCount;
+import com.classicchatreader.service.SearchService.ReadingPosition;
+import com.classicchatreader.service.SearchService.SearchFacets;
+import com.classicchatreader.service.SearchService.SearchPage;
 import com.classicchatreader.service.SearchService.SearchResult;
+import com.classicchatreader.service.SearchSuggestService;
+import com.classicchatreader.service.SearchSuggestService.Suggestion;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -11,6 +17,8 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.when;
@@ -26,12 +34,15 @@ class SearchControllerTest {
     @MockitoBean
     private SearchService searchService;
 
+    @MockitoBean
+    private SearchSuggestService searchSuggestService;
+
     @Test
     void search_returnsResults() throws Exception {
         List<SearchResult> results = List.of(
             new SearchResult("book", "moby-dick", null, null, "Moby Dick", null, 1.5f)
         );
-        when(searchService.search("Moby", null, null, 10)).thenReturn(results);
+        when(searchService.search("Moby", null, null, null, 10)).thenReturn(results);
 
         mockMvc.perform(get("/api/search").param("q", "Moby"))
             .andExpect(status().isOk())
@@ -46,7 +57,7 @@ class SearchControllerTest {
         List<SearchResult> results = List.of(
             new SearchResult("paragraph", "moby-dick", "ch1", 0, null, "Call me Ishmael...", 2.0f)
         );
-        when(searchService.search("Ishmael", null, null, 10)).thenReturn(results);
+        when(searchService.search("Ishmael", null, null, null, 10)).thenReturn(results);
 
         mockMvc.perform(get("/api/search").param("q", "Ishmael"))
             .andExpect(status().isOk())
@@ -58,7 +69,7 @@ class SearchControllerTest {
 
     @Test
     void search_noResults_returnsEmptyArray() throws Exception {
-        when(searchService.search("nonexistent", null, null, 10)).thenReturn(List.of());
+        when(searchService.search("nonexistent", null, null, null, 10)).thenReturn(List.of());
 
         mockMvc.perform(get("/api/search").param("q", "nonexistent"))
             .andExpect(status().isOk())
@@ -71,7 +82,7 @@ class SearchControllerTest {
             new SearchResult("book", "book1", null, null, "Book One", null, 1.0f),
             new SearchResult("book", "book2", null, null, "Book Two", null, 0.9f)
         );
-        when(searchService.search("Book", null, null, 2)).thenReturn(results);
+        when(searchService.search("Book", null, null, null, 2)).thenReturn(results);
 
         mockMvc.perform(get("/api/search").param("q", "Book").param("limit", "2"))
             .andExpect(status().isOk())
@@ -83,7 +94,7 @@ class SearchControllerTest {
         List<SearchResult> results = List.of(
             new SearchResult("paragraph", "moby-dick", "ch1", 0, null, "Call me Ishmael...", 2.0f)
         );
-        when(searchService.search("Ishmael", "moby-dick", null, 10)).thenReturn(results);
+        when(searchService.search("Ishmael", "moby-dick", null, null, 10)).thenReturn(results);
 
         mockMvc.perform(get("/api/search").param("q", "Ishmael").param("bookId", "moby-dick"))
             .andExpect(status().isOk())
@@ -96,7 +107,7 @@ class SearchControllerTest {
         List<SearchResult> results = List.of(
             new SearchResult("paragraph", "moby-dick", "ch2", 4, null, "...white whale...", 1.8f)
         );
-        when(searchService.search("whale", "moby-dick", "ch2", 10)).thenReturn(results);
+        when(searchService.search("whale", "moby-dick", "ch2", null, 10)).thenReturn(results);
 
         mockMvc.perform(get("/api/search")
                 .param("q", "whale")
@@ -115,7 +126,7 @@ class SearchControllerTest {
 
     @Test
     void search_serviceThrowsIOException_returns500() throws Exception {
-        when(searchService.search("error", null, null, 10)).thenThrow(new IOException("Index error"));
+        when(searchService.search("error", null, null, null, 10)).thenThrow(new IOException("Index error"));
 
         mockMvc.perform(get("/api/search").param("q", "error"))
             .andExpect(status().isInternalServerError());
@@ -123,7 +134,7 @@ class SearchControllerTest {
 
     @Test
     void search_serviceThrowsParseException_returns500() throws Exception {
-        when(searchService.search("bad:query", null, null, 10)).thenThrow(new ParseException("Invalid syntax"));
+        when(searchService.search("bad:query", null, null, null, 10)).thenThrow(new ParseException("Invalid syntax"));
 
         mockMvc.perform(get("/api/search").param("q", "bad:query"))
             .andExpect(status().isInternalServerError());
@@ -135,7 +146,7 @@ class SearchControllerTest {
             new SearchResult("book", "moby-dick", null, null, "Moby Dick", null, 2.0f),
             new SearchResult("paragraph", "moby-dick", "ch1", 0, null, "...Moby Dick...", 1.5f)
         );
-        when(searchService.search("Moby", null, null, 10)).thenReturn(results);
+        when(searchService.search("Moby", null, null, null, 10)).thenReturn(results);
 
         mockMvc.perform(get("/api/search").param("q", "Moby"))
             .andExpect(status().isOk())
@@ -143,4 +154,105 @@ class SearchControllerTest {
             .andExpect(jsonPath("$[0].type", is("book")))
             .andExpect(jsonPath("$[1].type", is("paragraph")));
     }
+
+    @Test
+    void searchPage_returnsResultsTotalsAndCursor() throws Exception {
+        SearchPage page = new SearchPage(List.of(
+            new SearchResult("paragraph", "moby-dick", "ch1", 0, null, "...white <mark>whale</mark>...", 1.8f)
+        ), 1200, false, "next-token", new SearchFacets(
+            Map.of("paragraph", 1200),
+            List.of(new FacetCount("moby-dick", "Moby Dick", 1200)),
+            List.of(new FacetCount("Herman Melville", "Herman Melville", 1200)),
+            List.of(new FacetCount("ch1", null, 40))));
+        when(searchService.searchPage("whale", "moby-dick", null, null, 20, null)).thenReturn(page);
+
+        mockMvc.perform(get("/api/search/page").param("q", "whale").param("bookId", "moby-dick"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.results", hasSize(1)))
+            .andExpect(jsonPath("$.results[0].chapterId", is("ch1")))
+            .andExpect(jsonPath("$.totalHits", is(1200)))
+            .andExpect(jsonPath("$.totalHitsExact", is(false)))
+            .andExpect(jsonPath("$.nextCursor", is("next-token")))
+            .andExpect(jsonPath("$.facets.types.paragraph", is(1200)))
+            .andExpect(jsonPath("$.facets.books[0].label", is("Moby Dick")))
+            .andExpect(jsonPath("$.facets.chapters[0].count", is(40)));
+    }
+
+    @Test
+    void searchPage_passesCursorAndCapsLimit() throws Exception {
+        when(searchService.searchPage("whale", null, null, null, 100, "abc"))
+            .thenReturn(new SearchPage(List.of(), 0, true, null, null));
+
+        mockMvc.perform(get("/api/search/page").param("q", "whale").param("cursor", "abc").param("limit", "5000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.results", hasSize(0)))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void searchPage_invalidCursor_returnsBadRequest() throws Exception {
+        when(searchService.searchPage("whale", null, null, null, 20, "garbage"))
+            .thenThrow(new IllegalArgumentException("Malformed search cursor"));
+
+        mockMvc.perform(get("/api/search/page").param("q", "whale").param("cursor", "garbage"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void search_withReadingPosition_passesUpperBound() throws Exception {
+        when(searchService.search("whale", "moby-dick", null, new ReadingPosition(3, 12), 10)).thenReturn(List.of(
+            new SearchResult("paragraph", "moby-dick", "ch3", 12, null, "...<mark>whale</mark>...", 1.2f)
+        ));
+
+        mockMvc.perform(get("/api/search")
+                .param("q", "whale")
+                .param("bookId", "moby-dick")
+                .param("upToChapter", "3")
+                .param("upToParagraph", "12"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].paragraphIndex", is(12)));
+    }
+
+    @Test
+    void search_paragraphBoundWithoutChapter_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/search").param("q", "whale").param("upToParagraph", "4"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void nextOccurrence_returnsMatchOrNoContent() throws Exception {
+        when(searchService.nextOccurrence("whale", "moby-dick", new ReadingPosition(1, 4), ReadingPosition.endOfChapter(5)))
+            .thenReturn(Optional.of(new SearchResult("paragraph", "moby-dick", "ch2", 0, null, "<mark>whale</mark>", 1.0f)));
+        when(searchService.nextOccurrence("whale", "moby-dick", new ReadingPosition(2, 0), null))
+            .thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/search/next")
+                .param("q", "whale")
+                .param("bookId", "moby-dick")
+                .param("afterChapter", "1")
+                .param("afterParagraph", "4")
+                .param("upToChapter", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.chapterId", is("ch2")));
+        mockMvc.perform(get("/api/search/next")
+                .param("q", "whale")
+                .param("bookId", "moby-dick")
+                .param("afterChapter", "2"))
+            .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void suggest_returnsCharacterSuggestionsWithinBound() throws Exception {
+        when(searchSuggestService.suggest("rask", "crime", ReadingPosition.endOfChapter(2), 8)).thenReturn(List.of(
+            new Suggestion("character", "c1", "crime", "Rodion Raskolnikov")
+        ));
+
+        mockMvc.perform(get("/api/search/suggest")
+                .param("q", "rask")
+                .param("bookId", "crime")
+                .param("upToChapter", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].kind", is("character")))
+            .andExpect(jsonPath("$[0].text", is("Rodion Raskolnikov")));
+    }
 }
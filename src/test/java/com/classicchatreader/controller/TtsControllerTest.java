@@ -3,20 +3,29 @@ package com.classicchatreader.controller;
 import com.classicchatreader.entity.BookEntity;
 import com.classicchatreader.entity.ChapterEntity;
 import com.classicchatreader.entity.ParagraphEntity;
+import com.classicchatreader.model.ChapterAudioIndex;
 import com.classicchatreader.repository.BookRepository;
 import com.classicchatreader.repository.ChapterRepository;
 import com.classicchatreader.repository.ParagraphRepository;
 import com.classicchatreader.service.AssetKeyService;
 import com.classicchatreader.service.CdnAssetService;
+import com.classicchatreader.service.ChapterAudioService;
 import com.classicchatreader.service.PublicSessionAuthService;
+import com.classicchatreader.service.TtsPreSynthesisService;
 import com.classicchatreader.service.TtsService;
 import com.classicchatreader.service.VoiceAnalysisService;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,14 +33,18 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(
@@ -69,6 +82,15 @@ class TtsControllerTest {
     @MockitoBean
     private PublicSessionAuthService sessionAuthService;
 
+    @MockitoBean
+    private TtsPreSynthesisService ttsPreSynthesisService;
+
+    @MockitoBean
+    private ChapterAudioService chapterAudioService;
+
+    @TempDir
+    Path audioDir;
+
     @Test
     void getStatus_cacheOnlyWithCdn_setsCachedAvailable() throws Exception {
         when(ttsService.isCacheOnly()).thenReturn(true);
@@ -147,7 +169,7 @@ class TtsControllerTest {
 
         when(bookRepository.findById("book-1")).thenReturn(Optional.of(book));
         when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
-        when(paragraphRepository.findByChapterIdOrderByParagraphIndex("chapter-1")).thenReturn(List.of(paragraph));
+        when(paragraphRepository.findByChapterIdAndParagraphIndex("chapter-1", 0)).thenReturn(Optional.of(paragraph));
         when(assetKeyService.buildBookKey(book)).thenReturn("book-one");
         when(ttsService.isCacheOnly()).thenReturn(true);
         when(cdnAssetService.isEnabled()).thenReturn(true);
@@ -176,16 +198,75 @@ class TtsControllerTest {
         byte[] cachedAudio = "cached-audio".getBytes();
 
         stubSpeakParagraphLookup(book, chapter, paragraph);
-        when(ttsService.resolveVoice("fable")).thenReturn("fable");
-        when(ttsService.isCacheOnly()).thenReturn(false);
-        when(ttsService.getCachedSpeechForParagraph("book-one", 2, 0, "fable")).thenReturn(cachedAudio);
+        stubCachedAudio(cachedAudio);
 
         mockMvc.perform(get("/api/tts/speak/book-1/chapter-1/0").param("voice", "fable"))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", "audio/mpeg"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("ETag", "\"cached-etag\""))
                 .andExpect(content().bytes(cachedAudio));
 
         verify(ttsService, never()).generateSpeechForParagraph(anyString(), anyInt(), anyInt(), anyString(), any());
+        verify(ttsPreSynthesisService, never()).scheduleLookahead(any(), any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void speakParagraph_cacheHitWithRange_returnsPartialContent() throws Exception {
+        BookEntity book = createTtsEnabledBook();
+        ChapterEntity chapter = createChapter(book);
+        ParagraphEntity paragraph = createParagraph("<p>Hello from paragraph.</p>");
+
+        stubSpeakParagraphLookup(book, chapter, paragraph);
+        stubCachedAudio("cached-audio".getBytes());
+
+        mockMvc.perform(get("/api/tts/speak/book-1/chapter-1/0")
+                        .param("voice", "fable")
+                        .header("Range", "bytes=7-11"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 7-11/12"))
+                .andExpect(content().string("audio"));
+    }
+
+    @Test
+    void speakParagraph_seekWithinCachedAudio_doesNotQueueLookahead() throws Exception {
+        BookEntity book = createTtsEnabledBook();
+        ChapterEntity chapter = createChapter(book);
+        ParagraphEntity paragraph = createParagraph("<p>Hello from paragraph.</p>");
+
+        stubSpeakParagraphLookup(book, chapter, paragraph);
+        stubCachedAudio("cached-audio".getBytes());
+
+        mockMvc.perform(get("/api/tts/speak/book-1/chapter-1/0")
+                        .param("voice", "fable")
+                        .header("X-API-Key", "test-api-key")
+                        .header("Range", "bytes=7-11"))
+                .andExpect(status().isPartialContent());
+        verify(ttsPreSynthesisService, never()).scheduleLookahead(any(), any(), anyInt(), anyInt(), any());
+
+        mockMvc.perform(get("/api/tts/speak/book-1/chapter-1/0")
+                        .param("voice", "fable")
+                        .header("X-API-Key", "test-api-key")
+                        .header("Range", "bytes=0-"))
+                .andExpect(status().isPartialContent());
+        verify(ttsPreSynthesisService).scheduleLookahead(eq(book), eq(chapter), eq(0), eq(1), any());
+        verify(paragraphRepository, never()).findByChapterIdOrderByParagraphIndex(anyString());
+    }
+
+    @Test
+    void speakParagraph_cacheHitWithMatchingETag_returnsNotModified() throws Exception {
+        BookEntity book = createTtsEnabledBook();
+        ChapterEntity chapter = createChapter(book);
+        ParagraphEntity paragraph = createParagraph("<p>Hello from paragraph.</p>");
+
+        stubSpeakParagraphLookup(book, chapter, paragraph);
+        stubCachedAudio("cached-audio".getBytes());
+
+        mockMvc.perform(get("/api/tts/speak/book-1/chapter-1/0")
+                        .param("voice", "fable")
+                        .header("If-None-Match", "\"cached-etag\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
     }
 
     @Test
@@ -219,8 +300,8 @@ class TtsControllerTest {
         when(ttsService.isCacheOnly()).thenReturn(false);
         when(ttsService.getCachedSpeechForParagraph("book-one", 2, 0, "fable")).thenReturn(null);
         when(ttsService.isConfigured()).thenReturn(true);
-        when(ttsService.generateSpeechForParagraph(anyString(), anyInt(), anyInt(), anyString(), any()))
-                .thenReturn(generatedAudio);
+        when(ttsService.generateSpeechForParagraph(eq("book-one"), eq(2), eq(0), eq("Hello from paragraph."), any()))
+                .thenReturn(new ByteArrayResource(generatedAudio));
 
         mockMvc.perform(get("/api/tts/speak/book-1/chapter-1/0")
                         .param("voice", "fable")
@@ -228,6 +309,181 @@ class TtsControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", "audio/mpeg"))
                 .andExpect(content().bytes(generatedAudio));
+
+        verify(ttsPreSynthesisService).scheduleLookahead(eq(book), eq(chapter), eq(0), eq(1), any());
+    }
+
+    @Test
+    void pregenerateChapter_withApiKey_queuesUncachedParagraphsInBooksVoice() throws Exception {
+        BookEntity book = createTtsEnabledBook();
+        book.setTtsVoice("onyx");
+        ChapterEntity chapter = createChapter(book);
+
+        when(bookRepository.findById("book-1")).thenReturn(Optional.of(book));
+        when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
+        when(ttsService.isCacheOnly()).thenReturn(false);
+        when(ttsService.isConfigured()).thenReturn(true);
+        when(ttsService.resolveVoice("onyx")).thenReturn("onyx");
+        when(ttsPreSynthesisService.pregenerateChapter(eq(book), eq(chapter), any()))
+                .thenReturn(new TtsPreSynthesisService.Pregeneration(12, 4, 8));
+
+        mockMvc.perform(post("/api/tts/pregenerate/book-1/chapter-1")
+                        .header("X-API-Key", "test-api-key"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.voice", is("onyx")))
+                .andExpect(jsonPath("$.paragraphs", is(12)))
+                .andExpect(jsonPath("$.cached", is(4)))
+                .andExpect(jsonPath("$.queued", is(8)));
+    }
+
+    @Test
+    void pregenerateChapter_publicModeWithoutAuth_returnsUnauthorized() throws Exception {
+        BookEntity book = createTtsEnabledBook();
+        ChapterEntity chapter = createChapter(book);
+
+        when(bookRepository.findById("book-1")).thenReturn(Optional.of(book));
+        when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
+        when(sessionAuthService.isAuthenticated(any())).thenReturn(false);
+
+        mockMvc.perform(post("/api/tts/pregenerate/book-1/chapter-1"))
+                .andExpect(status().isUnauthorized());
+
+        verify(ttsPreSynthesisService, never()).pregenerateChapter(any(), any(), any());
+    }
+
+    @Test
+    void getChapterAudioIndex_publicModeWithoutAuth_indexesCachedAudioOnly() throws Exception {
+        BookEntity book = createTtsEnabledBook();
+        ChapterEntity chapter = createChapter(book);
+        ChapterAudioIndex index = new ChapterAudioIndex("chapter-1", "fable", 834, 52,
+                List.of(new ChapterAudioIndex.Segment(0, 0, 834, 0, 52)), List.of(1), List.of());
+
+        when(bookRepository.findById("book-1")).thenReturn(Optional.of(book));
+        when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
+        when(sessionAuthService.isAuthenticated(any())).thenReturn(false);
+        when(chapterAudioService.assemble(eq(book), eq(chapter), eq(0), isNull(), any(), eq(false)))
+                .thenReturn(new ChapterAudioService.ChapterAudio(index, List.of()));
+
+        mockMvc.perform(get("/api/tts/chapter/book-1/chapter-1/index").param("voice", "fable"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBytes", is(834)))
+                .andExpect(jsonPath("$.paragraphs[0].paragraphIndex", is(0)))
+                .andExpect(jsonPath("$.paragraphs[0].durationMs", is(52)))
+                .andExpect(jsonPath("$.missingParagraphs[0]", is(1)));
+    }
+
+    @Test
+    void streamChapterAudio_streamsJoinedParagraphAudio() throws Exception {
+        BookEntity book = createTtsEnabledBook();
+        ChapterEntity chapter = createChapter(book);
+        Path first = Files.write(audioDir.resolve("0.mp3"), "ID3-first".getBytes());
+        Path second = Files.write(audioDir.resolve("1.mp3"), "second".getBytes());
+        ChapterAudioIndex index = new ChapterAudioIndex("chapter-1", "fable", 11, 0, List.of(), List.of(), List.of());
+        ChapterAudioService.ChapterAudio audio = new ChapterAudioService.ChapterAudio(index, List.of(
+                new ChapterAudioService.Part(first, 4, 5, "\"first\""),
+                new ChapterAudioService.Part(second, 0, 6, "\"second\"")));
+
+        when(bookRepository.findById("book-1")).thenReturn(Optional.of(book));
+        when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
+        when(chapterAudioService.assemble(eq(book), eq(chapter), eq(0), eq(2), any(), eq(true))).thenReturn(audio);
+
+        MvcResult result = mockMvc.perform(get("/api/tts/chapter/book-1/chapter-1")
+                        .param("to", "2")
+                        .header("X-API-Key", "test-api-key"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "audio/mpeg"))
+                .andExpect(header().string("Content-Length", "11"))
+                .andExpect(content().string("firstsecond"));
+    }
+
+    @Test
+    void streamChapterAudio_withRange_streamsThatSliceAsPartialContent() throws Exception {
+        BookEntity book = createTtsEnabledBook();
+        ChapterEntity chapter = createChapter(book);
+        Path first = Files.write(audioDir.resolve("0.mp3"), "ID3-first".getBytes());
+        Path second = Files.write(audioDir.resolve("1.mp3"), "second".getBytes());
+        ChapterAudioIndex index = new ChapterAudioIndex("chapter-1", "fable", 11, 0, List.of(), List.of(), List.of());
+        ChapterAudioService.ChapterAudio audio = new ChapterAudioService.ChapterAudio(index, List.of(
+                new ChapterAudioService.Part(first, 4, 5, "\"first\""),
+                new ChapterAudioService.Part(second, 0, 6, "\"second\"")));
+
+        when(bookRepository.findById("book-1")).thenReturn(Optional.of(book));
+        when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
+        when(chapterAudioService.assemble(eq(book), eq(chapter), eq(0), isNull(), any(), eq(true))).thenReturn(audio);
+
+        MvcResult result = mockMvc.perform(get("/api/tts/chapter/book-1/chapter-1")
+                        .header("Range", "bytes=3-7")
+                        .header("X-API-Key", "test-api-key"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 3-7/11"))
+                .andExpect(header().string("Content-Length", "5"))
+                .andExpect(content().string("stsec"));
+    }
+
+    @Test
+    void streamChapterAudio_rangeForAnotherLayout_getsTheWholeStream() throws Exception {
+        BookEntity book = createTtsEnabledBook();
+        ChapterEntity chapter = createChapter(book);
+        Path first = Files.write(audioDir.resolve("0.mp3"), "ID3-first".getBytes());
+        Path second = Files.write(audioDir.resolve("1.mp3"), "second".getBytes());
+        ChapterAudioIndex index = new ChapterAudioIndex("chapter-1", "fable", 11, 0, List.of(), List.of(), List.of());
+        ChapterAudioService.ChapterAudio audio = new ChapterAudioService.ChapterAudio(index, List.of(
+                new ChapterAudioService.Part(first, 4, 5, "\"first\""),
+                new ChapterAudioService.Part(second, 0, 6, "\"second\"")));
+        String eTag = audio.eTag(0, null);
+
+        when(bookRepository.findById("book-1")).thenReturn(Optional.of(book));
+        when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
+        when(chapterAudioService.assemble(eq(book), eq(chapter), eq(0), isNull(), any(), eq(true))).thenReturn(audio);
+
+        MvcResult matching = mockMvc.perform(get("/api/tts/chapter/book-1/chapter-1")
+                        .header("Range", "bytes=3-7")
+                        .header("If-Range", eTag)
+                        .header("X-API-Key", "test-api-key"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(matching))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("ETag", eTag));
+
+        MvcResult stale = mockMvc.perform(get("/api/tts/chapter/book-1/chapter-1")
+                        .header("Range", "bytes=3-7")
+                        .header("If-Range", "\"older-layout\"")
+                        .header("X-API-Key", "test-api-key"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(stale))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string("firstsecond"));
+    }
+
+    @Test
+    void streamChapterAudio_rangePastTheEnd_isNotSatisfiable() throws Exception {
+        BookEntity book = createTtsEnabledBook();
+        ChapterEntity chapter = createChapter(book);
+        Path first = Files.write(audioDir.resolve("0.mp3"), "first".getBytes());
+        ChapterAudioIndex index = new ChapterAudioIndex("chapter-1", "fable", 5, 0, List.of(), List.of(), List.of());
+
+        when(bookRepository.findById("book-1")).thenReturn(Optional.of(book));
+        when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
+        when(chapterAudioService.assemble(eq(book), eq(chapter), eq(0), isNull(), any(), eq(true)))
+                .thenReturn(new ChapterAudioService.ChapterAudio(index,
+                        List.of(new ChapterAudioService.Part(first, 0, 5, "\"first\""))));
+
+        mockMvc.perform(get("/api/tts/chapter/book-1/chapter-1")
+                        .header("Range", "bytes=9-")
+                        .header("X-API-Key", "test-api-key"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */5"));
     }
 
     private BookEntity createTtsEnabledBook() {
@@ -250,10 +506,20 @@ class TtsControllerTest {
         return paragraph;
     }
 
+    private void stubCachedAudio(byte[] audio) throws IOException {
+        Path file = audioDir.resolve("0.mp3");
+        Files.write(file, audio);
+        when(ttsService.resolveVoice("fable")).thenReturn("fable");
+        when(ttsService.isCacheOnly()).thenReturn(false);
+        when(ttsService.getCachedSpeechForParagraph("book-one", 2, 0, "fable"))
+                .thenReturn(new TtsService.CachedAudio(file, audio.length, "\"cached-etag\""));
+    }
+
     private void stubSpeakParagraphLookup(BookEntity book, ChapterEntity chapter, ParagraphEntity paragraph) {
         when(bookRepository.findById("book-1")).thenReturn(Optional.of(book));
         when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
-        when(paragraphRepository.findByChapterIdOrderByParagraphIndex("chapter-1")).thenReturn(List.of(paragraph));
+        when(paragraphRepository.findByChapterIdAndParagraphIndex("chapter-1", 0)).thenReturn(Optional.of(paragraph));
+        when(paragraphRepository.countByChapterId("chapter-1")).thenReturn(1);
         when(assetKeyService.buildBookKey(book)).thenReturn("book-one");
     }
 }
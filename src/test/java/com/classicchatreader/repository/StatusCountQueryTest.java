@@ -0,0 +1,70 @@
+package com.classicchatreader.repository;
+
+import com.classicchatreader.entity.BookEntity;
+import com.classicchatreader.entity.ChapterEntity;
+import com.classicchatreader.entity.ChapterRecapEntity;
+import com.classicchatreader.entity.ChapterRecapStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class StatusCountQueryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private ChapterRecapRepository chapterRecapRepository;
+
+    @Test
+    void countGroupedByStatusForBook_countsEachStatusAndScheduledRetriesInOneQuery() {
+        BookEntity book = persistBook("grouped-book");
+        BookEntity otherBook = persistBook("other-book");
+        LocalDateTime now = LocalDateTime.now();
+        persistRecap(book, 0, ChapterRecapStatus.PENDING, now.plusMinutes(5));
+        persistRecap(book, 1, ChapterRecapStatus.PENDING, null);
+        persistRecap(book, 2, ChapterRecapStatus.COMPLETED, null);
+        persistRecap(book, 3, ChapterRecapStatus.FAILED, null);
+        persistRecap(otherBook, 0, ChapterRecapStatus.PENDING, null);
+
+        List<StatusCount<ChapterRecapStatus>> rows = chapterRecapRepository.countGroupedByStatusForBook(book.getId(), now);
+
+        Map<ChapterRecapStatus, StatusCount<ChapterRecapStatus>> byStatus = new HashMap<>();
+        rows.forEach(row -> byStatus.put(row.getStatus(), row));
+        assertEquals(3, rows.size());
+        assertEquals(2L, byStatus.get(ChapterRecapStatus.PENDING).getTotal());
+        assertEquals(1L, byStatus.get(ChapterRecapStatus.PENDING).getRetryScheduled());
+        assertEquals(1L, byStatus.get(ChapterRecapStatus.FAILED).getTotal());
+        assertEquals(1L, byStatus.get(ChapterRecapStatus.COMPLETED).getTotal());
+        assertEquals(3L, chapterRecapRepository.countGroupedByStatus(now).stream()
+                .filter(row -> row.getStatus() == ChapterRecapStatus.PENDING)
+                .mapToLong(StatusCount::getTotal)
+                .sum());
+    }
+
+    private BookEntity persistBook(String sourceId) {
+        BookEntity book = new BookEntity("Test Title", "Test Author", "manual");
+        book.setSourceId(sourceId);
+        return bookRepository.save(book);
+    }
+
+    private void persistRecap(BookEntity book, int index, ChapterRecapStatus status, LocalDateTime nextRetryAt) {
+        ChapterEntity chapter = new ChapterEntity(index, "Chapter " + index);
+        chapter.setBook(book);
+        ChapterRecapEntity recap = new ChapterRecapEntity(chapterRepository.save(chapter));
+        recap.setStatus(status);
+        recap.setNextRetryAt(nextRetryAt);
+        chapterRecapRepository.save(recap);
+    }
+}
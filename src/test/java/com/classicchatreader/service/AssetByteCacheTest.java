@@ -0,0 +1,75 @@
+package com.classicchatreader.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssetByteCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void read_servesRepeatReadsFromMemoryUntilFileChanges() throws IOException {
+        AssetByteCache cache = new AssetByteCache(1 << 20, 1 << 16, true);
+        Path cover = Files.write(dir.resolve("cover.png"), "cover-v1".getBytes());
+
+        assertArrayEquals("cover-v1".getBytes(), cache.read(cover).getContentAsByteArray());
+        Resource second = cache.read(cover);
+        try (InputStream in = second.getInputStream()) {
+            in.skipNBytes(3);
+        }
+        assertEquals(8L, second.contentLength());
+        assertArrayEquals("cover-v1".getBytes(), second.getContentAsByteArray());
+        assertArrayEquals("cover-v1".getBytes(), cache.read(cover).getContentAsByteArray());
+
+        Files.write(cover, "cover-v2!".getBytes());
+        Files.setLastModifiedTime(cover, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        assertArrayEquals("cover-v2!".getBytes(), cache.read(cover).getContentAsByteArray());
+
+        Map<String, Object> snapshot = cache.snapshot();
+        assertEquals(2L, snapshot.get("hits"));
+        assertEquals(2L, snapshot.get("misses"));
+        assertEquals(1L, snapshot.get("stale"));
+        assertEquals(0.5, snapshot.get("hitRate"));
+        assertTrue((Long) snapshot.get("residentBytes") >= 9);
+    }
+
+    @Test
+    void read_deletedFile_returnsNullAndDropsEntry() throws IOException {
+        AssetByteCache cache = new AssetByteCache(1 << 20, 1 << 16, false);
+        Path portrait = Files.write(dir.resolve("portrait.png"), "portrait".getBytes());
+        cache.read(portrait);
+
+        Files.delete(portrait);
+
+        assertNull(cache.read(portrait));
+        assertEquals(0L, cache.snapshot().get("entries"));
+    }
+
+    @Test
+    void read_keepsTotalBytesWithinBudgetAndSkipsOversizedFiles() throws IOException {
+        AssetByteCache cache = new AssetByteCache(4_000, 2_000, false);
+        for (int i = 0; i < 5; i++) {
+            cache.read(Files.write(dir.resolve(i + ".png"), new byte[1_000]));
+        }
+        cache.read(Files.write(dir.resolve("large.png"), new byte[3_000]));
+
+        Map<String, Object> snapshot = cache.snapshot();
+        assertTrue((Long) snapshot.get("residentBytes") <= 4_000);
+        assertTrue((Long) snapshot.get("evictions") >= 1);
+        assertEquals(1L, snapshot.get("tooLarge"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.entity.BookEntity;
+import com.classicchatreader.entity.ChapterEntity;
+import com.classicchatreader.entity.ParagraphEntity;
+import com.classicchatreader.model.ChapterAudioIndex;
+import com.classicchatreader.model.VoiceSettings;
+import com.classicchatreader.repository.ParagraphRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChapterAudioServiceTest {
+
+    private static final int FRAME = Mp3FramesTest.FRAME_LENGTH;
+
+    @Mock
+    private TtsService ttsService;
+
+    @Mock
+    private ParagraphRepository paragraphRepository;
+
+    @Mock
+    private AssetKeyService assetKeyService;
+
+    @Mock
+    private TtsPreSynthesisService ttsPreSynthesisService;
+
+    @TempDir
+    Path audioDir;
+
+    private ChapterAudioService service;
+    private BookEntity book;
+    private ChapterEntity chapter;
+
+    @BeforeEach
+    void setUp() {
+        service = new ChapterAudioService(ttsService, paragraphRepository, assetKeyService, ttsPreSynthesisService);
+        book = new BookEntity("Book One", "Author One", "gutenberg");
+        book.setId("book-1");
+        chapter = new ChapterEntity(2, "Chapter Three");
+        chapter.setId("chapter-1");
+        chapter.setBook(book);
+
+        when(paragraphRepository.findByChapterIdOrderByParagraphIndex("chapter-1"))
+                .thenReturn(List.of(paragraph("<p>One.</p>"), paragraph("<p>Two.</p>"), paragraph("<p>Three.</p>")));
+        when(assetKeyService.buildBookKey(book)).thenReturn("book-one");
+        when(ttsService.resolveVoice("fable")).thenReturn("fable");
+    }
+
+    @Test
+    void assemble_joinsAudioFramesAndIndexesEachParagraph() throws IOException {
+        byte[] first = Mp3FramesTest.mp3(2, true, true);
+        byte[] third = Mp3FramesTest.mp3(1, false, false);
+        stubCached(0, first);
+        when(ttsService.getCachedSpeechForParagraph("book-one", 2, 1, "fable")).thenReturn(null);
+        stubCached(2, third);
+
+        ChapterAudioService.ChapterAudio audio = service.assemble(book, chapter, 0, null,
+                new VoiceSettings("fable", 1.0, null, null), false);
+
+        ChapterAudioIndex index = audio.index();
+        assertEquals(3L * FRAME, index.totalBytes());
+        assertEquals(List.of(1), index.missingParagraphs());
+        assertEquals(List.of(
+                new ChapterAudioIndex.Segment(0, 0, 2L * FRAME, 0, 52),
+                new ChapterAudioIndex.Segment(2, 2L * FRAME, FRAME, 52, 26)
+        ), index.paragraphs());
+        assertEquals(78, index.durationMs());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        audio.writeTo(out);
+        int firstAudio = 15 + FRAME;
+        byte[] expected = new byte[3 * FRAME];
+        System.arraycopy(first, firstAudio, expected, 0, 2 * FRAME);
+        System.arraycopy(third, 0, expected, 2 * FRAME, FRAME);
+        assertArrayEquals(expected, out.toByteArray());
+        verify(ttsService, never()).generateSpeechForParagraph(anyString(), anyInt(), anyInt(), anyString(), any());
+    }
+
+    @Test
+    void assemble_whenAllowed_queuesMissingParagraphsAndStopsBeforeTheFirst() throws IOException {
+        stubCached(0, Mp3FramesTest.mp3(1, false, false));
+        when(ttsService.getCachedSpeechForParagraph("book-one", 2, 1, "fable")).thenReturn(null);
+        stubCached(2, Mp3FramesTest.mp3(1, false, false));
+        when(ttsService.isConfigured()).thenReturn(true);
+        when(ttsService.isCacheOnly()).thenReturn(false);
+
+        ChapterAudioService.ChapterAudio audio = service.assemble(book, chapter, 0, null,
+                new VoiceSettings("fable", 1.0, null, null), true);
+
+        assertEquals(List.of(new ChapterAudioIndex.Segment(0, 0, FRAME, 0, 26)), audio.index().paragraphs());
+        assertEquals(List.of(1, 2), audio.index().missingParagraphs());
+        assertEquals(List.of(1), audio.index().queuedParagraphs());
+        verify(ttsPreSynthesisService).queueParagraphs(eq(book), eq(chapter), eq(List.of(1)), any());
+        verify(ttsService, never()).generateSpeechForParagraph(anyString(), anyInt(), anyInt(), anyString(), any());
+    }
+
+    private void stubCached(int paragraphIndex, byte[] data) throws IOException {
+        Path file = audioDir.resolve(paragraphIndex + ".mp3");
+        Files.write(file, data);
+        when(ttsService.getCachedSpeechForParagraph("book-one", 2, paragraphIndex, "fable"))
+                .thenReturn(new TtsService.CachedAudio(file, data.length, "\"etag-" + paragraphIndex + "\""));
+    }
+
+    private static ParagraphEntity paragraph(String content) {
+        ParagraphEntity paragraph = new ParagraphEntity();
+        paragraph.setContent(content);
+        return paragraph;
+    }
+}
@@ -59,6 +59,9 @@ class ChapterQuizServiceTest {
     @Mock
     private QuizMetricsService quizMetricsService;
 
+    @Mock
+    private GenerationScheduler generationScheduler;
+
     private ChapterQuizService chapterQuizService;
 
     @BeforeEach
@@ -70,6 +73,7 @@ class ChapterQuizServiceTest {
                 reasoningProvider,
                 quizProgressService,
                 quizMetricsService,
+                generationScheduler,
                 new ObjectMapper()
         );
         ReflectionTestUtils.setField(chapterQuizService, "maxContextChars", 7000);
@@ -177,6 +181,8 @@ class ChapterQuizServiceTest {
         quiz.setStatus(ChapterQuizStatus.FAILED);
 
         when(chapterQuizRepository.findByChapterId("chapter-1")).thenReturn(Optional.of(quiz));
+        when(generationScheduler.enqueue(eq(GenerationScheduler.Lane.QUIZ), eq("chapter-1"), eq("book-1"), any()))
+                .thenReturn(true);
 
         chapterQuizService.requestChapterQuiz("chapter-1");
 
@@ -186,11 +192,26 @@ class ChapterQuizServiceTest {
         verify(quizMetricsService).recordGenerationRequested();
     }
 
+    @Test
+    void requestChapterQuiz_withBatchPriority_queuesAtThatPriority() {
+        ChapterEntity chapter = createChapter("book-1", "chapter-1", 1, "Chapter 1");
+
+        when(chapterQuizRepository.findByChapterId("chapter-1")).thenReturn(Optional.empty());
+        when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
+        when(generationScheduler.enqueue(GenerationScheduler.Lane.QUIZ, "chapter-1", "book-1",
+                GenerationScheduler.Priority.BATCH)).thenReturn(true);
+
+        chapterQuizService.requestChapterQuiz("chapter-1", GenerationScheduler.Priority.BATCH);
+
+        verify(generationScheduler).enqueue(GenerationScheduler.Lane.QUIZ, "chapter-1", "book-1",
+                GenerationScheduler.Priority.BATCH);
+    }
+
     @Test
     void processChapterQuiz_withAvailableProvider_persistsLlmGeneratedPayload() {
         ReflectionTestUtils.setField(chapterQuizService, "maxContextChars", 4000);
         when(reasoningProvider.isAvailable()).thenReturn(true);
-        when(reasoningProvider.getProviderName()).thenReturn("xai");
+        when(reasoningProvider.getRespondingProviderName()).thenReturn("xai");
         when(reasoningProvider.generate(any(), any())).thenReturn("""
                 {
                   "questions": [
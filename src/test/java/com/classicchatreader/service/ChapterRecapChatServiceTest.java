@@ -6,6 +6,7 @@ import com.classicchatreader.model.ChatMessage;
 import com.classicchatreader.repository.ChapterRepository;
 import com.classicchatreader.repository.ParagraphRepository;
 import com.classicchatreader.service.llm.LlmProvider;
+import com.classicchatreader.service.llm.LlmProviderException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,8 +14,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -37,11 +41,14 @@ class ChapterRecapChatServiceTest {
     @Mock
     private ParagraphRepository paragraphRepository;
 
+    private final ChatMetricsService chatMetricsService = new ChatMetricsService();
+
     private ChapterRecapChatService chapterRecapChatService;
 
     @BeforeEach
     void setUp() {
-        chapterRecapChatService = new ChapterRecapChatService(llmProvider, chapterRepository, paragraphRepository);
+        chapterRecapChatService = new ChapterRecapChatService(
+                llmProvider, chapterRepository, paragraphRepository, chatMetricsService);
         ReflectionTestUtils.setField(chapterRecapChatService, "maxContextChapters", 3);
         ReflectionTestUtils.setField(chapterRecapChatService, "maxContextMessages", 8);
         ReflectionTestUtils.setField(chapterRecapChatService, "maxSourceChars", 12000);
@@ -52,10 +59,10 @@ class ChapterRecapChatServiceTest {
         ChapterEntity chapter = new ChapterEntity(0, "Chapter 1");
         when(chapterRepository.findByBookIdOrderByChapterIndex("book-1")).thenReturn(List.of(chapter));
 
-        String response = chapterRecapChatService.chat("book-1", "What happens later?", List.of(), 5);
+        String response = chapterRecapChatService.chat("book-1", "What happens later?", List.of(), 5).block();
 
         assertTrue(response.contains("only discuss chapters"));
-        verify(llmProvider, never()).generate(anyString(), any());
+        verify(llmProvider, never()).generateAsync(anyString(), any());
     }
 
     @Test
@@ -65,12 +72,12 @@ class ChapterRecapChatServiceTest {
         ParagraphEntity paragraph = new ParagraphEntity(0, "Call me Ishmael. Some years ago...");
         when(chapterRepository.findByBookIdOrderByChapterIndex("book-1")).thenReturn(List.of(chapter));
         when(paragraphRepository.findByChapterIdOrderByParagraphIndex("chapter-1")).thenReturn(List.of(paragraph));
-        when(llmProvider.generate(anyString(), any())).thenReturn("Assistant: A shipboard narrative begins.");
+        when(llmProvider.generateAsync(anyString(), any())).thenReturn(Mono.just("Assistant: A shipboard narrative begins."));
 
-        String response = chapterRecapChatService.chat("book-1", "What happened?", List.of(), 0);
+        String response = chapterRecapChatService.chat("book-1", "What happened?", List.of(), 0).block();
 
         assertEquals("A shipboard narrative begins.", response);
-        verify(llmProvider).generate(anyString(), any());
+        verify(llmProvider).generateAsync(anyString(), any());
     }
 
     @Test
@@ -80,23 +87,68 @@ class ChapterRecapChatServiceTest {
         ParagraphEntity paragraph = new ParagraphEntity(0, "He looked severe and distant at dinner.");
         when(chapterRepository.findByBookIdOrderByChapterIndex("book-1")).thenReturn(List.of(chapter));
         when(paragraphRepository.findByChapterIdOrderByParagraphIndex("chapter-1")).thenReturn(List.of(paragraph));
-        when(llmProvider.generate(anyString(), any())).thenReturn("Assistant: He appears severe.");
+        when(llmProvider.generateAsync(anyString(), any())).thenReturn(Mono.just("Assistant: He appears severe."));
 
         List<ChatMessage> history = List.of(
                 new ChatMessage("assistant", "He dies later in the story.", 1L),
                 new ChatMessage("user", "What did we learn about him so far?", 2L)
         );
 
-        chapterRecapChatService.chat("book-1", "Any clues?", history, 0);
+        chapterRecapChatService.chat("book-1", "Any clues?", history, 0).block();
 
         ArgumentCaptor<String> promptCaptor = ArgumentCaptor.forClass(String.class);
-        verify(llmProvider).generate(promptCaptor.capture(), any());
+        verify(llmProvider).generateAsync(promptCaptor.capture(), any());
         String prompt = promptCaptor.getValue();
 
         assertTrue(prompt.contains("Reader: What did we learn about him so far?"));
         assertFalse(prompt.contains("He dies later in the story."));
     }
 
+    @Test
+    void chat_providerFailure_resolvesToFallbackReply() {
+        stubSingleChapter();
+        when(llmProvider.generateAsync(anyString(), any()))
+                .thenReturn(Mono.error(new LlmProviderException("xAI API error: 429", 429, null)));
+
+        String response = chapterRecapChatService.chat("book-1", "What happened?", List.of(), 0).block();
+
+        assertEquals("I can't answer right now, but you can continue reading and ask again.", response);
+        verify(llmProvider, never()).generate(anyString(), any());
+    }
+
+    @Test
+    void chatStream_stripsPrefixSplitAcrossChunksAndRecordsFirstToken() {
+        stubSingleChapter();
+        when(llmProvider.generateStream(anyString(), any()))
+                .thenReturn(Flux.just(" Assis", "tant:", " A shipboard", " narrative begins."));
+
+        List<String> tokens = chapterRecapChatService.chatStream("book-1", "What happened?", List.of(), 0)
+                .collectList()
+                .block();
+
+        assertEquals(List.of("A shipboard", " narrative begins."), tokens);
+        Map<?, ?> recap = (Map<?, ?>) chatMetricsService.snapshot().get("recap");
+        assertEquals(1L, recap.get("streamsStarted"));
+        assertEquals(1L, recap.get("firstTokenCount"));
+        assertEquals(0L, recap.get("streamsFailed"));
+    }
+
+    @Test
+    void chatStream_failureBeforeFirstToken_emitsFallbackReply() {
+        stubSingleChapter();
+        when(llmProvider.generateStream(anyString(), any()))
+                .thenReturn(Flux.error(new IllegalStateException("connection reset")));
+
+        List<String> tokens = chapterRecapChatService.chatStream("book-1", "What happened?", List.of(), 0)
+                .collectList()
+                .block();
+
+        assertEquals(List.of("I can't answer right now, but you can continue reading and ask again."), tokens);
+        Map<?, ?> recap = (Map<?, ?>) chatMetricsService.snapshot().get("recap");
+        assertEquals(1L, recap.get("streamsFailed"));
+        assertEquals(0L, recap.get("firstTokenCount"));
+    }
+
     @Test
     void isChatProviderAvailable_delegatesToProviderAvailability() {
         when(llmProvider.isAvailable()).thenReturn(true);
@@ -104,4 +156,12 @@ class ChapterRecapChatServiceTest {
         assertTrue(chapterRecapChatService.isChatProviderAvailable());
         verify(llmProvider).isAvailable();
     }
+
+    private void stubSingleChapter() {
+        ChapterEntity chapter = new ChapterEntity(0, "Chapter 1");
+        chapter.setId("chapter-1");
+        ParagraphEntity paragraph = new ParagraphEntity(0, "Call me Ishmael. Some years ago...");
+        when(chapterRepository.findByBookIdOrderByChapterIndex("book-1")).thenReturn(List.of(chapter));
+        when(paragraphRepository.findByChapterIdOrderByParagraphIndex("chapter-1")).thenReturn(List.of(paragraph));
+    }
 }
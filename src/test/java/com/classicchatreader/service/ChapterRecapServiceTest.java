@@ -12,7 +12,9 @@ import com.classicchatreader.repository.CharacterRepository;
 import com.classicchatreader.repository.ChapterRecapRepository;
 import com.classicchatreader.repository.ChapterRepository;
 import com.classicchatreader.repository.ParagraphRepository;
+import com.classicchatreader.service.llm.LlmOptions;
 import com.classicchatreader.service.llm.LlmProvider;
+import com.classicchatreader.service.llm.LlmProviderException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +30,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -53,6 +56,9 @@ class ChapterRecapServiceTest {
     @Mock
     private RecapMetricsService recapMetricsService;
 
+    @Mock
+    private GenerationScheduler generationScheduler;
+
     private ChapterRecapService chapterRecapService;
 
     @BeforeEach
@@ -64,6 +70,7 @@ class ChapterRecapServiceTest {
                 characterRepository,
                 reasoningProvider,
                 recapMetricsService,
+                generationScheduler,
                 new ObjectMapper()
         );
         ReflectionTestUtils.setField(chapterRecapService, "workerId", "test-worker");
@@ -198,6 +205,8 @@ class ChapterRecapServiceTest {
 
         ReflectionTestUtils.setField(chapterRecapService, "stuckThresholdMinutes", 15);
         when(chapterRecapRepository.findByChapterId("chapter-1")).thenReturn(Optional.of(recap));
+        when(generationScheduler.enqueue(eq(GenerationScheduler.Lane.RECAP), eq("chapter-1"), eq("book-1"), any()))
+                .thenReturn(true);
 
         chapterRecapService.requestChapterRecap("chapter-1");
 
@@ -211,7 +220,7 @@ class ChapterRecapServiceTest {
     void processChapterRecap_withAvailableProvider_persistsLlmGeneratedPayload() {
         ReflectionTestUtils.setField(chapterRecapService, "maxContextChars", 4000);
         when(reasoningProvider.isAvailable()).thenReturn(true);
-        when(reasoningProvider.getProviderName()).thenReturn("xai");
+        when(reasoningProvider.getRespondingProviderName()).thenReturn("xai");
         when(chapterRecapRepository.claimGenerationLease(any(), any(), any(), any(), any(), any()))
                 .thenReturn(1);
         when(reasoningProvider.generate(any(), any())).thenReturn("""
@@ -289,6 +298,33 @@ class ChapterRecapServiceTest {
         assertFalse(saved.getPayloadJson().isBlank());
     }
 
+    @Test
+    void processChapterRecap_unparseableReply_isEvictedSoTheNextAttemptAsksAgain() {
+        ReflectionTestUtils.setField(chapterRecapService, "maxContextChars", 4000);
+        when(reasoningProvider.isAvailable()).thenReturn(true);
+        when(chapterRecapRepository.claimGenerationLease(any(), any(), any(), any(), any(), any()))
+                .thenReturn(1);
+        when(reasoningProvider.generate(any(), any())).thenReturn("Sorry, I cannot summarize this chapter.");
+
+        ChapterEntity chapter = createChapter("book-1", "chapter-1", 1, "Chapter 1");
+        when(chapterRepository.findByIdWithBook("chapter-1")).thenReturn(Optional.of(chapter));
+        when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
+        when(chapterRecapRepository.findByChapterId("chapter-1")).thenReturn(Optional.empty());
+        when(chapterRecapRepository.save(any(ChapterRecapEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paragraphRepository.findByChapterIdOrderByParagraphIndex("chapter-1"))
+                .thenReturn(List.of(new ParagraphEntity(0, "First event happens in the chapter.")));
+        when(characterRepository.findByBookIdUpToChapter("book-1", 1)).thenReturn(List.of());
+        when(characterRepository.findByBookIdAndFirstChapterIdOrderByFirstParagraphIndex("book-1", "chapter-1"))
+                .thenReturn(List.of());
+
+        ReflectionTestUtils.invokeMethod(chapterRecapService, "processChapterRecap", "chapter-1");
+
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<LlmOptions> options = ArgumentCaptor.forClass(LlmOptions.class);
+        verify(reasoningProvider).generate(prompt.capture(), options.capture());
+        verify(reasoningProvider).evict(prompt.getValue(), options.getValue());
+    }
+
     @Test
     void processChapterRecap_whenLeaseClaimFails_skipsGeneration() {
         when(chapterRecapRepository.claimGenerationLease(any(), any(), any(), any(), any(), any()))
@@ -359,6 +395,42 @@ class ChapterRecapServiceTest {
         verify(recapMetricsService).recordGenerationFailed(anyLong());
     }
 
+    @Test
+    void processChapterRecap_throttledOnLastAttempt_fallsBackToExtractiveRecap() {
+        ReflectionTestUtils.setField(chapterRecapService, "maxRetryAttempts", 3);
+        ReflectionTestUtils.setField(chapterRecapService, "maxContextChars", 4000);
+
+        ChapterEntity chapter = createChapter("book-1", "chapter-1", 1, "Chapter 1");
+        ChapterRecapEntity recap = new ChapterRecapEntity(chapter);
+        recap.setStatus(ChapterRecapStatus.GENERATING);
+        recap.setRetryCount(2);
+
+        when(reasoningProvider.isAvailable()).thenReturn(true);
+        when(chapterRecapRepository.claimGenerationLease(any(), any(), any(), any(), any(), any()))
+                .thenReturn(1);
+        when(reasoningProvider.generate(any(), any()))
+                .thenThrow(new LlmProviderException("xAI API error: 429", 429, null));
+        when(chapterRepository.findByIdWithBook("chapter-1")).thenReturn(Optional.of(chapter));
+        when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
+        when(chapterRecapRepository.findByChapterId("chapter-1")).thenReturn(Optional.of(recap));
+        when(chapterRecapRepository.save(any(ChapterRecapEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paragraphRepository.findByChapterIdOrderByParagraphIndex("chapter-1"))
+                .thenReturn(List.of(new ParagraphEntity(0, "First event happens in the chapter.")));
+        when(characterRepository.findByBookIdUpToChapter("book-1", 1)).thenReturn(List.of());
+        when(characterRepository.findByBookIdAndFirstChapterIdOrderByFirstParagraphIndex("book-1", "chapter-1"))
+                .thenReturn(List.of());
+
+        ReflectionTestUtils.invokeMethod(chapterRecapService, "processChapterRecap", "chapter-1");
+
+        ArgumentCaptor<ChapterRecapEntity> captor = ArgumentCaptor.forClass(ChapterRecapEntity.class);
+        verify(chapterRecapRepository).save(captor.capture());
+        ChapterRecapEntity saved = captor.getValue();
+        assertEquals(ChapterRecapStatus.COMPLETED, saved.getStatus());
+        assertEquals("v1-extractive", saved.getPromptVersion());
+        verify(generationScheduler).reportThrottled();
+        verify(recapMetricsService, never()).recordGenerationFailed(anyLong());
+    }
+
     private ChapterEntity createChapter(String bookId, String chapterId, int index, String title) {
         BookEntity book = new BookEntity("Title", "Author", "gutenberg");
         book.setId(bookId);
@@ -0,0 +1,32 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.service.ChatMetricsService.Surface;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChatMetricsServiceTest {
+
+    @Test
+    void snapshot_reportsTimeToFirstTokenPerSurface() {
+        ChatMetricsService service = new ChatMetricsService();
+
+        service.recordStreamStarted(Surface.CHARACTER);
+        service.recordStreamStarted(Surface.CHARACTER);
+        service.recordFirstToken(Surface.CHARACTER, 300);
+        service.recordFirstToken(Surface.CHARACTER, 100);
+        service.recordStreamFailed(Surface.RECAP);
+
+        Map<?, ?> character = (Map<?, ?>) service.snapshot().get("character");
+        assertEquals(2L, character.get("streamsStarted"));
+        assertEquals(2L, character.get("firstTokenCount"));
+        assertEquals(200L, character.get("firstTokenAverageMs"));
+        assertEquals(300L, character.get("firstTokenMaxMs"));
+        assertEquals(100L, character.get("firstTokenLastMs"));
+        Map<?, ?> recap = (Map<?, ?>) service.snapshot().get("recap");
+        assertEquals(1L, recap.get("streamsFailed"));
+        assertEquals(0L, recap.get("firstTokenAverageMs"));
+    }
+}
@@ -9,16 +9,21 @@ import com.classicchatreader.repository.ChapterAnalysisRepository;
 import com.classicchatreader.repository.ChapterRecapRepository;
 import com.classicchatreader.repository.CharacterRepository;
 import com.classicchatreader.repository.IllustrationRepository;
+import com.classicchatreader.repository.StatusCount;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,31 +43,28 @@ class GenerationJobStatusServiceTest {
 
     @Test
     void getGlobalStatus_aggregatesPendingAndScheduledRetries() {
-        when(illustrationRepository.countByStatus(IllustrationStatus.PENDING)).thenReturn(5L);
-        when(illustrationRepository.countScheduledRetries(eq(IllustrationStatus.PENDING), any(LocalDateTime.class))).thenReturn(2L);
-        when(illustrationRepository.countByStatus(IllustrationStatus.GENERATING)).thenReturn(1L);
-        when(illustrationRepository.countByStatus(IllustrationStatus.COMPLETED)).thenReturn(7L);
-        when(illustrationRepository.countByStatus(IllustrationStatus.FAILED)).thenReturn(3L);
-
-        when(characterRepository.countByStatus(CharacterStatus.PENDING)).thenReturn(4L);
-        when(characterRepository.countScheduledRetries(eq(CharacterStatus.PENDING), any(LocalDateTime.class))).thenReturn(1L);
-        when(characterRepository.countByStatus(CharacterStatus.GENERATING)).thenReturn(2L);
-        when(characterRepository.countByStatus(CharacterStatus.COMPLETED)).thenReturn(6L);
-        when(characterRepository.countByStatus(CharacterStatus.FAILED)).thenReturn(1L);
-
-        when(chapterAnalysisRepository.countByStatus(ChapterAnalysisStatus.PENDING)).thenReturn(3L);
-        when(chapterAnalysisRepository.countByStatusIsNull()).thenReturn(2L);
-        when(chapterAnalysisRepository.countScheduledRetries(eq(ChapterAnalysisStatus.PENDING), any(LocalDateTime.class))).thenReturn(1L);
-        when(chapterAnalysisRepository.countByStatus(ChapterAnalysisStatus.GENERATING)).thenReturn(1L);
-        when(chapterAnalysisRepository.countByStatus(ChapterAnalysisStatus.COMPLETED)).thenReturn(8L);
-        when(chapterAnalysisRepository.countByStatus(ChapterAnalysisStatus.FAILED)).thenReturn(2L);
-
-        when(chapterRecapRepository.countByStatus(ChapterRecapStatus.PENDING)).thenReturn(6L);
-        when(chapterRecapRepository.countByStatusIsNull()).thenReturn(1L);
-        when(chapterRecapRepository.countScheduledRetries(eq(ChapterRecapStatus.PENDING), any(LocalDateTime.class))).thenReturn(3L);
-        when(chapterRecapRepository.countByStatus(ChapterRecapStatus.GENERATING)).thenReturn(2L);
-        when(chapterRecapRepository.countByStatus(ChapterRecapStatus.COMPLETED)).thenReturn(9L);
-        when(chapterRecapRepository.countByStatus(ChapterRecapStatus.FAILED)).thenReturn(4L);
+        when(illustrationRepository.countGroupedByStatus(any(LocalDateTime.class))).thenReturn(List.of(
+                StatusCount.of(IllustrationStatus.PENDING, 5L, 2L),
+                StatusCount.of(IllustrationStatus.GENERATING, 1L, 0L),
+                StatusCount.of(IllustrationStatus.COMPLETED, 7L, 0L),
+                StatusCount.of(IllustrationStatus.FAILED, 3L, 0L)));
+        when(characterRepository.countGroupedByStatus(any(LocalDateTime.class))).thenReturn(List.of(
+                StatusCount.of(CharacterStatus.PENDING, 4L, 1L),
+                StatusCount.of(CharacterStatus.GENERATING, 2L, 0L),
+                StatusCount.of(CharacterStatus.COMPLETED, 6L, 0L),
+                StatusCount.of(CharacterStatus.FAILED, 1L, 0L)));
+        when(chapterAnalysisRepository.countGroupedByStatus(any(LocalDateTime.class))).thenReturn(List.of(
+                StatusCount.of(ChapterAnalysisStatus.PENDING, 3L, 1L),
+                StatusCount.of(null, 2L, 0L),
+                StatusCount.of(ChapterAnalysisStatus.GENERATING, 1L, 0L),
+                StatusCount.of(ChapterAnalysisStatus.COMPLETED, 8L, 0L),
+                StatusCount.of(ChapterAnalysisStatus.FAILED, 2L, 0L)));
+        when(chapterRecapRepository.countGroupedByStatus(any(LocalDateTime.class))).thenReturn(List.of(
+                StatusCount.of(ChapterRecapStatus.PENDING, 6L, 3L),
+                StatusCount.of(null, 1L, 0L),
+                StatusCount.of(ChapterRecapStatus.GENERATING, 2L, 0L),
+                StatusCount.of(ChapterRecapStatus.COMPLETED, 9L, 0L),
+                StatusCount.of(ChapterRecapStatus.FAILED, 4L, 0L)));
 
         GenerationJobStatusService service = new GenerationJobStatusService(
                 illustrationRepository,
@@ -88,35 +90,27 @@ class GenerationJobStatusServiceTest {
     void getBookStatus_aggregatesPendingAndScheduledRetriesForSingleBook() {
         String bookId = "book-1";
 
-        when(illustrationRepository.countByBookAndStatus(bookId, IllustrationStatus.PENDING)).thenReturn(6L);
-        when(illustrationRepository.countScheduledRetriesForBook(eq(bookId), eq(IllustrationStatus.PENDING), any(LocalDateTime.class)))
-                .thenReturn(2L);
-        when(illustrationRepository.countByBookAndStatus(bookId, IllustrationStatus.GENERATING)).thenReturn(1L);
-        when(illustrationRepository.countByBookAndStatus(bookId, IllustrationStatus.COMPLETED)).thenReturn(4L);
-        when(illustrationRepository.countByBookAndStatus(bookId, IllustrationStatus.FAILED)).thenReturn(1L);
-
-        when(characterRepository.countByBookAndStatus(bookId, CharacterStatus.PENDING)).thenReturn(5L);
-        when(characterRepository.countScheduledRetriesForBook(eq(bookId), eq(CharacterStatus.PENDING), any(LocalDateTime.class)))
-                .thenReturn(1L);
-        when(characterRepository.countByBookAndStatus(bookId, CharacterStatus.GENERATING)).thenReturn(2L);
-        when(characterRepository.countByBookAndStatus(bookId, CharacterStatus.COMPLETED)).thenReturn(3L);
-        when(characterRepository.countByBookAndStatus(bookId, CharacterStatus.FAILED)).thenReturn(0L);
-
-        when(chapterAnalysisRepository.countByBookAndStatus(bookId, ChapterAnalysisStatus.PENDING)).thenReturn(2L);
-        when(chapterAnalysisRepository.countByChapterBookIdAndStatusIsNull(bookId)).thenReturn(1L);
-        when(chapterAnalysisRepository.countScheduledRetriesForBook(eq(bookId), eq(ChapterAnalysisStatus.PENDING), any(LocalDateTime.class)))
-                .thenReturn(1L);
-        when(chapterAnalysisRepository.countByBookAndStatus(bookId, ChapterAnalysisStatus.GENERATING)).thenReturn(1L);
-        when(chapterAnalysisRepository.countByBookAndStatus(bookId, ChapterAnalysisStatus.COMPLETED)).thenReturn(6L);
-        when(chapterAnalysisRepository.countByBookAndStatus(bookId, ChapterAnalysisStatus.FAILED)).thenReturn(1L);
-
-        when(chapterRecapRepository.countByBookAndStatus(bookId, ChapterRecapStatus.PENDING)).thenReturn(3L);
-        when(chapterRecapRepository.countByChapterBookIdAndStatusIsNull(bookId)).thenReturn(2L);
-        when(chapterRecapRepository.countScheduledRetriesForBook(eq(bookId), eq(ChapterRecapStatus.PENDING), any(LocalDateTime.class)))
-                .thenReturn(2L);
-        when(chapterRecapRepository.countByBookAndStatus(bookId, ChapterRecapStatus.GENERATING)).thenReturn(1L);
-        when(chapterRecapRepository.countByBookAndStatus(bookId, ChapterRecapStatus.COMPLETED)).thenReturn(5L);
-        when(chapterRecapRepository.countByBookAndStatus(bookId, ChapterRecapStatus.FAILED)).thenReturn(2L);
+        when(illustrationRepository.countGroupedByStatusForBook(eq(bookId), any(LocalDateTime.class))).thenReturn(List.of(
+                StatusCount.of(IllustrationStatus.PENDING, 6L, 2L),
+                StatusCount.of(IllustrationStatus.GENERATING, 1L, 0L),
+                StatusCount.of(IllustrationStatus.COMPLETED, 4L, 0L),
+                StatusCount.of(IllustrationStatus.FAILED, 1L, 0L)));
+        when(characterRepository.countGroupedByStatusForBook(eq(bookId), any(LocalDateTime.class))).thenReturn(List.of(
+                StatusCount.of(CharacterStatus.PENDING, 5L, 1L),
+                StatusCount.of(CharacterStatus.GENERATING, 2L, 0L),
+                StatusCount.of(CharacterStatus.COMPLETED, 3L, 0L)));
+        when(chapterAnalysisRepository.countGroupedByStatusForBook(eq(bookId), any(LocalDateTime.class))).thenReturn(List.of(
+                StatusCount.of(ChapterAnalysisStatus.PENDING, 2L, 1L),
+                StatusCount.of(null, 1L, 0L),
+                StatusCount.of(ChapterAnalysisStatus.GENERATING, 1L, 0L),
+                StatusCount.of(ChapterAnalysisStatus.COMPLETED, 6L, 0L),
+                StatusCount.of(ChapterAnalysisStatus.FAILED, 1L, 0L)));
+        when(chapterRecapRepository.countGroupedByStatusForBook(eq(bookId), any(LocalDateTime.class))).thenReturn(List.of(
+                StatusCount.of(ChapterRecapStatus.PENDING, 3L, 2L),
+                StatusCount.of(null, 2L, 0L),
+                StatusCount.of(ChapterRecapStatus.GENERATING, 1L, 0L),
+                StatusCount.of(ChapterRecapStatus.COMPLETED, 5L, 0L),
+                StatusCount.of(ChapterRecapStatus.FAILED, 2L, 0L)));
 
         GenerationJobStatusService service = new GenerationJobStatusService(
                 illustrationRepository,
@@ -140,4 +134,25 @@ class GenerationJobStatusServiceTest {
         assertEquals(18L, response.totals().completed());
         assertEquals(4L, response.totals().failed());
     }
+
+    @Test
+    void getGlobalStatus_servesCachedResponseWithinTtl() {
+        when(illustrationRepository.countGroupedByStatus(any(LocalDateTime.class))).thenReturn(List.of(
+                StatusCount.of(IllustrationStatus.COMPLETED, 2L, 0L)));
+
+        GenerationJobStatusService service = new GenerationJobStatusService(
+                illustrationRepository,
+                characterRepository,
+                chapterAnalysisRepository,
+                chapterRecapRepository,
+                60_000L
+        );
+
+        GenerationJobStatusResponse first = service.getGlobalStatus();
+        GenerationJobStatusResponse second = service.getGlobalStatus();
+
+        assertSame(first, second);
+        assertEquals(2L, second.totals().completed());
+        verify(illustrationRepository, times(1)).countGroupedByStatus(any(LocalDateTime.class));
+    }
 }
@@ -0,0 +1,100 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.entity.GenerationJobEntity;
+import com.classicchatreader.repository.GenerationJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class GenerationJobStoreTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(10);
+
+    @Autowired
+    private GenerationJobRepository repository;
+
+    private GenerationJobStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new GenerationJobStore(repository);
+    }
+
+    @Test
+    void enqueue_mergesRepeatsIntoOneRowWithTheMostUrgentPriority() {
+        LocalDateTime now = LocalDateTime.now().minusSeconds(1);
+
+        assertTrue(store.enqueue("ILLUSTRATION", "chapter-1", null, 2, null, now, null));
+        assertFalse(store.enqueue("ILLUSTRATION", "chapter-1", "book-1", 0, "a lighthouse", now, null));
+
+        assertEquals(1, store.countQueued("ILLUSTRATION"));
+        GenerationJobEntity job = repository.findByLaneAndJobKey("ILLUSTRATION", "chapter-1").orElseThrow();
+        assertEquals(0, job.getPriority());
+        assertEquals("book-1", job.getBookId());
+        assertEquals("a lighthouse", job.getPayload());
+    }
+
+    @Test
+    void claim_leasesEachJobOnceMostUrgentFirstAndSkipsDelayedJobs() {
+        LocalDateTime now = LocalDateTime.now().minusSeconds(1);
+        store.enqueue("RECAP", "chapter-1", "book-1", 2, null, now, null);
+        store.enqueue("RECAP", "chapter-2", "book-1", 0, null, now, null);
+        store.enqueue("RECAP", "chapter-3", "book-1", 0, null, now.plusMinutes(5), null);
+
+        List<GenerationJobEntity> first = store.claim(List.of("RECAP"), "worker-a", 5, LEASE);
+        List<GenerationJobEntity> second = store.claim(List.of("RECAP"), "worker-b", 5, LEASE);
+
+        assertEquals(List.of("chapter-2", "chapter-1"), first.stream().map(GenerationJobEntity::getJobKey).toList());
+        assertTrue(second.isEmpty());
+    }
+
+    @Test
+    void enqueue_releasesLeaseOfTheJobRetryingItself() {
+        LocalDateTime now = LocalDateTime.now().minusSeconds(1);
+        store.enqueue("COVER", "book-1", "book-1", 1, null, now, null);
+        GenerationJobEntity claimed = store.claim(List.of("COVER"), "worker-a", 1, LEASE).get(0);
+
+        store.enqueue("COVER", "book-1", "book-1", 1, null, now, claimed.getId());
+        GenerationJobEntity released = repository.findById(claimed.getId()).orElseThrow();
+        assertNull(released.getLeaseOwner());
+        assertNull(released.getLeaseExpiresAt());
+
+        // The first run finishing after its own retry was queued must not delete the retry
+        store.complete(claimed.getId(), "worker-a");
+        assertTrue(store.isQueued("COVER", "book-1"));
+        GenerationJobEntity retried = store.claim(List.of("COVER"), "worker-b", 1, LEASE).get(0);
+        store.complete(retried.getId(), "worker-b");
+        assertFalse(store.isQueued("COVER", "book-1"));
+    }
+
+    @Test
+    void enqueue_duringAnotherWorkersRun_keepsTheRequestForOneMoreRun() {
+        LocalDateTime now = LocalDateTime.now().minusSeconds(1);
+        store.enqueue("COVER", "book-1", "book-1", 2, "old", now, null);
+        GenerationJobEntity claimed = store.claim(List.of("COVER"), "worker-a", 1, LEASE).get(0);
+
+        store.enqueue("COVER", "book-1", "book-1", 0, "force", now, null);
+        // The running lease still holds until that run finishes
+        assertTrue(store.claim(List.of("COVER"), "worker-b", 1, LEASE).isEmpty());
+
+        store.complete(claimed.getId(), "worker-a");
+        assertTrue(store.isQueued("COVER", "book-1"));
+        GenerationJobEntity rerun = store.claim(List.of("COVER"), "worker-b", 1, LEASE).get(0);
+        assertEquals("force", rerun.getPayload());
+        assertEquals(0, rerun.getPriority());
+
+        store.complete(rerun.getId(), "worker-b");
+        assertFalse(store.isQueued("COVER", "book-1"));
+    }
+}
@@ -2,6 +2,7 @@ package com.classicchatreader.service;
 
 import com.classicchatreader.entity.BookEntity;
 import com.classicchatreader.repository.BookRepository;
+import com.classicchatreader.repository.GenerationJobRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -20,6 +21,9 @@ class GenerationQueueRecoveryServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private GenerationJobRepository generationJobRepository;
+
     @Mock
     private IllustrationService illustrationService;
 
@@ -30,9 +34,11 @@ class GenerationQueueRecoveryServiceTest {
     private ChapterRecapService chapterRecapService;
 
     @Test
-    void recoverPendingGenerationWork_whenDisabled_skipsRecovery() {
+    void recoverPendingGenerationWork_whenDisabledAndQueueHasJobs_skipsRecovery() {
+        when(generationJobRepository.count()).thenReturn(4L);
         GenerationQueueRecoveryService service = new GenerationQueueRecoveryService(
                 bookRepository,
+                generationJobRepository,
                 illustrationService,
                 characterService,
                 chapterRecapService,
@@ -71,6 +77,7 @@ class GenerationQueueRecoveryServiceTest {
 
         GenerationQueueRecoveryService service = new GenerationQueueRecoveryService(
                 bookRepository,
+                generationJobRepository,
                 illustrationService,
                 characterService,
                 chapterRecapService,
@@ -95,6 +102,30 @@ class GenerationQueueRecoveryServiceTest {
         verify(chapterRecapService).resetAndRequeueStuckForBook("book-2");
     }
 
+    @Test
+    void recoverPendingGenerationWork_whenDisabledAndQueueEmpty_importsPendingWork() {
+        BookEntity book = new BookEntity();
+        book.setId("book-1");
+        when(generationJobRepository.count()).thenReturn(0L);
+        when(bookRepository.findAll()).thenReturn(List.of(book));
+        when(illustrationService.resetAndRequeueStuckForBook("book-1")).thenReturn(2);
+
+        GenerationQueueRecoveryService service = new GenerationQueueRecoveryService(
+                bookRepository,
+                generationJobRepository,
+                illustrationService,
+                characterService,
+                chapterRecapService,
+                false
+        );
+
+        GenerationQueueRecoveryService.RecoverySummary summary = service.recoverPendingGenerationWork();
+
+        assertEquals(1, summary.booksScanned());
+        assertEquals(2, summary.illustrationsRequeued());
+        verify(chapterRecapService).resetAndRequeueStuckForBook("book-1");
+    }
+
     @Test
     void recoverPendingGenerationWork_ignoresBookWithoutId() {
         BookEntity missingId = new BookEntity();
@@ -102,6 +133,7 @@ class GenerationQueueRecoveryServiceTest {
 
         GenerationQueueRecoveryService service = new GenerationQueueRecoveryService(
                 bookRepository,
+                generationJobRepository,
                 illustrationService,
                 characterService,
                 chapterRecapService,
@@ -0,0 +1,192 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.service.GenerationScheduler.Backend;
+import com.classicchatreader.service.GenerationScheduler.Lane;
+import com.classicchatreader.service.GenerationScheduler.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GenerationSchedulerTest {
+
+    private GenerationScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void submit_startsInteractiveBeforeBatchAndRotatesBetweenBooks() throws Exception {
+        scheduler = new GenerationScheduler(Map.of(Backend.COMFYUI, 1));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(6);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        scheduler.submit(Lane.ILLUSTRATION, "blocker", "book-a", Priority.BATCH, () -> await(release));
+        for (String key : List.of("a1", "a2", "a3")) {
+            scheduler.submit(Lane.ILLUSTRATION, key, "book-a", Priority.BATCH, record(order, key, done));
+        }
+        scheduler.submit(Lane.ILLUSTRATION, "b1", "book-b", Priority.BATCH, record(order, "b1", done));
+        scheduler.submit(Lane.PORTRAIT, "reader", "book-c", Priority.INTERACTIVE, record(order, "reader", done));
+        scheduler.submit(Lane.ILLUSTRATION, "next", "book-c", Priority.PREFETCH, record(order, "next", done));
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("reader", "next", "a1", "b1", "a2", "a3"), order);
+    }
+
+    @Test
+    void submit_limitsConcurrencyPerBackendOnly() throws Exception {
+        scheduler = new GenerationScheduler(Map.of(Backend.COMFYUI, 2, Backend.OLLAMA, 1));
+        scheduler.bindLane(Lane.RECAP, Backend.OLLAMA);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(3);
+
+        for (int i = 0; i < 4; i++) {
+            scheduler.submit(Lane.ILLUSTRATION, "chapter-" + i, "book-1", Priority.BATCH, () -> {
+                started.countDown();
+                await(release);
+            });
+        }
+        scheduler.submit(Lane.RECAP, "chapter-0", "book-1", Priority.BATCH, () -> {
+            started.countDown();
+            await(release);
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(2, scheduler.getQueueDepth(Lane.ILLUSTRATION));
+        assertEquals(0, scheduler.getQueueDepth(Lane.RECAP));
+        assertTrue(scheduler.isQueued(Lane.ILLUSTRATION, "chapter-3"));
+        assertFalse(scheduler.isQueued(Lane.ILLUSTRATION, "chapter-0"));
+        Map<?, ?> comfyUi = (Map<?, ?>) ((Map<?, ?>) scheduler.snapshot().get("backends")).get("comfyui");
+        assertEquals(2, comfyUi.get("running"));
+        assertEquals(2, comfyUi.get("queued"));
+        release.countDown();
+    }
+
+    @Test
+    void submit_queuesKeyOnceAndPromotesItWhenRequestedMoreUrgently() throws Exception {
+        scheduler = new GenerationScheduler(Map.of(Backend.COMFYUI, 1));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        scheduler.submit(Lane.ILLUSTRATION, "blocker", "book-1", Priority.BATCH, () -> await(release));
+        assertTrue(scheduler.submit(Lane.ILLUSTRATION, "chapter-1", "book-1", Priority.BATCH,
+                record(order, "stale", done)));
+        assertTrue(scheduler.submit(Lane.ILLUSTRATION, "chapter-2", "book-1", Priority.BATCH,
+                record(order, "chapter-2", done)));
+        assertFalse(scheduler.submit(Lane.ILLUSTRATION, "chapter-1", "book-1", Priority.BATCH,
+                record(order, "stale", done)));
+        assertFalse(scheduler.submit(Lane.ILLUSTRATION, "chapter-1", null, Priority.INTERACTIVE,
+                record(order, "chapter-1", done)));
+
+        assertEquals(2, scheduler.getQueueDepth(Lane.ILLUSTRATION));
+        assertTrue(scheduler.isQueued(Lane.ILLUSTRATION, "chapter-1"));
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("chapter-1", "chapter-2"), order);
+        assertFalse(scheduler.isQueued(Lane.ILLUSTRATION, "chapter-1"));
+        Map<?, ?> lane = (Map<?, ?>) ((Map<?, ?>) scheduler.snapshot().get("lanes")).get("illustration");
+        assertEquals(2L, lane.get("duplicatesSuppressed"));
+    }
+
+    @Test
+    void retryLater_keepsPriorityOfTheRunningJob() throws Exception {
+        scheduler = new GenerationScheduler(Map.of());
+        CountDownLatch done = new CountDownLatch(1);
+        List<Priority> seen = new CopyOnWriteArrayList<>();
+
+        scheduler.register(Lane.QUIZ, Backend.XAI, (key, payload) -> {
+            if (payload == null) {
+                scheduler.retryLater(Lane.QUIZ, key, "retry", 10);
+                return;
+            }
+            seen.add(scheduler.currentPriority());
+            done.countDown();
+        });
+        scheduler.enqueue(Lane.QUIZ, "chapter-1", "book-1", Priority.PREFETCH);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(Priority.PREFETCH), seen);
+        assertEquals(Priority.INTERACTIVE, scheduler.currentPriority());
+    }
+
+    @Test
+    void reportThrottled_halvesLimitAndPausesBackendDuringCooldown() throws Exception {
+        scheduler = new GenerationScheduler(Map.of(Backend.XAI, 4), 60_000L);
+        scheduler.bindLane(Lane.RECAP, Backend.XAI);
+        CountDownLatch throttled = new CountDownLatch(1);
+        CountDownLatch later = new CountDownLatch(1);
+
+        scheduler.submit(Lane.RECAP, "chapter-1", "book-1", Priority.BATCH, () -> {
+            scheduler.reportThrottled();
+            scheduler.reportThrottled();
+            throttled.countDown();
+        });
+        assertTrue(throttled.await(5, TimeUnit.SECONDS));
+        scheduler.submit(Lane.RECAP, "chapter-2", "book-1", Priority.BATCH, later::countDown);
+
+        assertFalse(later.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.getQueueDepth(Lane.RECAP));
+        Map<?, ?> xai = (Map<?, ?>) ((Map<?, ?>) scheduler.snapshot().get("backends")).get("xai");
+        assertEquals(4, xai.get("concurrency"));
+        assertEquals(2, xai.get("effectiveConcurrency"));
+        assertEquals(1L, xai.get("throttled"));
+    }
+
+    @Test
+    void run_publishesCompletionOnlyForJobsThatBelongToABook() throws Exception {
+        scheduler = new GenerationScheduler(Map.of(Backend.COMFYUI, 2));
+        List<GenerationCompletedEvent> events = new CopyOnWriteArrayList<>();
+        scheduler.setApplicationEventPublisher(event -> events.add((GenerationCompletedEvent) event));
+        CountDownLatch done = new CountDownLatch(2);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        scheduler.submit(Lane.ILLUSTRATION, "style-probe", null, Priority.BATCH, record(order, "style-probe", done));
+        scheduler.submit(Lane.ILLUSTRATION, "chapter-1", "book-a", Priority.BATCH, record(order, "chapter-1", done));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        scheduler.shutdown();
+        ExecutorService workers = (ExecutorService) ReflectionTestUtils.getField(scheduler, "workers");
+        assertTrue(workers.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of(new GenerationCompletedEvent(Lane.ILLUSTRATION, "chapter-1", "book-a")), events);
+    }
+
+    @Test
+    void backendOf_mapsProviderNames() {
+        assertEquals(Backend.XAI, Backend.of("xai"));
+        assertEquals(Backend.COMFYUI, Backend.of("ComfyUI"));
+        assertEquals(Backend.OLLAMA, Backend.of("ollama"));
+        assertEquals(Backend.OLLAMA, Backend.of(null));
+    }
+
+    private static Runnable record(List<String> order, String key, CountDownLatch done) {
+        return () -> {
+            order.add(key);
+            done.countDown();
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.classicchatreader.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Mp3FramesTest {
+
+    // MPEG-1 layer III, 128 kbps, 44.1 kHz, no padding: 417 bytes and 1152 samples per frame
+    static final int FRAME_LENGTH = 417;
+
+    @Test
+    void scan_skipsTagsAndInfoFrameAndMeasuresAudioFrames() {
+        byte[] file = mp3(3, true, true);
+
+        Mp3Frames.Span span = Mp3Frames.scan(file);
+
+        assertEquals(15 + FRAME_LENGTH, span.offset());
+        assertEquals(3 * FRAME_LENGTH, span.length());
+        assertEquals(3 * 1152 * 1_000_000L / 44100, span.durationMicros());
+    }
+
+    @Test
+    void scan_withoutFrames_returnsEmptySpan() {
+        assertTrue(Mp3Frames.scan("not audio".getBytes(StandardCharsets.UTF_8)).isEmpty());
+    }
+
+    /**
+     * Builds an MP3 of {@code frames} silent frames, optionally led by a 15-byte ID3v2 tag and an Info
+     * header frame and followed by an ID3v1 tag.
+     */
+    static byte[] mp3(int frames, boolean withTags, boolean withInfoFrame) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (withTags) {
+            out.writeBytes(new byte[]{'I', 'D', '3', 4, 0, 0, 0, 0, 0, 5, 1, 2, 3, 4, 5});
+        }
+        if (withInfoFrame) {
+            byte[] info = frame((byte) 0);
+            System.arraycopy("Info".getBytes(StandardCharsets.US_ASCII), 0, info, 36, 4);
+            out.writeBytes(info);
+        }
+        for (int i = 0; i < frames; i++) {
+            out.writeBytes(frame((byte) (i + 1)));
+        }
+        if (withTags) {
+            byte[] id3v1 = new byte[128];
+            System.arraycopy("TAG".getBytes(StandardCharsets.US_ASCII), 0, id3v1, 0, 3);
+            out.writeBytes(id3v1);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] frame(byte fill) {
+        byte[] frame = new byte[FRAME_LENGTH];
+        Arrays.fill(frame, 4, FRAME_LENGTH, fill);
+        frame[0] = (byte) 0xff;
+        frame[1] = (byte) 0xfb;
+        frame[2] = (byte) 0x90;
+        frame[3] = 0;
+        return frame;
+    }
+}
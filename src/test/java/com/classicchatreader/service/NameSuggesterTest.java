@@ -0,0 +1,46 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.service.NameSuggester.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NameSuggesterTest {
+
+    private final NameSuggester suggester = NameSuggester.build(List.of(
+            character("c1", "Rodion Raskolnikov", 0),
+            character("c2", "Mr. Fitzwilliam Darcy", 1),
+            character("c3", "Razumikhin", 3)));
+
+    @Test
+    void lookup_toleratesOneTypoInThePrefix() {
+        assertEquals(List.of("Rodion Raskolnikov"), texts(suggester.lookup("raskal", 5, entry -> true)));
+    }
+
+    @Test
+    void lookup_matchesLaterWordsAndIgnoresHonorifics() {
+        assertEquals(List.of("Mr. Fitzwilliam Darcy"), texts(suggester.lookup("darc", 5, entry -> true)));
+        assertEquals(List.of("Mr. Fitzwilliam Darcy"), texts(suggester.lookup("Mr Fitz", 5, entry -> true)));
+    }
+
+    @Test
+    void lookup_appliesFilterAndDeduplicatesEntries() {
+        List<Entry> all = suggester.lookup("ra", 5, entry -> true);
+        List<Entry> early = suggester.lookup("ra", 5, entry -> entry.chapterIndex() < 2);
+
+        assertEquals(2, all.size());
+        assertEquals(List.of("Rodion Raskolnikov"), texts(early));
+        assertTrue(suggester.lookup(" ", 5, entry -> true).isEmpty());
+    }
+
+    private static Entry character(String id, String name, int chapterIndex) {
+        return new Entry("character", id, "book", name, chapterIndex, 0, 1);
+    }
+
+    private static List<String> texts(List<Entry> entries) {
+        return entries.stream().map(Entry::text).toList();
+    }
+}
@@ -1,11 +1,8 @@
 package com.classicchatreader.service;
 
 import com.classicchatreader.entity.BookEntity;
-import com.classicchatreader.entity.ChapterAnalysisStatus;
 import com.classicchatreader.entity.ChapterEntity;
 import com.classicchatreader.entity.ChapterRecapStatus;
-import com.classicchatreader.entity.CharacterStatus;
-import com.classicchatreader.entity.IllustrationStatus;
 import com.classicchatreader.repository.BookRepository;
 import com.classicchatreader.repository.BookCoverRepository;
 import com.classicchatreader.repository.CharacterRepository;
@@ -13,6 +10,7 @@ import com.classicchatreader.repository.ChapterAnalysisRepository;
 import com.classicchatreader.repository.ChapterRecapRepository;
 import com.classicchatreader.repository.ChapterRepository;
 import com.classicchatreader.repository.IllustrationRepository;
+import com.classicchatreader.repository.StatusCount;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,11 +18,19 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -99,29 +105,9 @@ class PreGenerationServiceTest {
         chapter2.setId("chapter-2");
         when(chapterRepository.findByBookIdOrderByChapterIndex(bookId)).thenReturn(List.of(chapter1, chapter2));
 
-        when(illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.COMPLETED)).thenReturn(List.of());
-        when(illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.FAILED)).thenReturn(List.of());
-        when(illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.PENDING)).thenReturn(List.of());
-        when(illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.GENERATING)).thenReturn(List.of());
-
-        when(characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.COMPLETED)).thenReturn(List.of());
-        when(characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.FAILED)).thenReturn(List.of());
-        when(characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.PENDING)).thenReturn(List.of());
-        when(characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.GENERATING)).thenReturn(List.of());
-
-        when(chapterAnalysisRepository.findByChapterBookIdAndStatus(bookId, ChapterAnalysisStatus.PENDING)).thenReturn(List.of());
-        when(chapterAnalysisRepository.findByChapterBookIdAndStatus(bookId, ChapterAnalysisStatus.GENERATING)).thenReturn(List.of());
-        when(chapterAnalysisRepository.findByChapterBookIdAndStatusIsNull(bookId)).thenReturn(List.of());
-
-        when(chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.COMPLETED)).thenReturn(List.of());
-        when(chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.FAILED)).thenReturn(List.of());
-        when(chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.PENDING)).thenReturn(List.of());
-        when(chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.GENERATING)).thenReturn(List.of());
-        when(chapterRecapRepository.findByChapterBookIdAndStatusIsNull(bookId)).thenReturn(List.of());
-
         PreGenerationService.PreGenResult result = preGenerationService.preGenerateForBook(bookId);
 
-        verify(chapterRecapService, times(2)).requestChapterRecap(org.mockito.ArgumentMatchers.anyString());
+        verify(chapterRecapService, times(2)).requestChapterRecap(anyString(), eq(GenerationScheduler.Priority.BATCH));
         verify(characterService).retryFailedPortraitsForBook(bookId);
         assertTrue(result.success());
         assertEquals(2, result.chaptersProcessed());
@@ -143,26 +129,9 @@ class PreGenerationServiceTest {
         chapter2.setId("chapter-2");
         when(chapterRepository.findByBookIdOrderByChapterIndex(bookId)).thenReturn(List.of(chapter1, chapter2));
 
-        when(illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.COMPLETED)).thenReturn(List.of());
-        when(illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.FAILED)).thenReturn(List.of());
-        when(illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.PENDING)).thenReturn(List.of());
-        when(illustrationRepository.findByChapterBookIdAndStatus(bookId, IllustrationStatus.GENERATING)).thenReturn(List.of());
-
-        when(characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.COMPLETED)).thenReturn(List.of());
-        when(characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.FAILED)).thenReturn(List.of());
-        when(characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.PENDING)).thenReturn(List.of());
-        when(characterRepository.findByBookIdAndStatus(bookId, CharacterStatus.GENERATING)).thenReturn(List.of());
-
-        when(chapterAnalysisRepository.findByChapterBookIdAndStatus(bookId, ChapterAnalysisStatus.PENDING)).thenReturn(List.of());
-        when(chapterAnalysisRepository.findByChapterBookIdAndStatus(bookId, ChapterAnalysisStatus.GENERATING)).thenReturn(List.of());
-        when(chapterAnalysisRepository.findByChapterBookIdAndStatusIsNull(bookId)).thenReturn(List.of());
-
-        when(chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.COMPLETED)).thenReturn(List.of());
-        when(chapterRecapRepository.findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.FAILED)).thenReturn(List.of());
-
         PreGenerationService.PreGenResult result = preGenerationService.preGenerateImagesForBook(bookId);
 
-        verify(chapterRecapService, never()).requestChapterRecap(org.mockito.ArgumentMatchers.anyString());
+        verify(chapterRecapService, never()).requestChapterRecap(anyString(), any());
         verify(chapterRecapService, never()).forceQueuePendingForBook(bookId);
         verify(characterService).retryFailedPortraitsForBook(bookId);
         assertTrue(result.success());
@@ -172,4 +141,37 @@ class PreGenerationServiceTest {
         assertEquals(0, result.newRecaps());
         assertEquals("No new image assets required", result.message());
     }
+
+    @Test
+    void preGenerateRecapsForBook_recountsWhenAJobForTheBookFinishes() {
+        String bookId = "book-1";
+        BookEntity book = new BookEntity("Title", "Author", "gutenberg");
+        book.setId(bookId);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        ChapterEntity chapter = new ChapterEntity(0, "Chapter 1");
+        chapter.setId("chapter-1");
+        when(chapterRepository.findByBookIdOrderByChapterIndex(bookId)).thenReturn(List.of(chapter));
+        when(chapterRecapRepository.countGroupedByStatusForBook(eq(bookId), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(StatusCount.of(ChapterRecapStatus.PENDING, 1L, 0L)))
+                .thenReturn(List.of(StatusCount.of(ChapterRecapStatus.COMPLETED, 1L, 0L)));
+        // Long enough that only the completion event can end the wait within the timeout below
+        ReflectionTestUtils.setField(preGenerationService, "pollIntervalSeconds", 60);
+
+        ScheduledExecutorService events = Executors.newSingleThreadScheduledExecutor();
+        events.scheduleAtFixedRate(() -> preGenerationService.onGenerationCompleted(
+                new GenerationCompletedEvent(GenerationScheduler.Lane.RECAP, "chapter-1", bookId)),
+                100, 100, TimeUnit.MILLISECONDS);
+        try {
+            PreGenerationService.PreGenResult result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> preGenerationService.preGenerateRecapsForBook(bookId));
+
+            assertTrue(result.success());
+            assertEquals(1, result.recapsCompleted());
+            assertEquals(1, result.newRecaps());
+            verify(chapterRecapRepository, never()).findByChapterBookIdAndStatus(bookId, ChapterRecapStatus.PENDING);
+        } finally {
+            events.shutdownNow();
+        }
+    }
 }
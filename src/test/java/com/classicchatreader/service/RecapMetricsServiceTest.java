@@ -0,0 +1,25 @@
+package com.classicchatreader.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecapMetricsServiceTest {
+
+    @Test
+    void snapshot_reportsCompletionsInTheLastMinute() {
+        RecapMetricsService metricsService = new RecapMetricsService();
+
+        metricsService.recordGenerationCompleted(false, 100);
+        metricsService.recordGenerationCompleted(true, 300);
+        metricsService.recordGenerationFailed(200);
+
+        Map<String, Object> snapshot = metricsService.snapshot();
+
+        assertEquals(2L, snapshot.get("generationCompleted"));
+        assertEquals(2L, snapshot.get("generationCompletedPerMinute"));
+        assertEquals(200L, snapshot.get("generationAverageLatencyMs"));
+    }
+}
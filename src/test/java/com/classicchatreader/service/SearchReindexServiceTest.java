@@ -0,0 +1,170 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.entity.BookEntity;
+import com.classicchatreader.repository.BookRepository;
+import com.classicchatreader.repository.ParagraphRepository;
+import com.classicchatreader.repository.ParagraphRepository.BookContentSummary;
+import com.classicchatreader.repository.ParagraphRepository.IndexableParagraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchReindexServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private ParagraphRepository paragraphRepository;
+
+    private SearchService searchService;
+    private SearchReindexService searchReindexService;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new SearchService();
+        searchReindexService = new SearchReindexService(bookRepository, paragraphRepository, searchService, 2, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        searchReindexService.shutdown();
+        searchService.close();
+    }
+
+    @Test
+    void reindexAll_pagesParagraphsAcrossWorkersAndReportsProgress() throws Exception {
+        BookEntity moby = book("moby-dick", "Moby Dick", "Herman Melville");
+        when(bookRepository.findAll()).thenReturn(List.of(moby));
+        when(paragraphRepository.summarizeContentByBook()).thenReturn(List.of(summary("moby-dick", 3, 60)));
+        when(paragraphRepository.findIndexableByBookId("moby-dick", PageRequest.of(0, 2))).thenReturn(new SliceImpl<>(
+                List.of(row("ch1", 0, 0, "Call me Ishmael."), row("ch1", 0, 1, "Some years ago.")),
+                PageRequest.of(0, 2),
+                true));
+        when(paragraphRepository.findIndexableByBookId("moby-dick", PageRequest.of(1, 2))).thenReturn(new SliceImpl<>(
+                List.of(row("ch2", 1, 0, "The white whale surfaced.")),
+                PageRequest.of(1, 2),
+                false));
+
+        int reindexed = searchReindexService.reindexAll();
+
+        assertEquals(1, reindexed);
+        assertEquals(1, searchService.search("whale", 10).size());
+        assertEquals("ch2", searchService.search("whale", 10).get(0).chapterId());
+        Map<String, Object> progress = searchReindexService.snapshot();
+        assertEquals(false, progress.get("reindexRunning"));
+        assertEquals(1, progress.get("booksCompleted"));
+        assertEquals(3L, progress.get("paragraphsIndexed"));
+        assertEquals(3L, progress.get("paragraphsTotal"));
+    }
+
+    @Test
+    void reindexChanged_skipsBooksWhoseVersionMatchesAndDropsStaleBooks() throws Exception {
+        BookEntity moby = book("moby-dick", "Moby Dick", "Herman Melville");
+        BookContentSummary mobySummary = summary("moby-dick", 0, 0);
+        searchService.indexBook("moby-dick", "Moby Dick", "Herman Melville",
+                SearchReindexService.contentVersion("Moby Dick", "Herman Melville", mobySummary));
+        searchService.indexParagraph("deleted-book", "ch1", 0, 0, "A vanished paragraph.");
+        searchService.indexBook("deleted-book", "Deleted", "Nobody", "1:21:0");
+        when(bookRepository.findAll()).thenReturn(List.of(moby));
+        when(paragraphRepository.summarizeContentByBook()).thenReturn(List.of(mobySummary));
+
+        int reindexed = searchReindexService.reindexChanged();
+
+        assertEquals(0, reindexed);
+        verify(paragraphRepository, never()).findIndexableByBookId(eq("moby-dick"), any());
+        assertTrue(searchService.search("vanished", 10).isEmpty());
+        assertEquals(Map.of("moby-dick", SearchReindexService.contentVersion("Moby Dick", "Herman Melville", mobySummary)),
+                searchService.getIndexedBookVersions());
+        assertFalse(searchReindexService.isRunning());
+    }
+
+    @Test
+    void contentVersion_changesWhenAParagraphIsEditedWithoutChangingItsLength() {
+        LocalDateTime imported = LocalDateTime.of(2026, 1, 5, 9, 0);
+
+        String before = SearchReindexService.contentVersion("Moby Dick", "Herman Melville",
+                summary("moby-dick", 3, 60, imported));
+        String after = SearchReindexService.contentVersion("Moby Dick", "Herman Melville",
+                summary("moby-dick", 3, 60, imported.plusMinutes(1)));
+
+        assertFalse(before.equals(after));
+    }
+
+    private BookEntity book(String id, String title, String author) {
+        BookEntity book = new BookEntity(title, author, "gutenberg");
+        book.setId(id);
+        return book;
+    }
+
+    private BookContentSummary summary(String bookId, long paragraphCount, long contentLength) {
+        return summary(bookId, paragraphCount, contentLength, null);
+    }
+
+    private BookContentSummary summary(String bookId, long paragraphCount, long contentLength,
+                                       LocalDateTime lastUpdated) {
+        return new BookContentSummary() {
+            @Override
+            public String getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public long getParagraphCount() {
+                return paragraphCount;
+            }
+
+            @Override
+            public long getContentLength() {
+                return contentLength;
+            }
+
+            @Override
+            public LocalDateTime getLastUpdated() {
+                return lastUpdated;
+            }
+        };
+    }
+
+    private IndexableParagraph row(String chapterId, int chapterIndex, int paragraphIndex, String content) {
+        return new IndexableParagraph() {
+            @Override
+            public String getChapterId() {
+                return chapterId;
+            }
+
+            @Override
+            public int getChapterIndex() {
+                return chapterIndex;
+            }
+
+            @Override
+            public int getParagraphIndex() {
+                return paragraphIndex;
+            }
+
+            @Override
+            public String getContent() {
+                return content;
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.service.SearchService.SearchPage;
+import com.classicchatreader.service.SearchService.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SearchResultCacheTest {
+
+    @Test
+    void get_normalizesWhitespaceAndMissesOnceReaderVersionMoves() {
+        SearchResultCache cache = new SearchResultCache(1_000_000);
+        SearchPage page = page("whale");
+        cache.put(SearchResultCache.Key.of("white  whale", "moby", null, 20, null), 1, page);
+
+        assertSame(page, cache.get(SearchResultCache.Key.of(" white whale ", "moby", "", 20, null), 1));
+        assertNull(cache.get(SearchResultCache.Key.of("white whale", "moby", null, 20, null), 2));
+
+        Map<String, Object> metrics = cache.snapshot();
+        assertEquals(1L, metrics.get("hits"));
+        assertEquals(1L, metrics.get("misses"));
+        assertEquals(1L, metrics.get("invalidations"));
+        assertEquals(0, metrics.get("entries"));
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedWhenOverByteBudget() {
+        SearchResultCache probe = new SearchResultCache(Long.MAX_VALUE);
+        probe.put(SearchResultCache.Key.of("a", null, null, 20, null), 1, page("a"));
+        long entryBytes = (long) probe.snapshot().get("bytes");
+        SearchResultCache cache = new SearchResultCache(entryBytes * 2);
+
+        cache.put(SearchResultCache.Key.of("a", null, null, 20, null), 1, page("a"));
+        cache.put(SearchResultCache.Key.of("b", null, null, 20, null), 1, page("b"));
+        cache.get(SearchResultCache.Key.of("a", null, null, 20, null), 1);
+        cache.put(SearchResultCache.Key.of("c", null, null, 20, null), 1, page("c"));
+
+        assertNull(cache.get(SearchResultCache.Key.of("b", null, null, 20, null), 1));
+        assertEquals(page("a"), cache.get(SearchResultCache.Key.of("a", null, null, 20, null), 1));
+        assertEquals(1L, cache.snapshot().get("evictions"));
+    }
+
+    @Test
+    void invalidateOlderThan_dropsStaleEntries() {
+        SearchResultCache cache = new SearchResultCache(1_000_000);
+        cache.put(SearchResultCache.Key.of("a", null, null, 20, null), 1, page("a"));
+        cache.put(SearchResultCache.Key.of("b", null, null, 20, null), 3, page("b"));
+
+        cache.invalidateOlderThan(3);
+
+        assertEquals(1, cache.snapshot().get("entries"));
+        assertEquals(1L, cache.snapshot().get("invalidations"));
+    }
+
+    private SearchPage page(String term) {
+        return new SearchPage(
+                List.of(new SearchResult("paragraph", "moby", "ch1", 0, null, "<mark>" + term + "</mark>", 1.0f)),
+                1, true, null, null);
+    }
+}
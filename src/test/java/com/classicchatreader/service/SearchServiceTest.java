@@ -1,10 +1,23 @@
 package com.classicchatreader.service;
 
+import com.classicchatreader.model.Paragraph;
+import com.classicchatreader.service.SearchService.FacetCount;
+import com.classicchatreader.service.SearchService.ReadingPosition;
+import com.classicchatreader.service.SearchService.SearchFacets;
+import com.classicchatreader.service.SearchService.SearchPage;
 import com.classicchatreader.service.SearchService.SearchResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -41,8 +54,8 @@ class SearchServiceTest {
 
     @Test
     void searchParagraph_returnsMatchWithIndex() throws Exception {
-        searchService.indexParagraph("moby-dick", "ch1", 0, "Call me Ishmael.");
-        searchService.indexParagraph("moby-dick", "ch1", 1, "Some years ago.");
+        searchService.indexParagraph("moby-dick", "ch1", 0, 0, "Call me Ishmael.");
+        searchService.indexParagraph("moby-dick", "ch1", 0, 1, "Some years ago.");
 
         List<SearchResult> results = searchService.search("Ishmael", 10);
 
@@ -58,9 +71,9 @@ class SearchServiceTest {
 
     @Test
     void searchParagraph_returnsMultipleMatches() throws Exception {
-        searchService.indexParagraph("book1", "ch1", 0, "The quick brown fox.");
-        searchService.indexParagraph("book1", "ch1", 1, "The lazy dog sleeps.");
-        searchService.indexParagraph("book2", "ch1", 0, "The sun rises early.");
+        searchService.indexParagraph("book1", "ch1", 0, 0, "The quick brown fox.");
+        searchService.indexParagraph("book1", "ch1", 0, 1, "The lazy dog sleeps.");
+        searchService.indexParagraph("book2", "ch1", 0, 0, "The sun rises early.");
 
         List<SearchResult> results = searchService.search("The", 10);
 
@@ -69,9 +82,9 @@ class SearchServiceTest {
 
     @Test
     void search_withLimit_respectsMaxResults() throws Exception {
-        searchService.indexParagraph("book1", "ch1", 0, "Word one.");
-        searchService.indexParagraph("book1", "ch1", 1, "Word two.");
-        searchService.indexParagraph("book1", "ch1", 2, "Word three.");
+        searchService.indexParagraph("book1", "ch1", 0, 0, "Word one.");
+        searchService.indexParagraph("book1", "ch1", 0, 1, "Word two.");
+        searchService.indexParagraph("book1", "ch1", 0, 2, "Word three.");
 
         List<SearchResult> results = searchService.search("Word", 2);
 
@@ -90,7 +103,7 @@ class SearchServiceTest {
     @Test
     void search_mixedResults_returnsBooksAndParagraphs() throws Exception {
         searchService.indexBook("moby-dick", "Moby Dick", "Herman Melville");
-        searchService.indexParagraph("moby-dick", "ch1", 0, "Call me Ishmael from Moby Dick.");
+        searchService.indexParagraph("moby-dick", "ch1", 0, 0, "Call me Ishmael from Moby Dick.");
 
         List<SearchResult> results = searchService.search("Moby", 10);
 
@@ -102,19 +115,39 @@ class SearchServiceTest {
     @Test
     void searchParagraph_longContent_truncatesSnippet() throws Exception {
         String longContent = "This is a very long paragraph that contains more than one hundred characters and should be truncated when returned as a snippet in search results.";
-        searchService.indexParagraph("book1", "ch1", 0, longContent);
+        searchService.indexParagraph("book1", "ch1", 0, 0, longContent);
 
         List<SearchResult> results = searchService.search("paragraph", 10);
 
         assertEquals(1, results.size());
-        assertTrue(results.get(0).snippet().contains("paragraph"));
+        assertTrue(results.get(0).snippet().contains("<mark>paragraph</mark>"));
         assertTrue(results.get(0).snippet().startsWith("...") || results.get(0).snippet().endsWith("..."));
     }
 
+    @Test
+    void searchParagraph_phraseQuery_marksOnlyThePhraseOccurrence() throws Exception {
+        searchService.indexParagraph("moby-dick", "ch1", 0, 0, "The white whale rose. A whale is not a white ship.");
+
+        List<SearchResult> results = searchService.search("\"white whale\"", 10);
+
+        assertEquals(1, results.size());
+        assertEquals("The <mark>white whale</mark> rose. A whale is not a white ship.", results.get(0).snippet());
+    }
+
+    @Test
+    void searchParagraph_fuzzyQuery_marksMatchedTermAndEscapesHtml() throws Exception {
+        searchService.indexParagraph("book1", "ch1", 0, 0, "Raskolnikov & Razumikhin <talked> late.");
+
+        List<SearchResult> results = searchService.search("Raskolnikoff~2", 10);
+
+        assertEquals(1, results.size());
+        assertEquals("<mark>Raskolnikov</mark> &amp; Razumikhin &lt;talked&gt; late.", results.get(0).snippet());
+    }
+
     @Test
     void search_withBookId_filtersToSpecificBook() throws Exception {
-        searchService.indexParagraph("book1", "ch1", 0, "The quick brown fox.");
-        searchService.indexParagraph("book2", "ch1", 0, "The lazy dog sleeps.");
+        searchService.indexParagraph("book1", "ch1", 0, 0, "The quick brown fox.");
+        searchService.indexParagraph("book2", "ch1", 0, 0, "The lazy dog sleeps.");
 
         List<SearchResult> results = searchService.search("The", "book1", 10);
 
@@ -124,8 +157,8 @@ class SearchServiceTest {
 
     @Test
     void search_withBookId_returnsEmptyWhenNoMatchInBook() throws Exception {
-        searchService.indexParagraph("book1", "ch1", 0, "The quick brown fox.");
-        searchService.indexParagraph("book2", "ch1", 0, "The lazy dog sleeps.");
+        searchService.indexParagraph("book1", "ch1", 0, 0, "The quick brown fox.");
+        searchService.indexParagraph("book2", "ch1", 0, 0, "The lazy dog sleeps.");
 
         List<SearchResult> results = searchService.search("fox", "book2", 10);
 
@@ -134,12 +167,271 @@ class SearchServiceTest {
 
     @Test
     void search_withChapterId_filtersToSpecificChapter() throws Exception {
-        searchService.indexParagraph("book1", "ch1", 0, "The quick brown fox.");
-        searchService.indexParagraph("book1", "ch2", 0, "The sly red fox.");
+        searchService.indexParagraph("book1", "ch1", 0, 0, "The quick brown fox.");
+        searchService.indexParagraph("book1", "ch2", 1, 0, "The sly red fox.");
 
         List<SearchResult> results = searchService.search("fox", "book1", "ch2", 10);
 
         assertEquals(1, results.size());
         assertEquals("ch2", results.get(0).chapterId());
     }
+
+    @Test
+    void indexParagraphs_batch_isSearchableBeforeCommit() throws Exception {
+        searchService.indexParagraphs("moby-dick", "ch1", 0, List.of(
+            new Paragraph(0, "Call me Ishmael."),
+            new Paragraph(1, "Some years ago, never mind how long precisely.")
+        ));
+
+        List<SearchResult> results = searchService.search("precisely", 10);
+
+        assertEquals(1, results.size());
+        assertEquals(1, results.get(0).paragraphIndex());
+    }
+
+    @Test
+    void deleteByBookId_removesBookFromSubsequentSearches() throws Exception {
+        searchService.indexParagraph("book1", "ch1", 0, 0, "The quick brown fox.");
+        assertEquals(1, searchService.search("fox", 10).size());
+
+        searchService.deleteByBookId("book1");
+        searchService.commit();
+
+        assertTrue(searchService.search("fox", 10).isEmpty());
+    }
+
+    @Test
+    void persistentIndex_survivesReopenWithBookVersions(@TempDir Path indexDir) throws Exception {
+        SearchService first = new SearchService(indexDir.toString());
+        first.indexParagraph("moby-dick", "ch1", 0, 0, "Call me Ishmael.");
+        first.indexBook("moby-dick", "Moby Dick", "Herman Melville", "1:16:abc");
+        first.commit();
+        first.close();
+
+        SearchService reopened = new SearchService(indexDir.toString());
+        List<SearchResult> results = reopened.search("Ishmael", 10);
+        Map<String, String> versions = reopened.getIndexedBookVersions();
+        reopened.close();
+
+        assertTrue(reopened.isPersistent());
+        assertEquals(1, results.size());
+        assertEquals(Map.of("moby-dick", "1:16:abc"), versions);
+    }
+
+    @Test
+    void getIndexedBookVersions_inMemoryIndexWithoutBooks_returnsEmpty() throws Exception {
+        assertTrue(searchService.getIndexedBookVersions().isEmpty());
+        assertFalse(searchService.isPersistent());
+    }
+
+    @Test
+    void searchPage_cursorWalksEveryHitExactlyOnce() throws Exception {
+        List<Paragraph> paragraphs = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            paragraphs.add(new Paragraph(i, "The whale surfaced near paragraph " + i + "."));
+        }
+        searchService.indexParagraphs("moby-dick", "ch1", 0, paragraphs);
+
+        Set<Integer> seen = new HashSet<>();
+        SearchPage page = searchService.searchPage("whale", "moby-dick", null, 3, null);
+        assertEquals(7, page.totalHits());
+        assertTrue(page.totalHitsExact());
+        int pages = 0;
+        while (true) {
+            pages++;
+            page.results().forEach(result -> assertTrue(seen.add(result.paragraphIndex())));
+            if (page.nextCursor() == null) {
+                break;
+            }
+            page = searchService.searchPage("whale", "moby-dick", null, 3, page.nextCursor());
+        }
+
+        assertEquals(3, pages);
+        assertEquals(7, seen.size());
+    }
+
+    @Test
+    void searchPage_rejectsCursorFromAnotherQueryOrGarbage() throws Exception {
+        searchService.indexParagraph("moby-dick", "ch1", 0, 0, "The whale surfaced.");
+        searchService.indexParagraph("moby-dick", "ch1", 0, 1, "The whale dived.");
+        String cursor = searchService.searchPage("whale", null, null, 1, null).nextCursor();
+        assertNotNull(cursor);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.searchPage("surfaced", null, null, 1, cursor));
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.searchPage("whale", null, null, 1, "not a cursor!"));
+    }
+
+    @Test
+    void searchPage_cursorKeepsWalkingTheSnapshotItCameFromAfterTheIndexChanges() throws Exception {
+        searchService.indexParagraph("moby-dick", "ch1", 0, 0, "The whale surfaced.");
+        searchService.indexParagraph("moby-dick", "ch1", 0, 1, "The whale dived.");
+        SearchPage first = searchService.searchPage("whale", null, null, 1, null);
+        assertNotNull(first.nextCursor());
+
+        searchService.indexParagraph("other-book", "ch1", 0, 0, "A whale breached.");
+        assertEquals(3, searchService.searchPage("whale", null, null, 1, null).totalHits());
+
+        SearchPage second = searchService.searchPage("whale", null, null, 1, first.nextCursor());
+        assertEquals(1, second.results().size());
+        assertNotEquals(first.results().get(0).paragraphIndex(), second.results().get(0).paragraphIndex());
+        assertEquals("moby-dick", second.results().get(0).bookId());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void searchPage_rejectsCursorWhoseReaderExpired() throws Exception {
+        SearchService service = new SearchService("", 0, 0);
+        service.indexParagraph("moby-dick", "ch1", 0, 0, "The whale surfaced.");
+        service.indexParagraph("moby-dick", "ch1", 0, 1, "The whale dived.");
+        String cursor = service.searchPage("whale", null, null, 1, null).nextCursor();
+        assertNotNull(cursor);
+
+        service.indexParagraph("moby-dick", "ch1", 0, 2, "A whale breached.");
+        service.search("whale", 10);
+
+        assertThrows(IllegalArgumentException.class, () -> service.searchPage("whale", null, null, 1, cursor));
+        service.close();
+    }
+
+    @Test
+    void searchPage_firstPageCountsHitsPerTypeBookAuthorAndChapter() throws Exception {
+        searchService.indexParagraphs("pride", "p1", 0, List.of(
+                new Paragraph(0, "Elizabeth walked to Netherfield."),
+                new Paragraph(1, "Elizabeth laughed.")));
+        searchService.indexParagraphs("pride", "p2", 1, List.of(new Paragraph(0, "Elizabeth read the letter.")));
+        searchService.indexBook("pride", "Pride and Prejudice", "Jane Austen");
+        searchService.indexParagraphs("emma", "e1", 0, List.of(new Paragraph(0, "Emma thought of Elizabeth.")));
+        searchService.indexBook("emma", "Emma", "Jane Austen");
+        searchService.indexParagraphs("moby", "m1", 0, List.of(new Paragraph(0, "No one here is named like that.")));
+        searchService.indexBook("moby", "Moby Dick", "Herman Melville");
+
+        SearchPage page = searchService.searchPage("Elizabeth", null, null, 1, null);
+
+        SearchFacets facets = page.facets();
+        assertNotNull(facets);
+        assertEquals(Map.of("paragraph", 4), facets.types());
+        assertEquals(List.of(new FacetCount("pride", "Pride and Prejudice", 3), new FacetCount("emma", "Emma", 1)),
+                facets.books());
+        assertEquals(List.of(new FacetCount("Jane Austen", "Jane Austen", 4)), facets.authors());
+        assertEquals(List.of(new FacetCount("p1", null, 2), new FacetCount("e1", null, 1), new FacetCount("p2", null, 1)),
+                facets.chapters());
+        assertNull(searchService.searchPage("Elizabeth", null, null, 1, page.nextCursor()).facets());
+    }
+
+    @Test
+    void search_skipsFacetCountsWithoutHidingThemFromTheFirstPage() throws Exception {
+        indexWhaleChapters();
+
+        assertEquals(5, searchService.search("whale", 10).size());
+        SearchPage page = searchService.searchPage("whale", null, null, 10, null);
+
+        assertNotNull(page.facets(), "a cached plain search must not stand in for a faceted first page");
+        assertEquals(Map.of("paragraph", 5), page.facets().types());
+        assertEquals(0L, searchService.cacheSnapshot().get("hits"));
+    }
+
+    @Test
+    void searchPage_servesRepeatsFromCacheUntilIndexChanges() throws Exception {
+        searchService.indexParagraph("moby-dick", "ch1", 0, 0, "The whale surfaced.");
+
+        SearchPage first = searchService.searchPage("whale", "moby-dick", null, 10, null);
+        assertSame(first, searchService.searchPage("  whale ", "moby-dick", null, 10, null));
+        assertEquals(1L, searchService.cacheSnapshot().get("hits"));
+
+        searchService.indexParagraph("moby-dick", "ch1", 0, 1, "Another whale.");
+        SearchPage refreshed = searchService.searchPage("whale", "moby-dick", null, 10, null);
+
+        assertEquals(2, refreshed.totalHits());
+        assertEquals(1L, searchService.cacheSnapshot().get("invalidations"));
+    }
+
+    @Test
+    void search_upToReadingPosition_excludesLaterParagraphs() throws Exception {
+        indexWhaleChapters();
+
+        List<SearchResult> results = searchService.search("whale", "moby-dick", null, new ReadingPosition(1, 1), 10);
+
+        assertEquals(Set.of("ch1:0", "ch1:2", "ch2:1"), results.stream()
+                .map(result -> result.chapterId() + ":" + result.paragraphIndex())
+                .collect(Collectors.toSet()));
+        assertEquals(4, searchService.search("whale", "moby-dick", null, ReadingPosition.endOfChapter(1), 10).size());
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search("whale", null, null, new ReadingPosition(1, 1), 10));
+    }
+
+    @Test
+    void nextOccurrence_walksMatchesInReadingOrderWithinBound() throws Exception {
+        indexWhaleChapters();
+        ReadingPosition upTo = ReadingPosition.endOfChapter(1);
+
+        List<String> visited = new ArrayList<>();
+        ReadingPosition position = null;
+        Optional<SearchResult> next;
+        while ((next = searchService.nextOccurrence("whale", "moby-dick", position, upTo)).isPresent()) {
+            SearchResult hit = next.get();
+            visited.add(hit.chapterId() + ":" + hit.paragraphIndex());
+            position = new ReadingPosition("ch1".equals(hit.chapterId()) ? 0 : 1, hit.paragraphIndex());
+        }
+
+        assertEquals(List.of("ch1:0", "ch1:2", "ch2:1", "ch2:3"), visited);
+    }
+
+    private void indexWhaleChapters() throws Exception {
+        searchService.indexParagraphs("moby-dick", "ch1", 0, List.of(
+                new Paragraph(0, "A whale in the harbour."),
+                new Paragraph(1, "Nothing here."),
+                new Paragraph(2, "Another whale sighting.")));
+        searchService.indexParagraphs("moby-dick", "ch2", 1, List.of(
+                new Paragraph(0, "Quiet seas."),
+                new Paragraph(1, "The whale returns."),
+                new Paragraph(2, "Calm again."),
+                new Paragraph(3, "The whale is white.")));
+        searchService.indexParagraphs("moby-dick", "ch3", 2, List.of(new Paragraph(0, "The whale sinks the ship.")));
+        searchService.indexBook("moby-dick", "Moby Dick", "Herman Melville");
+    }
+
+    @Test
+    void search_matchesStemsAndFallsBackToSpellingVariantsAndTyposOnlyWithoutExactMatches() throws Exception {
+        searchService.indexParagraphs("crime", "ch1", 0, List.of(
+                new Paragraph(0, "Raskolnikov crossed the bridge."),
+                new Paragraph(1, "The whales were singing."),
+                new Paragraph(2, "Razumikhin waited for Raskolnikoff.")));
+
+        List<SearchResult> exact = searchService.search("Raskolnikoff", 10);
+        assertEquals(1, exact.size(), "sound-alikes do not widen a query that matches as written");
+        assertEquals(2, exact.get(0).paragraphIndex());
+
+        assertEquals(1, searchService.search("whale", 10).size());
+        assertTrue(searchService.search("Raskolnkov", 10).stream()
+                .anyMatch(result -> result.paragraphIndex() == 0), "one-letter typo still matches");
+        assertEquals(2, searchService.search("Raskolnikof", 10).size(), "sound-alike spelling still matches");
+    }
+
+    @Test
+    void search_phoneticCodesDoNotAddUnrelatedWords() throws Exception {
+        searchService.indexParagraphs("pride", "ch1", 0, List.of(
+                new Paragraph(0, "She wore a white dress."),
+                new Paragraph(1, "Her tears fell on the letter."),
+                new Paragraph(2, "Mr. Darcy arrived.")));
+
+        SearchPage page = searchService.searchPage("Darcy", null, null, 10, null);
+        assertEquals(1, page.totalHits());
+        assertEquals(2, page.results().get(0).paragraphIndex());
+
+        Optional<SearchResult> first = searchService.nextOccurrence("Darcy", "pride", null, null);
+        assertEquals(2, first.orElseThrow().paragraphIndex(), "skips the dress paragraph");
+        assertTrue(searchService.nextOccurrence("Darcy", "pride", new ReadingPosition(0, 2), null).isEmpty());
+    }
+
+    @Test
+    void searchBook_byMisspelledAuthor_matchesTitleAndAuthorTrigrams() throws Exception {
+        searchService.indexBook("brothers", "The Brothers Karamazov", "Fyodor Dostoevsky");
+
+        List<SearchResult> results = searchService.search("Dostoyevsky", 10);
+
+        assertEquals(1, results.size());
+        assertEquals("brothers", results.get(0).bookId());
+    }
 }
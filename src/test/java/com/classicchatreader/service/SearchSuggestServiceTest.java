@@ -0,0 +1,102 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.entity.BookEntity;
+import com.classicchatreader.entity.CharacterType;
+import com.classicchatreader.repository.BookRepository;
+import com.classicchatreader.repository.CharacterRepository;
+import com.classicchatreader.repository.CharacterRepository.CharacterNameRow;
+import com.classicchatreader.service.SearchService.ReadingPosition;
+import com.classicchatreader.service.SearchSuggestService.Suggestion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchSuggestServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private CharacterRepository characterRepository;
+
+    @Test
+    void suggest_hidesCharactersIntroducedAfterReadingPositionAndReusesSuggester() {
+        SearchSuggestService service = new SearchSuggestService(bookRepository, characterRepository, 60, 16);
+        when(characterRepository.countByBookId("crime")).thenReturn(2L);
+        when(characterRepository.findNameRowsByBookId("crime")).thenReturn(List.of(
+                row("c1", "Rodion Raskolnikov", CharacterType.PRIMARY, 0, 2),
+                row("c2", "Razumikhin", CharacterType.SECONDARY, 3, 0)));
+
+        List<Suggestion> early = service.suggest("ra", "crime", new ReadingPosition(2, 10), 5);
+        List<Suggestion> all = service.suggest("ra", "crime", null, 5);
+
+        assertEquals(List.of(new Suggestion("character", "c1", "crime", "Rodion Raskolnikov")), early);
+        assertEquals(2, all.size());
+        verify(characterRepository, times(1)).findNameRowsByBookId("crime");
+    }
+
+    @Test
+    void suggest_withoutBook_returnsTitlesAndAuthors() {
+        SearchSuggestService service = new SearchSuggestService(bookRepository, characterRepository, 60, 16);
+        BookEntity book = new BookEntity("Crime and Punishment", "Fyodor Dostoevsky", "gutenberg");
+        book.setId("crime");
+        when(bookRepository.count()).thenReturn(1L);
+        when(bookRepository.findAll()).thenReturn(List.of(book));
+
+        assertEquals(List.of(new Suggestion("book", "crime", "crime", "Crime and Punishment")),
+                service.suggest("crim", null, null, 5));
+        assertEquals(List.of(new Suggestion("author", "Fyodor Dostoevsky", null, "Fyodor Dostoevsky")),
+                service.suggest("dostoev", "", null, 5));
+    }
+
+    @Test
+    void suggest_unknownBook_returnsNothingWithoutCachingASuggester() {
+        SearchSuggestService service = new SearchSuggestService(bookRepository, characterRepository, 60, 16);
+        when(characterRepository.countByBookId("missing")).thenReturn(0L);
+
+        assertTrue(service.suggest("ra", "missing", null, 5).isEmpty());
+        assertTrue(service.suggest("ra", "missing", null, 5).isEmpty());
+
+        verify(characterRepository, times(2)).countByBookId("missing");
+        verify(characterRepository, never()).findNameRowsByBookId("missing");
+    }
+
+    private CharacterNameRow row(String id, String name, CharacterType type, int chapterIndex, int paragraphIndex) {
+        return new CharacterNameRow() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public CharacterType getCharacterType() {
+                return type;
+            }
+
+            @Override
+            public int getChapterIndex() {
+                return chapterIndex;
+            }
+
+            @Override
+            public int getParagraphIndex() {
+                return paragraphIndex;
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.classicchatreader.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String> flights = new SingleFlight<>();
+
+    @Test
+    void execute_concurrentCallersForSameKeyShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> flights.execute("a.mp3", () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "audio";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> flights.execute("a.mp3", () -> {
+            loads.incrementAndGet();
+            return "second";
+        }));
+        while (!second.isDone() && flights.snapshot().get("joins").equals(0L)) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertEquals("audio", first.get(5, TimeUnit.SECONDS));
+        assertEquals("audio", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(0, flights.snapshot().get("inFlight"));
+    }
+
+    @Test
+    void execute_afterFailedLoad_nextCallerLoadsAgain() {
+        assertThrows(IllegalStateException.class, () -> flights.execute("a.mp3", () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+
+        assertEquals("audio", flights.execute("a.mp3", () -> "audio"));
+        assertEquals(2L, flights.snapshot().get("loads"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.classicchatreader.service;
+
+import com.classicchatreader.entity.BookEntity;
+import com.classicchatreader.entity.ChapterEntity;
+import com.classicchatreader.entity.ParagraphEntity;
+import com.classicchatreader.model.VoiceSettings;
+import com.classicchatreader.repository.BookRepository;
+import com.classicchatreader.repository.ChapterRepository;
+import com.classicchatreader.repository.ParagraphRepository;
+import com.classicchatreader.service.GenerationScheduler.Backend;
+import com.classicchatreader.service.GenerationScheduler.JobHandler;
+import com.classicchatreader.service.GenerationScheduler.Lane;
+import com.classicchatreader.service.GenerationScheduler.Priority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TtsPreSynthesisServiceTest {
+
+    @Mock
+    private TtsService ttsService;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ChapterRepository chapterRepository;
+
+    @Mock
+    private ParagraphRepository paragraphRepository;
+
+    @Mock
+    private AssetKeyService assetKeyService;
+
+    @Mock
+    private GenerationScheduler generationScheduler;
+
+    private TtsPreSynthesisService service;
+    private BookEntity book;
+    private ChapterEntity chapter;
+
+    @BeforeEach
+    void setUp() {
+        service = new TtsPreSynthesisService(ttsService, bookRepository, chapterRepository, paragraphRepository,
+                assetKeyService, generationScheduler, 3);
+        ReflectionTestUtils.setField(service, "maxRetryAttempts", 3);
+        ReflectionTestUtils.setField(service, "initialRetryDelaySeconds", 30);
+
+        book = new BookEntity("Book One", "Author One", "gutenberg");
+        book.setId("book-1");
+        book.setTtsEnabled(true);
+        chapter = new ChapterEntity(2, "Chapter Three");
+        chapter.setId("chapter-1");
+        chapter.setBook(book);
+    }
+
+    @Test
+    void scheduleLookahead_queuesNextUncachedParagraphsUpToChapterEnd() {
+        when(ttsService.isConfigured()).thenReturn(true);
+        when(ttsService.isCacheOnly()).thenReturn(false);
+        when(ttsService.resolveVoice("fable")).thenReturn("fable");
+        when(assetKeyService.buildBookKey(book)).thenReturn("book-one");
+        when(ttsService.getCachedSpeechForParagraph("book-one", 2, 4, "fable"))
+                .thenReturn(new TtsService.CachedAudio(Path.of("4.mp3"), 10, "\"etag\""));
+        when(generationScheduler.enqueue(eq(Lane.TTS), anyString(), eq("book-1"), eq(Priority.PREFETCH),
+                anyString())).thenReturn(true);
+
+        int queued = service.scheduleLookahead(book, chapter, 3, 6, new VoiceSettings("fable", 1.1, "Calm", null));
+
+        assertEquals(1, queued);
+        verify(generationScheduler).enqueue(Lane.TTS, "book-1:chapter-1:5:fable", "book-1", Priority.PREFETCH,
+                "1|1.1|Calm");
+        verify(generationScheduler, times(1)).enqueue(any(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void scheduleLookahead_inCacheOnlyMode_queuesNothing() {
+        when(ttsService.isConfigured()).thenReturn(true);
+        when(ttsService.isCacheOnly()).thenReturn(true);
+
+        assertEquals(0, service.scheduleLookahead(book, chapter, 0, 10, new VoiceSettings("fable", 1.0, null, null)));
+        verify(generationScheduler, never()).enqueue(any(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void pregenerateChapter_withInstructionsTooLongForTheJobRow_queuesNothing() {
+        when(paragraphRepository.countByChapterId("chapter-1")).thenReturn(2);
+        when(ttsService.isConfigured()).thenReturn(true);
+        when(ttsService.isCacheOnly()).thenReturn(false);
+        when(ttsService.resolveVoice("fable")).thenReturn("fable");
+        when(assetKeyService.buildBookKey(book)).thenReturn("book-one");
+
+        TtsPreSynthesisService.Pregeneration result = service.pregenerateChapter(book, chapter,
+                new VoiceSettings("fable", 1.0, "x".repeat(4000), null));
+
+        assertEquals(new TtsPreSynthesisService.Pregeneration(2, 0, 0), result);
+        verify(generationScheduler, never()).enqueue(any(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void job_whenOpenAiThrottles_reportsThrottleAndRetriesWithNextAttempt() {
+        ArgumentCaptor<JobHandler> handler = ArgumentCaptor.forClass(JobHandler.class);
+        service.init();
+        verify(generationScheduler).register(eq(Lane.TTS), eq(Backend.OPENAI_TTS), handler.capture());
+
+        ParagraphEntity paragraph = new ParagraphEntity();
+        paragraph.setContent("<p>Hello there.</p>");
+        when(bookRepository.findById("book-1")).thenReturn(Optional.of(book));
+        when(chapterRepository.findById("chapter-1")).thenReturn(Optional.of(chapter));
+        when(paragraphRepository.findByChapterIdAndParagraphIndex("chapter-1", 0)).thenReturn(Optional.of(paragraph));
+        when(ttsService.isConfigured()).thenReturn(true);
+        when(ttsService.isCacheOnly()).thenReturn(false);
+        when(assetKeyService.buildBookKey(book)).thenReturn("book-one");
+        when(ttsService.generateSpeechForParagraph(eq("book-one"), eq(2), eq(0), eq("Hello there."), any()))
+                .thenThrow(WebClientResponseException.create(429, "Too Many Requests", null, null, null));
+
+        handler.getValue().run("book-1:chapter-1:0:fable", "1|1.0|");
+
+        verify(generationScheduler).reportThrottled();
+        verify(generationScheduler).retryLater(Lane.TTS, "book-1:chapter-1:0:fable", "2|1.0|", 30_000L);
+    }
+}
@@ -0,0 +1,71 @@
+package com.classicchatreader.service.llm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingLlmProviderTest {
+
+    private static final LlmOptions OPTIONS = LlmOptions.withTemperature(0.3);
+
+    @Mock
+    private LlmProvider delegate;
+
+    @TempDir
+    Path directory;
+
+    private CachingLlmProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        when(delegate.getProviderName()).thenReturn("xai");
+        when(delegate.getModelName()).thenReturn("grok");
+        provider = new CachingLlmProvider(delegate, new LlmResponseCache(directory, 1024));
+    }
+
+    @Test
+    void generate_callsProviderOncePerDistinctPrompt() {
+        when(delegate.generate("Extract characters", OPTIONS)).thenReturn("[\"Ishmael\"]");
+
+        assertEquals("[\"Ishmael\"]", provider.generate("Extract characters", OPTIONS));
+        assertEquals("[\"Ishmael\"]", provider.generate("Extract characters", OPTIONS));
+        assertEquals("[\"Ishmael\"]", provider.generateAsync("Extract characters", OPTIONS).block());
+
+        verify(delegate, times(1)).generate("Extract characters", OPTIONS);
+    }
+
+    @Test
+    void generateAsync_doesNotCacheBlankResponses() {
+        when(delegate.generateAsync("Describe the style", OPTIONS)).thenReturn(Mono.just(" "), Mono.just("Gothic"));
+
+        assertEquals(" ", provider.generateAsync("Describe the style", OPTIONS).block());
+        assertEquals("Gothic", provider.generateAsync("Describe the style", OPTIONS).block());
+        assertEquals("Gothic", provider.generateAsync("Describe the style", OPTIONS).block());
+
+        verify(delegate, times(2)).generateAsync("Describe the style", OPTIONS);
+    }
+
+    @Test
+    void evict_makesTheNextCallAskTheProviderAgain() {
+        when(delegate.generate("Summarize the chapter", OPTIONS)).thenReturn("not json", "{\"shortSummary\":\"ok\"}");
+
+        assertEquals("not json", provider.generate("Summarize the chapter", OPTIONS));
+        provider.evict("Summarize the chapter", OPTIONS);
+
+        assertEquals("{\"shortSummary\":\"ok\"}", provider.generate("Summarize the chapter", OPTIONS));
+        assertEquals("{\"shortSummary\":\"ok\"}", provider.generate("Summarize the chapter", OPTIONS));
+        verify(delegate, times(2)).generate("Summarize the chapter", OPTIONS);
+    }
+}
@@ -0,0 +1,52 @@
+package com.classicchatreader.service.llm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmResponseCacheTest {
+
+    private static final LlmOptions OPTIONS = LlmOptions.withTemperature(0.3);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void key_changesWithModelAndOptions() {
+        String key = LlmResponseCache.key("xai", "grok", "prompt", OPTIONS);
+
+        assertEquals(key, LlmResponseCache.key("xai", "grok", "prompt", LlmOptions.withTemperature(0.3)));
+        assertNotEquals(key, LlmResponseCache.key("xai", "grok-mini", "prompt", OPTIONS));
+        assertNotEquals(key, LlmResponseCache.key("xai", "grok", "prompt", LlmOptions.withTemperature(0.7)));
+    }
+
+    @Test
+    void put_survivesRestartAndEvictsLeastRecentlyUsedBeyondBudget() {
+        LlmResponseCache cache = new LlmResponseCache(directory, 20);
+        String first = LlmResponseCache.key("xai", "grok", "first", OPTIONS);
+        String second = LlmResponseCache.key("xai", "grok", "second", OPTIONS);
+        String third = LlmResponseCache.key("xai", "grok", "third", OPTIONS);
+        cache.put(first, "0123456789");
+        cache.put(second, "0123456789");
+        assertEquals(Optional.of("0123456789"), cache.get(first, 5));
+
+        cache.put(third, "0123456789");
+
+        LlmResponseCache reopened = new LlmResponseCache(directory, 20);
+        assertEquals(Optional.of("0123456789"), reopened.get(first, 5));
+        assertEquals(Optional.of("0123456789"), reopened.get(third, 5));
+        assertTrue(reopened.get(second, 5).isEmpty());
+        Map<String, Object> snapshot = cache.snapshot();
+        assertEquals(1L, snapshot.get("evictions"));
+        assertEquals(20L, snapshot.get("bytes"));
+        assertEquals(1L, snapshot.get("hits"));
+        assertEquals(3L, snapshot.get("estimatedTokensSaved"));
+    }
+}
@@ -0,0 +1,174 @@
+package com.classicchatreader.service.llm;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoutingLlmProviderTest {
+
+    private static final LlmOptions OPTIONS = LlmOptions.withTemperature(0.3);
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void generate_failsOverOnThrottlingAndOpensCircuitAfterRepeatedFailures() {
+        LlmProvider xai = provider("xai");
+        LlmProvider ollama = provider("ollama");
+        when(xai.generate(anyString(), any())).thenThrow(new LlmProviderException("xAI API error: 429", 429, null));
+        when(ollama.generate(anyString(), any())).thenReturn("answer");
+        RoutingLlmProvider router = router(Duration.ZERO, xai, ollama);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("answer", router.generate("prompt", OPTIONS));
+        }
+        Map<?, ?> xaiState = (Map<?, ?>) router.snapshot().get("xai:xai-model");
+        assertEquals("open", xaiState.get("state"));
+
+        now.addAndGet(Duration.ofSeconds(31).toMillis());
+        assertEquals("half-open", ((Map<?, ?>) router.snapshot().get("xai:xai-model")).get("state"));
+    }
+
+    @Test
+    void generate_doesNotFailOverRejectedRequests() {
+        LlmProvider xai = provider("xai");
+        LlmProvider ollama = provider("ollama");
+        when(xai.generate(anyString(), any())).thenThrow(new LlmProviderException("xAI API error: 400", 400, null));
+        RoutingLlmProvider router = router(Duration.ZERO, xai, ollama);
+
+        assertThrows(LlmProviderException.class, () -> router.generate("prompt", OPTIONS));
+        verify(ollama, never()).generate(anyString(), any());
+    }
+
+    @Test
+    void generateAsync_hedgesSlowBackendAndTakesFirstAnswer() {
+        LlmProvider xai = provider("xai");
+        LlmProvider ollama = provider("ollama");
+        when(xai.generateAsync(anyString(), any())).thenReturn(Mono.never());
+        when(ollama.generateAsync(anyString(), any())).thenReturn(Mono.just("fast answer"));
+        RoutingLlmProvider router = router(Duration.ofMillis(20), xai, ollama);
+
+        assertEquals("fast answer", router.generateAsync("prompt", OPTIONS).block(Duration.ofSeconds(5)));
+        Map<?, ?> ollamaState = (Map<?, ?>) router.snapshot().get("ollama:ollama-model");
+        assertEquals(1L, ollamaState.get("hedges"));
+        assertEquals(1L, ollamaState.get("successes"));
+    }
+
+    @Test
+    void generateAsync_rejectedRequestFailsAtOnceWithoutHedging() {
+        LlmProvider xai = provider("xai");
+        LlmProvider ollama = provider("ollama");
+        when(xai.generateAsync(anyString(), any()))
+                .thenReturn(Mono.error(new LlmProviderException("xAI API error: 400", 400, null)));
+        RoutingLlmProvider router = router(Duration.ofMillis(200), xai, ollama);
+
+        long startedAt = System.nanoTime();
+        LlmProviderException error = assertThrows(LlmProviderException.class,
+                () -> router.generateAsync("prompt", OPTIONS).block(Duration.ofSeconds(5)));
+
+        assertEquals(400, error.getStatusCode());
+        assertTrue(Duration.ofNanos(System.nanoTime() - startedAt).compareTo(Duration.ofMillis(200)) < 0);
+        verify(ollama, never()).generateAsync(anyString(), any());
+    }
+
+    @Test
+    void generate_reportsTheBackendThatAnswered() {
+        LlmProvider xai = provider("xai");
+        LlmProvider ollama = provider("ollama");
+        when(xai.generate(anyString(), any())).thenThrow(new LlmProviderException("xAI API error: 503", 503, null));
+        when(ollama.generate(anyString(), any())).thenReturn("answer");
+        RoutingLlmProvider router = router(Duration.ZERO, xai, ollama);
+
+        assertEquals("answer", router.generate("prompt", OPTIONS));
+
+        assertEquals("xai", router.getProviderName());
+        assertEquals("ollama", router.getRespondingProviderName());
+    }
+
+    @Test
+    void generateAsync_allBackendsOpen_failsAsThrottled() {
+        LlmProvider xai = provider("xai");
+        LlmProvider ollama = provider("ollama");
+        when(xai.generateAsync(anyString(), any()))
+                .thenReturn(Mono.error(new LlmProviderException("Connection refused", null)));
+        when(ollama.generateAsync(anyString(), any()))
+                .thenReturn(Mono.error(new LlmProviderException("Connection refused", null)));
+        RoutingLlmProvider router = new RoutingLlmProvider("reasoning",
+                List.of(new RoutingLlmProvider.WeightedProvider(xai, 1),
+                        new RoutingLlmProvider.WeightedProvider(ollama, 1)),
+                1, Duration.ofSeconds(30), Duration.ZERO, now::get);
+
+        assertThrows(LlmProviderException.class, () -> router.generateAsync("prompt", OPTIONS).block());
+        LlmProviderException error = assertThrows(LlmProviderException.class,
+                () -> router.generateAsync("prompt", OPTIONS).block());
+        assertEquals(503, error.getStatusCode());
+    }
+
+    @Test
+    void generate_unmeasuredBackendsGoHeaviestFirst() {
+        LlmProvider ollama = provider("ollama");
+        LlmProvider xai = provider("xai");
+        when(xai.generate(anyString(), any())).thenReturn("answer");
+        RoutingLlmProvider router = new RoutingLlmProvider("chat",
+                List.of(new RoutingLlmProvider.WeightedProvider(ollama, 1),
+                        new RoutingLlmProvider.WeightedProvider(xai, 3)),
+                3, Duration.ofSeconds(30), Duration.ZERO, now::get);
+
+        assertEquals("answer", router.generate("prompt", OPTIONS));
+        verify(ollama, never()).generate(anyString(), any());
+    }
+
+    @Test
+    void generate_retriesSlowBackendOnceItsLatencyHasAged() {
+        LlmProvider xai = provider("xai");
+        LlmProvider ollama = provider("ollama");
+        when(xai.generate(anyString(), any())).thenAnswer(invocation -> {
+            now.addAndGet(400);
+            return "slow";
+        });
+        when(ollama.generate(anyString(), any())).thenAnswer(invocation -> {
+            now.addAndGet(100);
+            return "fast";
+        });
+        RoutingLlmProvider router = router(Duration.ZERO, xai, ollama);
+
+        assertEquals("slow", router.generate("prompt", OPTIONS));
+        assertEquals("fast", router.generate("prompt", OPTIONS));
+        assertEquals("fast", router.generate("prompt", OPTIONS));
+
+        int calls = 0;
+        do {
+            now.addAndGet(Duration.ofSeconds(30).toMillis());
+            assertTrue(++calls < 20, "slow backend was never retried");
+        } while (!"slow".equals(router.generate("prompt", OPTIONS)));
+        verify(xai, times(2)).generate(anyString(), any());
+    }
+
+    private RoutingLlmProvider router(Duration hedgeAfter, LlmProvider... providers) {
+        return new RoutingLlmProvider("chat",
+                Arrays.stream(providers).map(p -> new RoutingLlmProvider.WeightedProvider(p, 1)).toList(),
+                3, Duration.ofSeconds(30), hedgeAfter, now::get);
+    }
+
+    private static LlmProvider provider(String name) {
+        LlmProvider provider = mock(LlmProvider.class);
+        when(provider.getProviderName()).thenReturn(name);
+        when(provider.getModelName()).thenReturn(name + "-model");
+        return provider;
+    }
+}